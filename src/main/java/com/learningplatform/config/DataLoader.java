@@ -1,11 +1,13 @@
 package com.learningplatform.config;
 
 import com.learningplatform.entity.*;
+import com.learningplatform.entity.Module;
 import com.learningplatform.repository.*;
+import com.learningplatform.storage.BlobInfo;
+import com.learningplatform.storage.BlobStore;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.boot.CommandLineRunner;
-import org.springframework.context.annotation.Profile;
 import org.springframework.stereotype.Component;
 import org.springframework.transaction.annotation.Transactional;
 
@@ -18,7 +20,7 @@ import java.util.List;
 @Component
 @RequiredArgsConstructor
 @Slf4j
-@Profile("!test")
+@org.springframework.context.annotation.Profile("!test")
 public class DataLoader implements CommandLineRunner {
 
     private final UserRepository userRepository;
@@ -33,6 +35,7 @@ public class DataLoader implements CommandLineRunner {
     private final QuestionRepository questionRepository;
     private final AnswerOptionRepository answerOptionRepository;
     private final EnrollmentRepository enrollmentRepository;
+    private final BlobStore blobStore;
 
     @Override
     @Transactional
@@ -228,10 +231,12 @@ public class DataLoader implements CommandLineRunner {
     }
 
     private Lesson createLesson(Module module, String title, String content, String videoUrl, int orderIndex, int duration) {
+        BlobInfo contentBlob = blobStore.putText(content);
         Lesson lesson = Lesson.builder()
                 .module(module)
                 .title(title)
-                .content(content)
+                .contentHash(contentBlob != null ? contentBlob.getHash() : null)
+                .contentSize(contentBlob != null ? contentBlob.getSize() : null)
                 .videoUrl(videoUrl)
                 .orderIndex(orderIndex)
                 .duration(duration)
@@ -0,0 +1,33 @@
+package com.learningplatform.controller;
+
+import com.learningplatform.dto.ArchivedRowsDTO;
+import com.learningplatform.service.ArchiveService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import lombok.RequiredArgsConstructor;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.time.LocalDateTime;
+
+@RestController
+@RequestMapping("/api/archive")
+@RequiredArgsConstructor
+@Tag(name = "Archive", description = "Read access to archived notifications and quiz submissions")
+public class ArchiveController {
+
+    private final ArchiveService archiveService;
+
+    @GetMapping("/{table}")
+    @Operation(summary = "Read archived rows of 'notifications' or 'quiz-submissions' in a time range, optionally of one user")
+    public ResponseEntity<ArchivedRowsDTO> read(
+            @PathVariable String table,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime from,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime to,
+            @RequestParam(required = false) Long userId,
+            @RequestParam(defaultValue = "100") int limit) {
+        ArchivedRowsDTO rows = archiveService.read(table, from, to, userId, limit);
+        return ResponseEntity.ok(rows);
+    }
+}
@@ -1,8 +1,10 @@
 package com.learningplatform.controller;
 
 import com.learningplatform.dto.AssignmentDTO;
+import com.learningplatform.dto.SimilarityReportDTO;
 import com.learningplatform.dto.SubmissionDTO;
 import com.learningplatform.service.AssignmentService;
+import com.learningplatform.service.SimilarityService;
 import com.learningplatform.service.SubmissionService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.tags.Tag;
@@ -22,6 +24,7 @@ public class AssignmentController {
 
     private final AssignmentService assignmentService;
     private final SubmissionService submissionService;
+    private final SimilarityService similarityService;
 
     @PostMapping
     @Operation(summary = "Create a new assignment")
@@ -86,9 +89,18 @@ public class AssignmentController {
     }
 
     @GetMapping("/{id}/submissions")
-    @Operation(summary = "Get all submissions for an assignment")
+    @Operation(summary = "Get all submissions for an assignment; content and feedback are null, fetch them by ID or from /api/blobs/{hash}")
     public ResponseEntity<List<SubmissionDTO>> getSubmissionsByAssignment(@PathVariable Long id) {
         List<SubmissionDTO> submissions = submissionService.getSubmissionsByAssignment(id);
         return ResponseEntity.ok(submissions);
     }
+
+    @GetMapping("/{id}/similarity")
+    @Operation(summary = "Get near-duplicate submission pairs of an assignment, most similar first")
+    public ResponseEntity<SimilarityReportDTO> getSimilarityReport(
+            @PathVariable Long id,
+            @RequestParam(required = false) Double minSimilarity,
+            @RequestParam(defaultValue = "50") int limit) {
+        return ResponseEntity.ok(similarityService.getReport(id, minSimilarity, limit));
+    }
 }
@@ -0,0 +1,30 @@
+package com.learningplatform.controller;
+
+import com.learningplatform.storage.BlobDownloadHandler;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.RequiredArgsConstructor;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.io.IOException;
+
+@RestController
+@RequestMapping("/api/blobs")
+@RequiredArgsConstructor
+@Tag(name = "Blobs", description = "Content-addressed storage of submission files and large text")
+public class BlobController {
+
+    private final BlobDownloadHandler blobDownloadHandler;
+
+    @GetMapping("/{hash}")
+    @Operation(summary = "Download stored content by its SHA-256; supports Range requests")
+    public void getBlob(@PathVariable String hash, HttpServletRequest request, HttpServletResponse response)
+            throws IOException {
+        blobDownloadHandler.write(hash, null, null, request, response);
+    }
+}
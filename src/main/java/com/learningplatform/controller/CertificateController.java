@@ -0,0 +1,37 @@
+package com.learningplatform.controller;
+
+import com.learningplatform.dto.CertificateDTO;
+import com.learningplatform.dto.CertificateVerificationDTO;
+import com.learningplatform.service.CertificateService;
+import com.learningplatform.service.CertificateVerificationService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.List;
+
+@RestController
+@RequestMapping("/api/certificates")
+@RequiredArgsConstructor
+@Tag(name = "Certificates", description = "Course completion certificates")
+public class CertificateController {
+
+    private final CertificateService certificateService;
+    private final CertificateVerificationService verificationService;
+
+    @GetMapping("/student/{studentId}")
+    @Operation(summary = "Get the certificates issued to a student")
+    public ResponseEntity<List<CertificateDTO>> getCertificatesByStudent(@PathVariable Long studentId) {
+        List<CertificateDTO> certificates = certificateService.getCertificatesByStudent(studentId);
+        return ResponseEntity.ok(certificates);
+    }
+
+    @GetMapping("/verify/{certificateNumber}")
+    @Operation(summary = "Verify a certificate number and show whom and which course it was issued for")
+    public ResponseEntity<CertificateVerificationDTO> verifyCertificate(@PathVariable String certificateNumber) {
+        CertificateVerificationDTO verification = verificationService.verify(certificateNumber);
+        return ResponseEntity.ok(verification);
+    }
+}
@@ -0,0 +1,35 @@
+package com.learningplatform.controller;
+
+import com.learningplatform.dto.StudentDashboardDTO;
+import com.learningplatform.dto.TeacherDashboardDTO;
+import com.learningplatform.service.StudentDashboardService;
+import com.learningplatform.service.TeacherDashboardService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+@RestController
+@RequestMapping("/api")
+@RequiredArgsConstructor
+@Tag(name = "Dashboards", description = "Aggregated home screens")
+public class DashboardController {
+
+    private final StudentDashboardService studentDashboardService;
+    private final TeacherDashboardService teacherDashboardService;
+
+    @GetMapping("/students/{id}/dashboard")
+    @Operation(summary = "Get a student's enrollments, assignments, quiz results, notifications and profile at once")
+    public ResponseEntity<StudentDashboardDTO> getStudentDashboard(@PathVariable Long id) {
+        StudentDashboardDTO dashboard = studentDashboardService.getDashboard(id);
+        return ResponseEntity.ok(dashboard);
+    }
+
+    @GetMapping("/teachers/{id}/dashboard")
+    @Operation(summary = "Get enrollment, completion, rating, grading and quiz figures of all of a teacher's courses")
+    public ResponseEntity<TeacherDashboardDTO> getTeacherDashboard(@PathVariable Long id) {
+        TeacherDashboardDTO dashboard = teacherDashboardService.getDashboard(id);
+        return ResponseEntity.ok(dashboard);
+    }
+}
@@ -42,14 +42,14 @@ public class LessonController {
     }
 
     @GetMapping("/module/{moduleId}")
-    @Operation(summary = "Get all lessons for a module")
+    @Operation(summary = "Get all lessons for a module; content is null, fetch it by ID or from /api/blobs/{contentHash}")
     public ResponseEntity<List<LessonDTO>> getLessonsByModule(@PathVariable Long moduleId) {
         List<LessonDTO> lessons = lessonService.getLessonsByModule(moduleId);
         return ResponseEntity.ok(lessons);
     }
 
     @GetMapping("/course/{courseId}")
-    @Operation(summary = "Get all lessons for a course")
+    @Operation(summary = "Get all lessons for a course; content is null, fetch it by ID or from /api/blobs/{contentHash}")
     public ResponseEntity<List<LessonDTO>> getLessonsByCourse(@PathVariable Long courseId) {
         List<LessonDTO> lessons = lessonService.getLessonsByCourse(courseId);
         return ResponseEntity.ok(lessons);
@@ -35,7 +35,7 @@ public class ModuleController {
     }
 
     @GetMapping("/{id}/lessons")
-    @Operation(summary = "Get module with lessons")
+    @Operation(summary = "Get module with lessons; lesson content is null, fetch it by lesson ID or from /api/blobs/{contentHash}")
     public ResponseEntity<ModuleDTO> getModuleWithLessons(@PathVariable Long id) {
         ModuleDTO module = moduleService.getModuleWithLessons(id);
         return ResponseEntity.ok(module);
@@ -0,0 +1,77 @@
+package com.learningplatform.controller;
+
+import com.learningplatform.dto.NotificationBroadcastDTO;
+import com.learningplatform.dto.NotificationPageDTO;
+import com.learningplatform.service.NotificationPushService;
+import com.learningplatform.service.NotificationService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.validation.Valid;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.util.UUID;
+
+@RestController
+@RequestMapping("/api/notifications")
+@RequiredArgsConstructor
+@Tag(name = "Notifications", description = "User notification API")
+public class NotificationController {
+
+    private final NotificationService notificationService;
+    private final NotificationPushService notificationPushService;
+
+    @PostMapping("/broadcasts")
+    @Operation(summary = "Send a notification to a course's active students or to every user with a role")
+    public ResponseEntity<NotificationBroadcastDTO> broadcast(@Valid @RequestBody NotificationBroadcastDTO request) {
+        NotificationBroadcastDTO broadcast = notificationService.broadcast(request);
+        return new ResponseEntity<>(broadcast, HttpStatus.ACCEPTED);
+    }
+
+    @GetMapping("/broadcasts/{id}")
+    @Operation(summary = "Get the progress of a broadcast")
+    public ResponseEntity<NotificationBroadcastDTO> getBroadcast(@PathVariable UUID id) {
+        NotificationBroadcastDTO broadcast = notificationService.getBroadcast(id);
+        return ResponseEntity.ok(broadcast);
+    }
+
+    @GetMapping("/user/{userId}")
+    @Operation(summary = "Get a page of a user's notifications, newest first")
+    public ResponseEntity<NotificationPageDTO> getNotifications(
+            @PathVariable Long userId,
+            @RequestParam(required = false) Long beforeId,
+            @RequestParam(defaultValue = "20") int size) {
+        NotificationPageDTO page = notificationService.getNotifications(userId, beforeId, size);
+        return ResponseEntity.ok(page);
+    }
+
+    @GetMapping("/user/{userId}/unread-count")
+    @Operation(summary = "Get the number of unread notifications of a user")
+    public ResponseEntity<Long> getUnreadCount(@PathVariable Long userId) {
+        return ResponseEntity.ok(notificationService.getUnreadCount(userId));
+    }
+
+    @GetMapping(value = "/user/{userId}/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    @Operation(summary = "Stream unread count changes and new notification summaries (Server-Sent Events)")
+    public SseEmitter streamUnread(@PathVariable Long userId) {
+        return notificationPushService.subscribe(userId);
+    }
+
+    @PatchMapping("/{id}/read")
+    @Operation(summary = "Mark a notification as read")
+    public ResponseEntity<Void> markAsRead(@PathVariable Long id) {
+        notificationService.markAsRead(id);
+        return ResponseEntity.noContent().build();
+    }
+
+    @PatchMapping("/user/{userId}/read-all")
+    @Operation(summary = "Mark all notifications of a user as read")
+    public ResponseEntity<Void> markAllAsRead(@PathVariable Long userId) {
+        notificationService.markAllAsRead(userId);
+        return ResponseEntity.noContent().build();
+    }
+}
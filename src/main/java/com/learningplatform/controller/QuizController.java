@@ -1,20 +1,34 @@
 package com.learningplatform.controller;
 
 import com.learningplatform.dto.AnswerOptionDTO;
+import com.learningplatform.dto.ItemAnalysisDTO;
+import com.learningplatform.dto.LeaderboardDTO;
 import com.learningplatform.dto.QuestionDTO;
+import com.learningplatform.dto.QuizAttemptDTO;
 import com.learningplatform.dto.QuizDTO;
+import com.learningplatform.dto.QuizImportResultDTO;
 import com.learningplatform.dto.QuizSubmissionDTO;
+import com.learningplatform.service.ItemAnalysisService;
+import com.learningplatform.service.LeaderboardService;
+import com.learningplatform.service.QuizAttemptService;
+import com.learningplatform.service.QuizImportService;
+import com.learningplatform.service.QuizLiveService;
 import com.learningplatform.service.QuizService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.servlet.http.HttpServletRequest;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
+import java.io.IOException;
 import java.util.List;
 import java.util.Map;
+import java.util.UUID;
 
 @RestController
 @RequestMapping("/api/quizzes")
@@ -23,6 +37,11 @@ import java.util.Map;
 public class QuizController {
 
     private final QuizService quizService;
+    private final ItemAnalysisService itemAnalysisService;
+    private final QuizAttemptService quizAttemptService;
+    private final QuizImportService quizImportService;
+    private final LeaderboardService leaderboardService;
+    private final QuizLiveService quizLiveService;
 
     @PostMapping
     @Operation(summary = "Create a new quiz")
@@ -59,6 +78,24 @@ public class QuizController {
         return ResponseEntity.ok(quizzes);
     }
 
+    @GetMapping("/course/{courseId}/leaderboard")
+    @Operation(summary = "Get the top students of a course by best quiz scores")
+    public ResponseEntity<LeaderboardDTO> getCourseLeaderboard(
+            @PathVariable Long courseId,
+            @RequestParam(defaultValue = "10") int limit) {
+        LeaderboardDTO leaderboard = leaderboardService.getTopStudents(courseId, limit);
+        return ResponseEntity.ok(leaderboard);
+    }
+
+    @GetMapping("/course/{courseId}/leaderboard/{studentId}")
+    @Operation(summary = "Get a student's rank on a course leaderboard")
+    public ResponseEntity<LeaderboardDTO.Entry> getStudentRank(
+            @PathVariable Long courseId,
+            @PathVariable Long studentId) {
+        LeaderboardDTO.Entry entry = leaderboardService.getStudentRank(courseId, studentId);
+        return ResponseEntity.ok(entry);
+    }
+
     @PutMapping("/{id}")
     @Operation(summary = "Update quiz")
     public ResponseEntity<QuizDTO> updateQuiz(
@@ -86,6 +123,18 @@ public class QuizController {
         return new ResponseEntity<>(createdQuestion, HttpStatus.CREATED);
     }
 
+    @PostMapping(value = "/{id}/import",
+            consumes = {MediaType.APPLICATION_JSON_VALUE, MediaType.APPLICATION_NDJSON_VALUE})
+    @Operation(summary = "Bulk import questions and options (JSON quiz or question array, or NDJSON)")
+    public ResponseEntity<QuizImportResultDTO> importQuestions(
+            @PathVariable Long id,
+            @RequestParam(defaultValue = "MERGE") QuizImportService.Mode mode,
+            HttpServletRequest request) throws IOException {
+        boolean ndjson = MediaType.APPLICATION_NDJSON.isCompatibleWith(MediaType.parseMediaType(request.getContentType()));
+        QuizImportResultDTO result = quizImportService.importQuiz(id, mode, request.getInputStream(), ndjson);
+        return new ResponseEntity<>(result, result.isImported() ? HttpStatus.CREATED : HttpStatus.BAD_REQUEST);
+    }
+
     @PostMapping("/questions/{questionId}/options")
     @Operation(summary = "Add an answer option to a question")
     public ResponseEntity<AnswerOptionDTO> addAnswerOption(
@@ -98,7 +147,7 @@ public class QuizController {
 
     // Quiz submission endpoints
     @PostMapping("/{id}/take")
-    @Operation(summary = "Take a quiz")
+    @Operation(summary = "Take a quiz without a time limit; timed quizzes are taken through attempts")
     public ResponseEntity<QuizSubmissionDTO> takeQuiz(
             @PathVariable Long id,
             @RequestParam Long studentId,
@@ -107,6 +156,41 @@ public class QuizController {
         return new ResponseEntity<>(submission, HttpStatus.CREATED);
     }
 
+    // Timed attempt endpoints
+    @PostMapping("/{id}/attempts")
+    @Operation(summary = "Start (or resume) a timed quiz attempt")
+    public ResponseEntity<QuizAttemptDTO> startAttempt(
+            @PathVariable Long id,
+            @RequestParam Long studentId) {
+        QuizAttemptDTO attempt = quizAttemptService.startAttempt(id, studentId);
+        return new ResponseEntity<>(attempt, HttpStatus.CREATED);
+    }
+
+    @GetMapping("/attempts/{attemptId}")
+    @Operation(summary = "Get an open quiz attempt")
+    public ResponseEntity<QuizAttemptDTO> getAttempt(@PathVariable UUID attemptId) {
+        QuizAttemptDTO attempt = quizAttemptService.getAttempt(attemptId);
+        return ResponseEntity.ok(attempt);
+    }
+
+    @PutMapping("/attempts/{attemptId}/answers")
+    @Operation(summary = "Save draft answers of an open attempt")
+    public ResponseEntity<QuizAttemptDTO> saveAttemptAnswers(
+            @PathVariable UUID attemptId,
+            @RequestBody Map<Long, Long> answers) {
+        QuizAttemptDTO attempt = quizAttemptService.saveAnswers(attemptId, answers);
+        return ResponseEntity.ok(attempt);
+    }
+
+    @PostMapping("/attempts/{attemptId}/submit")
+    @Operation(summary = "Submit an open quiz attempt")
+    public ResponseEntity<QuizSubmissionDTO> submitAttempt(
+            @PathVariable UUID attemptId,
+            @RequestBody(required = false) Map<Long, Long> answers) {
+        QuizSubmissionDTO submission = quizAttemptService.submitAttempt(attemptId, answers);
+        return new ResponseEntity<>(submission, HttpStatus.CREATED);
+    }
+
     @GetMapping("/{id}/submissions")
     @Operation(summary = "Get all submissions for a quiz")
     public ResponseEntity<List<QuizSubmissionDTO>> getQuizSubmissions(@PathVariable Long id) {
@@ -114,6 +198,19 @@ public class QuizController {
         return ResponseEntity.ok(submissions);
     }
 
+    @GetMapping("/{id}/item-analysis")
+    @Operation(summary = "Get difficulty, discrimination and distractor statistics for a quiz")
+    public ResponseEntity<ItemAnalysisDTO> getItemAnalysis(@PathVariable Long id) {
+        ItemAnalysisDTO analysis = itemAnalysisService.analyzeQuiz(id);
+        return ResponseEntity.ok(analysis);
+    }
+
+    @GetMapping(value = "/{id}/live", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    @Operation(summary = "Stream live aggregate results of a quiz (Server-Sent Events)")
+    public SseEmitter streamLiveResults(@PathVariable Long id) {
+        return quizLiveService.subscribe(id);
+    }
+
     @GetMapping("/submissions/student/{studentId}")
     @Operation(summary = "Get all quiz submissions by a student")
     public ResponseEntity<List<QuizSubmissionDTO>> getStudentQuizSubmissions(@PathVariable Long studentId) {
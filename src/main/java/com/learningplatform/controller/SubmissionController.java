@@ -1,13 +1,28 @@
 package com.learningplatform.controller;
 
+import com.learningplatform.dto.BulkGradeItemDTO;
+import com.learningplatform.dto.BulkGradeResultDTO;
+import com.learningplatform.dto.GradingQueueCountsDTO;
+import com.learningplatform.dto.GradingQueuePageDTO;
 import com.learningplatform.dto.SubmissionDTO;
+import com.learningplatform.dto.SubmissionVersionDTO;
+import com.learningplatform.service.GradingQueueService;
 import com.learningplatform.service.SubmissionService;
+import com.learningplatform.service.SubmissionVersionService;
+import com.learningplatform.storage.BlobDownloadHandler;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
 import lombok.RequiredArgsConstructor;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.multipart.MultipartFile;
 
+import java.io.IOException;
+import java.time.LocalDateTime;
 import java.util.List;
 
 @RestController
@@ -17,6 +32,9 @@ import java.util.List;
 public class SubmissionController {
 
     private final SubmissionService submissionService;
+    private final SubmissionVersionService submissionVersionService;
+    private final GradingQueueService gradingQueueService;
+    private final BlobDownloadHandler blobDownloadHandler;
 
     @GetMapping("/{id}")
     @Operation(summary = "Get submission by ID")
@@ -25,20 +43,52 @@ public class SubmissionController {
         return ResponseEntity.ok(submission);
     }
 
+    @GetMapping("/{id}/versions")
+    @Operation(summary = "Get all versions of a submission, latest first, without their texts")
+    public ResponseEntity<List<SubmissionVersionDTO>> getVersions(@PathVariable Long id) {
+        List<SubmissionVersionDTO> versions = submissionVersionService.getVersions(id);
+        return ResponseEntity.ok(versions);
+    }
+
+    @GetMapping("/{id}/versions/{versionNumber}")
+    @Operation(summary = "Get one version of a submission with its text")
+    public ResponseEntity<SubmissionVersionDTO> getVersion(@PathVariable Long id, @PathVariable Integer versionNumber) {
+        SubmissionVersionDTO version = submissionVersionService.getVersion(id, versionNumber);
+        return ResponseEntity.ok(version);
+    }
+
     @GetMapping("/student/{studentId}")
-    @Operation(summary = "Get all submissions by a student")
+    @Operation(summary = "Get all submissions by a student; content and feedback are null, fetch them by ID or from /api/blobs/{hash}")
     public ResponseEntity<List<SubmissionDTO>> getSubmissionsByStudent(@PathVariable Long studentId) {
         List<SubmissionDTO> submissions = submissionService.getSubmissionsByStudent(studentId);
         return ResponseEntity.ok(submissions);
     }
 
     @GetMapping("/pending")
-    @Operation(summary = "Get all pending submissions")
+    @Operation(summary = "Get all pending submissions; content and feedback are null, fetch them by ID or from /api/blobs/{hash}")
     public ResponseEntity<List<SubmissionDTO>> getPendingSubmissions() {
         List<SubmissionDTO> submissions = submissionService.getPendingSubmissions();
         return ResponseEntity.ok(submissions);
     }
 
+    @GetMapping("/queue/teacher/{teacherId}")
+    @Operation(summary = "Get a page of a teacher's grading queue, oldest submission first; content and feedback are null")
+    public ResponseEntity<GradingQueuePageDTO> getGradingQueue(
+            @PathVariable Long teacherId,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime afterSubmittedAt,
+            @RequestParam(required = false) Long afterId,
+            @RequestParam(defaultValue = "20") int size) {
+        GradingQueuePageDTO page = gradingQueueService.getQueue(teacherId, afterSubmittedAt, afterId, size);
+        return ResponseEntity.ok(page);
+    }
+
+    @GetMapping("/queue/teacher/{teacherId}/counts")
+    @Operation(summary = "Get pending submission counts per course and assignment of a teacher")
+    public ResponseEntity<GradingQueueCountsDTO> getGradingQueueCounts(@PathVariable Long teacherId) {
+        GradingQueueCountsDTO counts = gradingQueueService.getCounts(teacherId);
+        return ResponseEntity.ok(counts);
+    }
+
     @PatchMapping("/{id}/grade")
     @Operation(summary = "Grade a submission")
     public ResponseEntity<SubmissionDTO> gradeSubmission(
@@ -49,6 +99,13 @@ public class SubmissionController {
         return ResponseEntity.ok(gradedSubmission);
     }
 
+    @PatchMapping("/grade")
+    @Operation(summary = "Grade many submissions at once; invalid items are reported and skipped")
+    public ResponseEntity<BulkGradeResultDTO> gradeSubmissions(@RequestBody List<BulkGradeItemDTO> items) {
+        BulkGradeResultDTO result = submissionService.gradeSubmissions(items);
+        return ResponseEntity.ok(result);
+    }
+
     @PatchMapping("/{id}/accept")
     @Operation(summary = "Accept a submission")
     public ResponseEntity<SubmissionDTO> acceptSubmission(@PathVariable Long id) {
@@ -65,6 +122,22 @@ public class SubmissionController {
         return ResponseEntity.ok(rejectedSubmission);
     }
 
+    @PostMapping(value = "/{id}/file", consumes = MediaType.MULTIPART_FORM_DATA_VALUE)
+    @Operation(summary = "Upload the file of a submission")
+    public ResponseEntity<SubmissionDTO> uploadFile(@PathVariable Long id, @RequestParam("file") MultipartFile file) {
+        SubmissionDTO submission = submissionService.attachFile(id, file);
+        return ResponseEntity.ok(submission);
+    }
+
+    @GetMapping("/{id}/file")
+    @Operation(summary = "Download the file of a submission; supports Range requests")
+    public void downloadFile(@PathVariable Long id, HttpServletRequest request, HttpServletResponse response)
+            throws IOException {
+        SubmissionDTO submission = submissionService.getSubmissionFile(id);
+        blobDownloadHandler.write(submission.getFileHash(), submission.getFileName(),
+                submission.getFileContentType(), request, response);
+    }
+
     @DeleteMapping("/{id}")
     @Operation(summary = "Delete submission")
     public ResponseEntity<Void> deleteSubmission(@PathVariable Long id) {
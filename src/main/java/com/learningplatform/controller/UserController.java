@@ -1,17 +1,31 @@
 package com.learningplatform.controller;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.learningplatform.dto.EmailAvailabilityDTO;
 import com.learningplatform.dto.ProfileDTO;
 import com.learningplatform.dto.UserDTO;
+import com.learningplatform.dto.UserIdentityDTO;
+import com.learningplatform.dto.UserImportResultDTO;
+import com.learningplatform.dto.UserPageDTO;
+import com.learningplatform.dto.UserSummaryDTO;
 import com.learningplatform.entity.Role;
+import com.learningplatform.service.UserImportService;
 import com.learningplatform.service.UserService;
+import com.learningplatform.storage.BlobDownloadHandler;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
 import java.util.List;
 
 @RestController
@@ -21,6 +35,9 @@ import java.util.List;
 public class UserController {
 
     private final UserService userService;
+    private final UserImportService userImportService;
+    private final BlobDownloadHandler blobDownloadHandler;
+    private final ObjectMapper objectMapper;
 
     @PostMapping
     @Operation(summary = "Create a new user")
@@ -29,6 +46,22 @@ public class UserController {
         return new ResponseEntity<>(createdUser, HttpStatus.CREATED);
     }
 
+    @PostMapping(value = "/import", consumes = {"text/csv", MediaType.APPLICATION_NDJSON_VALUE})
+    @Operation(summary = "Bulk import users and profiles from CSV with a header row, or NDJSON")
+    public ResponseEntity<UserImportResultDTO> importUsers(HttpServletRequest request) throws IOException {
+        boolean ndjson = MediaType.APPLICATION_NDJSON.isCompatibleWith(MediaType.parseMediaType(request.getContentType()));
+        UserImportResultDTO result = userImportService.importUsers(request.getInputStream(),
+                ndjson ? UserImportService.Format.NDJSON : UserImportService.Format.CSV);
+        return new ResponseEntity<>(result, result.getUsersImported() > 0 ? HttpStatus.CREATED : HttpStatus.BAD_REQUEST);
+    }
+
+    @GetMapping("/import/reports/{hash}")
+    @Operation(summary = "Download the CSV report of rows rejected by a user import")
+    public void downloadImportReport(@PathVariable String hash, HttpServletRequest request, HttpServletResponse response)
+            throws IOException {
+        blobDownloadHandler.write(hash, "user-import-errors.csv", "text/csv", request, response);
+    }
+
     @GetMapping("/{id}")
     @Operation(summary = "Get user by ID")
     public ResponseEntity<UserDTO> getUserById(@PathVariable Long id) {
@@ -43,6 +76,20 @@ public class UserController {
         return ResponseEntity.ok(user);
     }
 
+    @GetMapping("/email/{email}/identity")
+    @Operation(summary = "Resolve an email to the user's id and role")
+    public ResponseEntity<UserIdentityDTO> resolveUserByEmail(@PathVariable String email) {
+        UserIdentityDTO identity = userService.resolveUserByEmail(email);
+        return ResponseEntity.ok(identity);
+    }
+
+    @GetMapping("/email-availability")
+    @Operation(summary = "Check whether an email is still free to register")
+    public ResponseEntity<EmailAvailabilityDTO> checkEmailAvailability(@RequestParam String email) {
+        EmailAvailabilityDTO availability = userService.checkEmailAvailability(email);
+        return ResponseEntity.ok(availability);
+    }
+
     @GetMapping
     @Operation(summary = "Get all users")
     public ResponseEntity<List<UserDTO>> getAllUsers() {
@@ -50,6 +97,39 @@ public class UserController {
         return ResponseEntity.ok(users);
     }
 
+    @GetMapping("/page")
+    @Operation(summary = "Get a page of users by id, optionally of one role")
+    public ResponseEntity<UserPageDTO> getUserPage(
+            @RequestParam(required = false) Role role,
+            @RequestParam(required = false) Long afterId,
+            @RequestParam(defaultValue = "100") int size) {
+        UserPageDTO page = userService.getUserPage(role, afterId, size);
+        return ResponseEntity.ok(page);
+    }
+
+    @GetMapping(value = "/export", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    @Operation(summary = "Stream all users, optionally of one role, as newline-delimited JSON")
+    public void exportUsers(@RequestParam(required = false) Role role, HttpServletResponse response) throws IOException {
+        response.setContentType(MediaType.APPLICATION_NDJSON_VALUE);
+        OutputStream out = response.getOutputStream();
+        try {
+            userService.exportUsers(role, chunk -> {
+                try {
+                    for (UserSummaryDTO user : chunk) {
+                        out.write(objectMapper.writeValueAsBytes(user));
+                        out.write('\n');
+                    }
+                    out.flush();
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            });
+        } catch (UncheckedIOException e) {
+            // Usually the client went away mid-export
+            throw e.getCause();
+        }
+    }
+
     @GetMapping("/role/{role}")
     @Operation(summary = "Get users by role")
     public ResponseEntity<List<UserDTO>> getUsersByRole(@PathVariable Role role) {
@@ -0,0 +1,29 @@
+package com.learningplatform.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class ArchivedRowsDTO {
+
+    private String table;
+    private LocalDateTime from;
+    private LocalDateTime to;
+    private Long userId;
+
+    // Segments whose time range overlapped the request, out of all segments of the table
+    private int segmentsScanned;
+    private int segmentsTotal;
+
+    private List<Map<String, Object>> rows;
+    private boolean truncated;
+}
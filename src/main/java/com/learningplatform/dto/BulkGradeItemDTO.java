@@ -0,0 +1,25 @@
+package com.learningplatform.dto;
+
+import com.learningplatform.entity.SubmissionStatus;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class BulkGradeItemDTO {
+
+    private Long submissionId;
+
+    // Required when grading as REVIEWED; otherwise the stored score is kept if omitted
+    private Integer score;
+
+    // Kept unchanged when omitted
+    private String feedback;
+
+    // REVIEWED, ACCEPTED or REJECTED; defaults to REVIEWED
+    private SubmissionStatus status;
+}
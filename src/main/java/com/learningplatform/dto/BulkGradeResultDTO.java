@@ -0,0 +1,37 @@
+package com.learningplatform.dto;
+
+import com.learningplatform.entity.SubmissionStatus;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.ArrayList;
+import java.util.List;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class BulkGradeResultDTO {
+
+    private int requested;
+    private int updated;
+    private int failed;
+
+    // One result per requested item, in request order
+    @Builder.Default
+    private List<ItemResult> items = new ArrayList<>();
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class ItemResult {
+        private Long submissionId;
+        private boolean success;
+        private SubmissionStatus status;
+
+        // Reason the item was not applied; null on success
+        private String message;
+    }
+}
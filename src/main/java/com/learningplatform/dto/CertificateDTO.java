@@ -0,0 +1,26 @@
+package com.learningplatform.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class CertificateDTO {
+
+    private Long id;
+    private String certificateNumber;
+    private Long studentId;
+    private Long courseId;
+    private String courseTitle;
+    private LocalDateTime issuedAt;
+    private LocalDateTime expiryDate;
+
+    // Average percentage over graded assignments and best quiz attempts of the course
+    private Integer finalScore;
+}
@@ -0,0 +1,21 @@
+package com.learningplatform.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class CertificateVerificationDTO {
+
+    private String certificateNumber;
+    private String studentName;
+    private String courseTitle;
+    private LocalDateTime issuedAt;
+    private LocalDateTime expiryDate;
+}
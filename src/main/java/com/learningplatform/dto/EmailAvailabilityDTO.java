@@ -0,0 +1,16 @@
+package com.learningplatform.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class EmailAvailabilityDTO {
+
+    private String email;
+    private boolean available;
+}
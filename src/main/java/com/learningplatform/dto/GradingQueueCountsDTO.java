@@ -0,0 +1,32 @@
+package com.learningplatform.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+import java.util.Map;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class GradingQueueCountsDTO {
+
+    private Long teacherId;
+    private long pending;
+    private List<CourseCount> courses;
+
+    @Data
+    @Builder
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class CourseCount {
+        private Long courseId;
+        private long pending;
+
+        // Assignment id to pending submissions; assignments with none are omitted
+        private Map<Long, Long> assignments;
+    }
+}
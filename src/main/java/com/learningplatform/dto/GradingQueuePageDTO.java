@@ -0,0 +1,24 @@
+package com.learningplatform.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class GradingQueuePageDTO {
+
+    private Long teacherId;
+    private List<SubmissionDTO> items;
+
+    // Cursor for the next page; pass both back as afterSubmittedAt and afterId
+    private LocalDateTime nextSubmittedAt;
+    private Long nextId;
+    private boolean hasMore;
+}
@@ -0,0 +1,55 @@
+package com.learningplatform.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class ItemAnalysisDTO {
+
+    private Long quizId;
+    private String quizTitle;
+
+    // Attempts with per-answer data (older attempts only have aggregate counts)
+    private long analyzedAttempts;
+    private long upperGroupSize;
+    private long lowerGroupSize;
+
+    private List<QuestionStats> questions;
+
+    @Data
+    @Builder
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class QuestionStats {
+        private Long questionId;
+        private String text;
+        private long answered;
+
+        // Share of analyzed attempts that answered correctly (0..1)
+        private double difficulty;
+
+        // Difficulty in the upper score group minus difficulty in the lower one (-1..1)
+        private double discrimination;
+
+        private List<OptionStats> options;
+    }
+
+    @Data
+    @Builder
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class OptionStats {
+        private Long optionId;
+        private String text;
+        private Boolean isCorrect;
+        private long selectedCount;
+        private double selectedRate;
+    }
+}
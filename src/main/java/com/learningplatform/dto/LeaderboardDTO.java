@@ -0,0 +1,34 @@
+package com.learningplatform.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class LeaderboardDTO {
+
+    private Long courseId;
+    private int participants;
+    private List<Entry> entries;
+
+    @Data
+    @Builder
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Entry {
+        // Students with equal totals share a rank
+        private int rank;
+        private Long studentId;
+        private String studentName;
+
+        // Sum of the student's best score on each quiz of the course
+        private int totalScore;
+        private int quizzesTaken;
+    }
+}
@@ -20,7 +20,12 @@ public class LessonDTO {
     @NotBlank(message = "Lesson title is required")
     private String title;
 
+    // Only filled in for a single lesson; lists, including a module's lessons, leave it null and
+    // carry the hash and size, and the text can be fetched from /api/blobs/{hash}
     private String content;
+    private String contentHash;
+    private Long contentSize;
+
     private String videoUrl;
     private Integer orderIndex;
     private Integer duration;
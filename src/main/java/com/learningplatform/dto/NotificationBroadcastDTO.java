@@ -0,0 +1,46 @@
+package com.learningplatform.dto;
+
+import com.learningplatform.entity.Role;
+import jakarta.validation.constraints.NotBlank;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class NotificationBroadcastDTO {
+
+    private UUID id;
+
+    @NotBlank(message = "Notification title is required")
+    private String title;
+    private String message;
+
+    // Audience: the active students of a course, or every user with a role; exactly one is set
+    private Long courseId;
+    private Role role;
+
+    private Status status;
+
+    // Known once the broadcast starts
+    private Long recipients;
+    private long delivered;
+
+    private LocalDateTime createdAt;
+    private LocalDateTime startedAt;
+    private LocalDateTime finishedAt;
+    private String error;
+
+    public enum Status {
+        QUEUED,
+        RUNNING,
+        COMPLETED,
+        FAILED
+    }
+}
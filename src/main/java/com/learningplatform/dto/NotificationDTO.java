@@ -0,0 +1,22 @@
+package com.learningplatform.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class NotificationDTO {
+
+    private Long id;
+    private Long userId;
+    private String title;
+    private String message;
+    private Boolean isRead;
+    private LocalDateTime createdAt;
+}
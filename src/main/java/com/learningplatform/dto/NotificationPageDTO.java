@@ -0,0 +1,24 @@
+package com.learningplatform.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class NotificationPageDTO {
+
+    private Long userId;
+
+    // Newest first
+    private List<NotificationDTO> items;
+
+    // Cursor for the next page; pass it back as beforeId
+    private Long nextBeforeId;
+    private boolean hasMore;
+}
@@ -0,0 +1,31 @@
+package com.learningplatform.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class NotificationPushDTO {
+
+    private Long userId;
+    private long unreadCount;
+
+    // Notifications that arrived since the previous event, newest first, at most a handful
+    private List<Summary> newest;
+
+    @Data
+    @Builder
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Summary {
+        private String title;
+        private LocalDateTime createdAt;
+    }
+}
@@ -0,0 +1,28 @@
+package com.learningplatform.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+import java.util.Map;
+import java.util.UUID;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class QuizAttemptDTO {
+
+    private UUID attemptId;
+    private Long quizId;
+    private Long studentId;
+    private LocalDateTime startedAt;
+
+    // Null for quizzes without a time limit
+    private LocalDateTime deadline;
+
+    // Draft answers saved so far: questionId -> selectedOptionId
+    private Map<Long, Long> answers;
+}
@@ -0,0 +1,40 @@
+package com.learningplatform.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.ArrayList;
+import java.util.List;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class QuizImportResultDTO {
+
+    private Long quizId;
+    private String mode;
+
+    // False when validation failed; nothing is written in that case
+    private boolean imported;
+
+    private int questionsRead;
+    private int questionsImported;
+    private int optionsImported;
+    private int questionsSkipped;
+    private int questionsRemoved;
+
+    @Builder.Default
+    private List<ItemError> errors = new ArrayList<>();
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class ItemError {
+        // Zero-based position of the question in the uploaded document
+        private int index;
+        private String message;
+    }
+}
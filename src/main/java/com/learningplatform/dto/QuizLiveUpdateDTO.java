@@ -0,0 +1,27 @@
+package com.learningplatform.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class QuizLiveUpdateDTO {
+
+    private Long quizId;
+    private long attempts;
+    private long passed;
+    private double passRate;
+
+    // Ten-point score buckets (0-9, 10-19, ..., 90-100): full counts in the first
+    // "snapshot" event, per-bucket increments since the previous event in "update" events
+    private long[] histogram;
+
+    // Newest submissions first, at most a handful per event
+    private List<QuizSubmissionDTO> newest;
+}
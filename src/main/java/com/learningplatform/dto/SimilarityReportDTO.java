@@ -0,0 +1,41 @@
+package com.learningplatform.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class SimilarityReportDTO {
+
+    private Long assignmentId;
+    private double minSimilarity;
+
+    // Most similar first
+    private List<Pair> pairs;
+
+    @Data
+    @Builder
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Pair {
+        // The earlier of the two submissions
+        private Long submissionId;
+        private Long studentId;
+        private String studentName;
+
+        private Long otherSubmissionId;
+        private Long otherStudentId;
+        private String otherStudentName;
+
+        // Estimated Jaccard similarity of the word 3-gram sets
+        private double similarity;
+        private LocalDateTime detectedAt;
+    }
+}
@@ -0,0 +1,35 @@
+package com.learningplatform.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.ArrayList;
+import java.util.List;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class StudentDashboardDTO {
+
+    private Long studentId;
+    private String name;
+    private String email;
+
+    // Null if the student has no profile
+    private ProfileDTO profile;
+
+    private List<EnrollmentDTO> enrollments;
+    private List<AssignmentDTO> assignments;
+    private List<QuizSubmissionDTO> quizSubmissions;
+
+    // Newest first
+    private List<NotificationDTO> recentNotifications;
+    private Long unreadNotifications;
+
+    // Parts that failed or timed out; they are null in this response
+    @Builder.Default
+    private List<String> failedParts = new ArrayList<>();
+}
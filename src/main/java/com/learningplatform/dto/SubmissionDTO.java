@@ -24,13 +24,29 @@ public class SubmissionDTO {
     private Long studentId;
     private String studentName;
 
+    // Texts, feedback included, are only filled in for a single submission; lists leave them null
+    // and carry the hash and size, and the text can be fetched from /api/blobs/{hash}
     private String content;
+    private String contentHash;
+    private Long contentSize;
+
     private String fileUrl;
+    private String fileHash;
+    private Long fileSize;
+    private String fileName;
+    private String fileContentType;
+
     private LocalDateTime submittedAt;
     private Integer score;
+
     private String feedback;
+    private String feedbackHash;
+    private Long feedbackSize;
     private SubmissionStatus status;
     private LocalDateTime reviewedAt;
 
+    // Grows with each resubmission; earlier versions are under /api/submissions/{id}/versions
+    private Integer versionNumber;
+
     private String assignmentTitle;
 }
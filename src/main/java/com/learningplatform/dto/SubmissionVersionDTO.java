@@ -0,0 +1,44 @@
+package com.learningplatform.dto;
+
+import com.learningplatform.entity.SubmissionStatus;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class SubmissionVersionDTO {
+
+    private Long submissionId;
+    private Integer versionNumber;
+
+    // True for the version held by the submission itself
+    private boolean latest;
+
+    // Text is only rebuilt for a single version
+    private String content;
+
+    // SHA-256 of the text; only the latest version's text can be fetched from /api/blobs/{hash}
+    private String contentHash;
+    private Long contentSize;
+
+    // Bytes stored for the text of this version; the size of the full text for the latest one
+    private Long storedSize;
+
+    private String fileUrl;
+    private String fileHash;
+    private Long fileSize;
+    private String fileName;
+
+    private LocalDateTime submittedAt;
+    private Integer score;
+    private String feedbackHash;
+    private SubmissionStatus status;
+    private LocalDateTime reviewedAt;
+    private LocalDateTime supersededAt;
+}
@@ -0,0 +1,53 @@
+package com.learningplatform.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class TeacherDashboardDTO {
+
+    private Long teacherId;
+
+    // Figures may be this old, up to the configured cache TTL
+    private LocalDateTime computedAt;
+
+    private long enrollments;
+    private long pendingSubmissions;
+    private List<CourseStats> courses;
+
+    @Data
+    @Builder
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class CourseStats {
+        private Long courseId;
+        private String title;
+        private Boolean isPublished;
+
+        private long enrollments;
+        private long completedEnrollments;
+
+        // Completed over all enrollments, dropped ones included; null without enrollments
+        private Double completionRate;
+
+        // Null without reviews
+        private Double averageRating;
+        private long reviews;
+
+        // Submissions still waiting to be graded
+        private long pendingSubmissions;
+
+        private long quizAttempts;
+
+        // Passed over all quiz attempts; null without attempts
+        private Double quizPassRate;
+    }
+}
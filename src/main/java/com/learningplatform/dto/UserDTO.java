@@ -4,6 +4,7 @@ import com.learningplatform.entity.Role;
 import jakarta.validation.constraints.Email;
 import jakarta.validation.constraints.NotBlank;
 import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Size;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
@@ -20,10 +21,12 @@ public class UserDTO {
     private Long id;
 
     @NotBlank(message = "Name is required")
+    @Size(max = 255, message = "Name must be at most 255 characters")
     private String name;
 
     @Email(message = "Email should be valid")
     @NotBlank(message = "Email is required")
+    @Size(max = 255, message = "Email must be at most 255 characters")
     private String email;
 
     @NotNull(message = "Role is required")
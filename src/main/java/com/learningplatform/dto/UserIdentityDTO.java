@@ -0,0 +1,18 @@
+package com.learningplatform.dto;
+
+import com.learningplatform.entity.Role;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class UserIdentityDTO {
+
+    private Long id;
+    private String email;
+    private Role role;
+}
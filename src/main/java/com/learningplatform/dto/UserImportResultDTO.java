@@ -0,0 +1,38 @@
+package com.learningplatform.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.ArrayList;
+import java.util.List;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class UserImportResultDTO {
+
+    private long rowsRead;
+    private long usersImported;
+    private long profilesImported;
+    private long rowsRejected;
+
+    // Download path of a CSV listing every rejected row; null if none was rejected
+    private String errorReportUrl;
+
+    // The first rejected rows; the report has all of them
+    @Builder.Default
+    private List<RowError> errors = new ArrayList<>();
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class RowError {
+        // One-based line of the row in the upload
+        private long line;
+        private String email;
+        private String message;
+    }
+}
@@ -0,0 +1,22 @@
+package com.learningplatform.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class UserPageDTO {
+
+    // Ordered by id
+    private List<UserSummaryDTO> items;
+
+    // Cursor for the next page; pass it back as afterId
+    private Long nextAfterId;
+    private boolean hasMore;
+}
@@ -0,0 +1,22 @@
+package com.learningplatform.dto;
+
+import com.learningplatform.entity.Role;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class UserSummaryDTO {
+
+    private Long id;
+    private String name;
+    private String email;
+    private Role role;
+    private LocalDateTime createdAt;
+}
@@ -38,6 +38,13 @@ public class Assignment {
     @Column(name = "created_at")
     private LocalDateTime createdAt;
 
+    // Set once the deadline notifications went out; cleared when the due date changes
+    @Column(name = "reminder_sent_at")
+    private LocalDateTime reminderSentAt;
+
+    @Column(name = "overdue_notified_at")
+    private LocalDateTime overdueNotifiedAt;
+
     // Many-to-One: many assignments belong to one lesson
     @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "lesson_id", nullable = false)
@@ -4,7 +4,6 @@ import jakarta.persistence.*;
 import lombok.*;
 
 import java.time.LocalDateTime;
-import java.util.UUID;
 
 @Entity
 @Table(name = "certificates", uniqueConstraints = {
@@ -21,6 +20,7 @@ public class Certificate {
     @GeneratedValue(strategy = GenerationType.IDENTITY)
     private Long id;
 
+    // Assigned by CertificateNumberGenerator when issued
     @Column(name = "certificate_number", unique = true, nullable = false)
     private String certificateNumber;
 
@@ -49,8 +49,5 @@ public class Certificate {
         if (issuedAt == null) {
             issuedAt = LocalDateTime.now();
         }
-        if (certificateNumber == null) {
-            certificateNumber = "CERT-" + UUID.randomUUID().toString().substring(0, 8).toUpperCase();
-        }
     }
 }
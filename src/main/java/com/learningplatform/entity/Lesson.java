@@ -8,7 +8,10 @@ import java.util.ArrayList;
 import java.util.List;
 
 @Entity
-@Table(name = "lessons")
+@Table(name = "lessons", indexes = {
+        // Blob references, checked before a superseded submission text is released
+        @Index(name = "idx_lessons_content_hash", columnList = "content_hash")
+})
 @Getter
 @Setter
 @NoArgsConstructor
@@ -24,8 +27,12 @@ public class Lesson {
     @Column(nullable = false)
     private String title;
 
-    @Column(columnDefinition = "TEXT")
-    private String content;
+    // Lesson text, kept in the blob store
+    @Column(name = "content_hash", length = 64)
+    private String contentHash;
+
+    @Column(name = "content_size")
+    private Long contentSize;
 
     @Column(name = "video_url")
     private String videoUrl;
@@ -42,7 +42,7 @@ public class Module {
     @Builder.Default
     private List<Lesson> lessons = new ArrayList<>();
 
-    // One-to-One: module can have one quiz (optional)
+    // One-to-One: module can have one quiz (optional); lazy only because of bytecode enhancement
     @OneToOne(mappedBy = "module", cascade = CascadeType.ALL, fetch = FetchType.LAZY)
     private Quiz quiz;
 
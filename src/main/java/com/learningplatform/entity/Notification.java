@@ -7,7 +7,10 @@ import lombok.*;
 import java.time.LocalDateTime;
 
 @Entity
-@Table(name = "notifications")
+@Table(name = "notifications", indexes = {
+        // Per-user listing, newest first, and unread counts as a range above the read watermark
+        @Index(name = "idx_notifications_user_id", columnList = "user_id, id")
+})
 @Getter
 @Setter
 @NoArgsConstructor
@@ -26,10 +29,6 @@ public class Notification {
     @Column(columnDefinition = "TEXT")
     private String message;
 
-    @Column(name = "is_read")
-    @Builder.Default
-    private Boolean isRead = false;
-
     @Column(name = "created_at")
     private LocalDateTime createdAt;
 
@@ -0,0 +1,33 @@
+package com.learningplatform.entity;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+/**
+ * A notification read out of order, above its user's {@link NotificationWatermark}.
+ * Marks at or below the watermark are deleted when it moves past them.
+ */
+@Entity
+@Table(name = "notification_read_marks", uniqueConstraints = {
+        @UniqueConstraint(name = "uk_read_marks_user_notification", columnNames = {"user_id", "notification_id"})
+}, indexes = {
+        // Archiving deletes the marks of a range of notifications
+        @Index(name = "idx_read_marks_notification", columnList = "notification_id")
+})
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class NotificationReadMark {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "user_id", nullable = false)
+    private Long userId;
+
+    @Column(name = "notification_id", nullable = false)
+    private Long notificationId;
+}
@@ -0,0 +1,30 @@
+package com.learningplatform.entity;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.time.LocalDateTime;
+
+/**
+ * Read position of a user's notifications: every notification of the user with an id up to
+ * {@code lastReadId} is read. Reads above it are kept as {@link NotificationReadMark}s.
+ */
+@Entity
+@Table(name = "notification_watermarks")
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class NotificationWatermark {
+
+    @Id
+    @Column(name = "user_id")
+    private Long userId;
+
+    @Column(name = "last_read_id", nullable = false)
+    private Long lastReadId;
+
+    @Column(name = "updated_at")
+    private LocalDateTime updatedAt;
+}
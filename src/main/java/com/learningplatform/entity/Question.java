@@ -39,7 +39,9 @@ public class Question {
     private Quiz quiz;
 
     // One-to-Many: question has many answer options
+    // Ordered by id: option positions are used as bit indexes in packed quiz answers
     @OneToMany(mappedBy = "question", cascade = CascadeType.ALL, fetch = FetchType.LAZY, orphanRemoval = true)
+    @OrderBy("id ASC")
     @Builder.Default
     private List<AnswerOption> options = new ArrayList<>();
 
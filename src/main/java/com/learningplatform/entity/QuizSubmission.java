@@ -51,6 +51,10 @@ public class QuizSubmission {
     @Column(name = "time_spent")
     private Integer timeSpent;
 
+    // Selected options packed as (question index, option bitmask) pairs, see PackedAnswers
+    @Column(name = "answers", length = 8192)
+    private byte[] answers;
+
     @PrePersist
     protected void onCreate() {
         if (takenAt == null) {
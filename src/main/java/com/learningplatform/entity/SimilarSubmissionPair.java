@@ -0,0 +1,44 @@
+package com.learningplatform.entity;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.time.LocalDateTime;
+
+/**
+ * Candidate near-duplicate pair found when the later submission was ingested.
+ * {@code submissionId} is the earlier submission, so each pair is stored once.
+ */
+@Entity
+@Table(name = "similar_submission_pairs", indexes = {
+        @Index(name = "idx_similar_pairs_assignment_similarity", columnList = "assignment_id, similarity"),
+        @Index(name = "idx_similar_pairs_submission", columnList = "submission_id"),
+        @Index(name = "idx_similar_pairs_other_submission", columnList = "other_submission_id")
+})
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class SimilarSubmissionPair {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "assignment_id", nullable = false)
+    private Long assignmentId;
+
+    @Column(name = "submission_id", nullable = false)
+    private Long submissionId;
+
+    @Column(name = "other_submission_id", nullable = false)
+    private Long otherSubmissionId;
+
+    // Estimated Jaccard similarity of the two shingle sets
+    @Column(nullable = false)
+    private Double similarity;
+
+    @Column(name = "detected_at", nullable = false)
+    private LocalDateTime detectedAt;
+}
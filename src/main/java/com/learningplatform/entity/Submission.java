@@ -4,10 +4,21 @@ import jakarta.persistence.*;
 import lombok.*;
 
 import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.List;
 
 @Entity
 @Table(name = "submissions", uniqueConstraints = {
         @UniqueConstraint(columnNames = {"student_id", "assignment_id"})
+}, indexes = {
+        // Grading queue: pending submissions of a teacher's assignments in submission order
+        @Index(name = "idx_submissions_status_assignment_submitted",
+                columnList = "status, assignment_id, submitted_at"),
+        // Blob references, checked before a superseded text is released
+        @Index(name = "idx_submissions_content_hash", columnList = "content_hash"),
+        @Index(name = "idx_submissions_feedback_hash", columnList = "feedback_hash"),
+        @Index(name = "idx_submissions_file_hash", columnList = "file_hash")
 })
 @Getter
 @Setter
@@ -30,19 +41,40 @@ public class Submission {
     @JoinColumn(name = "student_id", nullable = false)
     private User student;
 
-    @Column(columnDefinition = "TEXT")
-    private String content;
+    // Text answer, kept in the blob store
+    @Column(name = "content_hash", length = 64)
+    private String contentHash;
+
+    @Column(name = "content_size")
+    private Long contentSize;
 
     @Column(name = "file_url")
     private String fileUrl;
 
+    // Uploaded file, kept in the blob store
+    @Column(name = "file_hash", length = 64)
+    private String fileHash;
+
+    @Column(name = "file_size")
+    private Long fileSize;
+
+    @Column(name = "file_name")
+    private String fileName;
+
+    @Column(name = "file_content_type")
+    private String fileContentType;
+
     @Column(name = "submitted_at", nullable = false)
     private LocalDateTime submittedAt;
 
     private Integer score;
 
-    @Column(columnDefinition = "TEXT")
-    private String feedback;
+    // Teacher feedback, kept in the blob store
+    @Column(name = "feedback_hash", length = 64)
+    private String feedbackHash;
+
+    @Column(name = "feedback_size")
+    private Long feedbackSize;
 
     @Enumerated(EnumType.STRING)
     @Builder.Default
@@ -51,10 +83,22 @@ public class Submission {
     @Column(name = "reviewed_at")
     private LocalDateTime reviewedAt;
 
+    // Starts at 1 and grows with each resubmission; null on rows written before versioning
+    @Column(name = "version_number")
+    @Builder.Default
+    private Integer versionNumber = 1;
+
+    // Earlier versions; only ever loaded to show the history or to cascade a delete
+    @OneToMany(mappedBy = "submission", cascade = CascadeType.ALL, fetch = FetchType.LAZY)
+    @Builder.Default
+    private List<SubmissionVersion> versions = new ArrayList<>();
+
     @PrePersist
     protected void onCreate() {
         if (submittedAt == null) {
             submittedAt = LocalDateTime.now();
         }
+        // The column keeps microseconds; grading queue cursors must match the stored value exactly
+        submittedAt = submittedAt.truncatedTo(ChronoUnit.MICROS);
     }
 }
@@ -0,0 +1,34 @@
+package com.learningplatform.entity;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+/**
+ * One LSH bucket membership: a submission whose signature hashes to {@code bandKey} in one band.
+ * Submissions of the same assignment sharing a key are candidate near-duplicates.
+ */
+@Entity
+@Table(name = "submission_band_keys", indexes = {
+        @Index(name = "idx_band_keys_assignment_key", columnList = "assignment_id, band_key"),
+        @Index(name = "idx_band_keys_submission", columnList = "submission_id")
+})
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class SubmissionBandKey {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "assignment_id", nullable = false)
+    private Long assignmentId;
+
+    @Column(name = "band_key", nullable = false)
+    private Long bandKey;
+
+    @Column(name = "submission_id", nullable = false)
+    private Long submissionId;
+}
@@ -0,0 +1,28 @@
+package com.learningplatform.entity;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+/**
+ * MinHash signature of a submission's text, used for near-duplicate detection.
+ * Keyed by the submission id; kept apart from the submissions table so listings never read it.
+ */
+@Entity
+@Table(name = "submission_signatures")
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class SubmissionSignature {
+
+    @Id
+    @Column(name = "submission_id")
+    private Long submissionId;
+
+    @Column(name = "assignment_id", nullable = false)
+    private Long assignmentId;
+
+    @Column(nullable = false, length = 512)
+    private byte[] signature;
+}
@@ -0,0 +1,86 @@
+package com.learningplatform.entity;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.time.LocalDateTime;
+
+/**
+ * A superseded version of a submission.
+ * <p>
+ * The submission row always holds the latest version in full. Each earlier version keeps its
+ * text only as a compressed delta against the next newer version, so its text is rebuilt by
+ * applying the deltas from the latest version backwards; {@code contentHash} verifies the result.
+ * It is only a checksum: the blob of a superseded text is released once nothing else uses it.
+ */
+@Entity
+@Table(name = "submission_versions", uniqueConstraints = {
+        @UniqueConstraint(columnNames = {"submission_id", "version_number"})
+}, indexes = {
+        // Blob references, checked before a superseded text is released
+        @Index(name = "idx_submission_versions_feedback_hash", columnList = "feedback_hash"),
+        @Index(name = "idx_submission_versions_file_hash", columnList = "file_hash")
+})
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class SubmissionVersion {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "submission_id", nullable = false)
+    private Submission submission;
+
+    @Column(name = "version_number", nullable = false)
+    private Integer versionNumber;
+
+    // SHA-256 and size of the text of this version; no text means no delta either
+    @Column(name = "content_hash", length = 64)
+    private String contentHash;
+
+    @Column(name = "content_size")
+    private Long contentSize;
+
+    @Column(name = "content_delta", length = 16 * 1024 * 1024)
+    private byte[] contentDelta;
+
+    @Column(name = "file_url")
+    private String fileUrl;
+
+    @Column(name = "file_hash", length = 64)
+    private String fileHash;
+
+    @Column(name = "file_size")
+    private Long fileSize;
+
+    @Column(name = "file_name")
+    private String fileName;
+
+    @Column(name = "file_content_type")
+    private String fileContentType;
+
+    @Column(name = "submitted_at", nullable = false)
+    private LocalDateTime submittedAt;
+
+    private Integer score;
+
+    @Column(name = "feedback_hash", length = 64)
+    private String feedbackHash;
+
+    @Column(name = "feedback_size")
+    private Long feedbackSize;
+
+    @Enumerated(EnumType.STRING)
+    private SubmissionStatus status;
+
+    @Column(name = "reviewed_at")
+    private LocalDateTime reviewedAt;
+
+    @Column(name = "superseded_at", nullable = false)
+    private LocalDateTime supersededAt;
+}
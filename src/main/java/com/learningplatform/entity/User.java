@@ -10,7 +10,13 @@ import java.util.ArrayList;
 import java.util.List;
 
 @Entity
-@Table(name = "users")
+@Table(name = "users", uniqueConstraints = {
+        // Named so that UserService can tell a duplicate email from other violations
+        @UniqueConstraint(name = "uk_users_email", columnNames = "email")
+}, indexes = {
+        // Keyset pages and exports of one role
+        @Index(name = "idx_users_role_id", columnList = "role, id")
+})
 @Getter
 @Setter
 @NoArgsConstructor
@@ -28,7 +34,8 @@ public class User {
 
     @Email(message = "Email should be valid")
     @NotBlank(message = "Email is required")
-    @Column(nullable = false, unique = true)
+    // Stored trimmed and in lower case
+    @Column(nullable = false)
     private String email;
 
     @Enumerated(EnumType.STRING)
@@ -41,7 +48,8 @@ public class User {
     @Column(name = "updated_at")
     private LocalDateTime updatedAt;
 
-    // One-to-One relationship with Profile (lazy loading)
+    // One-to-One relationship with Profile; lazy only because of bytecode enhancement (see pom.xml),
+    // since the profiles table holds the foreign key
     @OneToOne(mappedBy = "user", cascade = CascadeType.ALL, fetch = FetchType.LAZY)
     private Profile profile;
 
@@ -0,0 +1,18 @@
+package com.learningplatform.event;
+
+import lombok.Value;
+
+import java.time.LocalDateTime;
+
+/**
+ * Published by {@code AssignmentService} when an assignment is created, updated or deleted;
+ * the deadline engine consumes it after the change commits.
+ */
+@Value
+public class AssignmentChangedEvent {
+
+    Long assignmentId;
+
+    // Null when the assignment was deleted or has no due date
+    LocalDateTime dueDate;
+}
@@ -0,0 +1,24 @@
+package com.learningplatform.event;
+
+import lombok.Value;
+
+import java.time.LocalDateTime;
+
+/**
+ * Published by {@code DeadlineService} when a reminder or overdue moment of an assignment arrives.
+ * It is delivered inside the transaction that claimed the moment, so listeners that fail roll the
+ * claim back and the moment fires again after a restart.
+ */
+@Value
+public class AssignmentDeadlineEvent {
+
+    public enum Kind {
+        REMINDER,
+        OVERDUE
+    }
+
+    Long assignmentId;
+    String assignmentTitle;
+    LocalDateTime dueDate;
+    Kind kind;
+}
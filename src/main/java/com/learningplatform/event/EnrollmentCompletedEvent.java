@@ -0,0 +1,15 @@
+package com.learningplatform.event;
+
+import lombok.Value;
+
+/**
+ * Published by {@code EnrollmentService} when an enrollment becomes completed; certificate
+ * issuance consumes it after the change commits.
+ */
+@Value
+public class EnrollmentCompletedEvent {
+
+    Long enrollmentId;
+    Long studentId;
+    Long courseId;
+}
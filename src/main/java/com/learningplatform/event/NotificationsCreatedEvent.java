@@ -0,0 +1,22 @@
+package com.learningplatform.event;
+
+import lombok.Value;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Published by {@code NotificationService} for every batch of inserted notifications, one per
+ * recipient; consumed after the batch commits to update in-memory unread counters.
+ */
+@Value
+public class NotificationsCreatedEvent {
+
+    List<Long> userIds;
+
+    // Id of the notification inserted for the user at the same position in userIds
+    List<Long> notificationIds;
+
+    String title;
+    LocalDateTime createdAt;
+}
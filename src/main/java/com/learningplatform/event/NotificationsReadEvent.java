@@ -0,0 +1,15 @@
+package com.learningplatform.event;
+
+import lombok.Value;
+
+/**
+ * Published by {@code NotificationService} when a user reads notifications.
+ */
+@Value
+public class NotificationsReadEvent {
+
+    Long userId;
+
+    // True when everything was marked as read, otherwise exactly one unread notification was read
+    boolean all;
+}
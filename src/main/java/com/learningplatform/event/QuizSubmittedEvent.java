@@ -0,0 +1,21 @@
+package com.learningplatform.event;
+
+import lombok.Value;
+
+import java.time.LocalDateTime;
+
+/**
+ * Published by {@code QuizService.takeQuiz}; listeners that keep in-memory views of quiz results
+ * consume it after the submission commits.
+ */
+@Value
+public class QuizSubmittedEvent {
+
+    Long submissionId;
+    Long quizId;
+    Long studentId;
+    String studentName;
+    Integer score;
+    Boolean passed;
+    LocalDateTime takenAt;
+}
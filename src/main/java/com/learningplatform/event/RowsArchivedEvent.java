@@ -0,0 +1,19 @@
+package com.learningplatform.event;
+
+import lombok.Value;
+
+import java.util.Set;
+
+/**
+ * Published by {@code ArchiveService} for every chunk of rows moved out of a table; consumed after
+ * the chunk commits by anything that keeps figures derived from those rows in memory.
+ */
+@Value
+public class RowsArchivedEvent {
+
+    // Name of the archived table, as in the archive API
+    String table;
+
+    // Owners of the archived rows, e.g. the users whose notifications were archived
+    Set<Long> ownerIds;
+}
@@ -0,0 +1,15 @@
+package com.learningplatform.event;
+
+import lombok.Value;
+
+/**
+ * Published by {@code SubmissionService} when a submission is created or resubmitted with new
+ * text; similarity detection indexes the text after the change commits.
+ */
+@Value
+public class SubmissionContentChangedEvent {
+
+    Long submissionId;
+    Long assignmentId;
+    String content;
+}
@@ -0,0 +1,21 @@
+package com.learningplatform.event;
+
+import com.learningplatform.entity.SubmissionStatus;
+import lombok.Value;
+
+/**
+ * Published by {@code SubmissionService} whenever a submission enters, leaves or changes status;
+ * listeners that keep in-memory counts of submissions consume it after the change commits.
+ */
+@Value
+public class SubmissionStatusChangedEvent {
+
+    Long submissionId;
+    Long assignmentId;
+
+    // Null for a new submission
+    SubmissionStatus previousStatus;
+
+    // Null for a deleted submission
+    SubmissionStatus status;
+}
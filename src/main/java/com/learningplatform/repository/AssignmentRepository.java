@@ -2,6 +2,7 @@ package com.learningplatform.repository;
 
 import com.learningplatform.entity.Assignment;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
@@ -13,25 +14,52 @@ import java.util.Optional;
 @Repository
 public interface AssignmentRepository extends JpaRepository<Assignment, Long> {
 
-    List<Assignment> findByLessonId(Long lessonId);
+    @Query("SELECT a FROM Assignment a JOIN FETCH a.lesson WHERE a.lesson.id = :lessonId")
+    List<Assignment> findByLessonId(@Param("lessonId") Long lessonId);
 
     @Query("SELECT a FROM Assignment a LEFT JOIN FETCH a.submissions WHERE a.id = :id")
     Optional<Assignment> findByIdWithSubmissions(@Param("id") Long id);
 
     @Query("SELECT a FROM Assignment a " +
-            "JOIN a.lesson l " +
+            "JOIN FETCH a.lesson l " +
             "JOIN l.module m " +
             "WHERE m.course.id = :courseId")
     List<Assignment> findByCourseId(@Param("courseId") Long courseId);
 
+    @Query("SELECT a.lesson.module.course.id FROM Assignment a WHERE a.id = :assignmentId")
+    Optional<Long> findCourseIdByAssignmentId(@Param("assignmentId") Long assignmentId);
+
+    // Deadline index rebuild: due dates whose notifications have not all gone out yet
+    @Query("SELECT a.id AS id, a.dueDate AS dueDate, a.reminderSentAt AS reminderSentAt " +
+            "FROM Assignment a " +
+            "WHERE a.dueDate > :since AND a.overdueNotifiedAt IS NULL")
+    List<PendingDeadline> findPendingDeadlines(@Param("since") LocalDateTime since);
+
+    // Claims a reminder; zero rows means another run already sent it
+    @Modifying
+    @Query("UPDATE Assignment a SET a.reminderSentAt = :now WHERE a.id = :id AND a.reminderSentAt IS NULL")
+    int markReminderSent(@Param("id") Long id, @Param("now") LocalDateTime now);
+
+    @Modifying
+    @Query("UPDATE Assignment a SET a.overdueNotifiedAt = :now WHERE a.id = :id AND a.overdueNotifiedAt IS NULL")
+    int markOverdueNotified(@Param("id") Long id, @Param("now") LocalDateTime now);
+
     @Query("SELECT a FROM Assignment a WHERE a.dueDate < :now AND a.dueDate IS NOT NULL")
     List<Assignment> findOverdueAssignments(@Param("now") LocalDateTime now);
 
     @Query("SELECT a FROM Assignment a " +
-            "JOIN a.lesson l " +
+            "JOIN FETCH a.lesson l " +
             "JOIN l.module m " +
             "JOIN m.course c " +
             "JOIN c.enrollments e " +
             "WHERE e.student.id = :studentId")
     List<Assignment> findByStudentEnrollment(@Param("studentId") Long studentId);
+
+    interface PendingDeadline {
+        Long getId();
+
+        LocalDateTime getDueDate();
+
+        LocalDateTime getReminderSentAt();
+    }
 }
@@ -6,6 +6,7 @@ import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Optional;
 
@@ -26,4 +27,24 @@ public interface CertificateRepository extends JpaRepository<Certificate, Long>
             "LEFT JOIN FETCH c.course " +
             "WHERE c.student.id = :studentId")
     List<Certificate> findByStudentIdWithCourse(@Param("studentId") Long studentId);
+
+    // Public verification: everything the response shows, in one query
+    @Query("SELECT c.certificateNumber AS certificateNumber, s.name AS studentName, co.title AS courseTitle, " +
+            "c.issuedAt AS issuedAt, c.expiryDate AS expiryDate FROM Certificate c " +
+            "JOIN c.student s " +
+            "JOIN c.course co " +
+            "WHERE c.certificateNumber = :certificateNumber")
+    Optional<Verification> findVerification(@Param("certificateNumber") String certificateNumber);
+
+    interface Verification {
+        String getCertificateNumber();
+
+        String getStudentName();
+
+        String getCourseTitle();
+
+        LocalDateTime getIssuedAt();
+
+        LocalDateTime getExpiryDate();
+    }
 }
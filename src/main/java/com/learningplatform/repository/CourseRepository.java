@@ -1,10 +1,12 @@
 package com.learningplatform.repository;
 
 import com.learningplatform.entity.Course;
+import com.learningplatform.entity.Module;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.util.List;
 import java.util.Optional;
@@ -14,6 +16,9 @@ public interface CourseRepository extends JpaRepository<Course, Long> {
 
     List<Course> findByTeacherId(Long teacherId);
 
+    @Query("SELECT c.id FROM Course c WHERE c.teacher.id = :teacherId")
+    List<Long> findIdsByTeacherId(@Param("teacherId") Long teacherId);
+
     List<Course> findByCategoryId(Long categoryId);
 
     List<Course> findByIsPublishedTrue();
@@ -21,11 +26,19 @@ public interface CourseRepository extends JpaRepository<Course, Long> {
     @Query("SELECT c FROM Course c LEFT JOIN FETCH c.modules WHERE c.id = :id")
     Optional<Course> findByIdWithModules(@Param("id") Long id);
 
-    @Query("SELECT DISTINCT c FROM Course c " +
-            "LEFT JOIN FETCH c.modules m " +
+    @Query("SELECT DISTINCT m FROM Module m " +
             "LEFT JOIN FETCH m.lessons " +
-            "WHERE c.id = :id")
-    Optional<Course> findByIdWithModulesAndLessons(@Param("id") Long id);
+            "WHERE m.course.id = :courseId")
+    List<Module> fetchModuleLessons(@Param("courseId") Long courseId);
+
+    // Two bags cannot be join-fetched in one query, so lessons are
+    // initialized by a second query inside the same persistence context
+    @Transactional(readOnly = true)
+    default Optional<Course> findByIdWithModulesAndLessons(Long id) {
+        Optional<Course> course = findByIdWithModules(id);
+        course.ifPresent(c -> fetchModuleLessons(c.getId()));
+        return course;
+    }
 
     @Query("SELECT c FROM Course c LEFT JOIN FETCH c.enrollments WHERE c.id = :id")
     Optional<Course> findByIdWithEnrollments(@Param("id") Long id);
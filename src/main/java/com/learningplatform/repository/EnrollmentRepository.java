@@ -25,6 +25,15 @@ public interface EnrollmentRepository extends JpaRepository<Enrollment, Long> {
 
     List<Enrollment> findByCourseIdAndStatus(Long courseId, EnrollmentStatus status);
 
+    // Active students of the assignment's course who have not submitted it
+    @Query("SELECT e.student.id FROM Enrollment e, Assignment a " +
+            "WHERE a.id = :assignmentId " +
+            "AND e.course.id = a.lesson.module.course.id " +
+            "AND e.status = com.learningplatform.entity.EnrollmentStatus.ACTIVE " +
+            "AND NOT EXISTS (SELECT 1 FROM Submission s " +
+            "WHERE s.assignment.id = a.id AND s.student.id = e.student.id)")
+    List<Long> findStudentIdsWithoutSubmission(@Param("assignmentId") Long assignmentId);
+
     @Query("SELECT e FROM Enrollment e " +
             "LEFT JOIN FETCH e.course c " +
             "LEFT JOIN FETCH c.teacher " +
@@ -0,0 +1,30 @@
+package com.learningplatform.repository;
+
+import com.learningplatform.entity.NotificationReadMark;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.Collection;
+import java.util.List;
+
+@Repository
+public interface NotificationReadMarkRepository extends JpaRepository<NotificationReadMark, Long> {
+
+    boolean existsByUserIdAndNotificationId(Long userId, Long notificationId);
+
+    @Query("SELECT m.notificationId FROM NotificationReadMark m " +
+            "WHERE m.userId = :userId AND m.notificationId IN :notificationIds")
+    List<Long> findMarkedIds(@Param("userId") Long userId,
+                             @Param("notificationIds") Collection<Long> notificationIds);
+
+    @Modifying
+    @Query("DELETE FROM NotificationReadMark m WHERE m.userId = :userId AND m.notificationId <= :lastReadId")
+    int deleteUpTo(@Param("userId") Long userId, @Param("lastReadId") Long lastReadId);
+
+    @Modifying
+    @Query("DELETE FROM NotificationReadMark m WHERE m.userId = :userId")
+    void deleteByUserId(@Param("userId") Long userId);
+}
@@ -1,25 +1,54 @@
 package com.learningplatform.repository;
 
 import com.learningplatform.entity.Notification;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
-import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.util.List;
+import java.util.Optional;
 
 @Repository
 public interface NotificationRepository extends JpaRepository<Notification, Long> {
 
     List<Notification> findByUserIdOrderByCreatedAtDesc(Long userId);
 
-    List<Notification> findByUserIdAndIsReadFalseOrderByCreatedAtDesc(Long userId);
+    // Paged listing, newest first: keyset on id instead of an offset
+    @Query("SELECT n FROM Notification n WHERE n.user.id = :userId ORDER BY n.id DESC")
+    List<Notification> findPageByUserId(@Param("userId") Long userId, Pageable pageable);
 
-    @Query("SELECT COUNT(n) FROM Notification n WHERE n.user.id = :userId AND n.isRead = false")
+    @Query("SELECT n FROM Notification n WHERE n.user.id = :userId AND n.id < :beforeId ORDER BY n.id DESC")
+    List<Notification> findPageByUserIdBefore(@Param("userId") Long userId,
+                                              @Param("beforeId") Long beforeId,
+                                              Pageable pageable);
+
+    @Query("SELECT n.user.id FROM Notification n WHERE n.id = :id")
+    Optional<Long> findUserIdById(@Param("id") Long id);
+
+    @Query("SELECT MAX(n.id) FROM Notification n WHERE n.user.id = :userId")
+    Long findMaxIdByUserId(@Param("userId") Long userId);
+
+    // Range count above the read watermark, less the few notifications read out of order
+    @Query("SELECT COUNT(n) FROM Notification n WHERE n.user.id = :userId " +
+            "AND n.id > COALESCE((SELECT w.lastReadId FROM NotificationWatermark w WHERE w.userId = :userId), 0) " +
+            "AND NOT EXISTS (SELECT m.id FROM NotificationReadMark m " +
+            "WHERE m.userId = :userId AND m.notificationId = n.id)")
     long countUnreadByUserId(@Param("userId") Long userId);
 
-    @Modifying
-    @Query("UPDATE Notification n SET n.isRead = true WHERE n.user.id = :userId")
-    void markAllAsReadByUserId(@Param("userId") Long userId);
+    // One row for seeding a counter fed by later events: the highest id above the read watermark,
+    // the unread count and the watermark, all from the same statement
+    @Query("SELECT MAX(n.id), COUNT(n) - COUNT(m), " +
+            "(SELECT w.lastReadId FROM NotificationWatermark w WHERE w.userId = :userId) " +
+            "FROM Notification n LEFT JOIN NotificationReadMark m ON m.userId = :userId AND m.notificationId = n.id " +
+            "WHERE n.user.id = :userId " +
+            "AND n.id > COALESCE((SELECT w.lastReadId FROM NotificationWatermark w WHERE w.userId = :userId), 0)")
+    List<Object[]> findUnreadSeedByUserId(@Param("userId") Long userId);
+
+    // Oldest unread notification above a read position, or null if all of them are read
+    @Query("SELECT MIN(n.id) FROM Notification n WHERE n.user.id = :userId AND n.id > :afterId " +
+            "AND NOT EXISTS (SELECT m.id FROM NotificationReadMark m " +
+            "WHERE m.userId = :userId AND m.notificationId = n.id)")
+    Long findFirstUnreadIdAfter(@Param("userId") Long userId, @Param("afterId") Long afterId);
 }
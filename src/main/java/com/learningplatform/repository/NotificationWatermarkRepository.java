@@ -0,0 +1,26 @@
+package com.learningplatform.repository;
+
+import com.learningplatform.entity.NotificationWatermark;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.Optional;
+
+@Repository
+public interface NotificationWatermarkRepository extends JpaRepository<NotificationWatermark, Long> {
+
+    @Query("SELECT w.lastReadId FROM NotificationWatermark w WHERE w.userId = :userId")
+    Optional<Long> findLastReadId(@Param("userId") Long userId);
+
+    // Only ever moves forward; 0 when the user has no watermark yet or it is already further
+    @Modifying
+    @Query("UPDATE NotificationWatermark w SET w.lastReadId = :lastReadId, w.updatedAt = :updatedAt " +
+            "WHERE w.userId = :userId AND w.lastReadId < :lastReadId")
+    int advance(@Param("userId") Long userId,
+                @Param("lastReadId") Long lastReadId,
+                @Param("updatedAt") LocalDateTime updatedAt);
+}
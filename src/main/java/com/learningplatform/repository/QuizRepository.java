@@ -1,10 +1,12 @@
 package com.learningplatform.repository;
 
+import com.learningplatform.entity.Question;
 import com.learningplatform.entity.Quiz;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.util.List;
 import java.util.Optional;
@@ -17,17 +19,28 @@ public interface QuizRepository extends JpaRepository<Quiz, Long> {
     @Query("SELECT q FROM Quiz q LEFT JOIN FETCH q.questions WHERE q.id = :id")
     Optional<Quiz> findByIdWithQuestions(@Param("id") Long id);
 
-    @Query("SELECT DISTINCT q FROM Quiz q " +
-            "LEFT JOIN FETCH q.questions quest " +
+    @Query("SELECT DISTINCT quest FROM Question quest " +
             "LEFT JOIN FETCH quest.options " +
-            "WHERE q.id = :id")
-    Optional<Quiz> findByIdWithQuestionsAndOptions(@Param("id") Long id);
+            "WHERE quest.quiz.id = :quizId")
+    List<Question> fetchQuestionOptions(@Param("quizId") Long quizId);
+
+    // Two bags cannot be join-fetched in one query, so options are
+    // initialized by a second query inside the same persistence context
+    @Transactional(readOnly = true)
+    default Optional<Quiz> findByIdWithQuestionsAndOptions(Long id) {
+        Optional<Quiz> quiz = findByIdWithQuestions(id);
+        quiz.ifPresent(q -> fetchQuestionOptions(q.getId()));
+        return quiz;
+    }
 
     @Query("SELECT q FROM Quiz q " +
             "JOIN q.module m " +
             "WHERE m.course.id = :courseId")
     List<Quiz> findByCourseId(@Param("courseId") Long courseId);
 
+    @Query("SELECT m.course.id FROM Quiz q JOIN q.module m WHERE q.id = :quizId")
+    Optional<Long> findCourseIdByQuizId(@Param("quizId") Long quizId);
+
     @Query("SELECT q FROM Quiz q LEFT JOIN FETCH q.submissions WHERE q.id = :id")
     Optional<Quiz> findByIdWithSubmissions(@Param("id") Long id);
 }
@@ -1,11 +1,13 @@
 package com.learningplatform.repository;
 
 import com.learningplatform.entity.QuizSubmission;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -26,6 +28,30 @@ public interface QuizSubmissionRepository extends JpaRepository<QuizSubmission,
             "WHERE qs.student.id = :studentId")
     List<QuizSubmission> findByStudentIdWithQuizDetails(@Param("studentId") Long studentId);
 
+    @Query("SELECT qs FROM QuizSubmission qs " +
+            "JOIN FETCH qs.quiz " +
+            "JOIN FETCH qs.student " +
+            "WHERE qs.quiz.id = :quizId " +
+            "ORDER BY qs.id DESC")
+    List<QuizSubmission> findByQuizIdWithStudent(@Param("quizId") Long quizId, Pageable pageable);
+
+    // Live results seed: bounded by an id read first, so later submissions are only counted from their events
+    @Query("SELECT qs.score, qs.passed, COUNT(qs) FROM QuizSubmission qs " +
+            "WHERE qs.quiz.id = :quizId AND qs.id <= :maxId " +
+            "GROUP BY qs.score, qs.passed")
+    List<Object[]> countUpToIdByQuizIdGroupByScoreAndPassed(@Param("quizId") Long quizId, @Param("maxId") Long maxId);
+
+    @Query("SELECT qs FROM QuizSubmission qs " +
+            "JOIN FETCH qs.quiz " +
+            "JOIN FETCH qs.student " +
+            "WHERE qs.quiz.id = :quizId AND qs.id <= :maxId " +
+            "ORDER BY qs.id DESC")
+    List<QuizSubmission> findUpToIdByQuizIdWithStudent(@Param("quizId") Long quizId, @Param("maxId") Long maxId,
+                                                       Pageable pageable);
+
+    @Query("SELECT MAX(qs.id) FROM QuizSubmission qs WHERE qs.quiz.id = :quizId")
+    Long findMaxIdByQuizId(@Param("quizId") Long quizId);
+
     @Query("SELECT AVG(qs.score) FROM QuizSubmission qs WHERE qs.quiz.id = :quizId")
     Double getAverageScoreByQuizId(@Param("quizId") Long quizId);
 
@@ -34,4 +60,44 @@ public interface QuizSubmissionRepository extends JpaRepository<QuizSubmission,
 
     @Query("SELECT COUNT(qs) FROM QuizSubmission qs WHERE qs.quiz.id = :quizId")
     long countByQuizId(@Param("quizId") Long quizId);
+
+    boolean existsByQuizId(Long quizId);
+
+    // Leaderboard rebuild: best score per (student, quiz) across a course
+    @Query("SELECT qs.student.id, s.name, qs.quiz.id, MAX(qs.score) FROM QuizSubmission qs " +
+            "JOIN qs.student s " +
+            "JOIN qs.quiz q " +
+            "WHERE q.module.course.id = :courseId " +
+            "GROUP BY qs.student.id, s.name, qs.quiz.id")
+    List<Object[]> findBestScoresByCourseId(@Param("courseId") Long courseId);
+
+    // Certificates: best score per (student, quiz) of a course, for a batch of students
+    @Query("SELECT qs.student.id, qs.quiz.id, MAX(qs.score) FROM QuizSubmission qs " +
+            "JOIN qs.quiz q " +
+            "WHERE q.module.course.id = :courseId AND qs.student.id IN :studentIds " +
+            "GROUP BY qs.student.id, qs.quiz.id")
+    List<Object[]> findBestScoresByCourseIdAndStudentIds(@Param("courseId") Long courseId,
+                                                         @Param("studentIds") Collection<Long> studentIds);
+
+    // Item analysis: score distribution of attempts that carry per-answer data
+    @Query("SELECT qs.score, COUNT(qs) FROM QuizSubmission qs " +
+            "WHERE qs.quiz.id = :quizId AND qs.answers IS NOT NULL " +
+            "GROUP BY qs.score")
+    List<Object[]> countAnsweredByScore(@Param("quizId") Long quizId);
+
+    // Item analysis: keyset-paged stream of packed answers, no entity hydration
+    @Query("SELECT qs.id AS id, qs.score AS score, qs.answers AS answers FROM QuizSubmission qs " +
+            "WHERE qs.quiz.id = :quizId AND qs.id > :afterId AND qs.answers IS NOT NULL " +
+            "ORDER BY qs.id")
+    List<AnswerRow> findAnswerRowsAfter(@Param("quizId") Long quizId,
+                                        @Param("afterId") Long afterId,
+                                        Pageable pageable);
+
+    interface AnswerRow {
+        Long getId();
+
+        Integer getScore();
+
+        byte[] getAnswers();
+    }
 }
@@ -0,0 +1,32 @@
+package com.learningplatform.repository;
+
+import com.learningplatform.entity.SimilarSubmissionPair;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+
+@Repository
+public interface SimilarSubmissionPairRepository extends JpaRepository<SimilarSubmissionPair, Long> {
+
+    // Served by the (assignment_id, similarity) index; reads only the rows returned
+    @Query("SELECT p FROM SimilarSubmissionPair p " +
+            "WHERE p.assignmentId = :assignmentId AND p.similarity >= :minSimilarity " +
+            "ORDER BY p.similarity DESC, p.id ASC")
+    List<SimilarSubmissionPair> findTopByAssignmentId(@Param("assignmentId") Long assignmentId,
+                                                      @Param("minSimilarity") double minSimilarity,
+                                                      Pageable pageable);
+
+    @Modifying
+    @Query("DELETE FROM SimilarSubmissionPair p " +
+            "WHERE p.submissionId = :submissionId OR p.otherSubmissionId = :submissionId")
+    int deleteBySubmissionId(@Param("submissionId") Long submissionId);
+
+    @Modifying
+    @Query("DELETE FROM SimilarSubmissionPair p WHERE p.assignmentId = :assignmentId")
+    int deleteByAssignmentId(@Param("assignmentId") Long assignmentId);
+}
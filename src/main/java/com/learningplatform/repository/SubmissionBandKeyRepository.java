@@ -0,0 +1,34 @@
+package com.learningplatform.repository;
+
+import com.learningplatform.entity.SubmissionBandKey;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.Collection;
+import java.util.List;
+
+@Repository
+public interface SubmissionBandKeyRepository extends JpaRepository<SubmissionBandKey, Long> {
+
+    // LSH lookup: other submissions of the assignment sharing at least one band key
+    @Query("SELECT DISTINCT k.submissionId FROM SubmissionBandKey k " +
+            "WHERE k.assignmentId = :assignmentId " +
+            "AND k.bandKey IN :bandKeys " +
+            "AND k.submissionId <> :submissionId")
+    List<Long> findCandidateIds(@Param("assignmentId") Long assignmentId,
+                                @Param("bandKeys") Collection<Long> bandKeys,
+                                @Param("submissionId") Long submissionId,
+                                Pageable pageable);
+
+    @Modifying
+    @Query("DELETE FROM SubmissionBandKey k WHERE k.submissionId = :submissionId")
+    int deleteBySubmissionId(@Param("submissionId") Long submissionId);
+
+    @Modifying
+    @Query("DELETE FROM SubmissionBandKey k WHERE k.assignmentId = :assignmentId")
+    int deleteByAssignmentId(@Param("assignmentId") Long assignmentId);
+}
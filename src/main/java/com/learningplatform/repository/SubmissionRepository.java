@@ -2,11 +2,14 @@ package com.learningplatform.repository;
 
 import com.learningplatform.entity.Submission;
 import com.learningplatform.entity.SubmissionStatus;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -23,6 +26,65 @@ public interface SubmissionRepository extends JpaRepository<Submission, Long> {
 
     List<Submission> findByStatus(SubmissionStatus status);
 
+    @Query("SELECT s FROM Submission s " +
+            "JOIN FETCH s.assignment " +
+            "JOIN FETCH s.student " +
+            "WHERE s.status = :status")
+    List<Submission> findByStatusWithDetails(@Param("status") SubmissionStatus status);
+
+    // Grading queue, first page: a teacher's submissions in one status, oldest first
+    @Query("SELECT s FROM Submission s " +
+            "JOIN FETCH s.assignment a " +
+            "JOIN FETCH s.student " +
+            "WHERE s.status = :status " +
+            "AND a.lesson.module.course.teacher.id = :teacherId " +
+            "ORDER BY s.submittedAt ASC, s.id ASC")
+    List<Submission> findQueueByTeacherId(@Param("teacherId") Long teacherId,
+                                          @Param("status") SubmissionStatus status,
+                                          Pageable pageable);
+
+    // Grading queue, following pages: keyset on (submittedAt, id) instead of an offset
+    @Query("SELECT s FROM Submission s " +
+            "JOIN FETCH s.assignment a " +
+            "JOIN FETCH s.student " +
+            "WHERE s.status = :status " +
+            "AND a.lesson.module.course.teacher.id = :teacherId " +
+            "AND (s.submittedAt > :afterSubmittedAt " +
+            "OR (s.submittedAt = :afterSubmittedAt AND s.id > :afterId)) " +
+            "ORDER BY s.submittedAt ASC, s.id ASC")
+    List<Submission> findQueueByTeacherIdAfter(@Param("teacherId") Long teacherId,
+                                               @Param("status") SubmissionStatus status,
+                                               @Param("afterSubmittedAt") LocalDateTime afterSubmittedAt,
+                                               @Param("afterId") Long afterId,
+                                               Pageable pageable);
+
+    // Seeds the in-memory grading queue counters
+    @Query("SELECT m.course.id, a.id, COUNT(s) FROM Submission s " +
+            "JOIN s.assignment a " +
+            "JOIN a.lesson l " +
+            "JOIN l.module m " +
+            "WHERE s.status = :status " +
+            "GROUP BY m.course.id, a.id")
+    List<Object[]> countByStatusGroupByCourseAndAssignment(@Param("status") SubmissionStatus status);
+
+    // Certificates: sum and count of graded percentages per student of a course, for a batch of students
+    @Query("SELECT s.student.id, SUM(100.0 * s.score / a.maxScore), COUNT(s) FROM Submission s " +
+            "JOIN s.assignment a " +
+            "JOIN a.lesson l " +
+            "JOIN l.module m " +
+            "WHERE m.course.id = :courseId AND s.student.id IN :studentIds " +
+            "AND s.score IS NOT NULL AND a.maxScore > 0 " +
+            "GROUP BY s.student.id")
+    List<Object[]> sumGradedPercentagesByCourseId(@Param("courseId") Long courseId,
+                                                  @Param("studentIds") Collection<Long> studentIds);
+
+    // Bulk grading: everything validation needs for a whole batch in one query
+    @Query("SELECT s.id AS id, s.status AS status, a.id AS assignmentId, a.maxScore AS maxScore " +
+            "FROM Submission s " +
+            "JOIN s.assignment a " +
+            "WHERE s.id IN :ids")
+    List<GradingTarget> findGradingTargets(@Param("ids") Collection<Long> ids);
+
     @Query("SELECT s FROM Submission s " +
             "LEFT JOIN FETCH s.assignment a " +
             "LEFT JOIN FETCH a.lesson " +
@@ -34,9 +96,39 @@ public interface SubmissionRepository extends JpaRepository<Submission, Long> {
             "WHERE s.assignment.id = :assignmentId")
     List<Submission> findByAssignmentIdWithStudent(@Param("assignmentId") Long assignmentId);
 
+    @Query("SELECT s FROM Submission s " +
+            "JOIN FETCH s.student " +
+            "WHERE s.id IN :ids")
+    List<Submission> findByIdInWithStudent(@Param("ids") Collection<Long> ids);
+
     @Query("SELECT COUNT(s) FROM Submission s WHERE s.assignment.id = :assignmentId")
     long countByAssignmentId(@Param("assignmentId") Long assignmentId);
 
     @Query("SELECT AVG(s.score) FROM Submission s WHERE s.assignment.id = :assignmentId AND s.score IS NOT NULL")
     Double getAverageScoreByAssignmentId(@Param("assignmentId") Long assignmentId);
+
+    // Submission count and average score for a whole page of assignments in one grouped query
+    @Query("SELECT s.assignment.id AS assignmentId, COUNT(s) AS submissionCount, AVG(s.score) AS averageScore " +
+            "FROM Submission s " +
+            "WHERE s.assignment.id IN :assignmentIds " +
+            "GROUP BY s.assignment.id")
+    List<AssignmentStats> getStatsByAssignmentIds(@Param("assignmentIds") Collection<Long> assignmentIds);
+
+    interface AssignmentStats {
+        Long getAssignmentId();
+
+        Long getSubmissionCount();
+
+        Double getAverageScore();
+    }
+
+    interface GradingTarget {
+        Long getId();
+
+        SubmissionStatus getStatus();
+
+        Long getAssignmentId();
+
+        Integer getMaxScore();
+    }
 }
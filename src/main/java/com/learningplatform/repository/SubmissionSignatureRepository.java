@@ -0,0 +1,34 @@
+package com.learningplatform.repository;
+
+import com.learningplatform.entity.SubmissionSignature;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.Collection;
+import java.util.List;
+
+@Repository
+public interface SubmissionSignatureRepository extends JpaRepository<SubmissionSignature, Long> {
+
+    // Scalar rows, so a signature replaced earlier in the same transaction is never read stale
+    @Query("SELECT s.submissionId AS submissionId, s.signature AS signature " +
+            "FROM SubmissionSignature s WHERE s.submissionId IN :submissionIds")
+    List<StoredSignature> findSignatures(@Param("submissionIds") Collection<Long> submissionIds);
+
+    @Modifying
+    @Query("DELETE FROM SubmissionSignature s WHERE s.submissionId = :submissionId")
+    int deleteBySubmissionId(@Param("submissionId") Long submissionId);
+
+    @Modifying
+    @Query("DELETE FROM SubmissionSignature s WHERE s.assignmentId = :assignmentId")
+    int deleteByAssignmentId(@Param("assignmentId") Long assignmentId);
+
+    interface StoredSignature {
+        Long getSubmissionId();
+
+        byte[] getSignature();
+    }
+}
@@ -0,0 +1,25 @@
+package com.learningplatform.repository;
+
+import com.learningplatform.entity.SubmissionVersion;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+
+@Repository
+public interface SubmissionVersionRepository extends JpaRepository<SubmissionVersion, Long> {
+
+    @Query("SELECT v FROM SubmissionVersion v " +
+            "WHERE v.submission.id = :submissionId " +
+            "ORDER BY v.versionNumber DESC")
+    List<SubmissionVersion> findBySubmissionId(@Param("submissionId") Long submissionId);
+
+    // The deltas needed to rebuild one version, newest first
+    @Query("SELECT v FROM SubmissionVersion v " +
+            "WHERE v.submission.id = :submissionId AND v.versionNumber >= :versionNumber " +
+            "ORDER BY v.versionNumber DESC")
+    List<SubmissionVersion> findChainFrom(@Param("submissionId") Long submissionId,
+                                          @Param("versionNumber") Integer versionNumber);
+}
@@ -2,11 +2,13 @@ package com.learningplatform.repository;
 
 import com.learningplatform.entity.Role;
 import com.learningplatform.entity.User;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Optional;
 
@@ -17,6 +19,9 @@ public interface UserRepository extends JpaRepository<User, Long> {
 
     boolean existsByEmail(String email);
 
+    @Query("SELECT u.id AS id, u.role AS role FROM User u WHERE u.email = :email")
+    Optional<Identity> findIdentityByEmail(@Param("email") String email);
+
     List<User> findByRole(Role role);
 
     @Query("SELECT u FROM User u LEFT JOIN FETCH u.profile WHERE u.id = :id")
@@ -36,4 +41,31 @@ public interface UserRepository extends JpaRepository<User, Long> {
 
     @Query("SELECT u FROM User u WHERE u.role = 'STUDENT' ORDER BY u.name")
     List<User> findAllStudents();
+
+    // Keyset pages of users by id, reading only the listed columns instead of hydrating entities
+    @Query("SELECT u.id AS id, u.name AS name, u.email AS email, u.role AS role, u.createdAt AS createdAt " +
+            "FROM User u WHERE u.id > :afterId ORDER BY u.id")
+    List<Summary> findSummariesAfter(@Param("afterId") Long afterId, Pageable pageable);
+
+    @Query("SELECT u.id AS id, u.name AS name, u.email AS email, u.role AS role, u.createdAt AS createdAt " +
+            "FROM User u WHERE u.role = :role AND u.id > :afterId ORDER BY u.id")
+    List<Summary> findSummariesByRoleAfter(@Param("role") Role role, @Param("afterId") Long afterId, Pageable pageable);
+
+    interface Summary {
+        Long getId();
+
+        String getName();
+
+        String getEmail();
+
+        Role getRole();
+
+        LocalDateTime getCreatedAt();
+    }
+
+    interface Identity {
+        Long getId();
+
+        Role getRole();
+    }
 }
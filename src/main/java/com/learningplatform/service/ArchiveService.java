@@ -0,0 +1,410 @@
+package com.learningplatform.service;
+
+import com.learningplatform.dto.ArchivedRowsDTO;
+import com.learningplatform.event.RowsArchivedEvent;
+import com.learningplatform.exception.BusinessLogicException;
+import com.learningplatform.exception.ResourceNotFoundException;
+import com.learningplatform.exception.StorageException;
+import com.learningplatform.storage.ArchiveSegment;
+import com.learningplatform.storage.ArchiveSegment.Column;
+import com.learningplatform.storage.ArchiveSegment.ColumnType;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Time-based retention for the append-only tables: notifications and quiz submissions.
+ * <p>
+ * Rows older than the table's retention are moved, in id order and in chunks, to compressed
+ * {@link ArchiveSegment} files under {@code <root>/<table>/}. Each chunk is one short transaction
+ * that selects the rows, writes their segment and deletes them by id range, together with rows of
+ * other tables that only describe them, such as the read marks of notifications; if the delete
+ * does not match what was written the transaction rolls back and the segment is removed. Between
+ * chunks the archiver sleeps as needed to stay under its rows-per-second limit, so a large backlog
+ * drains slowly instead of competing with regular traffic.
+ * <p>
+ * The time range of every segment is kept in memory from the segment headers, so a read of an
+ * archived range only opens the segments overlapping it. Every committed chunk publishes a
+ * {@link RowsArchivedEvent} naming the owners of its rows, so live unread counters drop archived
+ * notifications.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class ArchiveService {
+
+    private static final int MAX_READ_ROWS = 1000;
+    private static final String SEGMENT_SUFFIX = ".seg";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final PlatformTransactionManager transactionManager;
+    private final ApplicationEventPublisher eventPublisher;
+
+    @Value("${learning-platform.archive.enabled:true}")
+    private boolean enabled;
+
+    @Value("${learning-platform.archive.root:data/archive}")
+    private String rootPath;
+
+    @Value("${learning-platform.archive.interval:1h}")
+    private Duration interval;
+
+    @Value("${learning-platform.archive.chunk-size:5000}")
+    private int chunkSize;
+
+    @Value("${learning-platform.archive.max-rows-per-second:5000}")
+    private int maxRowsPerSecond;
+
+    @Value("${learning-platform.archive.retention.notifications:180d}")
+    private Duration notificationRetention;
+
+    @Value("${learning-platform.archive.retention.quiz-submissions:730d}")
+    private Duration quizSubmissionRetention;
+
+    private final Map<String, ArchivedTable> tables = new LinkedHashMap<>();
+
+    private final ScheduledExecutorService archiver = Executors.newSingleThreadScheduledExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "table-archiver");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    @PostConstruct
+    void start() throws IOException {
+        Path root = Paths.get(rootPath).toAbsolutePath();
+        register(new ArchivedTable("notifications", "notifications", "created_at", "user_id",
+                notificationRetention, root.resolve("notifications"), List.of(
+                        new Column("id", ColumnType.LONG),
+                        new Column("user_id", ColumnType.LONG),
+                        new Column("title", ColumnType.STRING),
+                        new Column("message", ColumnType.STRING),
+                        new Column("created_at", ColumnType.TIMESTAMP)),
+                // Read marks of the archived notifications, not of those in the range kept as too new
+                List.of("DELETE FROM notification_read_marks WHERE notification_id >= ? AND notification_id <= ? "
+                        + "AND NOT EXISTS (SELECT 1 FROM notifications n WHERE n.id = notification_read_marks.notification_id)")));
+        register(new ArchivedTable("quiz-submissions", "quiz_submissions", "taken_at", "student_id",
+                quizSubmissionRetention, root.resolve("quiz-submissions"), List.of(
+                        new Column("id", ColumnType.LONG),
+                        new Column("quiz_id", ColumnType.LONG),
+                        new Column("student_id", ColumnType.LONG),
+                        new Column("score", ColumnType.INT),
+                        new Column("correct_answers", ColumnType.INT),
+                        new Column("total_questions", ColumnType.INT),
+                        new Column("passed", ColumnType.BOOLEAN),
+                        new Column("taken_at", ColumnType.TIMESTAMP),
+                        new Column("time_spent", ColumnType.INT),
+                        new Column("answers", ColumnType.BYTES)),
+                List.of()));
+
+        if (enabled) {
+            long delay = interval.toMillis();
+            archiver.scheduleWithFixedDelay(this::archiveExpired, Math.min(delay, 60_000L), delay, TimeUnit.MILLISECONDS);
+        }
+    }
+
+    @PreDestroy
+    void stop() {
+        archiver.shutdownNow();
+    }
+
+    /**
+     * Archives the rows past retention of every table. Runs on the archiver thread.
+     */
+    public void archiveExpired() {
+        for (ArchivedTable table : tables.values()) {
+            try {
+                archive(table.name, LocalDateTime.now().minus(table.retention));
+            } catch (RuntimeException e) {
+                log.error("Archiving {} failed", table.name, e);
+            }
+        }
+    }
+
+    /**
+     * Moves every row of the table older than {@code cutoff} to archive segments.
+     *
+     * @return number of rows archived
+     */
+    public synchronized long archive(String tableName, LocalDateTime cutoff) {
+        ArchivedTable table = getTable(tableName);
+        TransactionTemplate transaction = new TransactionTemplate(transactionManager);
+        long archived = 0;
+        long afterId = 0;
+        while (true) {
+            long started = System.nanoTime();
+            long from = afterId;
+            Chunk chunk = transaction.execute(status -> archiveChunk(table, from, cutoff));
+            if (chunk == null) {
+                break;
+            }
+            table.segments.add(chunk.segment);
+            archived += chunk.rows;
+            afterId = chunk.lastId;
+            if (chunk.rows < chunkSize || !throttle(chunk.rows, started)) {
+                break;
+            }
+        }
+        if (archived > 0) {
+            log.info("Archived {} rows of {} older than {}", archived, table.name, cutoff);
+        }
+        return archived;
+    }
+
+    public ArchivedRowsDTO read(String tableName, LocalDateTime from, LocalDateTime to, Long userId, int limit) {
+        if (limit < 1 || limit > MAX_READ_ROWS) {
+            throw new BusinessLogicException("Limit must be between 1 and " + MAX_READ_ROWS);
+        }
+        if (!from.isBefore(to)) {
+            throw new BusinessLogicException("The start of the range must be before its end");
+        }
+        ArchivedTable table = getTable(tableName);
+
+        List<Segment> overlapping = new ArrayList<>();
+        for (Segment segment : table.segments) {
+            if (segment.header.overlaps(from, to)) {
+                overlapping.add(segment);
+            }
+        }
+        overlapping.sort(Comparator.comparing((Segment segment) -> segment.header.minTime()));
+
+        int timeColumn = table.indexOf(table.timeColumn);
+        int ownerColumn = table.indexOf(table.ownerColumn);
+        List<Map<String, Object>> rows = new ArrayList<>();
+        int scanned = 0;
+        boolean truncated = false;
+        for (Segment segment : overlapping) {
+            if (truncated) {
+                break;
+            }
+            scanned++;
+            for (Object[] row : readSegment(segment)) {
+                LocalDateTime time = (LocalDateTime) row[timeColumn];
+                if (time.isBefore(from) || !time.isBefore(to) || (userId != null && !userId.equals(row[ownerColumn]))) {
+                    continue;
+                }
+                if (rows.size() == limit) {
+                    truncated = true;
+                    break;
+                }
+                Map<String, Object> values = new LinkedHashMap<>();
+                for (int c = 0; c < table.columns.size(); c++) {
+                    values.put(table.columns.get(c).name(), row[c]);
+                }
+                rows.add(values);
+            }
+        }
+
+        return ArchivedRowsDTO.builder()
+                .table(table.name)
+                .from(from)
+                .to(to)
+                .userId(userId)
+                .segmentsScanned(scanned)
+                .segmentsTotal(table.segments.size())
+                .rows(rows)
+                .truncated(truncated)
+                .build();
+    }
+
+    // Runs in its own transaction; null when nothing is left to archive
+    private Chunk archiveChunk(ArchivedTable table, long afterId, LocalDateTime cutoff) {
+        Timestamp before = Timestamp.valueOf(cutoff);
+        List<Object[]> rows = jdbcTemplate.query(table.selectSql, table.rowMapper(), afterId, before, chunkSize);
+        if (rows.isEmpty()) {
+            return null;
+        }
+        long firstId = (Long) rows.get(0)[0];
+        long lastId = (Long) rows.get(rows.size() - 1)[0];
+        Path path = table.directory.resolve(firstId + "-" + lastId + SEGMENT_SUFFIX);
+
+        ArchiveSegment.Header header;
+        try {
+            header = ArchiveSegment.write(path, table.columns, table.indexOf(table.timeColumn), rows);
+        } catch (IOException e) {
+            throw new StorageException("Failed to write archive segment " + path, e);
+        }
+        // The rows stay if the transaction does not commit, so the segment must go
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCompletion(int status) {
+                if (status != STATUS_COMMITTED) {
+                    deleteQuietly(path);
+                }
+            }
+        });
+        int deleted = jdbcTemplate.update(table.deleteSql, firstId, lastId, before);
+        if (deleted != rows.size()) {
+            throw new IllegalStateException("Archived " + rows.size() + " rows of " + table.name
+                    + " but " + deleted + " matched for deletion");
+        }
+        for (String sql : table.dependentDeleteSql) {
+            jdbcTemplate.update(sql, firstId, lastId);
+        }
+        int ownerColumn = table.indexOf(table.ownerColumn);
+        Set<Long> owners = new HashSet<>();
+        for (Object[] row : rows) {
+            owners.add((Long) row[ownerColumn]);
+        }
+        eventPublisher.publishEvent(new RowsArchivedEvent(table.name, owners));
+        return new Chunk(new Segment(path, header), rows.size(), lastId);
+    }
+
+    // Sleeps off the rest of the time the chunk is allowed at the configured rate; false if interrupted
+    private boolean throttle(int rows, long startedNanos) {
+        long allowed = TimeUnit.SECONDS.toNanos(rows) / Math.max(1, maxRowsPerSecond);
+        long remaining = allowed - (System.nanoTime() - startedNanos);
+        if (remaining <= 0) {
+            return true;
+        }
+        try {
+            TimeUnit.NANOSECONDS.sleep(remaining);
+            return true;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+
+    private void register(ArchivedTable table) throws IOException {
+        Files.createDirectories(table.directory);
+        try (DirectoryStream<Path> files = Files.newDirectoryStream(table.directory, "*" + SEGMENT_SUFFIX)) {
+            for (Path file : files) {
+                try {
+                    table.segments.add(new Segment(file, ArchiveSegment.readHeader(file)));
+                } catch (IOException e) {
+                    log.error("Skipping unreadable archive segment {}: {}", file, e.getMessage());
+                }
+            }
+        }
+        tables.put(table.name, table);
+        log.info("Archive of {} at {} with {} segments", table.name, table.directory, table.segments.size());
+    }
+
+    private ArchivedTable getTable(String name) {
+        ArchivedTable table = tables.get(name);
+        if (table == null) {
+            throw new ResourceNotFoundException("Archived table", "name", name);
+        }
+        return table;
+    }
+
+    private static List<Object[]> readSegment(Segment segment) {
+        try {
+            return ArchiveSegment.readRows(segment.path);
+        } catch (IOException e) {
+            throw new StorageException("Failed to read archive segment " + segment.path, e);
+        }
+    }
+
+    private static void deleteQuietly(Path path) {
+        try {
+            Files.deleteIfExists(path);
+        } catch (IOException e) {
+            log.warn("Could not remove archive segment {} of a rolled back chunk: {}", path, e.getMessage());
+        }
+    }
+
+    private record Segment(Path path, ArchiveSegment.Header header) {
+    }
+
+    private record Chunk(Segment segment, int rows, long lastId) {
+    }
+
+    private static final class ArchivedTable {
+        private final String name;
+        private final String timeColumn;
+        private final String ownerColumn;
+        private final Duration retention;
+        private final Path directory;
+        private final List<Column> columns;
+        private final String selectSql;
+        private final String deleteSql;
+        // Rows of other tables that only describe rows of this one, deleted with them by id range
+        private final List<String> dependentDeleteSql;
+        private final List<Segment> segments = new CopyOnWriteArrayList<>();
+
+        private ArchivedTable(String name, String sqlTable, String timeColumn, String ownerColumn,
+                              Duration retention, Path directory, List<Column> columns,
+                              List<String> dependentDeleteSql) {
+            this.name = name;
+            this.timeColumn = timeColumn;
+            this.ownerColumn = ownerColumn;
+            this.retention = retention;
+            this.directory = directory;
+            this.columns = columns;
+            this.dependentDeleteSql = dependentDeleteSql;
+            String columnList = String.join(", ", columns.stream().map(Column::name).toList());
+            // Walks the primary key from the previous chunk; the oldest rows come first
+            this.selectSql = "SELECT " + columnList + " FROM " + sqlTable
+                    + " WHERE id > ? AND " + timeColumn + " < ? ORDER BY id LIMIT ?";
+            this.deleteSql = "DELETE FROM " + sqlTable
+                    + " WHERE id >= ? AND id <= ? AND " + timeColumn + " < ?";
+        }
+
+        int indexOf(String column) {
+            for (int c = 0; c < columns.size(); c++) {
+                if (columns.get(c).name().equals(column)) {
+                    return c;
+                }
+            }
+            throw new IllegalArgumentException("No column " + column + " in " + name);
+        }
+
+        RowMapper<Object[]> rowMapper() {
+            return (rs, rowNum) -> {
+                Object[] row = new Object[columns.size()];
+                for (int c = 0; c < columns.size(); c++) {
+                    row[c] = value(rs, c + 1, columns.get(c).type());
+                }
+                return row;
+            };
+        }
+
+        private static Object value(ResultSet rs, int index, ColumnType type) throws SQLException {
+            Object value = switch (type) {
+                case LONG -> rs.getLong(index);
+                case INT -> rs.getInt(index);
+                case BOOLEAN -> rs.getBoolean(index);
+                case TIMESTAMP -> {
+                    Timestamp timestamp = rs.getTimestamp(index);
+                    yield timestamp != null ? timestamp.toLocalDateTime() : null;
+                }
+                case STRING -> rs.getString(index);
+                case BYTES -> rs.getBytes(index);
+            };
+            return rs.wasNull() ? null : value;
+        }
+    }
+}
@@ -3,16 +3,21 @@ package com.learningplatform.service;
 import com.learningplatform.dto.AssignmentDTO;
 import com.learningplatform.entity.Assignment;
 import com.learningplatform.entity.Lesson;
+import com.learningplatform.event.AssignmentChangedEvent;
 import com.learningplatform.exception.ResourceNotFoundException;
 import com.learningplatform.repository.AssignmentRepository;
 import com.learningplatform.repository.LessonRepository;
 import com.learningplatform.repository.SubmissionRepository;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.function.Function;
 import java.util.stream.Collectors;
 
 @Service
@@ -24,6 +29,8 @@ public class AssignmentService {
     private final AssignmentRepository assignmentRepository;
     private final LessonRepository lessonRepository;
     private final SubmissionRepository submissionRepository;
+    private final ApplicationEventPublisher eventPublisher;
+    private final SimilarityService similarityService;
 
     public AssignmentDTO createAssignment(AssignmentDTO assignmentDTO) {
         log.info("Creating assignment: {} for lesson {}", assignmentDTO.getTitle(), assignmentDTO.getLessonId());
@@ -40,6 +47,7 @@ public class AssignmentService {
                 .build();
 
         Assignment savedAssignment = assignmentRepository.save(assignment);
+        eventPublisher.publishEvent(new AssignmentChangedEvent(savedAssignment.getId(), savedAssignment.getDueDate()));
         log.info("Assignment created with ID: {}", savedAssignment.getId());
 
         return mapToDTO(savedAssignment);
@@ -54,23 +62,17 @@ public class AssignmentService {
 
     @Transactional(readOnly = true)
     public List<AssignmentDTO> getAssignmentsByLesson(Long lessonId) {
-        return assignmentRepository.findByLessonId(lessonId).stream()
-                .map(this::mapToDTO)
-                .collect(Collectors.toList());
+        return mapToDTOs(assignmentRepository.findByLessonId(lessonId));
     }
 
     @Transactional(readOnly = true)
     public List<AssignmentDTO> getAssignmentsByCourse(Long courseId) {
-        return assignmentRepository.findByCourseId(courseId).stream()
-                .map(this::mapToDTO)
-                .collect(Collectors.toList());
+        return mapToDTOs(assignmentRepository.findByCourseId(courseId));
     }
 
     @Transactional(readOnly = true)
     public List<AssignmentDTO> getAssignmentsForStudent(Long studentId) {
-        return assignmentRepository.findByStudentEnrollment(studentId).stream()
-                .map(this::mapToDTO)
-                .collect(Collectors.toList());
+        return mapToDTOs(assignmentRepository.findByStudentEnrollment(studentId));
     }
 
     public AssignmentDTO updateAssignment(Long id, AssignmentDTO assignmentDTO) {
@@ -81,13 +83,19 @@ public class AssignmentService {
 
         assignment.setTitle(assignmentDTO.getTitle());
         assignment.setDescription(assignmentDTO.getDescription());
-        assignment.setDueDate(assignmentDTO.getDueDate());
+        // A moved deadline gets its reminder and overdue notifications again
+        if (!Objects.equals(assignment.getDueDate(), assignmentDTO.getDueDate())) {
+            assignment.setDueDate(assignmentDTO.getDueDate());
+            assignment.setReminderSentAt(null);
+            assignment.setOverdueNotifiedAt(null);
+        }
 
         if (assignmentDTO.getMaxScore() != null) {
             assignment.setMaxScore(assignmentDTO.getMaxScore());
         }
 
         Assignment updatedAssignment = assignmentRepository.save(assignment);
+        eventPublisher.publishEvent(new AssignmentChangedEvent(updatedAssignment.getId(), updatedAssignment.getDueDate()));
         return mapToDTO(updatedAssignment);
     }
 
@@ -98,10 +106,32 @@ public class AssignmentService {
                 .orElseThrow(() -> new ResourceNotFoundException("Assignment", "id", id));
 
         assignmentRepository.delete(assignment);
+        similarityService.removeAssignment(id);
+        eventPublisher.publishEvent(new AssignmentChangedEvent(id, null));
         log.info("Assignment deleted with ID: {}", id);
     }
 
     private AssignmentDTO mapToDTO(Assignment assignment) {
+        return mapToDTOs(List.of(assignment)).get(0);
+    }
+
+    // Submission statistics for the whole list come from one grouped query
+    private List<AssignmentDTO> mapToDTOs(List<Assignment> assignments) {
+        if (assignments.isEmpty()) {
+            return List.of();
+        }
+
+        Map<Long, SubmissionRepository.AssignmentStats> stats = submissionRepository
+                .getStatsByAssignmentIds(assignments.stream().map(Assignment::getId).collect(Collectors.toSet()))
+                .stream()
+                .collect(Collectors.toMap(SubmissionRepository.AssignmentStats::getAssignmentId, Function.identity()));
+
+        return assignments.stream()
+                .map(assignment -> mapToDTO(assignment, stats.get(assignment.getId())))
+                .collect(Collectors.toList());
+    }
+
+    private AssignmentDTO mapToDTO(Assignment assignment, SubmissionRepository.AssignmentStats stats) {
         AssignmentDTO dto = AssignmentDTO.builder()
                 .id(assignment.getId())
                 .title(assignment.getTitle())
@@ -112,9 +142,10 @@ public class AssignmentService {
                 .lessonId(assignment.getLesson().getId())
                 .build();
 
-        // Get submission statistics
-        dto.setSubmissionCount((int) submissionRepository.countByAssignmentId(assignment.getId()));
-        dto.setAverageScore(submissionRepository.getAverageScoreByAssignmentId(assignment.getId()));
+        if (stats != null) {
+            dto.setSubmissionCount(stats.getSubmissionCount().intValue());
+            dto.setAverageScore(stats.getAverageScore());
+        }
 
         return dto;
     }
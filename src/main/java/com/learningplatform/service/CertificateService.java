@@ -0,0 +1,296 @@
+package com.learningplatform.service;
+
+import com.learningplatform.dto.CertificateDTO;
+import com.learningplatform.entity.Certificate;
+import com.learningplatform.event.EnrollmentCompletedEvent;
+import com.learningplatform.exception.ResourceNotFoundException;
+import com.learningplatform.repository.CertificateRepository;
+import com.learningplatform.repository.QuizSubmissionRepository;
+import com.learningplatform.repository.SubmissionRepository;
+import com.learningplatform.repository.UserRepository;
+import com.learningplatform.util.CertificateNumberGenerator;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.Statement;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+/**
+ * Certificates of completed courses.
+ * <p>
+ * Completing an enrollment only queues its (student, course) pair once the completion commits. A
+ * background worker drains the queue in batches of up to 500 pairs and issues each course's share
+ * of a batch in one transaction: two grouped queries give every student's graded assignment
+ * percentages and best quiz scores, and one JDBC batch inserts the certificates. The final score is
+ * the average over the graded assignments and attempted quizzes of the course, or null if there
+ * are none. An end-of-term wave of completions thus costs a few statements per 500 students
+ * instead of several per student, none of them on the completion request.
+ * <p>
+ * An insert is skipped when the student already has a certificate for the course or the
+ * enrollment is no longer completed, so repeated completions are harmless. If another node
+ * inserts the same certificate first, the unique (student_id, course_id) constraint rejects the
+ * batch and it is retried once, which then skips the existing rows. Any other failure of a course
+ * leaves the rest of the batch unaffected: the course's pairs are queued again after a delay that
+ * doubles with every failed attempt, up to ten minutes. Completed enrollments without a
+ * certificate are queued again on startup, so pairs still queued at shutdown are not lost.
+ * <p>
+ * Certificate numbers come from a {@link CertificateNumberGenerator} with this node's id, so they
+ * are unique without a lookup; every node must be configured with its own id. Once a course's
+ * certificates commit, the numbers of the rows actually inserted are handed to
+ * {@link CertificateVerificationService} so they verify immediately.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+@Transactional
+public class CertificateService {
+
+    private static final int BATCH_SIZE = 500;
+    private static final int SWEEP_CHUNK = 1000;
+    private static final long RETRY_BASE_SECONDS = 5L;
+    private static final long RETRY_MAX_SECONDS = TimeUnit.MINUTES.toSeconds(10);
+
+    private static final String INSERT_CERTIFICATE = "INSERT INTO certificates " +
+            "(certificate_number, student_id, course_id, issued_at, final_score) " +
+            "SELECT ?, e.student_id, e.course_id, ?, ? FROM enrollments e " +
+            "WHERE e.student_id = ? AND e.course_id = ? AND e.status = 'COMPLETED' " +
+            "AND NOT EXISTS (SELECT 1 FROM certificates c WHERE c.student_id = e.student_id AND c.course_id = e.course_id)";
+
+    private static final String COMPLETED_WITHOUT_CERTIFICATE = "SELECT e.id, e.student_id, e.course_id " +
+            "FROM enrollments e WHERE e.status = 'COMPLETED' AND e.id > ? " +
+            "AND NOT EXISTS (SELECT 1 FROM certificates c WHERE c.student_id = e.student_id AND c.course_id = e.course_id) " +
+            "ORDER BY e.id LIMIT ?";
+
+    private final CertificateRepository certificateRepository;
+    private final SubmissionRepository submissionRepository;
+    private final QuizSubmissionRepository quizSubmissionRepository;
+    private final UserRepository userRepository;
+    private final JdbcTemplate jdbcTemplate;
+    private final PlatformTransactionManager transactionManager;
+    private final CertificateVerificationService verificationService;
+
+    @Value("${learning-platform.certificates.node-id:0}")
+    private int nodeId;
+
+    private CertificateNumberGenerator numberGenerator;
+
+    private final BlockingQueue<Pending> queue = new LinkedBlockingQueue<>();
+
+    private final ExecutorService issuer = Executors.newSingleThreadExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "certificate-issuer");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    private final ScheduledExecutorService retrier = Executors.newSingleThreadScheduledExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "certificate-retry");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    @PostConstruct
+    void start() {
+        numberGenerator = new CertificateNumberGenerator(nodeId);
+        issuer.execute(this::run);
+    }
+
+    @PreDestroy
+    void stop() {
+        issuer.shutdownNow();
+        retrier.shutdownNow();
+    }
+
+    @TransactionalEventListener
+    public void onEnrollmentCompleted(EnrollmentCompletedEvent event) {
+        queue.add(new Pending(event.getStudentId(), event.getCourseId()));
+    }
+
+    public int getQueuedCount() {
+        return queue.size();
+    }
+
+    @Transactional(readOnly = true)
+    public List<CertificateDTO> getCertificatesByStudent(Long studentId) {
+        if (!userRepository.existsById(studentId)) {
+            throw new ResourceNotFoundException("User", "id", studentId);
+        }
+        return certificateRepository.findByStudentIdWithCourse(studentId).stream()
+                .map(certificate -> mapToDTO(certificate, studentId))
+                .collect(Collectors.toList());
+    }
+
+    private void run() {
+        try {
+            sweep();
+            List<Pending> batch = new ArrayList<>(BATCH_SIZE);
+            while (!Thread.currentThread().isInterrupted()) {
+                batch.add(queue.take());
+                queue.drainTo(batch, BATCH_SIZE - 1);
+                try {
+                    issue(batch);
+                } catch (RuntimeException e) {
+                    // Failures are handled per course; this is a last resort, left for the next startup sweep
+                    log.error("Issuing {} certificates failed", batch.size(), e);
+                }
+                batch.clear();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private void sweep() {
+        long afterId = 0L;
+        int queued = 0;
+        while (true) {
+            List<Map<String, Object>> rows = jdbcTemplate.queryForList(COMPLETED_WITHOUT_CERTIFICATE, afterId, SWEEP_CHUNK);
+            for (Map<String, Object> row : rows) {
+                queue.add(new Pending(((Number) row.get("student_id")).longValue(),
+                        ((Number) row.get("course_id")).longValue()));
+            }
+            queued += rows.size();
+            if (rows.size() < SWEEP_CHUNK) {
+                break;
+            }
+            afterId = ((Number) rows.get(rows.size() - 1).get("id")).longValue();
+        }
+        if (queued > 0) {
+            log.info("Queued {} completed enrollments without a certificate", queued);
+        }
+    }
+
+    private void issue(List<Pending> batch) {
+        Map<Long, List<Pending>> pendingByCourse = new LinkedHashMap<>();
+        for (Pending pending : batch) {
+            pendingByCourse.computeIfAbsent(pending.courseId, id -> new ArrayList<>()).add(pending);
+        }
+
+        TransactionTemplate transaction = new TransactionTemplate(transactionManager);
+        for (Map.Entry<Long, List<Pending>> course : pendingByCourse.entrySet()) {
+            Long courseId = course.getKey();
+            Set<Long> studentIds = new LinkedHashSet<>();
+            for (Pending pending : course.getValue()) {
+                studentIds.add(pending.studentId);
+            }
+            List<String> numbers;
+            try {
+                try {
+                    numbers = transaction.execute(status -> issueForCourse(courseId, studentIds));
+                } catch (DataIntegrityViolationException e) {
+                    log.debug("Certificates of course {} raced with another issuer; retrying", courseId);
+                    numbers = transaction.execute(status -> issueForCourse(courseId, studentIds));
+                }
+            } catch (RuntimeException e) {
+                retryLater(courseId, course.getValue(), e);
+                continue;
+            }
+            verificationService.register(numbers);
+            log.info("Issued {} certificates for course {} ({} completions)", numbers.size(), courseId, studentIds.size());
+        }
+    }
+
+    // A failing course only delays its own pairs; they come back with a growing delay, never dropped
+    private void retryLater(Long courseId, List<Pending> pairs, RuntimeException cause) {
+        int attempt = 0;
+        for (Pending pending : pairs) {
+            attempt = Math.max(attempt, pending.attempt + 1);
+        }
+        long delay = Math.min(RETRY_BASE_SECONDS << Math.min(attempt - 1, 16), RETRY_MAX_SECONDS);
+        log.error("Issuing {} certificates for course {} failed (attempt {}); retrying in {}s",
+                pairs.size(), courseId, attempt, delay, cause);
+        List<Pending> retried = new ArrayList<>(pairs.size());
+        for (Pending pending : pairs) {
+            retried.add(new Pending(pending.studentId, pending.courseId, attempt));
+        }
+        try {
+            retrier.schedule(() -> queue.addAll(retried), delay, TimeUnit.SECONDS);
+        } catch (RejectedExecutionException e) {
+            // Shutting down; the startup sweep queues them again
+        }
+    }
+
+    /**
+     * Returns the numbers of the certificates inserted; skipped inserts are left out.
+     */
+    private List<String> issueForCourse(Long courseId, Set<Long> studentIds) {
+        Map<Long, double[]> totals = new HashMap<>();
+        for (Object[] row : submissionRepository.sumGradedPercentagesByCourseId(courseId, studentIds)) {
+            double[] total = totals.computeIfAbsent((Long) row[0], id -> new double[2]);
+            total[0] += ((Number) row[1]).doubleValue();
+            total[1] += ((Number) row[2]).doubleValue();
+        }
+        for (Object[] row : quizSubmissionRepository.findBestScoresByCourseIdAndStudentIds(courseId, studentIds)) {
+            double[] total = totals.computeIfAbsent((Long) row[0], id -> new double[2]);
+            total[0] += ((Number) row[2]).doubleValue();
+            total[1] += 1;
+        }
+
+        Timestamp issuedAt = Timestamp.valueOf(LocalDateTime.now());
+        List<String> numbers = new ArrayList<>(studentIds.size());
+        List<Object[]> rows = new ArrayList<>(studentIds.size());
+        for (Long studentId : studentIds) {
+            double[] total = totals.get(studentId);
+            Integer finalScore = total != null ? (int) Math.round(total[0] / total[1]) : null;
+            String number = numberGenerator.next();
+            numbers.add(number);
+            rows.add(new Object[]{number, issuedAt, finalScore, studentId, courseId});
+        }
+
+        int[] counts = jdbcTemplate.batchUpdate(INSERT_CERTIFICATE, rows);
+        List<String> inserted = new ArrayList<>(numbers.size());
+        for (int i = 0; i < counts.length; i++) {
+            // A driver may report a successful entry without its count; such a number is kept, as
+            // verifying a number that was never issued only costs a lookup
+            if (counts[i] > 0 || counts[i] == Statement.SUCCESS_NO_INFO) {
+                inserted.add(numbers.get(i));
+            }
+        }
+        return inserted;
+    }
+
+    private static CertificateDTO mapToDTO(Certificate certificate, Long studentId) {
+        return CertificateDTO.builder()
+                .id(certificate.getId())
+                .certificateNumber(certificate.getCertificateNumber())
+                .studentId(studentId)
+                .courseId(certificate.getCourse().getId())
+                .courseTitle(certificate.getCourse().getTitle())
+                .issuedAt(certificate.getIssuedAt())
+                .expiryDate(certificate.getExpiryDate())
+                .finalScore(certificate.getFinalScore())
+                .build();
+    }
+
+    private record Pending(Long studentId, Long courseId, int attempt) {
+
+        private Pending(Long studentId, Long courseId) {
+            this(studentId, courseId, 0);
+        }
+    }
+}
@@ -0,0 +1,193 @@
+package com.learningplatform.service;
+
+import com.learningplatform.dto.CertificateVerificationDTO;
+import com.learningplatform.exception.ResourceNotFoundException;
+import com.learningplatform.repository.CertificateRepository;
+import com.learningplatform.util.BloomFilter;
+import com.learningplatform.util.CertificateNumberGenerator;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.regex.Pattern;
+
+/**
+ * Public certificate verification, built to absorb floods of made-up numbers.
+ * <p>
+ * A number is checked in order of cost: its format and check digit, a bounded LRU cache of recent
+ * successful lookups, a Bloom filter of every issued number, and only then one projection query
+ * joining student and course. Malformed numbers and numbers the filter has never seen are rejected
+ * without touching the database; about one in a thousand unknown well-formed numbers gets through
+ * the filter to the query.
+ * <p>
+ * The filter is built from the certificates table in the background at startup (until it is ready
+ * every lookup goes to the database) and rebuilt larger once more numbers were added than it was
+ * sized for. Numbers issued by this node are added as soon as they commit; every 30 seconds the
+ * filter also reads certificates by id from a little before the last id it saw, which picks up
+ * numbers issued by other nodes and rows whose ids committed out of order. Cached lookups expire
+ * after ten minutes, so a deleted certificate stops verifying within that time.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class CertificateVerificationService {
+
+    private static final double FALSE_POSITIVE_RATE = 0.001;
+    private static final long MIN_FILTER_CAPACITY = 1_000_000L;
+    private static final int LOAD_CHUNK = 10_000;
+    private static final long CATCH_UP_OVERLAP = 1_000L;
+    private static final long REFRESH_SECONDS = 30L;
+    private static final int CACHE_SIZE = 10_000;
+    private static final long CACHE_TTL_MILLIS = TimeUnit.MINUTES.toMillis(10);
+
+    // Numbers issued before the check-digit format
+    private static final Pattern LEGACY_NUMBER = Pattern.compile("CERT-[0-9A-F]{8}");
+
+    private static final String CERTIFICATE_NUMBERS =
+            "SELECT id, certificate_number FROM certificates WHERE id > ? ORDER BY id LIMIT ?";
+
+    private final CertificateRepository certificateRepository;
+    private final JdbcTemplate jdbcTemplate;
+
+    private volatile BloomFilter filter;
+    private volatile BloomFilter building;
+    private long lastSeenId;
+
+    private final Map<String, CachedVerification> cache = new LinkedHashMap<>(CACHE_SIZE, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<String, CachedVerification> eldest) {
+            return size() > CACHE_SIZE;
+        }
+    };
+
+    private final ScheduledExecutorService refresher = Executors.newSingleThreadScheduledExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "certificate-filter");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    @PostConstruct
+    void start() {
+        refresher.scheduleWithFixedDelay(this::refresh, 0, REFRESH_SECONDS, TimeUnit.SECONDS);
+    }
+
+    @PreDestroy
+    void stop() {
+        refresher.shutdownNow();
+    }
+
+    public CertificateVerificationDTO verify(String certificateNumber) {
+        String number = certificateNumber.trim().toUpperCase(Locale.ROOT);
+        if (!CertificateNumberGenerator.isValid(number) && !LEGACY_NUMBER.matcher(number).matches()) {
+            throw notFound(certificateNumber);
+        }
+
+        long now = System.currentTimeMillis();
+        synchronized (cache) {
+            CachedVerification cached = cache.get(number);
+            if (cached != null && cached.expiresAt > now) {
+                return cached.verification;
+            }
+        }
+
+        BloomFilter current = filter;
+        if (current != null && !current.mightContain(number)) {
+            throw notFound(certificateNumber);
+        }
+
+        CertificateVerificationDTO verification = certificateRepository.findVerification(number)
+                .map(row -> CertificateVerificationDTO.builder()
+                        .certificateNumber(row.getCertificateNumber())
+                        .studentName(row.getStudentName())
+                        .courseTitle(row.getCourseTitle())
+                        .issuedAt(row.getIssuedAt())
+                        .expiryDate(row.getExpiryDate())
+                        .build())
+                .orElseThrow(() -> notFound(certificateNumber));
+        synchronized (cache) {
+            cache.put(number, new CachedVerification(verification, now + CACHE_TTL_MILLIS));
+        }
+        return verification;
+    }
+
+    /**
+     * Makes committed numbers verifiable at once instead of after the next refresh.
+     */
+    public void register(Collection<String> certificateNumbers) {
+        BloomFilter current = filter;
+        BloomFilter next = building;
+        for (String number : certificateNumbers) {
+            if (current != null) {
+                current.add(number);
+            }
+            if (next != null) {
+                next.add(number);
+            }
+        }
+    }
+
+    public boolean isFilterReady() {
+        return filter != null;
+    }
+
+    private void refresh() {
+        try {
+            BloomFilter current = filter;
+            if (current == null || current.isSaturated()) {
+                rebuild();
+            } else {
+                lastSeenId = load(current, Math.max(0L, lastSeenId - CATCH_UP_OVERLAP));
+            }
+        } catch (RuntimeException e) {
+            log.error("Refreshing the certificate number filter failed", e);
+        }
+    }
+
+    private void rebuild() {
+        Long count = jdbcTemplate.queryForObject("SELECT COUNT(*) FROM certificates", Long.class);
+        long capacity = Math.max(MIN_FILTER_CAPACITY, 2 * (count != null ? count : 0L));
+        BloomFilter next = new BloomFilter(capacity, FALSE_POSITIVE_RATE);
+        building = next;
+        try {
+            lastSeenId = load(next, 0L);
+            filter = next;
+        } finally {
+            building = null;
+        }
+        log.info("Built certificate number filter with {} numbers for up to {}", next.getAddedCount(), capacity);
+    }
+
+    private long load(BloomFilter target, long afterId) {
+        long lastId = afterId;
+        while (true) {
+            List<Map<String, Object>> rows = jdbcTemplate.queryForList(CERTIFICATE_NUMBERS, lastId, LOAD_CHUNK);
+            for (Map<String, Object> row : rows) {
+                target.add((String) row.get("certificate_number"));
+            }
+            if (!rows.isEmpty()) {
+                lastId = Math.max(lastId, ((Number) rows.get(rows.size() - 1).get("id")).longValue());
+            }
+            if (rows.size() < LOAD_CHUNK) {
+                return Math.max(lastId, lastSeenId);
+            }
+        }
+    }
+
+    private static ResourceNotFoundException notFound(String certificateNumber) {
+        return new ResourceNotFoundException("Certificate", "number", certificateNumber);
+    }
+
+    private record CachedVerification(CertificateVerificationDTO verification, long expiresAt) {
+    }
+}
@@ -3,6 +3,7 @@ package com.learningplatform.service;
 import com.learningplatform.dto.CourseDTO;
 import com.learningplatform.dto.ModuleDTO;
 import com.learningplatform.entity.*;
+import com.learningplatform.entity.Module;
 import com.learningplatform.exception.BusinessLogicException;
 import com.learningplatform.exception.ResourceNotFoundException;
 import com.learningplatform.repository.*;
@@ -0,0 +1,225 @@
+package com.learningplatform.service;
+
+import com.learningplatform.entity.Assignment;
+import com.learningplatform.event.AssignmentChangedEvent;
+import com.learningplatform.event.AssignmentDeadlineEvent;
+import com.learningplatform.repository.AssignmentRepository;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableSet;
+import java.util.Optional;
+import java.util.TreeSet;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Assignment deadline engine.
+ * <p>
+ * Upcoming reminder and overdue moments are kept in a time-ordered in-memory index, rebuilt from
+ * the database at startup and kept current from {@link AssignmentChangedEvent}s. A single timer is
+ * armed for the earliest moment only, so nothing polls. When a moment arrives it is claimed by
+ * stamping the assignment row, which makes firing idempotent across restarts and instances, and an
+ * {@link AssignmentDeadlineEvent} is published in the same transaction.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class DeadlineService {
+
+    private final AssignmentRepository assignmentRepository;
+    private final ApplicationEventPublisher eventPublisher;
+    private final PlatformTransactionManager transactionManager;
+
+    // How long before the due date students who have not submitted are reminded
+    @Value("${learning-platform.deadlines.reminder-lead:24h}")
+    private Duration reminderLead;
+
+    // Overdue moments missed by longer than this (e.g. during downtime) are dropped at startup
+    @Value("${learning-platform.deadlines.overdue-catch-up:1d}")
+    private Duration overdueCatchUp;
+
+    // Both guarded by this
+    private final NavigableSet<Deadline> index = new TreeSet<>();
+    private final Map<Long, List<Deadline>> byAssignment = new HashMap<>();
+
+    private ScheduledFuture<?> wakeUp;
+    private long wakeUpAt = Long.MAX_VALUE;
+
+    private final ScheduledExecutorService timer = Executors.newSingleThreadScheduledExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "deadline-timer");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    @PostConstruct
+    void start() {
+        LocalDateTime since = LocalDateTime.now().minus(overdueCatchUp);
+        List<AssignmentRepository.PendingDeadline> pending = assignmentRepository.findPendingDeadlines(since);
+        synchronized (this) {
+            for (AssignmentRepository.PendingDeadline deadline : pending) {
+                index(deadline.getId(), deadline.getDueDate(), deadline.getReminderSentAt() == null);
+            }
+            arm();
+        }
+        log.info("Deadline index rebuilt with {} moments for {} assignments", index.size(), pending.size());
+    }
+
+    @PreDestroy
+    void stop() {
+        timer.shutdownNow();
+    }
+
+    @TransactionalEventListener
+    public void onAssignmentChanged(AssignmentChangedEvent event) {
+        synchronized (this) {
+            unindex(event.getAssignmentId());
+            if (event.getDueDate() != null) {
+                index(event.getAssignmentId(), event.getDueDate(), true);
+            }
+            arm();
+        }
+    }
+
+    public synchronized int getScheduledCount() {
+        return index.size();
+    }
+
+    private void index(Long assignmentId, LocalDateTime dueDate, boolean withReminder) {
+        long due = toEpochMillis(dueDate);
+        long now = System.currentTimeMillis();
+        List<Deadline> entries = new ArrayList<>(2);
+        // A reminder is pointless once the due date has passed; a late one still fires right away
+        if (withReminder && due > now) {
+            entries.add(new Deadline(due - reminderLead.toMillis(), assignmentId, dueDate, AssignmentDeadlineEvent.Kind.REMINDER));
+        }
+        if (due > now - overdueCatchUp.toMillis()) {
+            entries.add(new Deadline(due, assignmentId, dueDate, AssignmentDeadlineEvent.Kind.OVERDUE));
+        }
+        if (!entries.isEmpty()) {
+            index.addAll(entries);
+            byAssignment.put(assignmentId, entries);
+        }
+    }
+
+    private void unindex(Long assignmentId) {
+        List<Deadline> entries = byAssignment.remove(assignmentId);
+        if (entries != null) {
+            entries.forEach(index::remove);
+        }
+    }
+
+    // Re-arms the timer when the earliest moment changed
+    private void arm() {
+        long next = index.isEmpty() ? Long.MAX_VALUE : index.first().fireAt;
+        if (next == wakeUpAt) {
+            return;
+        }
+        if (wakeUp != null) {
+            wakeUp.cancel(false);
+            wakeUp = null;
+        }
+        wakeUpAt = next;
+        if (next != Long.MAX_VALUE) {
+            long delay = Math.max(0L, next - System.currentTimeMillis());
+            wakeUp = timer.schedule(this::fireDue, delay, TimeUnit.MILLISECONDS);
+        }
+    }
+
+    private void fireDue() {
+        List<Deadline> due = new ArrayList<>();
+        synchronized (this) {
+            long now = System.currentTimeMillis();
+            while (!index.isEmpty() && index.first().fireAt <= now) {
+                Deadline deadline = index.pollFirst();
+                due.add(deadline);
+                List<Deadline> entries = byAssignment.get(deadline.assignmentId);
+                if (entries != null) {
+                    entries.remove(deadline);
+                    if (entries.isEmpty()) {
+                        byAssignment.remove(deadline.assignmentId);
+                    }
+                }
+            }
+            wakeUpAt = Long.MAX_VALUE;
+            wakeUp = null;
+        }
+
+        for (Deadline deadline : due) {
+            try {
+                fire(deadline);
+            } catch (RuntimeException e) {
+                log.error("Failed to fire {} for assignment {}", deadline.kind, deadline.assignmentId, e);
+            }
+        }
+
+        synchronized (this) {
+            arm();
+        }
+    }
+
+    private void fire(Deadline deadline) {
+        new TransactionTemplate(transactionManager).executeWithoutResult(status -> {
+            Optional<Assignment> assignment = assignmentRepository.findById(deadline.assignmentId);
+            // Deleted, or the due date moved and a fresh entry is already indexed
+            if (assignment.isEmpty() || assignment.get().getDueDate() == null
+                    || toEpochMillis(assignment.get().getDueDate()) != toEpochMillis(deadline.dueDate)) {
+                return;
+            }
+            LocalDateTime now = LocalDateTime.now();
+            int claimed = deadline.kind == AssignmentDeadlineEvent.Kind.REMINDER
+                    ? assignmentRepository.markReminderSent(deadline.assignmentId, now)
+                    : assignmentRepository.markOverdueNotified(deadline.assignmentId, now);
+            if (claimed == 0) {
+                return;
+            }
+            eventPublisher.publishEvent(new AssignmentDeadlineEvent(
+                    deadline.assignmentId, assignment.get().getTitle(), deadline.dueDate, deadline.kind));
+        });
+    }
+
+    private static long toEpochMillis(LocalDateTime dateTime) {
+        return dateTime.atZone(ZoneId.systemDefault()).toInstant().toEpochMilli();
+    }
+
+    private static final class Deadline implements Comparable<Deadline> {
+        private final long fireAt;
+        private final Long assignmentId;
+        private final LocalDateTime dueDate;
+        private final AssignmentDeadlineEvent.Kind kind;
+
+        private Deadline(long fireAt, Long assignmentId, LocalDateTime dueDate, AssignmentDeadlineEvent.Kind kind) {
+            this.fireAt = fireAt;
+            this.assignmentId = assignmentId;
+            this.dueDate = dueDate;
+            this.kind = kind;
+        }
+
+        @Override
+        public int compareTo(Deadline other) {
+            int byTime = Long.compare(fireAt, other.fireAt);
+            if (byTime != 0) {
+                return byTime;
+            }
+            int byAssignment = assignmentId.compareTo(other.assignmentId);
+            return byAssignment != 0 ? byAssignment : kind.compareTo(other.kind);
+        }
+    }
+}
@@ -2,6 +2,7 @@ package com.learningplatform.service;
 
 import com.learningplatform.dto.EnrollmentDTO;
 import com.learningplatform.entity.*;
+import com.learningplatform.event.EnrollmentCompletedEvent;
 import com.learningplatform.exception.BusinessLogicException;
 import com.learningplatform.exception.DuplicateResourceException;
 import com.learningplatform.exception.ResourceNotFoundException;
@@ -10,6 +11,7 @@ import com.learningplatform.repository.EnrollmentRepository;
 import com.learningplatform.repository.UserRepository;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
@@ -26,6 +28,7 @@ public class EnrollmentService {
     private final EnrollmentRepository enrollmentRepository;
     private final UserRepository userRepository;
     private final CourseRepository courseRepository;
+    private final ApplicationEventPublisher eventPublisher;
 
     public EnrollmentDTO enrollStudent(Long studentId, Long courseId) {
         log.info("Enrolling student {} to course {}", studentId, courseId);
@@ -113,6 +116,7 @@ public class EnrollmentService {
             enrollment.setStatus(EnrollmentStatus.COMPLETED);
             enrollment.setCompletedAt(LocalDateTime.now());
             log.info("Enrollment {} marked as completed", enrollmentId);
+            publishCompleted(enrollment);
         }
 
         Enrollment updatedEnrollment = enrollmentRepository.save(enrollment);
@@ -130,6 +134,8 @@ public class EnrollmentService {
         enrollment.setCompletedAt(LocalDateTime.now());
 
         Enrollment updatedEnrollment = enrollmentRepository.save(enrollment);
+        // Issuing the certificate is queued; a repeated completion is ignored by the issuer
+        publishCompleted(updatedEnrollment);
         return mapToDTO(updatedEnrollment);
     }
 
@@ -160,6 +166,11 @@ public class EnrollmentService {
         return enrollmentRepository.existsByStudentIdAndCourseId(studentId, courseId);
     }
 
+    private void publishCompleted(Enrollment enrollment) {
+        eventPublisher.publishEvent(new EnrollmentCompletedEvent(
+                enrollment.getId(), enrollment.getStudent().getId(), enrollment.getCourse().getId()));
+    }
+
     private EnrollmentDTO mapToDTO(Enrollment enrollment) {
         EnrollmentDTO dto = EnrollmentDTO.builder()
                 .id(enrollment.getId())
@@ -0,0 +1,307 @@
+package com.learningplatform.service;
+
+import com.learningplatform.dto.GradingQueueCountsDTO;
+import com.learningplatform.dto.GradingQueuePageDTO;
+import com.learningplatform.dto.SubmissionDTO;
+import com.learningplatform.entity.Role;
+import com.learningplatform.entity.Submission;
+import com.learningplatform.entity.SubmissionStatus;
+import com.learningplatform.entity.User;
+import com.learningplatform.event.SubmissionStatusChangedEvent;
+import com.learningplatform.exception.BusinessLogicException;
+import com.learningplatform.exception.ResourceNotFoundException;
+import com.learningplatform.repository.AssignmentRepository;
+import com.learningplatform.repository.CourseRepository;
+import com.learningplatform.repository.SubmissionRepository;
+import com.learningplatform.repository.UserRepository;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Per-teacher grading queue.
+ * <p>
+ * The queue lists the SUBMITTED submissions of a teacher's courses oldest first, paged by a
+ * (submittedAt, id) keyset so deep pages cost the same as the first one; the composite index on
+ * (status, assignment_id, submitted_at) serves the lookup. Pending counts per course and per
+ * assignment are held in memory: seeded with one grouped query at startup and afterwards adjusted
+ * from {@link SubmissionStatusChangedEvent}s, so the dashboard badge never runs a COUNT. A periodic
+ * resync corrects drift from cascading deletes of lessons, modules or courses, which publish no
+ * events.
+ * <p>
+ * Every status change draws a number from a commit sequence just before its transaction commits,
+ * and is applied after it. The resync only keeps its grouped count when no change was between
+ * those two points while the count ran; it then replays the changes numbered after the count, so
+ * each change is either counted by the query or applied on top of it, never both. A resync that
+ * keeps overlapping commits is retried a few times and otherwise left to the next run.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class GradingQueueService {
+
+    private static final int MAX_PAGE_SIZE = 100;
+    private static final long RESYNC_INTERVAL_MINUTES = 15L;
+    private static final int RESYNC_ATTEMPTS = 5;
+    private static final long RESYNC_RETRY_MILLIS = 200L;
+
+    private final SubmissionRepository submissionRepository;
+    private final AssignmentRepository assignmentRepository;
+    private final CourseRepository courseRepository;
+    private final UserRepository userRepository;
+
+    private volatile Map<Long, CourseCounts> counts = new ConcurrentHashMap<>();
+    private final Map<Long, Long> courseByAssignment = new ConcurrentHashMap<>();
+
+    private final AtomicLong commitSequence = new AtomicLong();
+    // Changes that drew their number and have not completed yet
+    private final AtomicInteger committing = new AtomicInteger();
+    // Changes applied while a resync runs, replayed onto its counts; null otherwise
+    private List<Change> appliedDuringResync;
+
+    private final ScheduledExecutorService resyncer = Executors.newSingleThreadScheduledExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "grading-queue-resync");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    @PostConstruct
+    void start() {
+        resync();
+        resyncer.scheduleWithFixedDelay(this::resync,
+                RESYNC_INTERVAL_MINUTES, RESYNC_INTERVAL_MINUTES, TimeUnit.MINUTES);
+    }
+
+    @PreDestroy
+    void stop() {
+        resyncer.shutdownNow();
+    }
+
+    @Transactional(readOnly = true)
+    public GradingQueuePageDTO getQueue(Long teacherId, LocalDateTime afterSubmittedAt, Long afterId, int size) {
+        requireTeacher(teacherId);
+        if (size < 1 || size > MAX_PAGE_SIZE) {
+            throw new BusinessLogicException("Page size must be between 1 and " + MAX_PAGE_SIZE);
+        }
+        if ((afterSubmittedAt == null) != (afterId == null)) {
+            throw new BusinessLogicException("afterSubmittedAt and afterId must be given together");
+        }
+
+        // One extra row tells whether another page follows
+        PageRequest limit = PageRequest.of(0, size + 1);
+        List<Submission> rows = afterId == null
+                ? submissionRepository.findQueueByTeacherId(teacherId, SubmissionStatus.SUBMITTED, limit)
+                : submissionRepository.findQueueByTeacherIdAfter(
+                        teacherId, SubmissionStatus.SUBMITTED, afterSubmittedAt, afterId, limit);
+
+        boolean hasMore = rows.size() > size;
+        List<SubmissionDTO> items = new ArrayList<>(Math.min(rows.size(), size));
+        for (Submission submission : hasMore ? rows.subList(0, size) : rows) {
+            items.add(mapToDTO(submission));
+        }
+
+        SubmissionDTO last = items.isEmpty() ? null : items.get(items.size() - 1);
+        return GradingQueuePageDTO.builder()
+                .teacherId(teacherId)
+                .items(items)
+                .hasMore(hasMore)
+                .nextSubmittedAt(hasMore ? last.getSubmittedAt() : null)
+                .nextId(hasMore ? last.getId() : null)
+                .build();
+    }
+
+    @Transactional(readOnly = true)
+    public GradingQueueCountsDTO getCounts(Long teacherId) {
+        requireTeacher(teacherId);
+
+        Map<Long, CourseCounts> current = counts;
+        List<GradingQueueCountsDTO.CourseCount> courses = new ArrayList<>();
+        long total = 0;
+        for (Long courseId : courseRepository.findIdsByTeacherId(teacherId)) {
+            CourseCounts course = current.get(courseId);
+            Map<Long, Long> assignments = new TreeMap<>();
+            long pending = 0;
+            if (course != null) {
+                pending = course.pending.get();
+                course.assignments.forEach((assignmentId, count) -> assignments.put(assignmentId, count.get()));
+            }
+            courses.add(GradingQueueCountsDTO.CourseCount.builder()
+                    .courseId(courseId)
+                    .pending(pending)
+                    .assignments(assignments)
+                    .build());
+            total += pending;
+        }
+
+        return GradingQueueCountsDTO.builder()
+                .teacherId(teacherId)
+                .pending(total)
+                .courses(courses)
+                .build();
+    }
+
+    @EventListener
+    public void onSubmissionStatusChanged(SubmissionStatusChangedEvent event) {
+        int delta = (event.getStatus() == SubmissionStatus.SUBMITTED ? 1 : 0)
+                - (event.getPreviousStatus() == SubmissionStatus.SUBMITTED ? 1 : 0);
+        // Like a transactional listener, only changes that commit count
+        if (delta == 0 || !TransactionSynchronizationManager.isSynchronizationActive()) {
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            private long sequence;
+
+            @Override
+            public void beforeCommit(boolean readOnly) {
+                // Counted as committing before the number is drawn, so a resync never misses it
+                committing.incrementAndGet();
+                sequence = commitSequence.incrementAndGet();
+            }
+
+            @Override
+            public void afterCommit() {
+                Long courseId = courseByAssignment.computeIfAbsent(event.getAssignmentId(),
+                        assignmentId -> assignmentRepository.findCourseIdByAssignmentId(assignmentId).orElse(null));
+                if (courseId != null) {
+                    apply(new Change(sequence, courseId, event.getAssignmentId(), delta));
+                }
+            }
+
+            @Override
+            public void afterCompletion(int status) {
+                if (sequence != 0) {
+                    committing.decrementAndGet();
+                }
+            }
+        });
+    }
+
+    private synchronized void apply(Change change) {
+        add(counts, change);
+        if (appliedDuringResync != null) {
+            appliedDuringResync.add(change);
+        }
+    }
+
+    private static void add(Map<Long, CourseCounts> counts, Change change) {
+        CourseCounts course = counts.computeIfAbsent(change.courseId(), id -> new CourseCounts());
+        AtomicLong assignment = course.assignments.computeIfAbsent(change.assignmentId(), id -> new AtomicLong());
+        if (assignment.addAndGet(change.delta()) <= 0) {
+            course.assignments.remove(change.assignmentId());
+        }
+        course.pending.addAndGet(change.delta());
+    }
+
+    private void resync() {
+        try {
+            for (int attempt = 1; attempt <= RESYNC_ATTEMPTS; attempt++) {
+                if (tryResync()) {
+                    return;
+                }
+                TimeUnit.MILLISECONDS.sleep(RESYNC_RETRY_MILLIS);
+            }
+            log.warn("Grading queue counters not synced: status changes kept committing during the count");
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (RuntimeException e) {
+            log.error("Failed to sync grading queue counters", e);
+        }
+    }
+
+    // False when a change may have committed while the count ran, as it cannot tell whether the count saw it
+    private boolean tryResync() {
+        synchronized (this) {
+            appliedDuringResync = new ArrayList<>();
+        }
+        try {
+            long before = commitSequence.get();
+            if (committing.get() > 0) {
+                return false;
+            }
+            List<Object[]> rows = submissionRepository.countByStatusGroupByCourseAndAssignment(SubmissionStatus.SUBMITTED);
+            long after = commitSequence.get();
+            if (after != before || committing.get() > 0) {
+                return false;
+            }
+
+            Map<Long, CourseCounts> fresh = new ConcurrentHashMap<>();
+            for (Object[] row : rows) {
+                Long courseId = (Long) row[0];
+                Long assignmentId = (Long) row[1];
+                long pending = ((Number) row[2]).longValue();
+                CourseCounts course = fresh.computeIfAbsent(courseId, id -> new CourseCounts());
+                course.assignments.put(assignmentId, new AtomicLong(pending));
+                course.pending.addAndGet(pending);
+                courseByAssignment.put(assignmentId, courseId);
+            }
+            synchronized (this) {
+                // Changes numbered up to the count committed before it and are part of it
+                for (Change change : appliedDuringResync) {
+                    if (change.sequence() > after) {
+                        add(fresh, change);
+                    }
+                }
+                counts = fresh;
+            }
+            log.debug("Grading queue counters synced for {} assignments", rows.size());
+            return true;
+        } finally {
+            synchronized (this) {
+                appliedDuringResync = null;
+            }
+        }
+    }
+
+    private void requireTeacher(Long teacherId) {
+        User teacher = userRepository.findById(teacherId)
+                .orElseThrow(() -> new ResourceNotFoundException("User", "id", teacherId));
+        if (teacher.getRole() != Role.TEACHER) {
+            throw new BusinessLogicException("User " + teacherId + " is not a teacher");
+        }
+    }
+
+    private SubmissionDTO mapToDTO(Submission submission) {
+        return SubmissionDTO.builder()
+                .id(submission.getId())
+                .assignmentId(submission.getAssignment().getId())
+                .assignmentTitle(submission.getAssignment().getTitle())
+                .studentId(submission.getStudent().getId())
+                .studentName(submission.getStudent().getName())
+                .contentHash(submission.getContentHash())
+                .contentSize(submission.getContentSize())
+                .fileUrl(submission.getFileUrl())
+                .fileHash(submission.getFileHash())
+                .fileSize(submission.getFileSize())
+                .fileName(submission.getFileName())
+                .submittedAt(submission.getSubmittedAt())
+                .status(submission.getStatus())
+                .build();
+    }
+
+    private record Change(long sequence, Long courseId, Long assignmentId, long delta) {
+    }
+
+    private static final class CourseCounts {
+        private final AtomicLong pending = new AtomicLong();
+        private final Map<Long, AtomicLong> assignments = new ConcurrentHashMap<>();
+    }
+}
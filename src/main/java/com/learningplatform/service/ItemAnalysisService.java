@@ -0,0 +1,329 @@
+package com.learningplatform.service;
+
+import com.learningplatform.dto.ItemAnalysisDTO;
+import com.learningplatform.entity.AnswerOption;
+import com.learningplatform.entity.Question;
+import com.learningplatform.entity.QuestionType;
+import com.learningplatform.entity.Quiz;
+import com.learningplatform.exception.BusinessLogicException;
+import com.learningplatform.exception.ResourceNotFoundException;
+import com.learningplatform.repository.QuizRepository;
+import com.learningplatform.repository.QuizSubmissionRepository;
+import com.learningplatform.repository.QuizSubmissionRepository.AnswerRow;
+import com.learningplatform.util.PackedAnswers;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+import java.util.TreeMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * Classical test theory statistics for a quiz, computed from packed per-answer data.
+ * <p>
+ * Submissions are read in keyset-paged chunks and each chunk is folded into its own
+ * counters on a worker pool. At most {@code 2 * parallelism} chunks are in flight,
+ * so memory stays bounded by the chunk size however many attempts the quiz has.
+ * No transaction spans the job: every chunk is a short read-only query.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class ItemAnalysisService {
+
+    private static final int CHUNK_SIZE = 2000;
+
+    // Kelley's upper/lower 27% groups for the discrimination index
+    private static final double GROUP_FRACTION = 0.27;
+
+    private static final int PARALLELISM = Math.max(2, Runtime.getRuntime().availableProcessors() / 2);
+
+    private final QuizRepository quizRepository;
+    private final QuizSubmissionRepository quizSubmissionRepository;
+
+    private final ExecutorService workers = Executors.newFixedThreadPool(PARALLELISM, runnable -> {
+        Thread thread = new Thread(runnable, "item-analysis");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    public ItemAnalysisDTO analyzeQuiz(Long quizId) {
+        Quiz quiz = quizRepository.findByIdWithQuestionsAndOptions(quizId)
+                .orElseThrow(() -> new ResourceNotFoundException("Quiz", "id", quizId));
+
+        QuizKey key = new QuizKey(quiz.getQuestions());
+        ScoreGroups groups = scoreGroups(quizId);
+
+        log.info("Running item analysis for quiz {} over {} attempts", quizId, groups.total);
+
+        Counters totals = new Counters(key);
+        Deque<Future<Counters>> inFlight = new ArrayDeque<>();
+        long afterId = 0L;
+
+        while (true) {
+            List<AnswerRow> chunk = quizSubmissionRepository.findAnswerRowsAfter(
+                    quizId, afterId, PageRequest.of(0, CHUNK_SIZE));
+            if (chunk.isEmpty()) {
+                break;
+            }
+            afterId = chunk.get(chunk.size() - 1).getId();
+
+            inFlight.addLast(workers.submit(() -> accumulate(chunk, key, groups)));
+            if (inFlight.size() >= PARALLELISM * 2) {
+                totals.merge(await(inFlight.removeFirst()));
+            }
+            if (chunk.size() < CHUNK_SIZE) {
+                break;
+            }
+        }
+        while (!inFlight.isEmpty()) {
+            totals.merge(await(inFlight.removeFirst()));
+        }
+
+        return toDTO(quiz, key, totals);
+    }
+
+    @PreDestroy
+    void shutdown() {
+        workers.shutdownNow();
+    }
+
+    private Counters accumulate(List<AnswerRow> chunk, QuizKey key, ScoreGroups groups) {
+        Counters counters = new Counters(key);
+        long[] selections = new long[key.questionCount()];
+
+        for (AnswerRow row : chunk) {
+            PackedAnswers.decodeInto(row.getAnswers(), selections);
+            int score = row.getScore();
+            boolean upper = groups.isUpper(score);
+            boolean lower = groups.isLower(score);
+
+            counters.attempts++;
+            if (upper) {
+                counters.upper++;
+            }
+            if (lower) {
+                counters.lower++;
+            }
+
+            for (int q = 0; q < selections.length; q++) {
+                long mask = selections[q];
+                if (mask == 0) {
+                    continue;
+                }
+                counters.answered[q]++;
+                if (key.isCorrect(q, mask)) {
+                    counters.correct[q]++;
+                    if (upper) {
+                        counters.correctUpper[q]++;
+                    }
+                    if (lower) {
+                        counters.correctLower[q]++;
+                    }
+                }
+                long[] optionCounts = counters.selected[q];
+                for (long bits = mask; bits != 0; bits &= bits - 1) {
+                    int option = Long.numberOfTrailingZeros(bits);
+                    if (option < optionCounts.length) {
+                        optionCounts[option]++;
+                    }
+                }
+            }
+        }
+        return counters;
+    }
+
+    private ScoreGroups scoreGroups(Long quizId) {
+        TreeMap<Integer, Long> histogram = new TreeMap<>();
+        for (Object[] row : quizSubmissionRepository.countAnsweredByScore(quizId)) {
+            histogram.put(((Number) row[0]).intValue(), ((Number) row[1]).longValue());
+        }
+
+        long total = histogram.values().stream().mapToLong(Long::longValue).sum();
+        if (total == 0) {
+            return new ScoreGroups(0, Integer.MIN_VALUE, Integer.MAX_VALUE);
+        }
+        long target = (long) Math.ceil(total * GROUP_FRACTION);
+
+        int lowerCutoff = histogram.firstKey();
+        long cumulative = 0;
+        for (var entry : histogram.entrySet()) {
+            cumulative += entry.getValue();
+            lowerCutoff = entry.getKey();
+            if (cumulative >= target) {
+                break;
+            }
+        }
+
+        int upperCutoff = histogram.lastKey();
+        cumulative = 0;
+        for (var entry : histogram.descendingMap().entrySet()) {
+            cumulative += entry.getValue();
+            upperCutoff = entry.getKey();
+            if (cumulative >= target) {
+                break;
+            }
+        }
+
+        if (lowerCutoff >= upperCutoff) {
+            // Scores are too uniform to separate strong and weak students
+            return new ScoreGroups(total, Integer.MIN_VALUE, Integer.MAX_VALUE);
+        }
+        return new ScoreGroups(total, lowerCutoff, upperCutoff);
+    }
+
+    private ItemAnalysisDTO toDTO(Quiz quiz, QuizKey key, Counters totals) {
+        List<ItemAnalysisDTO.QuestionStats> questionStats = new ArrayList<>(key.questionCount());
+
+        for (int q = 0; q < key.questionCount(); q++) {
+            Question question = key.questions.get(q);
+            List<AnswerOption> options = question.getOptions();
+
+            List<ItemAnalysisDTO.OptionStats> optionStats = new ArrayList<>(options.size());
+            for (int o = 0; o < options.size() && o < PackedAnswers.MAX_OPTIONS; o++) {
+                AnswerOption option = options.get(o);
+                long selected = totals.selected[q][o];
+                optionStats.add(ItemAnalysisDTO.OptionStats.builder()
+                        .optionId(option.getId())
+                        .text(option.getText())
+                        .isCorrect(option.getIsCorrect())
+                        .selectedCount(selected)
+                        .selectedRate(ratio(selected, totals.attempts))
+                        .build());
+            }
+
+            double discrimination = totals.upper > 0 && totals.lower > 0
+                    ? ratio(totals.correctUpper[q], totals.upper) - ratio(totals.correctLower[q], totals.lower)
+                    : 0.0;
+
+            questionStats.add(ItemAnalysisDTO.QuestionStats.builder()
+                    .questionId(question.getId())
+                    .text(question.getText())
+                    .answered(totals.answered[q])
+                    .difficulty(ratio(totals.correct[q], totals.attempts))
+                    .discrimination(discrimination)
+                    .options(optionStats)
+                    .build());
+        }
+
+        return ItemAnalysisDTO.builder()
+                .quizId(quiz.getId())
+                .quizTitle(quiz.getTitle())
+                .analyzedAttempts(totals.attempts)
+                .upperGroupSize(totals.upper)
+                .lowerGroupSize(totals.lower)
+                .questions(questionStats)
+                .build();
+    }
+
+    private static double ratio(long part, long whole) {
+        return whole > 0 ? (double) part / whole : 0.0;
+    }
+
+    private static Counters await(Future<Counters> future) {
+        try {
+            return future.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new BusinessLogicException("Item analysis was interrupted");
+        } catch (ExecutionException e) {
+            throw new IllegalStateException("Item analysis chunk failed", e.getCause());
+        }
+    }
+
+    // Correct-answer masks by question index, in the same order used to pack answers
+    private static final class QuizKey {
+        private final List<Question> questions;
+        private final long[] correctMasks;
+        private final boolean[] multipleChoice;
+
+        QuizKey(List<Question> questions) {
+            this.questions = questions;
+            this.correctMasks = new long[questions.size()];
+            this.multipleChoice = new boolean[questions.size()];
+            for (int q = 0; q < questions.size(); q++) {
+                Question question = questions.get(q);
+                List<AnswerOption> options = question.getOptions();
+                for (int o = 0; o < options.size() && o < PackedAnswers.MAX_OPTIONS; o++) {
+                    if (options.get(o).getIsCorrect()) {
+                        correctMasks[q] |= 1L << o;
+                    }
+                }
+                multipleChoice[q] = question.getType() == QuestionType.MULTIPLE_CHOICE;
+            }
+        }
+
+        int questionCount() {
+            return correctMasks.length;
+        }
+
+        int optionCount(int q) {
+            return Math.min(questions.get(q).getOptions().size(), PackedAnswers.MAX_OPTIONS);
+        }
+
+        boolean isCorrect(int q, long mask) {
+            if (multipleChoice[q]) {
+                return mask == correctMasks[q];
+            }
+            return (mask & ~correctMasks[q]) == 0;
+        }
+    }
+
+    private record ScoreGroups(long total, int lowerCutoff, int upperCutoff) {
+
+        boolean isLower(int score) {
+            return score <= lowerCutoff;
+        }
+
+        boolean isUpper(int score) {
+            return score >= upperCutoff;
+        }
+    }
+
+    private static final class Counters {
+        private long attempts;
+        private long upper;
+        private long lower;
+        private final long[] answered;
+        private final long[] correct;
+        private final long[] correctUpper;
+        private final long[] correctLower;
+        private final long[][] selected;
+
+        Counters(QuizKey key) {
+            int questions = key.questionCount();
+            this.answered = new long[questions];
+            this.correct = new long[questions];
+            this.correctUpper = new long[questions];
+            this.correctLower = new long[questions];
+            this.selected = new long[questions][];
+            for (int q = 0; q < questions; q++) {
+                selected[q] = new long[key.optionCount(q)];
+            }
+        }
+
+        void merge(Counters other) {
+            attempts += other.attempts;
+            upper += other.upper;
+            lower += other.lower;
+            for (int q = 0; q < answered.length; q++) {
+                answered[q] += other.answered[q];
+                correct[q] += other.correct[q];
+                correctUpper[q] += other.correctUpper[q];
+                correctLower[q] += other.correctLower[q];
+                for (int o = 0; o < selected[q].length; o++) {
+                    selected[q][o] += other.selected[q][o];
+                }
+            }
+        }
+    }
+}
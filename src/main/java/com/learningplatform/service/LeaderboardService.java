@@ -0,0 +1,265 @@
+package com.learningplatform.service;
+
+import com.learningplatform.dto.LeaderboardDTO;
+import com.learningplatform.event.QuizSubmittedEvent;
+import com.learningplatform.exception.BusinessLogicException;
+import com.learningplatform.repository.QuizRepository;
+import com.learningplatform.repository.QuizSubmissionRepository;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListSet;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * In-memory per-course quiz leaderboards.
+ * <p>
+ * A student's course total is the sum of their best score on each quiz of the course. Each board
+ * keeps its students in a skip list ordered by total (top-K walks the head of the list) and a
+ * Fenwick tree indexed by total (rank = 1 + students with a strictly higher total), so both
+ * queries are logarithmic. Boards are built lazily with one grouped query on first access,
+ * updated from {@link QuizSubmittedEvent} after each submission commits, and evicted once a
+ * course has been idle for a while.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class LeaderboardService {
+
+    private static final int MAX_LIMIT = 100;
+    private static final long IDLE_EVICTION_MILLIS = TimeUnit.MINUTES.toMillis(30);
+
+    private final QuizSubmissionRepository quizSubmissionRepository;
+    private final QuizRepository quizRepository;
+
+    private final Map<Long, CourseBoard> boards = new ConcurrentHashMap<>();
+    private final Map<Long, Long> courseByQuiz = new ConcurrentHashMap<>();
+
+    private final ScheduledExecutorService evictor = Executors.newSingleThreadScheduledExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "leaderboard-evictor");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    @PostConstruct
+    void start() {
+        evictor.scheduleWithFixedDelay(this::evictIdle, 5, 5, TimeUnit.MINUTES);
+    }
+
+    @PreDestroy
+    void stop() {
+        evictor.shutdownNow();
+    }
+
+    public LeaderboardDTO getTopStudents(Long courseId, int limit) {
+        if (limit < 1 || limit > MAX_LIMIT) {
+            throw new BusinessLogicException("Limit must be between 1 and " + MAX_LIMIT);
+        }
+        CourseBoard board = board(courseId);
+        return LeaderboardDTO.builder()
+                .courseId(courseId)
+                .participants(board.size())
+                .entries(board.top(limit))
+                .build();
+    }
+
+    public LeaderboardDTO.Entry getStudentRank(Long courseId, Long studentId) {
+        LeaderboardDTO.Entry entry = board(courseId).entryOf(studentId);
+        if (entry == null) {
+            throw new BusinessLogicException("Student " + studentId + " has not taken any quiz in course " + courseId);
+        }
+        return entry;
+    }
+
+    @TransactionalEventListener
+    public void onQuizSubmitted(QuizSubmittedEvent event) {
+        Long courseId = courseByQuiz.computeIfAbsent(event.getQuizId(),
+                quizId -> quizRepository.findCourseIdByQuizId(quizId).orElse(null));
+        if (courseId == null) {
+            return;
+        }
+        // A board that does not exist yet will see this submission when it is built
+        CourseBoard board = boards.get(courseId);
+        if (board != null) {
+            board.record(event.getStudentId(), event.getStudentName(), event.getQuizId(), event.getScore());
+        }
+    }
+
+    private CourseBoard board(Long courseId) {
+        CourseBoard board = boards.computeIfAbsent(courseId, id -> new CourseBoard());
+        board.ensureLoaded(courseId);
+        return board;
+    }
+
+    private void evictIdle() {
+        long cutoff = System.currentTimeMillis() - IDLE_EVICTION_MILLIS;
+        boards.entrySet().removeIf(entry -> {
+            boolean idle = entry.getValue().lastAccess < cutoff;
+            if (idle) {
+                log.debug("Evicting idle leaderboard of course {}", entry.getKey());
+            }
+            return idle;
+        });
+    }
+
+    private final class CourseBoard {
+        private final Map<Long, StudentScores> students = new HashMap<>();
+        private final ConcurrentSkipListSet<StudentScores> ranking = new ConcurrentSkipListSet<>();
+        private ScoreTree totals = new ScoreTree(1024);
+        private boolean loaded;
+        private volatile long lastAccess = System.currentTimeMillis();
+
+        // Updates that arrive while loading are merged afterwards; keeping the max makes that idempotent
+        synchronized void ensureLoaded(Long courseId) {
+            lastAccess = System.currentTimeMillis();
+            if (loaded) {
+                return;
+            }
+            List<Object[]> rows = quizSubmissionRepository.findBestScoresByCourseId(courseId);
+            for (Object[] row : rows) {
+                record((Long) row[0], (String) row[1], (Long) row[2], ((Number) row[3]).intValue());
+            }
+            loaded = true;
+            log.info("Built leaderboard for course {} from {} best scores", courseId, rows.size());
+        }
+
+        synchronized void record(Long studentId, String studentName, Long quizId, int score) {
+            StudentScores current = students.get(studentId);
+            Map<Long, Integer> best = current != null ? current.best : new HashMap<>();
+            Integer previous = best.get(quizId);
+            if (previous != null && previous >= score) {
+                return;
+            }
+
+            Map<Long, Integer> updatedBest = new HashMap<>(best);
+            updatedBest.put(quizId, score);
+            int total = (current != null ? current.total : 0) - (previous != null ? previous : 0) + score;
+            StudentScores updated = new StudentScores(studentId, studentName, total, updatedBest);
+
+            if (current != null) {
+                ranking.remove(current);
+                totals.add(current.total, -1);
+            }
+            if (total >= totals.capacity()) {
+                totals = totals.resize(Math.max(total + 1, totals.capacity() * 2));
+            }
+            totals.add(total, 1);
+            students.put(studentId, updated);
+            ranking.add(updated);
+        }
+
+        int size() {
+            return ranking.size();
+        }
+
+        // Reads the skip list without the board lock; ranks come from the totals of the entries seen
+        List<LeaderboardDTO.Entry> top(int limit) {
+            List<LeaderboardDTO.Entry> entries = new ArrayList<>(limit);
+            Iterator<StudentScores> iterator = ranking.iterator();
+            int position = 0;
+            int rank = 0;
+            int previousTotal = -1;
+            while (iterator.hasNext() && entries.size() < limit) {
+                StudentScores scores = iterator.next();
+                position++;
+                if (scores.total != previousTotal) {
+                    rank = position;
+                    previousTotal = scores.total;
+                }
+                entries.add(scores.toEntry(rank));
+            }
+            return entries;
+        }
+
+        synchronized LeaderboardDTO.Entry entryOf(Long studentId) {
+            StudentScores scores = students.get(studentId);
+            if (scores == null) {
+                return null;
+            }
+            int higher = students.size() - totals.prefixSum(scores.total);
+            return scores.toEntry(higher + 1);
+        }
+    }
+
+    // Immutable snapshot of a student's standing; replaced rather than mutated so the skip list stays ordered
+    private static final class StudentScores implements Comparable<StudentScores> {
+        private final Long studentId;
+        private final String studentName;
+        private final int total;
+        private final Map<Long, Integer> best;
+
+        StudentScores(Long studentId, String studentName, int total, Map<Long, Integer> best) {
+            this.studentId = studentId;
+            this.studentName = studentName;
+            this.total = total;
+            this.best = best;
+        }
+
+        @Override
+        public int compareTo(StudentScores other) {
+            int byTotal = Integer.compare(other.total, total);
+            return byTotal != 0 ? byTotal : studentId.compareTo(other.studentId);
+        }
+
+        LeaderboardDTO.Entry toEntry(int rank) {
+            return LeaderboardDTO.Entry.builder()
+                    .rank(rank)
+                    .studentId(studentId)
+                    .studentName(studentName)
+                    .totalScore(total)
+                    .quizzesTaken(best.size())
+                    .build();
+        }
+    }
+
+    // Fenwick tree counting students per total score
+    private static final class ScoreTree {
+        private final int[] tree;
+
+        ScoreTree(int capacity) {
+            this.tree = new int[capacity + 1];
+        }
+
+        int capacity() {
+            return tree.length - 1;
+        }
+
+        void add(int total, int delta) {
+            for (int i = total + 1; i < tree.length; i += i & -i) {
+                tree[i] += delta;
+            }
+        }
+
+        // Number of students with a total of at most `total`
+        int prefixSum(int total) {
+            int sum = 0;
+            for (int i = Math.min(total + 1, tree.length - 1); i > 0; i -= i & -i) {
+                sum += tree[i];
+            }
+            return sum;
+        }
+
+        ScoreTree resize(int capacity) {
+            ScoreTree resized = new ScoreTree(capacity);
+            for (int total = 0; total < capacity(); total++) {
+                int count = prefixSum(total) - (total > 0 ? prefixSum(total - 1) : 0);
+                if (count != 0) {
+                    resized.add(total, count);
+                }
+            }
+            return resized;
+        }
+    }
+}
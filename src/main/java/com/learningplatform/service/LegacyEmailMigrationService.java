@@ -0,0 +1,88 @@
+package com.learningplatform.service;
+
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Normalizes emails stored before they were normalized on write.
+ * <p>
+ * Lookups, the unique constraint and the import all work on the trimmed, lower case form, so a
+ * user stored as {@code Jane@Example.com} could not be found by email and a second account for
+ * {@code jane@example.com} could be created next to it. On startup, before the application serves
+ * requests, every email that differs from its normalized form is rewritten to it, in id-ordered
+ * chunks. A row whose normalized email already belongs to another user is left as it is and
+ * logged on every startup: two accounts cannot be merged automatically. Once no such emails are
+ * left, startup costs one scan of the users table.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class LegacyEmailMigrationService {
+
+    private static final int CHUNK = 500;
+
+    private static final String NOT_NORMALIZED = "SELECT id, email FROM users " +
+            "WHERE email <> LOWER(TRIM(email)) AND id > ? ORDER BY id LIMIT ?";
+    // Skips the row when the normalized email is taken, including by an earlier row of the batch
+    private static final String NORMALIZE = "UPDATE users SET email = ? WHERE id = ? " +
+            "AND NOT EXISTS (SELECT 1 FROM users u WHERE u.email = ?)";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    @PostConstruct
+    void start() {
+        migrate();
+    }
+
+    /**
+     * Normalizes every email left that can be and returns how many were rewritten.
+     */
+    public int migrate() {
+        int normalized = 0;
+        List<Long> conflicts = new ArrayList<>();
+        long afterId = 0L;
+        while (true) {
+            List<Map<String, Object>> rows = jdbcTemplate.queryForList(NOT_NORMALIZED, afterId, CHUNK);
+            List<Long> ids = new ArrayList<>(rows.size());
+            List<Object[]> updates = new ArrayList<>(rows.size());
+            for (Map<String, Object> row : rows) {
+                long id = ((Number) row.get("id")).longValue();
+                String stored = (String) row.get("email");
+                String email = UserEmailLookupService.normalize(stored);
+                afterId = id;
+                // The database may lower case some characters differently
+                if (email.equals(stored)) {
+                    continue;
+                }
+                ids.add(id);
+                updates.add(new Object[]{email, id, email});
+            }
+            int[] counts = jdbcTemplate.batchUpdate(NORMALIZE, updates);
+            for (int i = 0; i < counts.length; i++) {
+                if (counts[i] == 0) {
+                    conflicts.add(ids.get(i));
+                } else {
+                    normalized++;
+                }
+            }
+            if (rows.size() < CHUNK) {
+                break;
+            }
+        }
+        if (normalized > 0) {
+            log.info("Normalized {} legacy user emails", normalized);
+        }
+        if (!conflicts.isEmpty()) {
+            log.warn("Users {} have an email that differs only in case or spacing from another user's; " +
+                    "they cannot be found by email until merged or changed", conflicts);
+        }
+        return normalized;
+    }
+}
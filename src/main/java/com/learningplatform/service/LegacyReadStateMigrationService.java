@@ -0,0 +1,143 @@
+package com.learningplatform.service;
+
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.DatabaseMetaData;
+import java.sql.ResultSet;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Turns the {@code is_read} flags of notifications from before the read watermark into
+ * watermarks and read marks.
+ * <p>
+ * Schema updates leave the old {@code notifications.is_read} column in place, but nothing reads it
+ * any more. On startup, before the application serves requests, the users with notifications
+ * flagged as read are walked in id order, in chunks, each in its own transaction. A user's
+ * watermark is raised to just below their oldest notification not flagged as read, or to their
+ * newest flagged one if there is none, and every flagged notification above the watermark gets a
+ * read mark. Watermarks only move forward and marks are only added where missing, so read state
+ * recorded since the upgrade is kept and an interrupted run simply starts over on the next
+ * startup. Once every chunk is done the column is dropped; from then on startup costs one
+ * metadata lookup.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class LegacyReadStateMigrationService {
+
+    private static final int CHUNK = 500;
+
+    private static final String USERS =
+            "SELECT DISTINCT user_id FROM notifications WHERE is_read = TRUE AND user_id > ? ORDER BY user_id LIMIT ?";
+    private static final String OLDEST_UNREAD = "SELECT user_id, MIN(id) FROM notifications " +
+            "WHERE user_id > ? AND user_id <= ? AND (is_read IS NULL OR is_read = FALSE) GROUP BY user_id";
+    private static final String NEWEST_READ = "SELECT user_id, MAX(id) FROM notifications " +
+            "WHERE user_id > ? AND user_id <= ? AND is_read = TRUE GROUP BY user_id";
+    private static final String WATERMARKS =
+            "SELECT user_id, last_read_id FROM notification_watermarks WHERE user_id > ? AND user_id <= ?";
+    private static final String ADVANCE_WATERMARK = "UPDATE notification_watermarks " +
+            "SET last_read_id = ?, updated_at = ? WHERE user_id = ? AND last_read_id < ?";
+    private static final String INSERT_WATERMARK =
+            "INSERT INTO notification_watermarks (user_id, last_read_id, updated_at) VALUES (?, ?, ?)";
+    private static final String INSERT_READ_MARKS = "INSERT INTO notification_read_marks (user_id, notification_id) " +
+            "SELECT n.user_id, n.id FROM notifications n " +
+            "LEFT JOIN notification_watermarks w ON w.user_id = n.user_id " +
+            "WHERE n.user_id > ? AND n.user_id <= ? AND n.is_read = TRUE AND n.id > COALESCE(w.last_read_id, 0) " +
+            "AND NOT EXISTS (SELECT 1 FROM notification_read_marks m " +
+            "WHERE m.user_id = n.user_id AND m.notification_id = n.id)";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final PlatformTransactionManager transactionManager;
+
+    @PostConstruct
+    void start() {
+        migrate();
+    }
+
+    /**
+     * Migrates the read flags left, drops the column and returns how many users were migrated.
+     */
+    public int migrate() {
+        if (!exists()) {
+            return 0;
+        }
+        TransactionTemplate transaction = new TransactionTemplate(transactionManager);
+        int migrated = 0;
+        long afterUserId = 0L;
+        while (true) {
+            List<Long> users = jdbcTemplate.queryForList(USERS, Long.class, afterUserId, CHUNK);
+            if (users.isEmpty()) {
+                break;
+            }
+            long from = afterUserId;
+            long to = users.get(users.size() - 1);
+            transaction.executeWithoutResult(status -> migrate(users, from, to));
+            migrated += users.size();
+            afterUserId = to;
+        }
+        jdbcTemplate.execute("ALTER TABLE notifications DROP COLUMN is_read");
+        log.info("Moved the legacy read flags of {} users to watermarks and dropped notifications.is_read", migrated);
+        return migrated;
+    }
+
+    // The users of the chunk are exactly those in (from, to] with a notification flagged as read
+    private void migrate(List<Long> users, long from, long to) {
+        Map<Long, Long> oldestUnread = groupedIds(OLDEST_UNREAD, from, to);
+        Map<Long, Long> newestRead = groupedIds(NEWEST_READ, from, to);
+        Map<Long, Long> watermarks = groupedIds(WATERMARKS, from, to);
+
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+        List<Object[]> advances = new ArrayList<>();
+        List<Object[]> inserts = new ArrayList<>();
+        for (Long userId : users) {
+            Long unread = oldestUnread.get(userId);
+            long lastReadId = unread != null ? unread - 1 : newestRead.get(userId);
+            Long current = watermarks.get(userId);
+            if (current == null) {
+                inserts.add(new Object[]{userId, lastReadId, now});
+            } else if (current < lastReadId) {
+                advances.add(new Object[]{lastReadId, now, userId, lastReadId});
+            }
+        }
+        jdbcTemplate.batchUpdate(ADVANCE_WATERMARK, advances);
+        jdbcTemplate.batchUpdate(INSERT_WATERMARK, inserts);
+        // Against the watermarks just written, so only reads above them get marks
+        jdbcTemplate.update(INSERT_READ_MARKS, from, to);
+    }
+
+    private Map<Long, Long> groupedIds(String sql, long from, long to) {
+        Map<Long, Long> ids = new HashMap<>();
+        jdbcTemplate.query(sql, (RowCallbackHandler) rs -> ids.put(rs.getLong(1), rs.getLong(2)), from, to);
+        return ids;
+    }
+
+    private boolean exists() {
+        return Boolean.TRUE.equals(jdbcTemplate.execute((ConnectionCallback<Boolean>) connection -> {
+            DatabaseMetaData metaData = connection.getMetaData();
+            // Unquoted identifiers are folded to lower case by PostgreSQL and to upper case by H2
+            for (String table : List.of("notifications", "NOTIFICATIONS")) {
+                for (String name : List.of("is_read", "IS_READ")) {
+                    try (ResultSet columns = metaData.getColumns(null, null, table, name)) {
+                        if (columns.next()) {
+                            return true;
+                        }
+                    }
+                }
+            }
+            return false;
+        }));
+    }
+}
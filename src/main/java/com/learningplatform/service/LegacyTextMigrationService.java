@@ -0,0 +1,113 @@
+package com.learningplatform.service;
+
+import com.learningplatform.storage.BlobInfo;
+import com.learningplatform.storage.BlobStore;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+
+import java.sql.DatabaseMetaData;
+import java.sql.ResultSet;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Moves lesson and submission texts stored before the blob store into it.
+ * <p>
+ * Schema updates add the hash and size columns but leave the old {@code content} and
+ * {@code feedback} TEXT columns in place. On startup, before the application serves requests,
+ * every row with a legacy text has it written to the blob store, its hash and size set, and the
+ * legacy value cleared, in keyset-ordered chunks. A row that already has a hash keeps it. Each
+ * update is idempotent, so an interrupted run simply continues on the next startup; once no
+ * legacy values are left, or the columns do not exist, startup costs one metadata lookup per
+ * column.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class LegacyTextMigrationService {
+
+    private static final int CHUNK = 500;
+
+    private static final List<LegacyColumn> COLUMNS = List.of(
+            new LegacyColumn("lessons", "content", "content_hash", "content_size"),
+            new LegacyColumn("submissions", "content", "content_hash", "content_size"),
+            new LegacyColumn("submissions", "feedback", "feedback_hash", "feedback_size"));
+
+    private final JdbcTemplate jdbcTemplate;
+    private final BlobStore blobStore;
+
+    @PostConstruct
+    void start() {
+        migrate();
+    }
+
+    /**
+     * Migrates every legacy text left and returns how many were moved.
+     */
+    public int migrate() {
+        int moved = 0;
+        for (LegacyColumn column : COLUMNS) {
+            if (exists(column)) {
+                moved += migrate(column);
+            }
+        }
+        return moved;
+    }
+
+    private int migrate(LegacyColumn column) {
+        String select = "SELECT id, " + column.legacy + " FROM " + column.table +
+                " WHERE " + column.legacy + " IS NOT NULL AND id > ? ORDER BY id LIMIT ?";
+        // Right-hand sides see the old values, so the size is only set where the hash is
+        String update = "UPDATE " + column.table + " SET " +
+                column.size + " = CASE WHEN " + column.hash + " IS NULL THEN ? ELSE " + column.size + " END, " +
+                column.hash + " = COALESCE(" + column.hash + ", ?), " +
+                column.legacy + " = NULL WHERE id = ?";
+
+        int moved = 0;
+        long afterId = 0L;
+        while (true) {
+            List<Map<String, Object>> rows = jdbcTemplate.queryForList(select, afterId, CHUNK);
+            List<Object[]> updates = new ArrayList<>(rows.size());
+            for (Map<String, Object> row : rows) {
+                long id = ((Number) row.get("id")).longValue();
+                BlobInfo blob = blobStore.putText((String) row.get(column.legacy));
+                updates.add(new Object[]{blob.getSize(), blob.getHash(), id});
+                afterId = id;
+            }
+            jdbcTemplate.batchUpdate(update, updates);
+            moved += rows.size();
+            if (rows.size() < CHUNK) {
+                break;
+            }
+        }
+        if (moved > 0) {
+            log.info("Moved {} legacy {}.{} values into the blob store", moved, column.table, column.legacy);
+        }
+        return moved;
+    }
+
+    private boolean exists(LegacyColumn column) {
+        return Boolean.TRUE.equals(jdbcTemplate.execute((ConnectionCallback<Boolean>) connection -> {
+            DatabaseMetaData metaData = connection.getMetaData();
+            // Unquoted identifiers are folded to lower case by PostgreSQL and to upper case by H2
+            for (String table : List.of(column.table, column.table.toUpperCase())) {
+                for (String name : List.of(column.legacy, column.legacy.toUpperCase())) {
+                    try (ResultSet columns = metaData.getColumns(null, null, table, name)) {
+                        if (columns.next()) {
+                            return true;
+                        }
+                    }
+                }
+            }
+            return false;
+        }));
+    }
+
+    private record LegacyColumn(String table, String legacy, String hash, String size) {
+    }
+}
@@ -8,6 +8,8 @@ import com.learningplatform.entity.Module;
 import com.learningplatform.exception.ResourceNotFoundException;
 import com.learningplatform.repository.LessonRepository;
 import com.learningplatform.repository.ModuleRepository;
+import com.learningplatform.storage.BlobInfo;
+import com.learningplatform.storage.BlobStore;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Service;
@@ -24,6 +26,7 @@ public class LessonService {
 
     private final LessonRepository lessonRepository;
     private final ModuleRepository moduleRepository;
+    private final BlobStore blobStore;
 
     public LessonDTO createLesson(LessonDTO lessonDTO) {
         log.info("Creating lesson: {} for module {}", lessonDTO.getTitle(), lessonDTO.getModuleId());
@@ -34,9 +37,12 @@ public class LessonService {
         Integer maxOrderIndex = lessonRepository.findMaxOrderIndexByModuleId(lessonDTO.getModuleId());
         int newOrderIndex = (maxOrderIndex != null ? maxOrderIndex : -1) + 1;
 
+        BlobInfo content = blobStore.putText(lessonDTO.getContent());
+
         Lesson lesson = Lesson.builder()
                 .title(lessonDTO.getTitle())
-                .content(lessonDTO.getContent())
+                .contentHash(content != null ? content.getHash() : null)
+                .contentSize(content != null ? content.getSize() : null)
                 .videoUrl(lessonDTO.getVideoUrl())
                 .orderIndex(lessonDTO.getOrderIndex() != null ? lessonDTO.getOrderIndex() : newOrderIndex)
                 .duration(lessonDTO.getDuration())
@@ -46,14 +52,14 @@ public class LessonService {
         Lesson savedLesson = lessonRepository.save(lesson);
         log.info("Lesson created with ID: {}", savedLesson.getId());
 
-        return mapToDTO(savedLesson);
+        return mapToDTO(savedLesson, lessonDTO.getContent());
     }
 
     @Transactional(readOnly = true)
     public LessonDTO getLessonById(Long id) {
         Lesson lesson = lessonRepository.findById(id)
                 .orElseThrow(() -> new ResourceNotFoundException("Lesson", "id", id));
-        return mapToDTO(lesson);
+        return mapToDTO(lesson, blobStore.getText(lesson.getContentHash()));
     }
 
     @Transactional(readOnly = true)
@@ -84,7 +90,9 @@ public class LessonService {
                 .orElseThrow(() -> new ResourceNotFoundException("Lesson", "id", id));
 
         lesson.setTitle(lessonDTO.getTitle());
-        lesson.setContent(lessonDTO.getContent());
+        BlobInfo content = blobStore.putText(lessonDTO.getContent());
+        lesson.setContentHash(content != null ? content.getHash() : null);
+        lesson.setContentSize(content != null ? content.getSize() : null);
         lesson.setVideoUrl(lessonDTO.getVideoUrl());
         lesson.setDuration(lessonDTO.getDuration());
 
@@ -93,7 +101,7 @@ public class LessonService {
         }
 
         Lesson updatedLesson = lessonRepository.save(lesson);
-        return mapToDTO(updatedLesson);
+        return mapToDTO(updatedLesson, lessonDTO.getContent());
     }
 
     public void deleteLesson(Long id) {
@@ -107,10 +115,16 @@ public class LessonService {
     }
 
     private LessonDTO mapToDTO(Lesson lesson) {
+        return mapToDTO(lesson, null);
+    }
+
+    private LessonDTO mapToDTO(Lesson lesson, String content) {
         return LessonDTO.builder()
                 .id(lesson.getId())
                 .title(lesson.getTitle())
-                .content(lesson.getContent())
+                .content(content)
+                .contentHash(lesson.getContentHash())
+                .contentSize(lesson.getContentSize())
                 .videoUrl(lesson.getVideoUrl())
                 .orderIndex(lesson.getOrderIndex())
                 .duration(lesson.getDuration())
@@ -119,7 +133,7 @@ public class LessonService {
     }
 
     private LessonDTO mapToDTOWithAssignments(Lesson lesson) {
-        LessonDTO dto = mapToDTO(lesson);
+        LessonDTO dto = mapToDTO(lesson, blobStore.getText(lesson.getContentHash()));
 
         if (lesson.getAssignments() != null) {
             List<AssignmentDTO> assignmentDTOs = lesson.getAssignments().stream()
@@ -122,7 +122,8 @@ public class ModuleService {
         return LessonDTO.builder()
                 .id(lesson.getId())
                 .title(lesson.getTitle())
-                .content(lesson.getContent())
+                .contentHash(lesson.getContentHash())
+                .contentSize(lesson.getContentSize())
                 .videoUrl(lesson.getVideoUrl())
                 .orderIndex(lesson.getOrderIndex())
                 .duration(lesson.getDuration())
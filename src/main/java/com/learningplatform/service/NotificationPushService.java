@@ -0,0 +1,321 @@
+package com.learningplatform.service;
+
+import com.learningplatform.dto.NotificationPushDTO;
+import com.learningplatform.event.NotificationsCreatedEvent;
+import com.learningplatform.event.NotificationsReadEvent;
+import com.learningplatform.event.RowsArchivedEvent;
+import com.learningplatform.exception.ResourceNotFoundException;
+import com.learningplatform.repository.NotificationRepository;
+import com.learningplatform.repository.UserRepository;
+import com.learningplatform.util.SseSender;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * In-memory unread notification counters, pushed to clients over Server-Sent Events.
+ * <p>
+ * A user's counter is seeded from the database the first time it is needed and afterwards
+ * adjusted from {@link NotificationsCreatedEvent}s and {@link NotificationsReadEvent}s, so neither
+ * polling the count nor holding a stream open queries the database. The seed is one statement
+ * that returns the unread count together with the highest notification id it saw; creations above
+ * that id are counted from their events, including those arriving while the seed runs, which are
+ * held and replayed once it is done. A read carries no position to compare with the seed, so a
+ * read arriving while the seed runs makes it start over. Archived notifications leave the table
+ * without events of their own; the {@link RowsArchivedEvent} of their chunk re-seeds the counters
+ * of the users concerned. Counters of users without a stream are dropped after a while and seeded
+ * again on the next request.
+ * <p>
+ * Streams are asynchronous servlet responses, so an open connection holds no thread. Delivery goes
+ * through an {@link SseSender}, which coalesces updates for a subscriber still sending the previous
+ * one (count replaced, summaries prepended and trimmed), so a broadcast to a large course costs
+ * each connected client one write however slow it is, and a slow client holds back no one else.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class NotificationPushService {
+
+    private static final long EMITTER_TIMEOUT_MILLIS = TimeUnit.MINUTES.toMillis(30);
+    private static final long IDLE_EVICTION_MILLIS = TimeUnit.MINUTES.toMillis(30);
+    private static final int NEWEST_LIMIT = 5;
+    private static final String ARCHIVED_TABLE = "notifications";
+
+    private final NotificationRepository notificationRepository;
+    private final UserRepository userRepository;
+
+    private final Map<Long, UserCounter> counters = new ConcurrentHashMap<>();
+
+    private final ScheduledExecutorService evictor = Executors.newSingleThreadScheduledExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "notification-push-evictor");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    private final SseSender sender = new SseSender("notification-push-sender");
+
+    @PostConstruct
+    void start() {
+        evictor.scheduleWithFixedDelay(this::evictIdle, 5, 5, TimeUnit.MINUTES);
+    }
+
+    @PreDestroy
+    void stop() {
+        evictor.shutdownNow();
+        sender.shutdown();
+        counters.values().forEach(counter -> counter.subscribers.forEach(s -> s.getEmitter().complete()));
+    }
+
+    public long getUnreadCount(Long userId) {
+        return counter(userId).get();
+    }
+
+    public SseEmitter subscribe(Long userId) {
+        if (!userRepository.existsById(userId)) {
+            throw new ResourceNotFoundException("User", "id", userId);
+        }
+
+        SseEmitter emitter = new SseEmitter(EMITTER_TIMEOUT_MILLIS);
+        SseSender.Subscriber<NotificationPushDTO> subscriber =
+                sender.subscriber(emitter, NotificationPushService::coalesce);
+        UserCounter counter = counter(userId);
+        counter.attach(subscriber);
+
+        emitter.onCompletion(() -> counter.detach(subscriber));
+        emitter.onTimeout(() -> counter.detach(subscriber));
+        emitter.onError(e -> counter.detach(subscriber));
+        return emitter;
+    }
+
+    public int getSubscriberCount() {
+        int count = 0;
+        for (UserCounter counter : counters.values()) {
+            count += counter.subscribers.size();
+        }
+        return count;
+    }
+
+    @TransactionalEventListener
+    public void onNotificationsCreated(NotificationsCreatedEvent event) {
+        NotificationPushDTO.Summary summary = NotificationPushDTO.Summary.builder()
+                .title(event.getTitle())
+                .createdAt(event.getCreatedAt())
+                .build();
+        // Users without a counter will count these when they are seeded
+        for (int i = 0; i < event.getUserIds().size(); i++) {
+            UserCounter counter = counters.get(event.getUserIds().get(i));
+            if (counter != null) {
+                counter.created(event.getNotificationIds().get(i), summary);
+            }
+        }
+    }
+
+    @TransactionalEventListener
+    public void onNotificationsRead(NotificationsReadEvent event) {
+        UserCounter counter = counters.get(event.getUserId());
+        if (counter != null) {
+            counter.read(event.isAll());
+        }
+    }
+
+    // Runs on the archiver thread; one COUNT for each user of the chunk that has a counter
+    @TransactionalEventListener
+    public void onRowsArchived(RowsArchivedEvent event) {
+        if (!ARCHIVED_TABLE.equals(event.getTable())) {
+            return;
+        }
+        for (Long userId : event.getOwnerIds()) {
+            UserCounter counter = counters.get(userId);
+            if (counter != null) {
+                try {
+                    counter.reseed();
+                } catch (RuntimeException e) {
+                    log.error("Failed to re-seed the unread counter of user {}", userId, e);
+                }
+            }
+        }
+    }
+
+    private UserCounter counter(Long userId) {
+        UserCounter counter;
+        do {
+            counter = counters.computeIfAbsent(userId, UserCounter::new);
+        } while (!counter.touch());
+        return counter;
+    }
+
+    private void evictIdle() {
+        long cutoff = System.currentTimeMillis() - IDLE_EVICTION_MILLIS;
+        counters.values().removeIf(counter -> counter.closeIfIdle(cutoff));
+    }
+
+    private final class UserCounter {
+        private final Long userId;
+        private final List<SseSender.Subscriber<NotificationPushDTO>> subscribers = new CopyOnWriteArrayList<>();
+
+        // Held while seeding, so a counter is seeded by one thread; events only take the counter lock
+        private final Object seedLock = new Object();
+        private final List<Created> arrivedWhileSeeding = new ArrayList<>();
+
+        private boolean seeded;
+        private boolean stale;
+        private boolean closed;
+        private long seededMaxId;
+        private long unread;
+        private long lastAccess = System.currentTimeMillis();
+
+        private UserCounter(Long userId) {
+            this.userId = userId;
+        }
+
+        // False once evicted, so callers retry with a fresh counter
+        boolean touch() {
+            synchronized (this) {
+                if (closed) {
+                    return false;
+                }
+                lastAccess = System.currentTimeMillis();
+            }
+            ensureSeeded();
+            return true;
+        }
+
+        // The seed query runs outside the counter lock
+        void reseed() {
+            synchronized (this) {
+                seeded = false;
+                stale = true;
+            }
+            ensureSeeded();
+        }
+
+        private void ensureSeeded() {
+            synchronized (seedLock) {
+                while (!isSeeded()) {
+                    seed();
+                }
+            }
+        }
+
+        private synchronized boolean isSeeded() {
+            return seeded;
+        }
+
+        private void seed() {
+            synchronized (this) {
+                stale = false;
+            }
+            // Everything up to the watermark is read, so the seed covers it even without rows above
+            Object[] row = notificationRepository.findUnreadSeedByUserId(userId).get(0);
+            long upTo = Math.max(row[0] != null ? ((Number) row[0]).longValue() : 0L,
+                    row[2] != null ? ((Number) row[2]).longValue() : 0L);
+            long seedUnread = ((Number) row[1]).longValue();
+
+            synchronized (this) {
+                // A read arrived meanwhile and the count may or may not include it
+                if (stale) {
+                    return;
+                }
+                seededMaxId = upTo;
+                unread = seedUnread;
+                seeded = true;
+                publish(List.of());
+                for (Created created : arrivedWhileSeeding) {
+                    created(created.notificationId, created.summary);
+                }
+                arrivedWhileSeeding.clear();
+            }
+        }
+
+        synchronized boolean closeIfIdle(long cutoff) {
+            closed = subscribers.isEmpty() && lastAccess < cutoff;
+            return closed;
+        }
+
+        synchronized long get() {
+            return unread;
+        }
+
+        // Snapshot and registration happen under the counter lock, so no update falls between them
+        synchronized void attach(SseSender.Subscriber<NotificationPushDTO> subscriber) {
+            subscriber.offer("snapshot", push(List.of()));
+            subscribers.add(subscriber);
+        }
+
+        synchronized void detach(SseSender.Subscriber<NotificationPushDTO> subscriber) {
+            subscribers.remove(subscriber);
+            lastAccess = System.currentTimeMillis();
+        }
+
+        synchronized void created(long notificationId, NotificationPushDTO.Summary summary) {
+            if (!seeded) {
+                arrivedWhileSeeding.add(new Created(notificationId, summary));
+                return;
+            }
+            // Already counted by the seed
+            if (notificationId <= seededMaxId) {
+                return;
+            }
+            unread++;
+            publish(List.of(summary));
+        }
+
+        synchronized void read(boolean all) {
+            if (!seeded) {
+                stale = true;
+                return;
+            }
+            unread = all ? 0 : Math.max(0, unread - 1);
+            publish(List.of());
+        }
+
+        private void publish(List<NotificationPushDTO.Summary> newest) {
+            if (subscribers.isEmpty()) {
+                return;
+            }
+            NotificationPushDTO update = push(newest);
+            for (SseSender.Subscriber<NotificationPushDTO> subscriber : subscribers) {
+                subscriber.offer("update", update);
+            }
+        }
+
+        private NotificationPushDTO push(List<NotificationPushDTO.Summary> newest) {
+            return NotificationPushDTO.builder()
+                    .userId(userId)
+                    .unreadCount(unread)
+                    .newest(newest)
+                    .build();
+        }
+    }
+
+    private record Created(long notificationId, NotificationPushDTO.Summary summary) {
+    }
+
+    private static NotificationPushDTO coalesce(NotificationPushDTO older, NotificationPushDTO newer) {
+        List<NotificationPushDTO.Summary> newest = new ArrayList<>(newer.getNewest());
+        for (NotificationPushDTO.Summary summary : older.getNewest()) {
+            if (newest.size() >= NEWEST_LIMIT) {
+                break;
+            }
+            newest.add(summary);
+        }
+        return NotificationPushDTO.builder()
+                .userId(newer.getUserId())
+                .unreadCount(newer.getUnreadCount())
+                .newest(newest)
+                .build();
+    }
+}
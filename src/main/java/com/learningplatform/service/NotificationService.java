@@ -0,0 +1,444 @@
+package com.learningplatform.service;
+
+import com.learningplatform.dto.NotificationBroadcastDTO;
+import com.learningplatform.dto.NotificationDTO;
+import com.learningplatform.dto.NotificationPageDTO;
+import com.learningplatform.entity.Notification;
+import com.learningplatform.entity.NotificationReadMark;
+import com.learningplatform.entity.NotificationWatermark;
+import com.learningplatform.entity.Role;
+import com.learningplatform.event.AssignmentDeadlineEvent;
+import com.learningplatform.event.NotificationsCreatedEvent;
+import com.learningplatform.event.NotificationsReadEvent;
+import com.learningplatform.exception.BusinessLogicException;
+import com.learningplatform.exception.ResourceNotFoundException;
+import com.learningplatform.repository.CourseRepository;
+import com.learningplatform.repository.EnrollmentRepository;
+import com.learningplatform.repository.NotificationReadMarkRepository;
+import com.learningplatform.repository.NotificationRepository;
+import com.learningplatform.repository.NotificationWatermarkRepository;
+import com.learningplatform.repository.UserRepository;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.jdbc.core.ArgumentPreparedStatementSetter;
+import org.springframework.jdbc.core.BatchPreparedStatementSetter;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.support.GeneratedKeyHolder;
+import org.springframework.jdbc.support.KeyHolder;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * User notifications.
+ * <p>
+ * Broadcasts to a course or a role run in the background, one at a time, and are tracked in
+ * memory until an hour after they finish. Recipients are walked in id order in chunks: each chunk
+ * reads the next 1000 recipient ids and inserts their notifications with one
+ * {@code INSERT ... SELECT} over that id range, in its own transaction. A 20k-student course costs
+ * 20 short transactions instead of 20k inserts, and a failure leaves whole chunks delivered.
+ * <p>
+ * Read state never touches the notification rows. Each user has a {@link NotificationWatermark}:
+ * everything up to its id is read. A notification read out of order gets a
+ * {@link NotificationReadMark}; reading the oldest unread one moves the watermark past it and past
+ * any marked ones that follow, dropping their marks. Marking all as read moves the watermark to
+ * the user's newest notification, one row however many notifications there are.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+@Transactional
+public class NotificationService {
+
+    private static final int BATCH_SIZE = 1000;
+    private static final int MAX_PAGE_SIZE = 100;
+    private static final long JOB_RETENTION_MINUTES = 60L;
+
+    private static final String INSERT_NOTIFICATION =
+            "INSERT INTO notifications (title, message, created_at, user_id) VALUES (?, ?, ?, ?)";
+
+    private static final String COURSE_RECIPIENTS = "SELECT student_id FROM enrollments " +
+            "WHERE course_id = ? AND status = 'ACTIVE' AND student_id > ? ORDER BY student_id LIMIT ?";
+    private static final String INSERT_FOR_COURSE = "INSERT INTO notifications " +
+            "(title, message, created_at, user_id) " +
+            "SELECT ?, ?, ?, student_id FROM enrollments " +
+            "WHERE course_id = ? AND status = 'ACTIVE' AND student_id > ? AND student_id <= ?";
+
+    private static final String ROLE_RECIPIENTS =
+            "SELECT id FROM users WHERE role = ? AND id > ? ORDER BY id LIMIT ?";
+    private static final String INSERT_FOR_ROLE = "INSERT INTO notifications " +
+            "(title, message, created_at, user_id) " +
+            "SELECT ?, ?, ?, id FROM users " +
+            "WHERE role = ? AND id > ? AND id <= ?";
+
+    private static final String[] ID_COLUMN = {"id"};
+    private static final String[] INSERTED_COLUMNS = {"id", "user_id"};
+    private static final String INSERT_WATERMARK =
+            "INSERT INTO notification_watermarks (user_id, last_read_id, updated_at) VALUES (?, 0, ?)";
+
+    private static final DateTimeFormatter DUE_FORMAT = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm");
+
+    private final NotificationRepository notificationRepository;
+    private final NotificationWatermarkRepository watermarkRepository;
+    private final NotificationReadMarkRepository readMarkRepository;
+    private final EnrollmentRepository enrollmentRepository;
+    private final CourseRepository courseRepository;
+    private final UserRepository userRepository;
+    private final JdbcTemplate jdbcTemplate;
+    private final PlatformTransactionManager transactionManager;
+    private final NotificationPushService notificationPushService;
+    private final ApplicationEventPublisher eventPublisher;
+
+    private final Map<UUID, BroadcastJob> jobs = new ConcurrentHashMap<>();
+
+    private final ScheduledExecutorService broadcaster = Executors.newSingleThreadScheduledExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "notification-broadcast");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    @PostConstruct
+    void start() {
+        broadcaster.scheduleWithFixedDelay(this::evictFinishedJobs, 10, 10, TimeUnit.MINUTES);
+    }
+
+    @PreDestroy
+    void stop() {
+        broadcaster.shutdownNow();
+    }
+
+    /**
+     * Queues a broadcast and returns at once; poll {@link #getBroadcast} for progress.
+     */
+    public NotificationBroadcastDTO broadcast(NotificationBroadcastDTO request) {
+        if ((request.getCourseId() == null) == (request.getRole() == null)) {
+            throw new BusinessLogicException("Exactly one of courseId and role must be given");
+        }
+        if (request.getCourseId() != null && !courseRepository.existsById(request.getCourseId())) {
+            throw new ResourceNotFoundException("Course", "id", request.getCourseId());
+        }
+
+        BroadcastJob job = new BroadcastJob(UUID.randomUUID(), request.getTitle(), request.getMessage(),
+                request.getCourseId(), request.getRole());
+        jobs.put(job.id, job);
+        broadcaster.execute(() -> run(job));
+        log.info("Queued broadcast {} to {}", job.id,
+                job.courseId != null ? "course " + job.courseId : "role " + job.role);
+        return job.toDTO();
+    }
+
+    public NotificationBroadcastDTO getBroadcast(UUID id) {
+        BroadcastJob job = jobs.get(id);
+        if (job == null) {
+            throw new ResourceNotFoundException("Broadcast", "id", id);
+        }
+        return job.toDTO();
+    }
+
+    @Transactional(readOnly = true)
+    public NotificationPageDTO getNotifications(Long userId, Long beforeId, int size) {
+        if (size < 1 || size > MAX_PAGE_SIZE) {
+            throw new BusinessLogicException("Page size must be between 1 and " + MAX_PAGE_SIZE);
+        }
+        if (!userRepository.existsById(userId)) {
+            throw new ResourceNotFoundException("User", "id", userId);
+        }
+
+        // One extra row tells whether another page follows
+        PageRequest limit = PageRequest.of(0, size + 1);
+        List<Notification> rows = beforeId == null
+                ? notificationRepository.findPageByUserId(userId, limit)
+                : notificationRepository.findPageByUserIdBefore(userId, beforeId, limit);
+
+        boolean hasMore = rows.size() > size;
+        List<Notification> page = hasMore ? rows.subList(0, size) : rows;
+
+        long lastReadId = lastReadId(userId);
+        List<Long> aboveWatermark = new ArrayList<>();
+        for (Notification notification : page) {
+            if (notification.getId() > lastReadId) {
+                aboveWatermark.add(notification.getId());
+            }
+        }
+        Set<Long> marked = aboveWatermark.isEmpty() ? Set.of()
+                : new HashSet<>(readMarkRepository.findMarkedIds(userId, aboveWatermark));
+
+        List<NotificationDTO> items = new ArrayList<>(page.size());
+        for (Notification notification : page) {
+            boolean read = notification.getId() <= lastReadId || marked.contains(notification.getId());
+            items.add(mapToDTO(notification, userId, read));
+        }
+        return NotificationPageDTO.builder()
+                .userId(userId)
+                .items(items)
+                .hasMore(hasMore)
+                .nextBeforeId(hasMore ? items.get(items.size() - 1).getId() : null)
+                .build();
+    }
+
+    // Served from the in-memory counter; only the first request after a while runs a COUNT
+    @Transactional(readOnly = true)
+    public long getUnreadCount(Long userId) {
+        return notificationPushService.getUnreadCount(userId);
+    }
+
+    public void markAsRead(Long notificationId) {
+        Long userId = notificationRepository.findUserIdById(notificationId)
+                .orElseThrow(() -> new ResourceNotFoundException("Notification", "id", notificationId));
+        long lastReadId = lastReadId(userId);
+        if (notificationId <= lastReadId || readMarkRepository.existsByUserIdAndNotificationId(userId, notificationId)) {
+            return;
+        }
+
+        Long oldestUnread = notificationRepository.findFirstUnreadIdAfter(userId, lastReadId);
+        if (notificationId.equals(oldestUnread)) {
+            // In order: everything up to the next unread notification is now read
+            Long nextUnread = notificationRepository.findFirstUnreadIdAfter(userId, notificationId);
+            moveWatermark(userId, nextUnread != null ? nextUnread - 1 : notificationRepository.findMaxIdByUserId(userId));
+        } else {
+            readMarkRepository.save(NotificationReadMark.builder()
+                    .userId(userId)
+                    .notificationId(notificationId)
+                    .build());
+        }
+        eventPublisher.publishEvent(new NotificationsReadEvent(userId, false));
+    }
+
+    public void markAllAsRead(Long userId) {
+        Long newestId = notificationRepository.findMaxIdByUserId(userId);
+        if (newestId != null) {
+            moveWatermark(userId, newestId);
+        }
+        eventPublisher.publishEvent(new NotificationsReadEvent(userId, true));
+    }
+
+    /**
+     * Drops the read state of a user; their notifications go with the user itself.
+     */
+    public void removeReadState(Long userId) {
+        readMarkRepository.deleteByUserId(userId);
+        watermarkRepository.deleteById(userId);
+    }
+
+    // Runs inside the transaction that claimed the deadline
+    @EventListener
+    public void onAssignmentDeadline(AssignmentDeadlineEvent event) {
+        List<Long> studentIds = enrollmentRepository.findStudentIdsWithoutSubmission(event.getAssignmentId());
+        if (studentIds.isEmpty()) {
+            return;
+        }
+
+        String due = event.getDueDate().format(DUE_FORMAT);
+        String title;
+        String message;
+        if (event.getKind() == AssignmentDeadlineEvent.Kind.REMINDER) {
+            title = "Assignment due soon";
+            message = "\"" + event.getAssignmentTitle() + "\" is due on " + due + " and you have not submitted it yet.";
+        } else {
+            title = "Assignment overdue";
+            message = "\"" + event.getAssignmentTitle() + "\" was due on " + due + " and has not been submitted.";
+        }
+
+        int sent = notifyUsers(studentIds, title, message);
+        log.info("Sent {} {} notifications for assignment {}", sent, event.getKind(), event.getAssignmentId());
+    }
+
+    /**
+     * Inserts the same notification for every user as JDBC batches.
+     */
+    public int notifyUsers(List<Long> userIds, String title, String message) {
+        Timestamp createdAt = Timestamp.valueOf(LocalDateTime.now());
+        for (int from = 0; from < userIds.size(); from += BATCH_SIZE) {
+            List<Long> chunk = userIds.subList(from, Math.min(from + BATCH_SIZE, userIds.size()));
+            KeyHolder keys = new GeneratedKeyHolder();
+            jdbcTemplate.batchUpdate(connection -> connection.prepareStatement(INSERT_NOTIFICATION, ID_COLUMN),
+                    new BatchPreparedStatementSetter() {
+                        @Override
+                        public void setValues(PreparedStatement statement, int i) throws SQLException {
+                            statement.setString(1, title);
+                            statement.setString(2, message);
+                            statement.setTimestamp(3, createdAt);
+                            statement.setLong(4, chunk.get(i));
+                        }
+
+                        @Override
+                        public int getBatchSize() {
+                            return chunk.size();
+                        }
+                    }, keys);
+            List<Long> notificationIds = new ArrayList<>(chunk.size());
+            for (Map<String, Object> key : keys.getKeyList()) {
+                notificationIds.add(((Number) key.get("id")).longValue());
+            }
+            eventPublisher.publishEvent(new NotificationsCreatedEvent(
+                    List.copyOf(chunk), notificationIds, title, createdAt.toLocalDateTime()));
+        }
+        return userIds.size();
+    }
+
+    private void run(BroadcastJob job) {
+        job.status = NotificationBroadcastDTO.Status.RUNNING;
+        job.startedAt = LocalDateTime.now();
+        try {
+            Timestamp createdAt = Timestamp.valueOf(job.startedAt);
+            TransactionTemplate transaction = new TransactionTemplate(transactionManager);
+            job.recipients = job.courseId != null
+                    ? jdbcTemplate.queryForObject("SELECT COUNT(*) FROM enrollments " +
+                            "WHERE course_id = ? AND status = 'ACTIVE'", Long.class, job.courseId)
+                    : jdbcTemplate.queryForObject("SELECT COUNT(*) FROM users WHERE role = ?",
+                            Long.class, job.role.name());
+
+            long after = 0L;
+            while (true) {
+                List<Long> chunk = job.courseId != null
+                        ? jdbcTemplate.queryForList(COURSE_RECIPIENTS, Long.class, job.courseId, after, BATCH_SIZE)
+                        : jdbcTemplate.queryForList(ROLE_RECIPIENTS, Long.class, job.role.name(), after, BATCH_SIZE);
+                if (chunk.isEmpty()) {
+                    break;
+                }
+                long from = after;
+                long to = chunk.get(chunk.size() - 1);
+                Integer inserted = transaction.execute(status -> {
+                    String sql = job.courseId != null ? INSERT_FOR_COURSE : INSERT_FOR_ROLE;
+                    Object[] args = {job.title, job.message, createdAt,
+                            job.courseId != null ? job.courseId : job.role.name(), from, to};
+                    // The inserted rows come back with their recipients, so the live counters see
+                    // exactly what was delivered even if the recipients changed since they were read
+                    KeyHolder keys = new GeneratedKeyHolder();
+                    jdbcTemplate.update(connection -> {
+                        PreparedStatement statement = connection.prepareStatement(sql, INSERTED_COLUMNS);
+                        new ArgumentPreparedStatementSetter(args).setValues(statement);
+                        return statement;
+                    }, keys);
+                    List<Long> userIds = new ArrayList<>();
+                    List<Long> notificationIds = new ArrayList<>();
+                    for (Map<String, Object> key : keys.getKeyList()) {
+                        userIds.add(((Number) key.get("user_id")).longValue());
+                        notificationIds.add(((Number) key.get("id")).longValue());
+                    }
+                    eventPublisher.publishEvent(new NotificationsCreatedEvent(
+                            userIds, notificationIds, job.title, job.startedAt));
+                    return userIds.size();
+                });
+                job.delivered += inserted != null ? inserted : 0;
+                after = to;
+            }
+            job.status = NotificationBroadcastDTO.Status.COMPLETED;
+            log.info("Broadcast {} delivered {} notifications", job.id, job.delivered);
+        } catch (RuntimeException e) {
+            job.status = NotificationBroadcastDTO.Status.FAILED;
+            job.error = e.getMessage();
+            log.error("Broadcast {} failed after {} notifications", job.id, job.delivered, e);
+        } finally {
+            job.finishedAt = LocalDateTime.now();
+        }
+    }
+
+    private long lastReadId(Long userId) {
+        return watermarkRepository.findLastReadId(userId).orElse(0L);
+    }
+
+    private void moveWatermark(Long userId, Long lastReadId) {
+        LocalDateTime now = LocalDateTime.now();
+        if (watermarkRepository.advance(userId, lastReadId, now) == 0 && !watermarkRepository.existsById(userId)) {
+            createWatermark(userId, now);
+            watermarkRepository.advance(userId, lastReadId, now);
+        }
+        readMarkRepository.deleteUpTo(userId, lastReadId);
+    }
+
+    // Committed on its own at "nothing read", so when two first reads race the loser's duplicate key
+    // fails this transaction and not the caller's; both then advance the same row
+    private void createWatermark(Long userId, LocalDateTime now) {
+        TransactionTemplate transaction = new TransactionTemplate(transactionManager);
+        transaction.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        try {
+            transaction.executeWithoutResult(status ->
+                    jdbcTemplate.update(INSERT_WATERMARK, userId, Timestamp.valueOf(now)));
+        } catch (DataIntegrityViolationException e) {
+            log.debug("Watermark of user {} was created concurrently", userId);
+        }
+    }
+
+    private void evictFinishedJobs() {
+        LocalDateTime cutoff = LocalDateTime.now().minusMinutes(JOB_RETENTION_MINUTES);
+        jobs.values().removeIf(job -> job.finishedAt != null && job.finishedAt.isBefore(cutoff));
+    }
+
+    private static NotificationDTO mapToDTO(Notification notification, Long userId, boolean read) {
+        return NotificationDTO.builder()
+                .id(notification.getId())
+                .userId(userId)
+                .title(notification.getTitle())
+                .message(notification.getMessage())
+                .isRead(read)
+                .createdAt(notification.getCreatedAt())
+                .build();
+    }
+
+    // Written only by the broadcast thread, read by status requests
+    private static final class BroadcastJob {
+        private final UUID id;
+        private final String title;
+        private final String message;
+        private final Long courseId;
+        private final Role role;
+        private final LocalDateTime createdAt = LocalDateTime.now();
+
+        private volatile NotificationBroadcastDTO.Status status = NotificationBroadcastDTO.Status.QUEUED;
+        private volatile Long recipients;
+        private volatile long delivered;
+        private volatile LocalDateTime startedAt;
+        private volatile LocalDateTime finishedAt;
+        private volatile String error;
+
+        private BroadcastJob(UUID id, String title, String message, Long courseId, Role role) {
+            this.id = id;
+            this.title = title;
+            this.message = message;
+            this.courseId = courseId;
+            this.role = role;
+        }
+
+        NotificationBroadcastDTO toDTO() {
+            return NotificationBroadcastDTO.builder()
+                    .id(id)
+                    .title(title)
+                    .message(message)
+                    .courseId(courseId)
+                    .role(role)
+                    .status(status)
+                    .recipients(recipients)
+                    .delivered(delivered)
+                    .createdAt(createdAt)
+                    .startedAt(startedAt)
+                    .finishedAt(finishedAt)
+                    .error(error)
+                    .build();
+        }
+    }
+}
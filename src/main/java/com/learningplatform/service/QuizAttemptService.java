@@ -0,0 +1,398 @@
+package com.learningplatform.service;
+
+import com.learningplatform.dto.QuizAttemptDTO;
+import com.learningplatform.dto.QuizSubmissionDTO;
+import com.learningplatform.entity.Quiz;
+import com.learningplatform.entity.Role;
+import com.learningplatform.entity.User;
+import com.learningplatform.exception.BusinessLogicException;
+import com.learningplatform.exception.ResourceNotFoundException;
+import com.learningplatform.repository.QuizRepository;
+import com.learningplatform.repository.UserRepository;
+import com.learningplatform.util.HierarchicalTimerWheel;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Timed quiz attempts.
+ * <p>
+ * Open attempts live only in memory; their deadlines are tracked by a hierarchical timer wheel
+ * driven by a one-second ticker, so enforcing time limits never polls the database. When a
+ * deadline passes the attempt is auto-submitted with its saved draft answers; one without any is
+ * recorded with a score of zero, so abandoning an attempt to start afresh is never free. Quizzes
+ * with a time limit can only be taken through attempts. Open attempts are written to a binary
+ * snapshot file periodically and on shutdown, and restored on startup; attempts whose deadline
+ * passed while the application was down are finalized on the first tick.
+ * <p>
+ * The ticker only does the wheel bookkeeping: expired attempts are queued for a small pool of
+ * finisher threads, which record them in one transaction per quiz and batch, so a wave of deadlines
+ * delays neither the next tick nor the snapshot. Queued attempts stay in the snapshot until they
+ * are recorded.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class QuizAttemptService {
+
+    private static final long TICK_MILLIS = 1000L;
+
+    // Allowance for network latency on manual submissions close to the deadline
+    private static final long GRACE_MILLIS = 5000L;
+
+    private static final long SNAPSHOT_INTERVAL_SECONDS = 30L;
+    private static final int SNAPSHOT_MAGIC = 0x51415431;
+
+    private static final int FINISHERS = 4;
+    private static final int FINISH_BATCH = 200;
+
+    private final QuizService quizService;
+    private final QuizRepository quizRepository;
+    private final UserRepository userRepository;
+
+    @Value("${learning-platform.quiz-attempts.snapshot-path:data/quiz-attempts.snapshot}")
+    private String snapshotPath;
+
+    private final Map<UUID, AttemptSession> sessions = new ConcurrentHashMap<>();
+    private final Map<String, UUID> openAttempts = new ConcurrentHashMap<>();
+    private final HierarchicalTimerWheel<UUID> deadlines =
+            new HierarchicalTimerWheel<>(TICK_MILLIS, System.currentTimeMillis());
+    private final AtomicBoolean dirty = new AtomicBoolean();
+
+    // Expired attempts until they are recorded, queued or in a finisher's batch
+    private final Map<UUID, AttemptSession> finishing = new ConcurrentHashMap<>();
+    private final BlockingQueue<AttemptSession> expired = new LinkedBlockingQueue<>();
+
+    private final ScheduledExecutorService ticker = Executors.newSingleThreadScheduledExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "quiz-attempt-ticker");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    private final ExecutorService finishers = Executors.newFixedThreadPool(FINISHERS, runnable -> {
+        Thread thread = new Thread(runnable, "quiz-attempt-finisher");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    @PostConstruct
+    void start() {
+        loadSnapshot();
+        for (int i = 0; i < FINISHERS; i++) {
+            finishers.execute(this::finishExpired);
+        }
+        ticker.scheduleAtFixedRate(this::tick, TICK_MILLIS, TICK_MILLIS, TimeUnit.MILLISECONDS);
+        ticker.scheduleWithFixedDelay(this::snapshotIfDirty,
+                SNAPSHOT_INTERVAL_SECONDS, SNAPSHOT_INTERVAL_SECONDS, TimeUnit.SECONDS);
+    }
+
+    @PreDestroy
+    void stop() {
+        ticker.shutdownNow();
+        finishers.shutdownNow();
+        snapshotIfDirty();
+    }
+
+    public QuizAttemptDTO startAttempt(Long quizId, Long studentId) {
+        User student = userRepository.findById(studentId)
+                .orElseThrow(() -> new ResourceNotFoundException("User", "id", studentId));
+        if (student.getRole() != Role.STUDENT) {
+            throw new BusinessLogicException("Only students can take quizzes");
+        }
+
+        Quiz quiz = quizRepository.findById(quizId)
+                .orElseThrow(() -> new ResourceNotFoundException("Quiz", "id", quizId));
+
+        // One open attempt per student and quiz: starting again resumes it
+        UUID attemptId = openAttempts.computeIfAbsent(key(quizId, studentId), k -> {
+            long now = System.currentTimeMillis();
+            long deadline = quiz.getTimeLimit() != null && quiz.getTimeLimit() > 0
+                    ? now + TimeUnit.MINUTES.toMillis(quiz.getTimeLimit())
+                    : 0L;
+            AttemptSession session = new AttemptSession(UUID.randomUUID(), quizId, studentId, now, deadline);
+            register(session);
+            log.info("Student {} started attempt {} on quiz {}", studentId, session.attemptId, quizId);
+            return session.attemptId;
+        });
+
+        return mapToDTO(getSession(attemptId));
+    }
+
+    public QuizAttemptDTO saveAnswers(UUID attemptId, Map<Long, Long> answers) {
+        AttemptSession session = getSession(attemptId);
+        session.answers.putAll(answers);
+        dirty.set(true);
+        return mapToDTO(session);
+    }
+
+    public QuizSubmissionDTO submitAttempt(UUID attemptId, Map<Long, Long> answers) {
+        AttemptSession session = close(attemptId);
+        if (session == null) {
+            throw new ResourceNotFoundException("Quiz attempt", "id", attemptId);
+        }
+        if (answers != null) {
+            session.answers.putAll(answers);
+        }
+        log.info("Student {} submitted attempt {}", session.studentId, attemptId);
+        return finish(session, System.currentTimeMillis());
+    }
+
+    public QuizAttemptDTO getAttempt(UUID attemptId) {
+        return mapToDTO(getSession(attemptId));
+    }
+
+    public int getOpenAttemptCount() {
+        return sessions.size();
+    }
+
+    public boolean hasOpenAttempts(Long quizId) {
+        for (Map<UUID, AttemptSession> attempts : List.of(sessions, finishing)) {
+            for (AttemptSession session : attempts.values()) {
+                if (session.quizId.equals(quizId)) {
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+
+    private void tick() {
+        try {
+            for (UUID attemptId : deadlines.advance(System.currentTimeMillis())) {
+                // Put into `finishing` before leaving `sessions`, so the attempt is never out of the snapshot
+                AttemptSession session = sessions.get(attemptId);
+                if (session == null) {
+                    continue;
+                }
+                finishing.put(attemptId, session);
+                if (close(attemptId) == session) {
+                    expired.add(session);
+                } else {
+                    finishing.remove(attemptId);
+                }
+            }
+        } catch (RuntimeException e) {
+            log.error("Quiz attempt ticker failed", e);
+        }
+    }
+
+    private void finishExpired() {
+        List<AttemptSession> batch = new ArrayList<>(FINISH_BATCH);
+        while (!Thread.currentThread().isInterrupted()) {
+            try {
+                batch.add(expired.take());
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            }
+            expired.drainTo(batch, FINISH_BATCH - 1);
+            Map<Long, List<AttemptSession>> byQuiz = new HashMap<>();
+            for (AttemptSession session : batch) {
+                byQuiz.computeIfAbsent(session.quizId, k -> new ArrayList<>()).add(session);
+            }
+            byQuiz.forEach(this::finishExpired);
+            batch.clear();
+        }
+    }
+
+    // Recorded even without answers, so a new attempt always counts as another try
+    private void finishExpired(Long quizId, List<AttemptSession> attempts) {
+        try {
+            List<QuizService.ExpiredAttempt> expiredAttempts = new ArrayList<>(attempts.size());
+            for (AttemptSession session : attempts) {
+                expiredAttempts.add(new QuizService.ExpiredAttempt(session.studentId,
+                        new HashMap<>(session.answers), timeSpent(session, session.deadline)));
+            }
+            int recorded = quizService.recordExpiredAttempts(quizId, expiredAttempts);
+            log.info("Auto-submitted {} attempts on quiz {} at their deadline", recorded, quizId);
+        } catch (RuntimeException e) {
+            // One bad attempt must not lose the others of the batch
+            log.warn("Failed to auto-submit {} attempts on quiz {} together, retrying one by one: {}",
+                    attempts.size(), quizId, e.getMessage());
+            for (AttemptSession session : attempts) {
+                try {
+                    finish(session, session.deadline);
+                } catch (RuntimeException failure) {
+                    log.error("Failed to auto-submit attempt {}: {}", session.attemptId, failure.getMessage());
+                }
+            }
+        } finally {
+            for (AttemptSession session : attempts) {
+                finishing.remove(session.attemptId);
+            }
+            dirty.set(true);
+        }
+    }
+
+    private QuizSubmissionDTO finish(AttemptSession session, long endedAt) {
+        return quizService.takeQuiz(session.quizId, session.studentId, new HashMap<>(session.answers),
+                timeSpent(session, endedAt));
+    }
+
+    private static int timeSpent(AttemptSession session, long endedAt) {
+        long end = session.deadline > 0 ? Math.min(endedAt, session.deadline) : endedAt;
+        return (int) TimeUnit.MILLISECONDS.toSeconds(Math.max(0L, end - session.startedAt));
+    }
+
+    private void register(AttemptSession session) {
+        sessions.put(session.attemptId, session);
+        if (session.deadline > 0) {
+            session.timeout = deadlines.schedule(session.attemptId, session.deadline + GRACE_MILLIS);
+        }
+        dirty.set(true);
+    }
+
+    // Removal from `sessions` decides the single owner between the ticker and a manual submit
+    private AttemptSession close(UUID attemptId) {
+        AttemptSession session = sessions.remove(attemptId);
+        if (session != null) {
+            openAttempts.remove(key(session.quizId, session.studentId), attemptId);
+            deadlines.cancel(session.timeout);
+            dirty.set(true);
+        }
+        return session;
+    }
+
+    private AttemptSession getSession(UUID attemptId) {
+        AttemptSession session = sessions.get(attemptId);
+        if (session == null) {
+            throw new ResourceNotFoundException("Quiz attempt", "id", attemptId);
+        }
+        return session;
+    }
+
+    private static String key(Long quizId, Long studentId) {
+        return quizId + ":" + studentId;
+    }
+
+    // Snapshot layout: magic, count, then per attempt
+    // (uuid msb, uuid lsb, quizId, studentId, startedAt, deadline, answer count, (questionId, optionId)*)
+    private void snapshotIfDirty() {
+        if (!dirty.getAndSet(false)) {
+            return;
+        }
+        Path path = Paths.get(snapshotPath);
+        try {
+            Path parent = path.toAbsolutePath().getParent();
+            Files.createDirectories(parent);
+            Path tmp = Files.createTempFile(parent, "quiz-attempts", ".tmp");
+            try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(tmp)))) {
+                // Expired attempts not yet recorded are restored as open ones and expire again on the first tick
+                Map<UUID, AttemptSession> snapshot = new HashMap<>(finishing);
+                snapshot.putAll(sessions);
+                List<AttemptSession> open = List.copyOf(snapshot.values());
+                out.writeInt(SNAPSHOT_MAGIC);
+                out.writeInt(open.size());
+                for (AttemptSession session : open) {
+                    out.writeLong(session.attemptId.getMostSignificantBits());
+                    out.writeLong(session.attemptId.getLeastSignificantBits());
+                    out.writeLong(session.quizId);
+                    out.writeLong(session.studentId);
+                    out.writeLong(session.startedAt);
+                    out.writeLong(session.deadline);
+                    Map<Long, Long> answers = new HashMap<>(session.answers);
+                    out.writeInt(answers.size());
+                    for (Map.Entry<Long, Long> answer : answers.entrySet()) {
+                        out.writeLong(answer.getKey());
+                        out.writeLong(answer.getValue());
+                    }
+                }
+            }
+            Files.move(tmp, path, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException e) {
+            dirty.set(true);
+            log.error("Failed to write quiz attempt snapshot {}: {}", path, e.getMessage());
+        }
+    }
+
+    private void loadSnapshot() {
+        Path path = Paths.get(snapshotPath);
+        if (!Files.exists(path)) {
+            return;
+        }
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(Files.newInputStream(path)))) {
+            if (in.readInt() != SNAPSHOT_MAGIC) {
+                log.warn("Ignoring quiz attempt snapshot {} with unknown format", path);
+                return;
+            }
+            int count = in.readInt();
+            for (int i = 0; i < count; i++) {
+                AttemptSession session = new AttemptSession(
+                        new UUID(in.readLong(), in.readLong()),
+                        in.readLong(), in.readLong(), in.readLong(), in.readLong());
+                int answerCount = in.readInt();
+                for (int a = 0; a < answerCount; a++) {
+                    session.answers.put(in.readLong(), in.readLong());
+                }
+                register(session);
+                openAttempts.put(key(session.quizId, session.studentId), session.attemptId);
+            }
+            log.info("Restored {} open quiz attempts from {}", count, path);
+        } catch (IOException e) {
+            log.error("Failed to read quiz attempt snapshot {}: {}", path, e.getMessage());
+        }
+    }
+
+    private QuizAttemptDTO mapToDTO(AttemptSession session) {
+        return QuizAttemptDTO.builder()
+                .attemptId(session.attemptId)
+                .quizId(session.quizId)
+                .studentId(session.studentId)
+                .startedAt(toLocalDateTime(session.startedAt))
+                .deadline(session.deadline > 0 ? toLocalDateTime(session.deadline) : null)
+                .answers(new HashMap<>(session.answers))
+                .build();
+    }
+
+    private static LocalDateTime toLocalDateTime(long epochMillis) {
+        return LocalDateTime.ofInstant(Instant.ofEpochMilli(epochMillis), ZoneId.systemDefault());
+    }
+
+    private static final class AttemptSession {
+        private final UUID attemptId;
+        private final Long quizId;
+        private final Long studentId;
+        private final long startedAt;
+        // Epoch millis, 0 when the quiz has no time limit
+        private final long deadline;
+        private final Map<Long, Long> answers = new ConcurrentHashMap<>();
+        private volatile HierarchicalTimerWheel.Timeout<UUID> timeout;
+
+        private AttemptSession(UUID attemptId, Long quizId, Long studentId, long startedAt, long deadline) {
+            this.attemptId = attemptId;
+            this.quizId = quizId;
+            this.studentId = studentId;
+            this.startedAt = startedAt;
+            this.deadline = deadline;
+        }
+    }
+}
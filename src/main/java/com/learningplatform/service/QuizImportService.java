@@ -0,0 +1,309 @@
+package com.learningplatform.service;
+
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.MappingIterator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.learningplatform.dto.AnswerOptionDTO;
+import com.learningplatform.dto.QuestionDTO;
+import com.learningplatform.dto.QuizDTO;
+import com.learningplatform.dto.QuizImportResultDTO;
+import com.learningplatform.entity.QuestionType;
+import com.learningplatform.entity.Quiz;
+import com.learningplatform.exception.BusinessLogicException;
+import com.learningplatform.exception.ConflictException;
+import com.learningplatform.exception.ResourceNotFoundException;
+import com.learningplatform.repository.QuizRepository;
+import com.learningplatform.repository.QuizSubmissionRepository;
+import com.learningplatform.util.PackedAnswers;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.jdbc.core.BatchPreparedStatementSetter;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.support.GeneratedKeyHolder;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Bulk import of a quiz question bank.
+ * <p>
+ * The upload is read with the Jackson streaming API one question at a time and validated as it
+ * is read. If any item is invalid nothing is written and every error is reported; otherwise
+ * questions and then options are inserted as ordered JDBC batches in one transaction. Question ids
+ * come back from the batch as generated keys, in insertion order, which is what links the
+ * options to their questions without a round trip per row.
+ * <p>
+ * Stored attempts address questions and options by position ({@link PackedAnswers}), so a bank
+ * can only be replaced while the quiz has neither submissions nor open attempts; otherwise old
+ * attempts would decode against the new questions. Merging only appends, which keeps existing
+ * positions intact.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class QuizImportService {
+
+    private static final int BATCH_SIZE = 500;
+
+    private static final String INSERT_QUESTION =
+            "INSERT INTO questions (text, type, points, quiz_id) VALUES (?, ?, ?, ?)";
+    private static final String INSERT_OPTION =
+            "INSERT INTO answer_options (text, is_correct, question_id) VALUES (?, ?, ?)";
+
+    private final QuizRepository quizRepository;
+    private final QuizSubmissionRepository quizSubmissionRepository;
+    private final QuizAttemptService quizAttemptService;
+    private final JdbcTemplate jdbcTemplate;
+    private final ObjectMapper objectMapper;
+
+    public enum Mode {
+        // Delete the existing bank first; refused once the quiz has been attempted
+        REPLACE,
+        // Append, skipping questions whose text is already in the bank
+        MERGE
+    }
+
+    @Transactional
+    public QuizImportResultDTO importQuiz(Long quizId, Mode mode, InputStream input, boolean ndjson) {
+        log.info("Importing questions into quiz {} ({}, {})", quizId, mode, ndjson ? "NDJSON" : "JSON");
+
+        Quiz quiz = quizRepository.findById(quizId)
+                .orElseThrow(() -> new ResourceNotFoundException("Quiz", "id", quizId));
+        if (mode == Mode.REPLACE && (quizSubmissionRepository.existsByQuizId(quizId)
+                || quizAttemptService.hasOpenAttempts(quizId))) {
+            throw new ConflictException("Quiz " + quizId + " has been attempted; its questions can only be merged");
+        }
+
+        QuizImportResultDTO result = QuizImportResultDTO.builder()
+                .quizId(quizId)
+                .mode(mode.name())
+                .build();
+
+        Set<String> knownTexts = new HashSet<>();
+        if (mode == Mode.MERGE) {
+            knownTexts.addAll(jdbcTemplate.queryForList(
+                    "SELECT text FROM questions WHERE quiz_id = ?", String.class, quizId));
+        }
+
+        ImportReader reader = new ImportReader(result, knownTexts);
+        try {
+            if (ndjson) {
+                reader.readNdjson(input);
+            } else {
+                reader.readJson(input);
+            }
+        } catch (JsonProcessingException e) {
+            result.getErrors().add(new QuizImportResultDTO.ItemError(result.getQuestionsRead(),
+                    "Malformed input: " + e.getOriginalMessage()));
+        } catch (IOException e) {
+            throw new BusinessLogicException("Failed to read import: " + e.getMessage());
+        }
+
+        if (!result.getErrors().isEmpty()) {
+            log.info("Import into quiz {} rejected with {} errors", quizId, result.getErrors().size());
+            return result;
+        }
+
+        if (reader.hasHeader) {
+            applyHeader(quiz, reader.header);
+        }
+
+        if (mode == Mode.REPLACE) {
+            jdbcTemplate.update("DELETE FROM answer_options WHERE question_id IN " +
+                    "(SELECT id FROM questions WHERE quiz_id = ?)", quizId);
+            result.setQuestionsRemoved(jdbcTemplate.update("DELETE FROM questions WHERE quiz_id = ?", quizId));
+        }
+
+        List<QuestionDTO> accepted = reader.accepted;
+        for (int from = 0; from < accepted.size(); from += BATCH_SIZE) {
+            List<QuestionDTO> batch = accepted.subList(from, Math.min(from + BATCH_SIZE, accepted.size()));
+            result.setOptionsImported(result.getOptionsImported() + insertBatch(quizId, batch));
+        }
+        result.setQuestionsImported(accepted.size());
+        result.setImported(true);
+
+        log.info("Imported {} questions and {} options into quiz {}",
+                result.getQuestionsImported(), result.getOptionsImported(), quizId);
+        return result;
+    }
+
+    private void applyHeader(Quiz quiz, QuizDTO header) {
+        if (header.getTitle() != null && !header.getTitle().isBlank()) {
+            quiz.setTitle(header.getTitle());
+        }
+        if (header.getDescription() != null) {
+            quiz.setDescription(header.getDescription());
+        }
+        if (header.getTimeLimit() != null) {
+            quiz.setTimeLimit(header.getTimeLimit());
+        }
+        if (header.getPassingScore() != null) {
+            quiz.setPassingScore(header.getPassingScore());
+        }
+    }
+
+    private int insertBatch(Long quizId, List<QuestionDTO> questions) {
+        GeneratedKeyHolder keys = new GeneratedKeyHolder();
+        jdbcTemplate.batchUpdate(
+                connection -> connection.prepareStatement(INSERT_QUESTION, new String[]{"id"}),
+                new BatchPreparedStatementSetter() {
+                    @Override
+                    public void setValues(PreparedStatement ps, int i) throws SQLException {
+                        QuestionDTO question = questions.get(i);
+                        ps.setString(1, question.getText());
+                        ps.setString(2, question.getType().name());
+                        ps.setInt(3, question.getPoints());
+                        ps.setLong(4, quizId);
+                    }
+
+                    @Override
+                    public int getBatchSize() {
+                        return questions.size();
+                    }
+                },
+                keys);
+
+        List<Map<String, Object>> keyList = keys.getKeyList();
+        List<Object[]> optionRows = new ArrayList<>();
+        for (int i = 0; i < questions.size(); i++) {
+            Number questionId = (Number) keyList.get(i).values().iterator().next();
+            for (AnswerOptionDTO option : questions.get(i).getOptions()) {
+                optionRows.add(new Object[]{
+                        option.getText(), Boolean.TRUE.equals(option.getIsCorrect()), questionId.longValue()});
+            }
+        }
+        jdbcTemplate.batchUpdate(INSERT_OPTION, optionRows);
+        return optionRows.size();
+    }
+
+    // Streams questions out of the upload, validating each one as it arrives
+    private final class ImportReader {
+        private final QuizImportResultDTO result;
+        private final Set<String> knownTexts;
+        private final List<QuestionDTO> accepted = new ArrayList<>();
+
+        // Quiz-level fields of a whole-quiz document, applied only if the import succeeds
+        private final QuizDTO header = new QuizDTO();
+        private boolean hasHeader;
+
+        private ImportReader(QuizImportResultDTO result, Set<String> knownTexts) {
+            this.result = result;
+            this.knownTexts = knownTexts;
+        }
+
+        // One question object per line
+        void readNdjson(InputStream input) throws IOException {
+            try (MappingIterator<QuestionDTO> items = objectMapper.readerFor(QuestionDTO.class).readValues(input)) {
+                while (items.hasNextValue()) {
+                    accept(items.nextValue());
+                }
+            }
+        }
+
+        // Either an array of questions or a whole quiz object with a "questions" array
+        void readJson(InputStream input) throws IOException {
+            try (JsonParser parser = objectMapper.getFactory().createParser(input)) {
+                JsonToken token = parser.nextToken();
+                if (token == JsonToken.START_ARRAY) {
+                    readQuestionArray(parser);
+                } else if (token == JsonToken.START_OBJECT) {
+                    readQuizObject(parser);
+                } else {
+                    throw new BusinessLogicException("Import must be a JSON array or object");
+                }
+            }
+        }
+
+        private void readQuizObject(JsonParser parser) throws IOException {
+            hasHeader = true;
+            while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                String field = parser.getCurrentName();
+                JsonToken value = parser.nextToken();
+                switch (field) {
+                    case "questions" -> {
+                        if (value != JsonToken.START_ARRAY) {
+                            throw new BusinessLogicException("\"questions\" must be an array");
+                        }
+                        readQuestionArray(parser);
+                    }
+                    case "title" -> header.setTitle(parser.getValueAsString());
+                    case "description" -> header.setDescription(parser.getValueAsString());
+                    case "timeLimit" -> header.setTimeLimit(value == JsonToken.VALUE_NULL ? null : parser.getIntValue());
+                    case "passingScore" -> header.setPassingScore(parser.getValueAsInt());
+                    default -> parser.skipChildren();
+                }
+            }
+        }
+
+        private void readQuestionArray(JsonParser parser) throws IOException {
+            while (parser.nextToken() == JsonToken.START_OBJECT) {
+                accept(objectMapper.readValue(parser, QuestionDTO.class));
+            }
+        }
+
+        private void accept(QuestionDTO question) {
+            int index = result.getQuestionsRead();
+            result.setQuestionsRead(index + 1);
+
+            String error = validate(question);
+            if (error != null) {
+                result.getErrors().add(new QuizImportResultDTO.ItemError(index, error));
+                return;
+            }
+            if (!knownTexts.add(question.getText())) {
+                result.setQuestionsSkipped(result.getQuestionsSkipped() + 1);
+                return;
+            }
+            if (question.getType() == null) {
+                question.setType(QuestionType.SINGLE_CHOICE);
+            }
+            if (question.getPoints() == null) {
+                question.setPoints(1);
+            }
+            accepted.add(question);
+        }
+
+        private String validate(QuestionDTO question) {
+            if (question.getText() == null || question.getText().isBlank()) {
+                return "Question text is required";
+            }
+            if (question.getPoints() != null && question.getPoints() < 1) {
+                return "Points must be positive";
+            }
+            List<AnswerOptionDTO> options = question.getOptions();
+            if (options == null || options.size() < 2) {
+                return "At least two answer options are required";
+            }
+            if (options.size() > PackedAnswers.MAX_OPTIONS) {
+                return "At most " + PackedAnswers.MAX_OPTIONS + " answer options are allowed";
+            }
+            int correct = 0;
+            for (AnswerOptionDTO option : options) {
+                if (option.getText() == null || option.getText().isBlank()) {
+                    return "Answer text is required";
+                }
+                if (Boolean.TRUE.equals(option.getIsCorrect())) {
+                    correct++;
+                }
+            }
+            if (correct == 0) {
+                return "At least one answer option must be correct";
+            }
+            if (correct > 1 && question.getType() != QuestionType.MULTIPLE_CHOICE) {
+                return "A single choice question must have exactly one correct option";
+            }
+            return null;
+        }
+    }
+}
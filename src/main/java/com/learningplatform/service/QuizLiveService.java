@@ -0,0 +1,342 @@
+package com.learningplatform.service;
+
+import com.learningplatform.dto.QuizLiveUpdateDTO;
+import com.learningplatform.dto.QuizSubmissionDTO;
+import com.learningplatform.entity.QuizSubmission;
+import com.learningplatform.event.QuizSubmittedEvent;
+import com.learningplatform.exception.ResourceNotFoundException;
+import com.learningplatform.repository.QuizRepository;
+import com.learningplatform.repository.QuizSubmissionRepository;
+import com.learningplatform.util.SseSender;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Deque;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Live quiz results for teachers over Server-Sent Events.
+ * <p>
+ * Each quiz being watched has one in-memory feed, seeded from the database when its first
+ * subscriber connects and afterwards updated only from {@link QuizSubmittedEvent}s, so further
+ * subscribers cost no queries. The seed reads the highest submission id first and bounds its other
+ * queries by it; events for higher ids are counted from the event, including those arriving while
+ * the seed runs, which are held and replayed once it is done. The seed queries run outside the
+ * feed lock, so events and flushes of a feed being seeded are not held up by the database.
+ * <p>
+ * Changes are debounced: a flusher turns everything that happened in the last interval into one
+ * update and offers it to every subscriber. Delivery goes through an {@link SseSender}, which
+ * coalesces updates for a subscriber still sending the previous one (counts replaced, histogram
+ * deltas added, newest submissions trimmed), so a slow client never makes memory grow or holds
+ * back the others.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class QuizLiveService {
+
+    private static final long DEBOUNCE_MILLIS = 500L;
+    private static final long EMITTER_TIMEOUT_MILLIS = TimeUnit.MINUTES.toMillis(30);
+    private static final int NEWEST_LIMIT = 10;
+    private static final int BUCKETS = 10;
+
+    private final QuizRepository quizRepository;
+    private final QuizSubmissionRepository quizSubmissionRepository;
+
+    private final Map<Long, QuizFeed> feeds = new ConcurrentHashMap<>();
+
+    private final ScheduledExecutorService flusher = Executors.newSingleThreadScheduledExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "quiz-live-flusher");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    private final SseSender sender = new SseSender("quiz-live-sender");
+
+    @PostConstruct
+    void start() {
+        flusher.scheduleWithFixedDelay(this::flush, DEBOUNCE_MILLIS, DEBOUNCE_MILLIS, TimeUnit.MILLISECONDS);
+    }
+
+    @PreDestroy
+    void stop() {
+        flusher.shutdownNow();
+        sender.shutdown();
+        feeds.values().forEach(feed -> feed.subscribers.forEach(s -> s.getEmitter().complete()));
+    }
+
+    public SseEmitter subscribe(Long quizId) {
+        if (!quizRepository.existsById(quizId)) {
+            throw new ResourceNotFoundException("Quiz", "id", quizId);
+        }
+
+        SseEmitter emitter = new SseEmitter(EMITTER_TIMEOUT_MILLIS);
+        SseSender.Subscriber<QuizLiveUpdateDTO> subscriber = sender.subscriber(emitter, QuizLiveService::coalesce);
+
+        QuizFeed feed;
+        do {
+            feed = feeds.computeIfAbsent(quizId, QuizFeed::new);
+        } while (!feed.attach(subscriber));
+
+        QuizFeed attached = feed;
+        emitter.onCompletion(() -> attached.detach(subscriber));
+        emitter.onTimeout(() -> attached.detach(subscriber));
+        emitter.onError(e -> attached.detach(subscriber));
+
+        log.info("Teacher subscribed to live results of quiz {} ({} subscribers)", quizId, feed.subscribers.size());
+        return emitter;
+    }
+
+    public int getSubscriberCount(Long quizId) {
+        QuizFeed feed = feeds.get(quizId);
+        return feed != null ? feed.subscribers.size() : 0;
+    }
+
+    @TransactionalEventListener
+    public void onQuizSubmitted(QuizSubmittedEvent event) {
+        QuizFeed feed = feeds.get(event.getQuizId());
+        if (feed != null) {
+            feed.record(event);
+        }
+    }
+
+    private void flush() {
+        for (QuizFeed feed : feeds.values()) {
+            try {
+                feed.flush();
+            } catch (RuntimeException e) {
+                log.error("Failed to flush live results of quiz {}", feed.quizId, e);
+            }
+        }
+    }
+
+    private final class QuizFeed {
+        private final Long quizId;
+        private final List<SseSender.Subscriber<QuizLiveUpdateDTO>> subscribers = new CopyOnWriteArrayList<>();
+
+        // Held while seeding, so a feed is seeded once; record and flush only take the feed lock
+        private final Object seedLock = new Object();
+        private final List<QuizSubmittedEvent> arrivedWhileSeeding = new ArrayList<>();
+
+        private boolean seeded;
+        private boolean closed;
+        private long seededMaxId;
+        private long attempts;
+        private long passed;
+        private final long[] histogram = new long[BUCKETS];
+        private final Deque<QuizSubmissionDTO> newest = new ArrayDeque<>();
+
+        // Changes since the last flush
+        private boolean dirty;
+        private final long[] histogramDelta = new long[BUCKETS];
+        private final List<QuizSubmissionDTO> newSinceFlush = new ArrayList<>();
+
+        private QuizFeed(Long quizId) {
+            this.quizId = quizId;
+        }
+
+        boolean attach(SseSender.Subscriber<QuizLiveUpdateDTO> subscriber) {
+            synchronized (seedLock) {
+                if (!isSeeded()) {
+                    try {
+                        seed();
+                    } catch (RuntimeException e) {
+                        closeIfUnused();
+                        throw e;
+                    }
+                }
+            }
+            return register(subscriber);
+        }
+
+        // Snapshot and registration happen under the feed lock, so no update falls between them
+        private synchronized boolean register(SseSender.Subscriber<QuizLiveUpdateDTO> subscriber) {
+            if (closed) {
+                return false;
+            }
+            subscriber.offer("snapshot", QuizLiveUpdateDTO.builder()
+                    .quizId(quizId)
+                    .attempts(attempts)
+                    .passed(passed)
+                    .passRate(passRate())
+                    .histogram(histogram.clone())
+                    .newest(new ArrayList<>(newest))
+                    .build());
+            subscribers.add(subscriber);
+            return true;
+        }
+
+        // Dropping an empty feed keeps memory proportional to the quizzes being watched
+        synchronized void detach(SseSender.Subscriber<QuizLiveUpdateDTO> subscriber) {
+            subscribers.remove(subscriber);
+            closeIfUnused();
+        }
+
+        private synchronized void closeIfUnused() {
+            if (subscribers.isEmpty() && !closed) {
+                closed = true;
+                feeds.remove(quizId, this);
+            }
+        }
+
+        private synchronized boolean isSeeded() {
+            return seeded;
+        }
+
+        private void seed() {
+            Long maxId = quizSubmissionRepository.findMaxIdByQuizId(quizId);
+            long upTo = maxId != null ? maxId : 0L;
+            long seedAttempts = 0;
+            long seedPassed = 0;
+            long[] seedHistogram = new long[BUCKETS];
+            for (Object[] row : quizSubmissionRepository.countUpToIdByQuizIdGroupByScoreAndPassed(quizId, upTo)) {
+                long count = ((Number) row[2]).longValue();
+                seedAttempts += count;
+                if (Boolean.TRUE.equals(row[1])) {
+                    seedPassed += count;
+                }
+                seedHistogram[bucket(((Number) row[0]).intValue())] += count;
+            }
+            List<QuizSubmissionDTO> seedNewest = new ArrayList<>();
+            for (QuizSubmission submission : quizSubmissionRepository.findUpToIdByQuizIdWithStudent(
+                    quizId, upTo, PageRequest.of(0, NEWEST_LIMIT))) {
+                seedNewest.add(toDTO(submission));
+            }
+
+            synchronized (this) {
+                seededMaxId = upTo;
+                attempts = seedAttempts;
+                passed = seedPassed;
+                System.arraycopy(seedHistogram, 0, histogram, 0, BUCKETS);
+                newest.addAll(seedNewest);
+                seeded = true;
+                for (QuizSubmittedEvent event : arrivedWhileSeeding) {
+                    record(event);
+                }
+                arrivedWhileSeeding.clear();
+            }
+        }
+
+        synchronized void record(QuizSubmittedEvent event) {
+            if (!seeded) {
+                arrivedWhileSeeding.add(event);
+                return;
+            }
+            // Already counted by the seed queries
+            if (event.getSubmissionId() <= seededMaxId) {
+                return;
+            }
+            QuizSubmissionDTO submission = QuizSubmissionDTO.builder()
+                    .id(event.getSubmissionId())
+                    .quizId(event.getQuizId())
+                    .studentId(event.getStudentId())
+                    .studentName(event.getStudentName())
+                    .score(event.getScore())
+                    .passed(event.getPassed())
+                    .takenAt(event.getTakenAt())
+                    .build();
+
+            attempts++;
+            if (Boolean.TRUE.equals(event.getPassed())) {
+                passed++;
+            }
+            int bucket = bucket(event.getScore());
+            histogram[bucket]++;
+            histogramDelta[bucket]++;
+
+            newest.addFirst(submission);
+            if (newest.size() > NEWEST_LIMIT) {
+                newest.removeLast();
+            }
+            newSinceFlush.add(0, submission);
+            if (newSinceFlush.size() > NEWEST_LIMIT) {
+                newSinceFlush.remove(newSinceFlush.size() - 1);
+            }
+            dirty = true;
+        }
+
+        // Offering never blocks, so fanning out under the lock is cheap
+        synchronized void flush() {
+            if (!dirty) {
+                return;
+            }
+            QuizLiveUpdateDTO update = QuizLiveUpdateDTO.builder()
+                    .quizId(quizId)
+                    .attempts(attempts)
+                    .passed(passed)
+                    .passRate(passRate())
+                    .histogram(histogramDelta.clone())
+                    .newest(new ArrayList<>(newSinceFlush))
+                    .build();
+            Arrays.fill(histogramDelta, 0L);
+            newSinceFlush.clear();
+            dirty = false;
+
+            for (SseSender.Subscriber<QuizLiveUpdateDTO> subscriber : subscribers) {
+                subscriber.offer("update", update);
+            }
+        }
+
+        private double passRate() {
+            return attempts > 0 ? (double) passed / attempts : 0.0;
+        }
+    }
+
+    // A pending snapshot absorbs later deltas into its full histogram; deltas simply add up
+    private static QuizLiveUpdateDTO coalesce(QuizLiveUpdateDTO older, QuizLiveUpdateDTO newer) {
+        long[] histogram = older.getHistogram().clone();
+        for (int i = 0; i < BUCKETS; i++) {
+            histogram[i] += newer.getHistogram()[i];
+        }
+        List<QuizSubmissionDTO> newest = new ArrayList<>(newer.getNewest());
+        for (QuizSubmissionDTO submission : older.getNewest()) {
+            if (newest.size() >= NEWEST_LIMIT) {
+                break;
+            }
+            newest.add(submission);
+        }
+        return QuizLiveUpdateDTO.builder()
+                .quizId(newer.getQuizId())
+                .attempts(newer.getAttempts())
+                .passed(newer.getPassed())
+                .passRate(newer.getPassRate())
+                .histogram(histogram)
+                .newest(newest)
+                .build();
+    }
+
+    private static int bucket(int score) {
+        return Math.min(BUCKETS - 1, Math.max(0, score / 10));
+    }
+
+    private static QuizSubmissionDTO toDTO(QuizSubmission submission) {
+        return QuizSubmissionDTO.builder()
+                .id(submission.getId())
+                .quizId(submission.getQuiz().getId())
+                .quizTitle(submission.getQuiz().getTitle())
+                .studentId(submission.getStudent().getId())
+                .studentName(submission.getStudent().getName())
+                .score(submission.getScore())
+                .correctAnswers(submission.getCorrectAnswers())
+                .totalQuestions(submission.getTotalQuestions())
+                .passed(submission.getPassed())
+                .takenAt(submission.getTakenAt())
+                .timeSpent(submission.getTimeSpent())
+                .build();
+    }
+}
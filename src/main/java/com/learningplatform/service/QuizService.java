@@ -2,11 +2,16 @@ package com.learningplatform.service;
 
 import com.learningplatform.dto.*;
 import com.learningplatform.entity.*;
+import com.learningplatform.entity.Module;
+import com.learningplatform.event.QuizSubmittedEvent;
 import com.learningplatform.exception.BusinessLogicException;
 import com.learningplatform.exception.ResourceNotFoundException;
 import com.learningplatform.repository.*;
+import com.learningplatform.util.PackedAnswers;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
@@ -27,6 +32,7 @@ public class QuizService {
     private final QuizSubmissionRepository quizSubmissionRepository;
     private final ModuleRepository moduleRepository;
     private final UserRepository userRepository;
+    private final ApplicationEventPublisher eventPublisher;
 
     public QuizDTO createQuiz(QuizDTO quizDTO) {
         log.info("Creating quiz: {} for module {}", quizDTO.getTitle(), quizDTO.getModuleId());
@@ -120,8 +126,8 @@ public class QuizService {
                 .text(questionDTO.getText())
                 .type(questionDTO.getType() != null ? questionDTO.getType() : QuestionType.SINGLE_CHOICE)
                 .points(questionDTO.getPoints() != null ? questionDTO.getPoints() : 1)
-                .quiz(quiz)
                 .build();
+        quiz.addQuestion(question);
 
         Question savedQuestion = questionRepository.save(question);
 
@@ -131,8 +137,8 @@ public class QuizService {
                 AnswerOption option = AnswerOption.builder()
                         .text(optionDTO.getText())
                         .isCorrect(optionDTO.getIsCorrect() != null ? optionDTO.getIsCorrect() : false)
-                        .question(savedQuestion)
                         .build();
+                savedQuestion.addOption(option);
                 answerOptionRepository.save(option);
             }
         }
@@ -150,8 +156,8 @@ public class QuizService {
         AnswerOption option = AnswerOption.builder()
                 .text(optionDTO.getText())
                 .isCorrect(optionDTO.getIsCorrect() != null ? optionDTO.getIsCorrect() : false)
-                .question(question)
                 .build();
+        question.addOption(option);
 
         AnswerOption savedOption = answerOptionRepository.save(option);
         log.info("Answer option created with ID: {}", savedOption.getId());
@@ -161,6 +167,11 @@ public class QuizService {
 
     // Quiz submission
     public QuizSubmissionDTO takeQuiz(Long quizId, Long studentId, Map<Long, Long> answers) {
+        return takeQuiz(quizId, studentId, answers, null);
+    }
+
+    // timeSpent (seconds) is known only for attempts opened through QuizAttemptService
+    public QuizSubmissionDTO takeQuiz(Long quizId, Long studentId, Map<Long, Long> answers, Integer timeSpent) {
         log.info("Student {} taking quiz {}", studentId, quizId);
 
         User student = userRepository.findById(studentId)
@@ -173,16 +184,62 @@ public class QuizService {
         Quiz quiz = quizRepository.findByIdWithQuestionsAndOptions(quizId)
                 .orElseThrow(() -> new ResourceNotFoundException("Quiz", "id", quizId));
 
-        // Calculate score
-        int totalQuestions = quiz.getQuestions().size();
+        // Only QuizAttemptService knows the time spent, so an untimed submission cannot skip the clock
+        if (timeSpent == null && quiz.getTimeLimit() != null && quiz.getTimeLimit() > 0) {
+            throw new BusinessLogicException("Quiz " + quizId + " has a time limit; take it as a timed attempt "
+                    + "started with POST /api/quizzes/" + quizId + "/attempts");
+        }
+
+        return mapSubmissionToDTO(submit(quiz, student, answers, timeSpent));
+    }
+
+    /**
+     * Records timed attempts on one quiz that ran out of time, in a single transaction. Students
+     * that no longer exist or are no longer students are skipped.
+     */
+    public int recordExpiredAttempts(Long quizId, List<ExpiredAttempt> attempts) {
+        Quiz quiz = quizRepository.findByIdWithQuestionsAndOptions(quizId)
+                .orElseThrow(() -> new ResourceNotFoundException("Quiz", "id", quizId));
+        Map<Long, User> students = userRepository.findAllById(
+                        attempts.stream().map(ExpiredAttempt::studentId).collect(Collectors.toSet()))
+                .stream()
+                .collect(Collectors.toMap(User::getId, user -> user));
+
+        int recorded = 0;
+        for (ExpiredAttempt attempt : attempts) {
+            User student = students.get(attempt.studentId());
+            if (student == null || student.getRole() != Role.STUDENT) {
+                log.warn("Skipping expired attempt of user {} on quiz {}: not a student", attempt.studentId(), quizId);
+                continue;
+            }
+            submit(quiz, student, attempt.answers(), attempt.timeSpent());
+            recorded++;
+        }
+        return recorded;
+    }
+
+    private QuizSubmission submit(Quiz quiz, User student, Map<Long, Long> answers, Integer timeSpent) {
+        // Calculate score and pack the selected options for item analysis
+        List<Question> questions = quiz.getQuestions();
+        int totalQuestions = questions.size();
         int correctAnswers = 0;
+        long[] selections = new long[totalQuestions];
 
-        for (Question question : quiz.getQuestions()) {
+        for (int i = 0; i < totalQuestions; i++) {
+            Question question = questions.get(i);
             Long selectedOptionId = answers.get(question.getId());
-            if (selectedOptionId != null) {
-                AnswerOption selectedOption = answerOptionRepository.findById(selectedOptionId).orElse(null);
-                if (selectedOption != null && selectedOption.getIsCorrect()) {
-                    correctAnswers++;
+            if (selectedOptionId == null) {
+                continue;
+            }
+            List<AnswerOption> options = question.getOptions();
+            for (int j = 0; j < options.size() && j < PackedAnswers.MAX_OPTIONS; j++) {
+                AnswerOption option = options.get(j);
+                if (option.getId().equals(selectedOptionId)) {
+                    selections[i] = 1L << j;
+                    if (option.getIsCorrect()) {
+                        correctAnswers++;
+                    }
+                    break;
                 }
             }
         }
@@ -198,13 +255,18 @@ public class QuizService {
                 .totalQuestions(totalQuestions)
                 .passed(passed)
                 .takenAt(LocalDateTime.now())
+                .timeSpent(timeSpent)
+                .answers(PackedAnswers.encode(selections))
                 .build();
 
         QuizSubmission savedSubmission = quizSubmissionRepository.save(submission);
         log.info("Quiz submission created with ID: {}, score: {}%, passed: {}",
                 savedSubmission.getId(), scorePercentage, passed);
 
-        return mapSubmissionToDTO(savedSubmission);
+        eventPublisher.publishEvent(new QuizSubmittedEvent(savedSubmission.getId(), quiz.getId(), student.getId(),
+                student.getName(), scorePercentage, passed, savedSubmission.getTakenAt()));
+
+        return savedSubmission;
     }
 
     @Transactional(readOnly = true)
@@ -216,7 +278,7 @@ public class QuizService {
 
     @Transactional(readOnly = true)
     public List<QuizSubmissionDTO> getQuizSubmissionsByQuiz(Long quizId) {
-        return quizSubmissionRepository.findByQuizId(quizId).stream()
+        return quizSubmissionRepository.findByQuizIdWithStudent(quizId, Pageable.unpaged()).stream()
                 .map(this::mapSubmissionToDTO)
                 .collect(Collectors.toList());
     }
@@ -293,4 +355,7 @@ public class QuizService {
                 .timeSpent(submission.getTimeSpent())
                 .build();
     }
+
+    public record ExpiredAttempt(Long studentId, Map<Long, Long> answers, Integer timeSpent) {
+    }
 }
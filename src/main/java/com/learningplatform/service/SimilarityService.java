@@ -0,0 +1,229 @@
+package com.learningplatform.service;
+
+import com.learningplatform.dto.SimilarityReportDTO;
+import com.learningplatform.entity.SimilarSubmissionPair;
+import com.learningplatform.entity.Submission;
+import com.learningplatform.event.SubmissionContentChangedEvent;
+import com.learningplatform.exception.BusinessLogicException;
+import com.learningplatform.exception.ResourceNotFoundException;
+import com.learningplatform.repository.AssignmentRepository;
+import com.learningplatform.repository.SimilarSubmissionPairRepository;
+import com.learningplatform.repository.SubmissionBandKeyRepository;
+import com.learningplatform.repository.SubmissionRepository;
+import com.learningplatform.repository.SubmissionSignatureRepository;
+import com.learningplatform.util.MinHash;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Near-duplicate detection for submission texts.
+ * <p>
+ * Each submission is shingled once, when it is submitted, into a fixed-size {@link MinHash}
+ * signature. Its band keys go into a per-assignment LSH index, and the submissions already in
+ * the same buckets are the only ones it is compared with; pairs whose estimated similarity
+ * reaches the configured minimum are stored. Ingestion therefore costs a few indexed lookups
+ * plus one comparison per candidate, and a report is a range read of the stored pairs, so
+ * neither grows with the number of submissions of the assignment.
+ * <p>
+ * Submissions are ingested after they commit, one at a time on a single worker thread, each in
+ * its own transaction. Every ingestion thus sees the band keys of all earlier ones, so two near
+ * identical submissions arriving together cannot miss each other as they could if each were
+ * ingested inside its own submitting transaction.
+ * <p>
+ * Rows reference submissions by id only. Deleting a submission or an assignment removes its
+ * rows; submissions removed by cascading deletes further up are dropped when reports are built.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+@Transactional
+public class SimilarityService {
+
+    private static final int MAX_REPORT_SIZE = 500;
+
+    // Bounds the work of one ingestion when many submissions are identical
+    private static final int MAX_CANDIDATES = 1000;
+
+    private static final String INSERT_SIGNATURE =
+            "INSERT INTO submission_signatures (submission_id, assignment_id, signature) VALUES (?, ?, ?)";
+    private static final String INSERT_BAND_KEY =
+            "INSERT INTO submission_band_keys (assignment_id, band_key, submission_id) VALUES (?, ?, ?)";
+    private static final String INSERT_PAIR = "INSERT INTO similar_submission_pairs " +
+            "(assignment_id, submission_id, other_submission_id, similarity, detected_at) VALUES (?, ?, ?, ?, ?)";
+
+    private final SubmissionSignatureRepository signatureRepository;
+    private final SubmissionBandKeyRepository bandKeyRepository;
+    private final SimilarSubmissionPairRepository pairRepository;
+    private final SubmissionRepository submissionRepository;
+    private final AssignmentRepository assignmentRepository;
+    private final JdbcTemplate jdbcTemplate;
+    private final PlatformTransactionManager transactionManager;
+
+    private final ExecutorService ingester = Executors.newSingleThreadExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "similarity-ingest");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    @Value("${learning-platform.similarity.min-similarity:0.5}")
+    private double minSimilarity;
+
+    @PreDestroy
+    void stop() {
+        ingester.shutdownNow();
+    }
+
+    @TransactionalEventListener
+    public void onSubmissionContentChanged(SubmissionContentChangedEvent event) {
+        ingester.execute(() -> ingestCommitted(event));
+    }
+
+    private void ingestCommitted(SubmissionContentChangedEvent event) {
+        try {
+            new TransactionTemplate(transactionManager).executeWithoutResult(status -> {
+                // Deleted since it was submitted; its rows would never be removed
+                if (submissionRepository.existsById(event.getSubmissionId())) {
+                    ingest(event.getSubmissionId(), event.getAssignmentId(), event.getContent());
+                }
+            });
+        } catch (RuntimeException e) {
+            log.error("Failed to index submission {} for similarity: {}", event.getSubmissionId(), e.getMessage());
+        }
+    }
+
+    /**
+     * Indexes the text of a submission and records its near-duplicates among earlier ones.
+     * Ingesting a submission again replaces what was recorded for it.
+     *
+     * @return number of similar pairs found
+     */
+    public int ingest(Long submissionId, Long assignmentId, String text) {
+        remove(submissionId);
+
+        int[] signature = MinHash.signature(text);
+        if (signature == null) {
+            return 0;
+        }
+        jdbcTemplate.update(INSERT_SIGNATURE, submissionId, assignmentId, MinHash.encode(signature));
+
+        List<Long> bandKeys = new ArrayList<>(MinHash.BANDS);
+        for (long key : MinHash.bandKeys(signature)) {
+            bandKeys.add(key);
+        }
+
+        List<Long> candidateIds = bandKeyRepository.findCandidateIds(
+                assignmentId, new HashSet<>(bandKeys), submissionId, PageRequest.of(0, MAX_CANDIDATES));
+        if (candidateIds.size() == MAX_CANDIDATES) {
+            log.warn("Submission {} shares LSH buckets with more than {} submissions; comparing the first {}",
+                    submissionId, MAX_CANDIDATES, MAX_CANDIDATES);
+        }
+
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+        List<Object[]> pairRows = new ArrayList<>();
+        List<SubmissionSignatureRepository.StoredSignature> candidates =
+                candidateIds.isEmpty() ? List.of() : signatureRepository.findSignatures(candidateIds);
+        for (SubmissionSignatureRepository.StoredSignature candidate : candidates) {
+            double similarity = MinHash.estimateSimilarity(signature, MinHash.decode(candidate.getSignature()));
+            if (similarity >= minSimilarity) {
+                Long otherId = candidate.getSubmissionId();
+                pairRows.add(new Object[]{assignmentId,
+                        Math.min(submissionId, otherId), Math.max(submissionId, otherId), similarity, now});
+            }
+        }
+        jdbcTemplate.batchUpdate(INSERT_PAIR, pairRows);
+
+        List<Object[]> keyRows = new ArrayList<>(bandKeys.size());
+        for (Long key : bandKeys) {
+            keyRows.add(new Object[]{assignmentId, key, submissionId});
+        }
+        jdbcTemplate.batchUpdate(INSERT_BAND_KEY, keyRows);
+
+        log.debug("Indexed submission {} of assignment {}: {} candidates, {} similar",
+                submissionId, assignmentId, candidateIds.size(), pairRows.size());
+        return pairRows.size();
+    }
+
+    public void remove(Long submissionId) {
+        pairRepository.deleteBySubmissionId(submissionId);
+        bandKeyRepository.deleteBySubmissionId(submissionId);
+        signatureRepository.deleteBySubmissionId(submissionId);
+    }
+
+    public void removeAssignment(Long assignmentId) {
+        pairRepository.deleteByAssignmentId(assignmentId);
+        bandKeyRepository.deleteByAssignmentId(assignmentId);
+        signatureRepository.deleteByAssignmentId(assignmentId);
+    }
+
+    @Transactional(readOnly = true)
+    public SimilarityReportDTO getReport(Long assignmentId, Double minSimilarity, int limit) {
+        if (limit < 1 || limit > MAX_REPORT_SIZE) {
+            throw new BusinessLogicException("Limit must be between 1 and " + MAX_REPORT_SIZE);
+        }
+        double threshold = minSimilarity != null ? minSimilarity : this.minSimilarity;
+        if (threshold < 0.0 || threshold > 1.0) {
+            throw new BusinessLogicException("Minimum similarity must be between 0 and 1");
+        }
+        if (!assignmentRepository.existsById(assignmentId)) {
+            throw new ResourceNotFoundException("Assignment", "id", assignmentId);
+        }
+
+        List<SimilarSubmissionPair> pairs = pairRepository.findTopByAssignmentId(
+                assignmentId, threshold, PageRequest.of(0, limit));
+
+        Set<Long> submissionIds = new HashSet<>();
+        for (SimilarSubmissionPair pair : pairs) {
+            submissionIds.add(pair.getSubmissionId());
+            submissionIds.add(pair.getOtherSubmissionId());
+        }
+        Map<Long, Submission> submissions = submissionIds.isEmpty() ? Map.of()
+                : submissionRepository.findByIdInWithStudent(submissionIds).stream()
+                        .collect(Collectors.toMap(Submission::getId, Function.identity()));
+
+        List<SimilarityReportDTO.Pair> entries = new ArrayList<>(pairs.size());
+        for (SimilarSubmissionPair pair : pairs) {
+            Submission first = submissions.get(pair.getSubmissionId());
+            Submission second = submissions.get(pair.getOtherSubmissionId());
+            if (first == null || second == null) {
+                continue;
+            }
+            entries.add(SimilarityReportDTO.Pair.builder()
+                    .submissionId(first.getId())
+                    .studentId(first.getStudent().getId())
+                    .studentName(first.getStudent().getName())
+                    .otherSubmissionId(second.getId())
+                    .otherStudentId(second.getStudent().getId())
+                    .otherStudentName(second.getStudent().getName())
+                    .similarity(pair.getSimilarity())
+                    .detectedAt(pair.getDetectedAt())
+                    .build());
+        }
+
+        return SimilarityReportDTO.builder()
+                .assignmentId(assignmentId)
+                .minSimilarity(threshold)
+                .pairs(entries)
+                .build();
+    }
+}
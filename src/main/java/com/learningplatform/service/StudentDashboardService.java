@@ -0,0 +1,138 @@
+package com.learningplatform.service;
+
+import com.learningplatform.dto.AssignmentDTO;
+import com.learningplatform.dto.EnrollmentDTO;
+import com.learningplatform.dto.NotificationDTO;
+import com.learningplatform.dto.ProfileDTO;
+import com.learningplatform.dto.QuizSubmissionDTO;
+import com.learningplatform.dto.StudentDashboardDTO;
+import com.learningplatform.dto.UserDTO;
+import com.learningplatform.exception.ResourceNotFoundException;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+/**
+ * Everything the student home screen shows, in one response.
+ * <p>
+ * The student is looked up first, so an unknown id fails as a whole. The other parts, from
+ * enrollments to notifications, are independent and run concurrently on a small bounded pool,
+ * each through its own service call and read-only transaction, so the response takes about as
+ * long as its slowest part and a fixed dozen or so queries however much data the student has.
+ * Every part has its own timeout; a part that fails, times out or finds the pool full is left
+ * null and named in {@code failedParts} while the rest of the dashboard is still returned.
+ * A timed-out part is not interrupted, its result is just dropped.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class StudentDashboardService {
+
+    private static final int RECENT_NOTIFICATIONS = 10;
+
+    private final UserService userService;
+    private final EnrollmentService enrollmentService;
+    private final AssignmentService assignmentService;
+    private final QuizService quizService;
+    private final NotificationService notificationService;
+
+    @Value("${learning-platform.dashboard.threads:16}")
+    private int threads;
+
+    @Value("${learning-platform.dashboard.part-timeout:2s}")
+    private Duration partTimeout;
+
+    private ThreadPoolExecutor executor;
+
+    @PostConstruct
+    void start() {
+        AtomicInteger counter = new AtomicInteger();
+        // Bounded queue: under overload parts fail fast instead of piling up behind their timeouts
+        executor = new ThreadPoolExecutor(threads, threads, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(threads * 4), runnable -> {
+                    Thread thread = new Thread(runnable, "student-dashboard-" + counter.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                });
+    }
+
+    @PreDestroy
+    void stop() {
+        executor.shutdownNow();
+    }
+
+    public StudentDashboardDTO getDashboard(Long studentId) {
+        UserDTO student = userService.getUserById(studentId);
+
+        CompletableFuture<ProfileDTO> profile = submit(() -> {
+            try {
+                return userService.getProfileByUserId(studentId);
+            } catch (ResourceNotFoundException e) {
+                return null;
+            }
+        });
+        CompletableFuture<List<EnrollmentDTO>> enrollments =
+                submit(() -> enrollmentService.getEnrollmentsByStudent(studentId));
+        CompletableFuture<List<AssignmentDTO>> assignments =
+                submit(() -> assignmentService.getAssignmentsForStudent(studentId));
+        CompletableFuture<List<QuizSubmissionDTO>> quizSubmissions =
+                submit(() -> quizService.getQuizSubmissionsByStudent(studentId));
+        CompletableFuture<List<NotificationDTO>> notifications =
+                submit(() -> notificationService.getNotifications(studentId, null, RECENT_NOTIFICATIONS).getItems());
+        CompletableFuture<Long> unread = submit(() -> notificationService.getUnreadCount(studentId));
+
+        StudentDashboardDTO dashboard = StudentDashboardDTO.builder()
+                .studentId(student.getId())
+                .name(student.getName())
+                .email(student.getEmail())
+                .build();
+        dashboard.setProfile(join("profile", profile, dashboard));
+        dashboard.setEnrollments(join("enrollments", enrollments, dashboard));
+        dashboard.setAssignments(join("assignments", assignments, dashboard));
+        dashboard.setQuizSubmissions(join("quizSubmissions", quizSubmissions, dashboard));
+        dashboard.setRecentNotifications(join("recentNotifications", notifications, dashboard));
+        dashboard.setUnreadNotifications(join("unreadNotifications", unread, dashboard));
+        return dashboard;
+    }
+
+    private <T> CompletableFuture<T> submit(Supplier<T> part) {
+        try {
+            return CompletableFuture.supplyAsync(part, executor)
+                    .orTimeout(partTimeout.toMillis(), TimeUnit.MILLISECONDS);
+        } catch (RejectedExecutionException e) {
+            return CompletableFuture.failedFuture(e);
+        }
+    }
+
+    private static <T> T join(String name, CompletableFuture<T> part, StudentDashboardDTO dashboard) {
+        try {
+            return part.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof TimeoutException) {
+                log.warn("Dashboard part {} of student {} timed out", name, dashboard.getStudentId());
+            } else {
+                log.warn("Dashboard part {} of student {} failed", name, dashboard.getStudentId(), cause);
+            }
+        }
+        dashboard.getFailedParts().add(name);
+        return null;
+    }
+}
@@ -1,20 +1,38 @@
 package com.learningplatform.service;
 
+import com.learningplatform.dto.BulkGradeItemDTO;
+import com.learningplatform.dto.BulkGradeResultDTO;
 import com.learningplatform.dto.SubmissionDTO;
 import com.learningplatform.entity.*;
+import com.learningplatform.event.SubmissionContentChangedEvent;
+import com.learningplatform.event.SubmissionStatusChangedEvent;
 import com.learningplatform.exception.BusinessLogicException;
-import com.learningplatform.exception.DuplicateResourceException;
 import com.learningplatform.exception.ResourceNotFoundException;
 import com.learningplatform.repository.AssignmentRepository;
 import com.learningplatform.repository.SubmissionRepository;
 import com.learningplatform.repository.UserRepository;
+import com.learningplatform.storage.BlobInfo;
+import com.learningplatform.storage.BlobStore;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.jdbc.core.JdbcTemplate;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.web.multipart.MultipartFile;
 
+import java.io.IOException;
+import java.io.InputStream;
+import java.sql.Timestamp;
 import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.EnumSet;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Function;
 import java.util.stream.Collectors;
 
 @Service
@@ -23,9 +41,25 @@ import java.util.stream.Collectors;
 @Transactional
 public class SubmissionService {
 
+    private static final int MAX_BULK_GRADE_ITEMS = 500;
+
+    private static final Set<SubmissionStatus> GRADED_STATUSES =
+            EnumSet.of(SubmissionStatus.REVIEWED, SubmissionStatus.ACCEPTED, SubmissionStatus.REJECTED);
+
+    // Omitted score or feedback keeps the stored value
+    private static final String UPDATE_GRADE = "UPDATE submissions " +
+            "SET score = COALESCE(?, score), feedback_hash = COALESCE(?, feedback_hash), " +
+            "feedback_size = COALESCE(?, feedback_size), status = ?, reviewed_at = ? " +
+            "WHERE id = ?";
+
     private final SubmissionRepository submissionRepository;
     private final AssignmentRepository assignmentRepository;
     private final UserRepository userRepository;
+    private final ApplicationEventPublisher eventPublisher;
+    private final JdbcTemplate jdbcTemplate;
+    private final BlobStore blobStore;
+    private final SimilarityService similarityService;
+    private final SubmissionVersionService submissionVersionService;
 
     public SubmissionDTO submitAssignment(SubmissionDTO submissionDTO) {
         log.info("Student {} submitting assignment {}", submissionDTO.getStudentId(), submissionDTO.getAssignmentId());
@@ -40,31 +74,77 @@ public class SubmissionService {
         Assignment assignment = assignmentRepository.findById(submissionDTO.getAssignmentId())
                 .orElseThrow(() -> new ResourceNotFoundException("Assignment", "id", submissionDTO.getAssignmentId()));
 
-        // Check if student already submitted
-        if (submissionRepository.existsByStudentIdAndAssignmentId(submissionDTO.getStudentId(), submissionDTO.getAssignmentId())) {
-            throw new DuplicateResourceException("Submission already exists for this student and assignment");
+        // A second submission for the same assignment becomes a new version of the first
+        Submission existing = submissionRepository
+                .findByStudentIdAndAssignmentId(submissionDTO.getStudentId(), submissionDTO.getAssignmentId())
+                .orElse(null);
+        if (existing != null) {
+            return resubmit(existing, submissionDTO);
         }
 
+        BlobInfo content = blobStore.putText(submissionDTO.getContent());
+
         Submission submission = Submission.builder()
                 .assignment(assignment)
                 .student(student)
-                .content(submissionDTO.getContent())
+                .contentHash(content != null ? content.getHash() : null)
+                .contentSize(content != null ? content.getSize() : null)
                 .fileUrl(submissionDTO.getFileUrl())
                 .submittedAt(LocalDateTime.now())
                 .status(SubmissionStatus.SUBMITTED)
                 .build();
 
         Submission savedSubmission = submissionRepository.save(submission);
+        eventPublisher.publishEvent(new SubmissionContentChangedEvent(
+                savedSubmission.getId(), assignment.getId(), submissionDTO.getContent()));
+        publishStatusChange(savedSubmission, null);
         log.info("Submission created with ID: {}", savedSubmission.getId());
 
-        return mapToDTO(savedSubmission);
+        return mapToDTO(savedSubmission, true);
+    }
+
+    /**
+     * Replaces the submission with a new version after archiving the current one; the grade
+     * and any uploaded file belong to the archived version.
+     */
+    private SubmissionDTO resubmit(Submission submission, SubmissionDTO submissionDTO) {
+        if (submission.getStatus() == SubmissionStatus.ACCEPTED) {
+            throw new BusinessLogicException("An accepted submission cannot be resubmitted");
+        }
+
+        submissionVersionService.archive(submission, submissionDTO.getContent());
+
+        SubmissionStatus previousStatus = submission.getStatus();
+        BlobInfo content = blobStore.putText(submissionDTO.getContent());
+        submission.setVersionNumber(SubmissionVersionService.versionOf(submission) + 1);
+        submission.setContentHash(content != null ? content.getHash() : null);
+        submission.setContentSize(content != null ? content.getSize() : null);
+        submission.setFileUrl(submissionDTO.getFileUrl());
+        submission.setFileHash(null);
+        submission.setFileSize(null);
+        submission.setFileName(null);
+        submission.setFileContentType(null);
+        submission.setSubmittedAt(LocalDateTime.now().truncatedTo(ChronoUnit.MICROS));
+        submission.setScore(null);
+        submission.setFeedbackHash(null);
+        submission.setFeedbackSize(null);
+        submission.setStatus(SubmissionStatus.SUBMITTED);
+        submission.setReviewedAt(null);
+
+        Submission savedSubmission = submissionRepository.save(submission);
+        eventPublisher.publishEvent(new SubmissionContentChangedEvent(
+                savedSubmission.getId(), savedSubmission.getAssignment().getId(), submissionDTO.getContent()));
+        publishStatusChange(savedSubmission, previousStatus);
+        log.info("Submission {} resubmitted as version {}", savedSubmission.getId(), savedSubmission.getVersionNumber());
+
+        return mapToDTO(savedSubmission, true);
     }
 
     @Transactional(readOnly = true)
     public SubmissionDTO getSubmissionById(Long id) {
         Submission submission = submissionRepository.findById(id)
                 .orElseThrow(() -> new ResourceNotFoundException("Submission", "id", id));
-        return mapToDTO(submission);
+        return mapToDTO(submission, true);
     }
 
     @Transactional(readOnly = true)
@@ -83,7 +163,7 @@ public class SubmissionService {
 
     @Transactional(readOnly = true)
     public List<SubmissionDTO> getPendingSubmissions() {
-        return submissionRepository.findByStatus(SubmissionStatus.SUBMITTED).stream()
+        return submissionRepository.findByStatusWithDetails(SubmissionStatus.SUBMITTED).stream()
                 .map(this::mapToDTO)
                 .collect(Collectors.toList());
     }
@@ -98,15 +178,100 @@ public class SubmissionService {
             throw new BusinessLogicException("Score must be between 0 and " + submission.getAssignment().getMaxScore());
         }
 
+        SubmissionStatus previousStatus = submission.getStatus();
         submission.setScore(score);
-        submission.setFeedback(feedback);
+        setFeedback(submission, feedback);
         submission.setStatus(SubmissionStatus.REVIEWED);
         submission.setReviewedAt(LocalDateTime.now());
 
         Submission gradedSubmission = submissionRepository.save(submission);
+        publishStatusChange(gradedSubmission, previousStatus);
         log.info("Submission graded with ID: {}", gradedSubmission.getId());
 
-        return mapToDTO(gradedSubmission);
+        return mapToDTO(gradedSubmission, true);
+    }
+
+    /**
+     * Grades many submissions in one transaction. Targets and their maximum scores are loaded with
+     * one query and validated in memory; valid items are written as one JDBC batch and invalid ones
+     * are reported without affecting the rest.
+     */
+    public BulkGradeResultDTO gradeSubmissions(List<BulkGradeItemDTO> items) {
+        if (items == null || items.isEmpty()) {
+            throw new BusinessLogicException("At least one grading item is required");
+        }
+        if (items.size() > MAX_BULK_GRADE_ITEMS) {
+            throw new BusinessLogicException("At most " + MAX_BULK_GRADE_ITEMS + " submissions can be graded at once");
+        }
+        log.info("Bulk grading {} submissions", items.size());
+
+        Set<Long> ids = new HashSet<>();
+        for (BulkGradeItemDTO item : items) {
+            if (item.getSubmissionId() != null) {
+                ids.add(item.getSubmissionId());
+            }
+        }
+        Map<Long, SubmissionRepository.GradingTarget> targets = submissionRepository.findGradingTargets(ids).stream()
+                .collect(Collectors.toMap(SubmissionRepository.GradingTarget::getId, Function.identity()));
+
+        BulkGradeResultDTO result = BulkGradeResultDTO.builder()
+                .requested(items.size())
+                .build();
+        List<Object[]> updates = new ArrayList<>();
+        List<SubmissionStatusChangedEvent> events = new ArrayList<>();
+        Set<Long> seen = new HashSet<>();
+        Timestamp reviewedAt = Timestamp.valueOf(LocalDateTime.now());
+
+        for (BulkGradeItemDTO item : items) {
+            SubmissionStatus status = item.getStatus() != null ? item.getStatus() : SubmissionStatus.REVIEWED;
+            SubmissionRepository.GradingTarget target = targets.get(item.getSubmissionId());
+            String error = validateGrade(item, status, target, seen);
+            if (error != null) {
+                result.getItems().add(new BulkGradeResultDTO.ItemResult(item.getSubmissionId(), false, null, error));
+                continue;
+            }
+            BlobInfo feedback = blobStore.putText(item.getFeedback());
+            updates.add(new Object[]{item.getScore(),
+                    feedback != null ? feedback.getHash() : null,
+                    feedback != null ? feedback.getSize() : null,
+                    status.name(), reviewedAt, target.getId()});
+            events.add(new SubmissionStatusChangedEvent(
+                    target.getId(), target.getAssignmentId(), target.getStatus(), status));
+            result.getItems().add(new BulkGradeResultDTO.ItemResult(target.getId(), true, status, null));
+        }
+
+        if (!updates.isEmpty()) {
+            jdbcTemplate.batchUpdate(UPDATE_GRADE, updates);
+            events.forEach(eventPublisher::publishEvent);
+        }
+        result.setUpdated(updates.size());
+        result.setFailed(items.size() - updates.size());
+
+        log.info("Bulk grading applied {} of {} items", result.getUpdated(), result.getRequested());
+        return result;
+    }
+
+    private String validateGrade(BulkGradeItemDTO item, SubmissionStatus status,
+                                 SubmissionRepository.GradingTarget target, Set<Long> seen) {
+        if (item.getSubmissionId() == null) {
+            return "Submission ID is required";
+        }
+        if (target == null) {
+            return "Submission not found";
+        }
+        if (!seen.add(target.getId())) {
+            return "Submission appears more than once in the request";
+        }
+        if (!GRADED_STATUSES.contains(status)) {
+            return "Status must be one of " + GRADED_STATUSES;
+        }
+        if (item.getScore() == null) {
+            return status == SubmissionStatus.REVIEWED ? "Score is required" : null;
+        }
+        if (item.getScore() < 0 || (target.getMaxScore() != null && item.getScore() > target.getMaxScore())) {
+            return "Score must be between 0 and " + target.getMaxScore();
+        }
+        return null;
     }
 
     public SubmissionDTO acceptSubmission(Long submissionId) {
@@ -115,10 +280,12 @@ public class SubmissionService {
         Submission submission = submissionRepository.findById(submissionId)
                 .orElseThrow(() -> new ResourceNotFoundException("Submission", "id", submissionId));
 
+        SubmissionStatus previousStatus = submission.getStatus();
         submission.setStatus(SubmissionStatus.ACCEPTED);
 
         Submission acceptedSubmission = submissionRepository.save(submission);
-        return mapToDTO(acceptedSubmission);
+        publishStatusChange(acceptedSubmission, previousStatus);
+        return mapToDTO(acceptedSubmission, true);
     }
 
     public SubmissionDTO rejectSubmission(Long submissionId, String feedback) {
@@ -127,12 +294,50 @@ public class SubmissionService {
         Submission submission = submissionRepository.findById(submissionId)
                 .orElseThrow(() -> new ResourceNotFoundException("Submission", "id", submissionId));
 
+        SubmissionStatus previousStatus = submission.getStatus();
         submission.setStatus(SubmissionStatus.REJECTED);
-        submission.setFeedback(feedback);
+        setFeedback(submission, feedback);
         submission.setReviewedAt(LocalDateTime.now());
 
         Submission rejectedSubmission = submissionRepository.save(submission);
-        return mapToDTO(rejectedSubmission);
+        publishStatusChange(rejectedSubmission, previousStatus);
+        return mapToDTO(rejectedSubmission, true);
+    }
+
+    /**
+     * Attaches an uploaded file. The servlet container spools multipart parts to disk, and the
+     * part is streamed from there into the blob store, so the file never sits in the heap.
+     */
+    public SubmissionDTO attachFile(Long submissionId, MultipartFile file) {
+        Submission submission = submissionRepository.findById(submissionId)
+                .orElseThrow(() -> new ResourceNotFoundException("Submission", "id", submissionId));
+        if (file.isEmpty()) {
+            throw new BusinessLogicException("Uploaded file is empty");
+        }
+
+        BlobInfo blob;
+        try (InputStream in = file.getInputStream()) {
+            blob = blobStore.put(in);
+        } catch (IOException e) {
+            throw new BusinessLogicException("Failed to read upload: " + e.getMessage());
+        }
+        log.info("Attached file {} ({} bytes) to submission {}", blob.getHash(), blob.getSize(), submissionId);
+
+        submission.setFileHash(blob.getHash());
+        submission.setFileSize(blob.getSize());
+        submission.setFileName(file.getOriginalFilename());
+        submission.setFileContentType(file.getContentType());
+        return mapToDTO(submissionRepository.save(submission), false);
+    }
+
+    @Transactional(readOnly = true)
+    public SubmissionDTO getSubmissionFile(Long submissionId) {
+        Submission submission = submissionRepository.findById(submissionId)
+                .orElseThrow(() -> new ResourceNotFoundException("Submission", "id", submissionId));
+        if (submission.getFileHash() == null) {
+            throw new ResourceNotFoundException("File of submission " + submissionId + " not found");
+        }
+        return mapToDTO(submission, false);
     }
 
     public void deleteSubmission(Long id) {
@@ -142,23 +347,51 @@ public class SubmissionService {
                 .orElseThrow(() -> new ResourceNotFoundException("Submission", "id", id));
 
         submissionRepository.delete(submission);
+        similarityService.remove(id);
+        eventPublisher.publishEvent(new SubmissionStatusChangedEvent(
+                id, submission.getAssignment().getId(), submission.getStatus(), null));
         log.info("Submission deleted with ID: {}", id);
     }
 
+    private void publishStatusChange(Submission submission, SubmissionStatus previousStatus) {
+        eventPublisher.publishEvent(new SubmissionStatusChangedEvent(
+                submission.getId(), submission.getAssignment().getId(), previousStatus, submission.getStatus()));
+    }
+
+    private void setFeedback(Submission submission, String feedback) {
+        BlobInfo blob = blobStore.putText(feedback);
+        submission.setFeedbackHash(blob != null ? blob.getHash() : null);
+        submission.setFeedbackSize(blob != null ? blob.getSize() : null);
+    }
+
     private SubmissionDTO mapToDTO(Submission submission) {
+        return mapToDTO(submission, false);
+    }
+
+    // Texts are read from the blob store only for single submissions
+    private SubmissionDTO mapToDTO(Submission submission, boolean withText) {
         return SubmissionDTO.builder()
                 .id(submission.getId())
                 .assignmentId(submission.getAssignment().getId())
                 .assignmentTitle(submission.getAssignment().getTitle())
                 .studentId(submission.getStudent().getId())
                 .studentName(submission.getStudent().getName())
-                .content(submission.getContent())
+                .content(withText ? blobStore.getText(submission.getContentHash()) : null)
+                .contentHash(submission.getContentHash())
+                .contentSize(submission.getContentSize())
                 .fileUrl(submission.getFileUrl())
+                .fileHash(submission.getFileHash())
+                .fileSize(submission.getFileSize())
+                .fileName(submission.getFileName())
+                .fileContentType(submission.getFileContentType())
                 .submittedAt(submission.getSubmittedAt())
                 .score(submission.getScore())
-                .feedback(submission.getFeedback())
+                .feedback(withText ? blobStore.getText(submission.getFeedbackHash()) : null)
+                .feedbackHash(submission.getFeedbackHash())
+                .feedbackSize(submission.getFeedbackSize())
                 .status(submission.getStatus())
                 .reviewedAt(submission.getReviewedAt())
+                .versionNumber(SubmissionVersionService.versionOf(submission))
                 .build();
     }
 }
@@ -0,0 +1,260 @@
+package com.learningplatform.service;
+
+import com.learningplatform.dto.SubmissionVersionDTO;
+import com.learningplatform.entity.Submission;
+import com.learningplatform.entity.SubmissionVersion;
+import com.learningplatform.exception.ResourceNotFoundException;
+import com.learningplatform.exception.StorageException;
+import com.learningplatform.repository.SubmissionRepository;
+import com.learningplatform.repository.SubmissionVersionRepository;
+import com.learningplatform.storage.BlobStore;
+import com.learningplatform.util.TextDelta;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * History of resubmitted submissions.
+ * <p>
+ * The submission row is always the latest version, so listings never read this history. When a
+ * student resubmits, the version being replaced is archived with its text encoded as a
+ * {@link TextDelta} against the new text (a reverse delta), and the new text becomes the full copy.
+ * Rebuilding version {@code n} applies the deltas of every newer version, newest first, starting
+ * from the latest text.
+ * <p>
+ * A version's {@code contentHash} is only a checksum of its text, not a blob reference: once a
+ * resubmission commits, the superseded text is released from the blob store, so storage per
+ * resubmission stays about the size of the edit. Blobs are shared by content, so the release waits
+ * a few minutes for concurrent writers to commit and then deletes the blob only if no submission,
+ * lesson or version references it and it has not been stored again since it was superseded.
+ * Releases still pending at shutdown are not retried, which leaves at most those blobs behind.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+@Transactional
+public class SubmissionVersionService {
+
+    // Every column that refers to a blob; versions' content_hash is a checksum and is left out
+    private static final String BLOB_REFERENCED = "SELECT CASE WHEN " +
+            "EXISTS (SELECT 1 FROM submissions WHERE content_hash = ?) " +
+            "OR EXISTS (SELECT 1 FROM submissions WHERE feedback_hash = ?) " +
+            "OR EXISTS (SELECT 1 FROM submissions WHERE file_hash = ?) " +
+            "OR EXISTS (SELECT 1 FROM lessons WHERE content_hash = ?) " +
+            "OR EXISTS (SELECT 1 FROM submission_versions WHERE feedback_hash = ?) " +
+            "OR EXISTS (SELECT 1 FROM submission_versions WHERE file_hash = ?) " +
+            "THEN 1 ELSE 0 END";
+
+    private final SubmissionVersionRepository versionRepository;
+    private final SubmissionRepository submissionRepository;
+    private final BlobStore blobStore;
+    private final JdbcTemplate jdbcTemplate;
+
+    @Value("${learning-platform.submissions.superseded-text-release-delay:10m}")
+    private Duration releaseDelay;
+
+    private final ScheduledExecutorService releaser = Executors.newSingleThreadScheduledExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "submission-text-release");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    @PreDestroy
+    void stop() {
+        releaser.shutdownNow();
+    }
+
+    /**
+     * Archives the current state of the submission before it is replaced by a version with {@code newText}.
+     */
+    public SubmissionVersion archive(Submission submission, String newText) {
+        String currentText = blobStore.getText(submission.getContentHash());
+        byte[] delta = currentText != null
+                ? TextDelta.encode(bytes(newText), currentText.getBytes(StandardCharsets.UTF_8))
+                : null;
+
+        SubmissionVersion version = versionRepository.save(SubmissionVersion.builder()
+                .submission(submission)
+                .versionNumber(versionOf(submission))
+                .contentHash(submission.getContentHash())
+                .contentSize(submission.getContentSize())
+                .contentDelta(delta)
+                .fileUrl(submission.getFileUrl())
+                .fileHash(submission.getFileHash())
+                .fileSize(submission.getFileSize())
+                .fileName(submission.getFileName())
+                .fileContentType(submission.getFileContentType())
+                .submittedAt(submission.getSubmittedAt())
+                .score(submission.getScore())
+                .feedbackHash(submission.getFeedbackHash())
+                .feedbackSize(submission.getFeedbackSize())
+                .status(submission.getStatus())
+                .reviewedAt(submission.getReviewedAt())
+                .supersededAt(LocalDateTime.now())
+                .build());
+        if (submission.getContentHash() != null) {
+            releaseAfterCommit(submission.getContentHash(), Instant.now());
+        }
+
+        log.info("Archived version {} of submission {} ({} delta bytes for {} text bytes)",
+                version.getVersionNumber(), submission.getId(),
+                delta != null ? delta.length : 0, submission.getContentSize());
+        return version;
+    }
+
+    @Transactional(readOnly = true)
+    public List<SubmissionVersionDTO> getVersions(Long submissionId) {
+        Submission submission = findSubmission(submissionId);
+        List<SubmissionVersionDTO> versions = new ArrayList<>();
+        versions.add(mapLatest(submission, null));
+        for (SubmissionVersion version : versionRepository.findBySubmissionId(submissionId)) {
+            versions.add(mapToDTO(version, null));
+        }
+        return versions;
+    }
+
+    @Transactional(readOnly = true)
+    public SubmissionVersionDTO getVersion(Long submissionId, Integer versionNumber) {
+        Submission submission = findSubmission(submissionId);
+        String latestText = blobStore.getText(submission.getContentHash());
+        if (versionNumber.equals(versionOf(submission))) {
+            return mapLatest(submission, latestText);
+        }
+
+        List<SubmissionVersion> chain = versionRepository.findChainFrom(submissionId, versionNumber);
+        if (chain.isEmpty() || !chain.get(chain.size() - 1).getVersionNumber().equals(versionNumber)) {
+            throw new ResourceNotFoundException("Version " + versionNumber + " of submission " + submissionId + " not found");
+        }
+
+        // Each delta rebuilds its version from the text of the next newer one; no text encodes as empty
+        byte[] text = bytes(latestText);
+        for (SubmissionVersion version : chain) {
+            text = version.getContentDelta() != null ? TextDelta.apply(text, version.getContentDelta()) : new byte[0];
+        }
+
+        SubmissionVersion requested = chain.get(chain.size() - 1);
+        if (requested.getContentHash() == null) {
+            return mapToDTO(requested, null);
+        }
+        if (!sha256(text).equals(requested.getContentHash())) {
+            throw new StorageException("Rebuilt text of version " + versionNumber + " of submission "
+                    + submissionId + " does not match its hash");
+        }
+        return mapToDTO(requested, new String(text, StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Deletes the blob of a superseded text unless something references it or it was stored again
+     * at or after {@code supersededAt}. Returns whether it was deleted.
+     */
+    @Transactional(readOnly = true)
+    public boolean releaseSupersededText(String hash, Instant supersededAt) {
+        Integer referenced = jdbcTemplate.queryForObject(BLOB_REFERENCED, Integer.class,
+                hash, hash, hash, hash, hash, hash);
+        if (referenced != null && referenced == 1) {
+            return false;
+        }
+        boolean deleted = blobStore.deleteIfNotStoredSince(hash, supersededAt);
+        if (deleted) {
+            log.debug("Released superseded submission text {}", hash);
+        }
+        return deleted;
+    }
+
+    private void releaseAfterCommit(String hash, Instant supersededAt) {
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                releaser.schedule(() -> {
+                    try {
+                        releaseSupersededText(hash, supersededAt);
+                    } catch (RuntimeException e) {
+                        log.warn("Releasing superseded submission text {} failed: {}", hash, e.getMessage());
+                    }
+                }, releaseDelay.toMillis(), TimeUnit.MILLISECONDS);
+            }
+        });
+    }
+
+    static int versionOf(Submission submission) {
+        return submission.getVersionNumber() != null ? submission.getVersionNumber() : 1;
+    }
+
+    private Submission findSubmission(Long submissionId) {
+        return submissionRepository.findById(submissionId)
+                .orElseThrow(() -> new ResourceNotFoundException("Submission", "id", submissionId));
+    }
+
+    private static byte[] bytes(String text) {
+        return text != null ? text.getBytes(StandardCharsets.UTF_8) : new byte[0];
+    }
+
+    private static String sha256(byte[] data) {
+        try {
+            return HexFormat.of().formatHex(MessageDigest.getInstance("SHA-256").digest(data));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not available", e);
+        }
+    }
+
+    private SubmissionVersionDTO mapLatest(Submission submission, String content) {
+        return SubmissionVersionDTO.builder()
+                .submissionId(submission.getId())
+                .versionNumber(versionOf(submission))
+                .latest(true)
+                .content(content)
+                .contentHash(submission.getContentHash())
+                .contentSize(submission.getContentSize())
+                .storedSize(submission.getContentSize())
+                .fileUrl(submission.getFileUrl())
+                .fileHash(submission.getFileHash())
+                .fileSize(submission.getFileSize())
+                .fileName(submission.getFileName())
+                .submittedAt(submission.getSubmittedAt())
+                .score(submission.getScore())
+                .feedbackHash(submission.getFeedbackHash())
+                .status(submission.getStatus())
+                .reviewedAt(submission.getReviewedAt())
+                .build();
+    }
+
+    private SubmissionVersionDTO mapToDTO(SubmissionVersion version, String content) {
+        return SubmissionVersionDTO.builder()
+                .submissionId(version.getSubmission().getId())
+                .versionNumber(version.getVersionNumber())
+                .content(content)
+                .contentHash(version.getContentHash())
+                .contentSize(version.getContentSize())
+                .storedSize(version.getContentDelta() != null ? (long) version.getContentDelta().length : 0L)
+                .fileUrl(version.getFileUrl())
+                .fileHash(version.getFileHash())
+                .fileSize(version.getFileSize())
+                .fileName(version.getFileName())
+                .submittedAt(version.getSubmittedAt())
+                .score(version.getScore())
+                .feedbackHash(version.getFeedbackHash())
+                .status(version.getStatus())
+                .reviewedAt(version.getReviewedAt())
+                .supersededAt(version.getSupersededAt())
+                .build();
+    }
+}
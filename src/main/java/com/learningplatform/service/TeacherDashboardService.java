@@ -0,0 +1,140 @@
+package com.learningplatform.service;
+
+import com.learningplatform.dto.TeacherDashboardDTO;
+import com.learningplatform.entity.Role;
+import com.learningplatform.entity.User;
+import com.learningplatform.exception.BusinessLogicException;
+import com.learningplatform.exception.ResourceNotFoundException;
+import com.learningplatform.repository.UserRepository;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Per-course figures of the teacher home screen.
+ * <p>
+ * Enrollment counts, completion rate, average rating, pending submissions and quiz pass rate of
+ * all of a teacher's courses come from a single statement: each source table is grouped by course
+ * in its own derived table, restricted to the teacher's courses, and the results are left-joined
+ * onto the courses, so the cost does not grow with the number of courses and no per-course call is
+ * made. Quiz attempts older than the archive retention are no longer counted.
+ * <p>
+ * Dashboards are cached per teacher for a short TTL, so a teacher refreshing the page, or several
+ * tabs open at once, reuse one computation. Nothing is invalidated on writes; figures lag by at
+ * most the TTL, which {@code computedAt} makes visible.
+ */
+@Service
+@RequiredArgsConstructor
+public class TeacherDashboardService {
+
+    // Expired entries are only swept once this many teachers are cached
+    private static final int SWEEP_THRESHOLD = 1000;
+
+    private static final String COURSE_STATS = "SELECT c.id, c.title, c.is_published, " +
+            "e.enrollments, e.completed, r.average_rating, r.reviews, s.pending, q.attempts, q.passed " +
+            "FROM courses c " +
+            "LEFT JOIN (SELECT en.course_id, COUNT(*) AS enrollments, " +
+            "    SUM(CASE WHEN en.status = 'COMPLETED' THEN 1 ELSE 0 END) AS completed " +
+            "    FROM enrollments en JOIN courses ec ON ec.id = en.course_id " +
+            "    WHERE ec.teacher_id = ? GROUP BY en.course_id) e ON e.course_id = c.id " +
+            "LEFT JOIN (SELECT cr.course_id, AVG(CAST(cr.rating AS DOUBLE PRECISION)) AS average_rating, " +
+            "    COUNT(*) AS reviews " +
+            "    FROM course_reviews cr JOIN courses rc ON rc.id = cr.course_id " +
+            "    WHERE rc.teacher_id = ? GROUP BY cr.course_id) r ON r.course_id = c.id " +
+            "LEFT JOIN (SELECT sm.course_id, COUNT(*) AS pending " +
+            "    FROM submissions sb JOIN assignments sa ON sa.id = sb.assignment_id " +
+            "    JOIN lessons sl ON sl.id = sa.lesson_id JOIN modules sm ON sm.id = sl.module_id " +
+            "    JOIN courses sc ON sc.id = sm.course_id " +
+            "    WHERE sc.teacher_id = ? AND sb.status = 'SUBMITTED' GROUP BY sm.course_id) s ON s.course_id = c.id " +
+            "LEFT JOIN (SELECT qm.course_id, COUNT(*) AS attempts, " +
+            "    SUM(CASE WHEN qs.passed = TRUE THEN 1 ELSE 0 END) AS passed " +
+            "    FROM quiz_submissions qs JOIN quizzes qz ON qz.id = qs.quiz_id " +
+            "    JOIN modules qm ON qm.id = qz.module_id JOIN courses qc ON qc.id = qm.course_id " +
+            "    WHERE qc.teacher_id = ? GROUP BY qm.course_id) q ON q.course_id = c.id " +
+            "WHERE c.teacher_id = ? ORDER BY c.id";
+
+    private final UserRepository userRepository;
+    private final JdbcTemplate jdbcTemplate;
+
+    @Value("${learning-platform.dashboard.teacher-cache-ttl:30s}")
+    private Duration cacheTtl;
+
+    private final Map<Long, Cached> cache = new ConcurrentHashMap<>();
+
+    @Transactional(readOnly = true)
+    public TeacherDashboardDTO getDashboard(Long teacherId) {
+        long now = System.currentTimeMillis();
+        Cached cached = cache.get(teacherId);
+        if (cached != null && cached.expiresAt > now) {
+            return cached.dashboard;
+        }
+
+        requireTeacher(teacherId);
+        List<TeacherDashboardDTO.CourseStats> courses = jdbcTemplate.query(COURSE_STATS,
+                (rs, rowNum) -> mapCourseStats(rs),
+                teacherId, teacherId, teacherId, teacherId, teacherId);
+
+        long enrollments = 0;
+        long pending = 0;
+        for (TeacherDashboardDTO.CourseStats course : courses) {
+            enrollments += course.getEnrollments();
+            pending += course.getPendingSubmissions();
+        }
+        TeacherDashboardDTO dashboard = TeacherDashboardDTO.builder()
+                .teacherId(teacherId)
+                .computedAt(LocalDateTime.now())
+                .enrollments(enrollments)
+                .pendingSubmissions(pending)
+                .courses(courses)
+                .build();
+
+        if (cache.size() >= SWEEP_THRESHOLD) {
+            cache.values().removeIf(entry -> entry.expiresAt <= now);
+        }
+        cache.put(teacherId, new Cached(dashboard, now + cacheTtl.toMillis()));
+        return dashboard;
+    }
+
+    private void requireTeacher(Long teacherId) {
+        User teacher = userRepository.findById(teacherId)
+                .orElseThrow(() -> new ResourceNotFoundException("User", "id", teacherId));
+        if (teacher.getRole() != Role.TEACHER) {
+            throw new BusinessLogicException("User " + teacherId + " is not a teacher");
+        }
+    }
+
+    private static TeacherDashboardDTO.CourseStats mapCourseStats(ResultSet rs) throws SQLException {
+        long enrollments = rs.getLong("enrollments");
+        long completed = rs.getLong("completed");
+        long attempts = rs.getLong("attempts");
+        long passed = rs.getLong("passed");
+        double averageRating = rs.getDouble("average_rating");
+        boolean rated = !rs.wasNull();
+        return TeacherDashboardDTO.CourseStats.builder()
+                .courseId(rs.getLong("id"))
+                .title(rs.getString("title"))
+                .isPublished(rs.getObject("is_published", Boolean.class))
+                .enrollments(enrollments)
+                .completedEnrollments(completed)
+                .completionRate(enrollments > 0 ? (double) completed / enrollments : null)
+                .averageRating(rated ? averageRating : null)
+                .reviews(rs.getLong("reviews"))
+                .pendingSubmissions(rs.getLong("pending"))
+                .quizAttempts(attempts)
+                .quizPassRate(attempts > 0 ? (double) passed / attempts : null)
+                .build();
+    }
+
+    private record Cached(TeacherDashboardDTO dashboard, long expiresAt) {
+    }
+}
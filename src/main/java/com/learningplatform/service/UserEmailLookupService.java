@@ -0,0 +1,215 @@
+package com.learningplatform.service;
+
+import com.learningplatform.entity.Role;
+import com.learningplatform.util.BloomFilter;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+
+/**
+ * In-memory email to (user id, role) resolution for {@link UserService}.
+ * <p>
+ * Emails are keyed in their normalized form: trimmed and lower case, which is also how users store
+ * them. A bounded LRU cache holds recently resolved users and is written through when a user is
+ * created or updated; updates and deletes evict the old entry immediately and again once the
+ * transaction completes, which keeps concurrent reads from putting most stale entries back. Entries
+ * expire after five minutes, which bounds how long any remaining stale entry, or a change made on
+ * another node, can go unnoticed.
+ * <p>
+ * A Bloom filter of every stored email answers most availability checks for unused emails
+ * without a query. It is built in the background at startup, rebuilt larger once saturated, and
+ * only learns about emails created on this node, so it is never trusted to prove that a user does
+ * not exist: an email it misses can only be reported available, and the insert then still fails on
+ * the unique constraint.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class UserEmailLookupService {
+
+    private static final double FALSE_POSITIVE_RATE = 0.01;
+    private static final long MIN_FILTER_CAPACITY = 1_000_000L;
+    private static final int LOAD_CHUNK = 10_000;
+    private static final long REBUILD_CHECK_MINUTES = 1L;
+    private static final long CACHE_TTL_MILLIS = TimeUnit.MINUTES.toMillis(5);
+
+    private static final String USER_EMAILS = "SELECT id, email FROM users WHERE id > ? ORDER BY id LIMIT ?";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    @Value("${learning-platform.users.email-cache-size:100000}")
+    private int cacheSize;
+
+    private Map<String, CachedIdentity> cache;
+
+    private volatile BloomFilter filter;
+    private volatile BloomFilter building;
+
+    private final ScheduledExecutorService loader = Executors.newSingleThreadScheduledExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "user-email-filter");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    @PostConstruct
+    void start() {
+        cache = new LinkedHashMap<>(Math.min(cacheSize, 1024), 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, CachedIdentity> eldest) {
+                return size() > cacheSize;
+            }
+        };
+        loader.scheduleWithFixedDelay(this::rebuildIfNeeded, 0, REBUILD_CHECK_MINUTES, TimeUnit.MINUTES);
+    }
+
+    @PreDestroy
+    void stop() {
+        loader.shutdownNow();
+    }
+
+    public static String normalize(String email) {
+        return email != null ? email.trim().toLowerCase(Locale.ROOT) : null;
+    }
+
+    /**
+     * The cached user of a normalized email, or null if it is not cached.
+     */
+    public Identity get(String email) {
+        long now = System.currentTimeMillis();
+        synchronized (cache) {
+            CachedIdentity cached = cache.get(email);
+            if (cached == null) {
+                return null;
+            }
+            if (cached.expiresAt <= now) {
+                cache.remove(email);
+                return null;
+            }
+            return cached.identity;
+        }
+    }
+
+    /**
+     * Caches a user read from the database.
+     */
+    public void put(String email, Long id, Role role) {
+        synchronized (cache) {
+            cache.put(email, new CachedIdentity(new Identity(id, role), System.currentTimeMillis() + CACHE_TTL_MILLIS));
+        }
+    }
+
+    /**
+     * Caches a user being written by the current transaction once it commits.
+     */
+    public void putAfterCommit(String email, Long id, Role role) {
+        afterCompletion(committed -> {
+            if (committed) {
+                register(email);
+                put(email, id, role);
+            }
+        });
+    }
+
+    /**
+     * Evicts an email now and again when the current transaction completes.
+     */
+    public void evict(String email) {
+        remove(email);
+        afterCompletion(committed -> remove(email));
+    }
+
+    /**
+     * False only if no user had the normalized email when the filter was built and none was
+     * created with it on this node since. Always true until the filter is built.
+     */
+    public boolean mightExist(String email) {
+        BloomFilter current = filter;
+        return current == null || current.mightContain(email);
+    }
+
+    /**
+     * Adds a committed email to the filter without caching its user.
+     */
+    public void register(String email) {
+        BloomFilter current = filter;
+        BloomFilter next = building;
+        if (current != null) {
+            current.add(email);
+        }
+        if (next != null) {
+            next.add(email);
+        }
+    }
+
+    private void remove(String email) {
+        synchronized (cache) {
+            cache.remove(email);
+        }
+    }
+
+    private static void afterCompletion(Consumer<Boolean> callback) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            callback.accept(true);
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCompletion(int status) {
+                callback.accept(status == STATUS_COMMITTED);
+            }
+        });
+    }
+
+    private void rebuildIfNeeded() {
+        BloomFilter current = filter;
+        if (current != null && !current.isSaturated()) {
+            return;
+        }
+        try {
+            Long count = jdbcTemplate.queryForObject("SELECT COUNT(*) FROM users", Long.class);
+            long capacity = Math.max(MIN_FILTER_CAPACITY, 2 * (count != null ? count : 0L));
+            BloomFilter next = new BloomFilter(capacity, FALSE_POSITIVE_RATE);
+            building = next;
+            try {
+                long afterId = 0L;
+                while (true) {
+                    List<Map<String, Object>> rows = jdbcTemplate.queryForList(USER_EMAILS, afterId, LOAD_CHUNK);
+                    for (Map<String, Object> row : rows) {
+                        next.add(normalize((String) row.get("email")));
+                    }
+                    if (rows.size() < LOAD_CHUNK) {
+                        break;
+                    }
+                    afterId = ((Number) rows.get(rows.size() - 1).get("id")).longValue();
+                }
+                filter = next;
+            } finally {
+                building = null;
+            }
+            log.info("Built user email filter with {} emails for up to {}", next.getAddedCount(), capacity);
+        } catch (RuntimeException e) {
+            log.error("Building the user email filter failed", e);
+        }
+    }
+
+    public record Identity(Long id, Role role) {
+    }
+
+    private record CachedIdentity(Identity identity, long expiresAt) {
+    }
+}
@@ -0,0 +1,467 @@
+package com.learningplatform.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.learningplatform.dto.UserDTO;
+import com.learningplatform.dto.UserImportResultDTO;
+import com.learningplatform.entity.Role;
+import com.learningplatform.exception.BusinessLogicException;
+import com.learningplatform.exception.StorageException;
+import com.learningplatform.storage.BlobInfo;
+import com.learningplatform.storage.BlobStore;
+import com.learningplatform.util.CsvReader;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.jdbc.core.BatchPreparedStatementSetter;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.support.GeneratedKeyHolder;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * Bulk import of users, with optional profiles, from CSV or NDJSON.
+ * <p>
+ * The upload is read one row at a time and each row is validated like a single user creation.
+ * Accepted rows are written in chunks of 1,000, each in its own transaction: users in one JDBC
+ * batch whose generated ids link the profiles, inserted in a second batch. Rows that fail
+ * validation, have a field too long for its column or repeat an email are skipped and listed in a CSV error report kept in the blob
+ * store; the other rows are still imported.
+ * <p>
+ * Emails already registered are found without a query per row: the hash codes of all stored
+ * emails are loaded once, in id order, into a sorted array (4 bytes per user), and only the rows
+ * whose hash matches are checked against the table, with one query per chunk and, for the rare
+ * matches it does not confirm, a second one ignoring case. Emails of the upload itself are
+ * deduplicated with an in-memory set. If a user with one of a chunk's emails is registered while
+ * the import runs, the unique constraint rejects the chunk and it is retried once without the
+ * taken emails.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class UserImportService {
+
+    private static final int CHUNK_SIZE = 1000;
+    private static final int LOAD_CHUNK = 10_000;
+    private static final int MAX_LISTED_ERRORS = 100;
+    private static final String REPORT_URL = "/api/users/import/reports/";
+
+    private static final String USER_EMAILS = "SELECT id, email FROM users WHERE id > ? ORDER BY id LIMIT ?";
+    private static final String INSERT_USER =
+            "INSERT INTO users (name, email, role, created_at, updated_at) VALUES (?, ?, ?, ?, ?)";
+    private static final String INSERT_PROFILE = "INSERT INTO profiles " +
+            "(user_id, bio, avatar_url, phone, address, website, linkedin_url, github_url) " +
+            "VALUES (?, ?, ?, ?, ?, ?, ?, ?)";
+
+    // Column names and JSON fields, compared in lower case and without underscores
+    private static final List<String> REQUIRED_COLUMNS = List.of("name", "email", "role");
+    private static final List<String> PROFILE_COLUMNS =
+            List.of("bio", "avatarurl", "phone", "address", "website", "linkedinurl", "githuburl");
+    // Profile columns other than the bio are varchar(255)
+    private static final int MAX_PROFILE_FIELD_LENGTH = 255;
+
+    private static final String EMAIL_CONSTRAINT = "uk_users_email";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final PlatformTransactionManager transactionManager;
+    private final Validator validator;
+    private final ObjectMapper objectMapper;
+    private final BlobStore blobStore;
+    private final UserEmailLookupService emailLookupService;
+
+    public enum Format {
+        // Header row naming the columns, then one user per record
+        CSV,
+        // One user object per line
+        NDJSON
+    }
+
+    public UserImportResultDTO importUsers(InputStream input, Format format) {
+        log.info("Importing users ({})", format);
+
+        Path report;
+        try {
+            report = Files.createTempFile("user-import-", ".csv");
+        } catch (IOException e) {
+            throw new StorageException("Failed to create import error report", e);
+        }
+        try (Writer reportWriter = Files.newBufferedWriter(report, StandardCharsets.UTF_8);
+             BufferedReader reader = new BufferedReader(new InputStreamReader(input, StandardCharsets.UTF_8))) {
+            Import run = new Import(reportWriter);
+            reportWriter.write("line,email,error\n");
+            if (format == Format.CSV) {
+                run.readCsv(reader);
+            } else {
+                run.readNdjson(reader);
+            }
+            run.flush();
+            reportWriter.close();
+
+            UserImportResultDTO result = run.result;
+            if (result.getRowsRejected() > 0) {
+                try (InputStream content = Files.newInputStream(report)) {
+                    BlobInfo blob = blobStore.put(content);
+                    result.setErrorReportUrl(REPORT_URL + blob.getHash());
+                }
+            }
+            log.info("Imported {} users and {} profiles, rejected {} of {} rows", result.getUsersImported(),
+                    result.getProfilesImported(), result.getRowsRejected(), result.getRowsRead());
+            return result;
+        } catch (IOException e) {
+            throw new BusinessLogicException("Failed to read import: " + e.getMessage());
+        } finally {
+            try {
+                Files.deleteIfExists(report);
+            } catch (IOException e) {
+                log.warn("Failed to delete import error report {}", report, e);
+            }
+        }
+    }
+
+    private int[] loadEmailHashes() {
+        int[] hashes = new int[1024];
+        int count = 0;
+        long afterId = 0L;
+        while (true) {
+            List<Map<String, Object>> rows = jdbcTemplate.queryForList(USER_EMAILS, afterId, LOAD_CHUNK);
+            if (count + rows.size() > hashes.length) {
+                hashes = Arrays.copyOf(hashes, Math.max(hashes.length * 2, count + rows.size()));
+            }
+            for (Map<String, Object> row : rows) {
+                hashes[count++] = UserEmailLookupService.normalize((String) row.get("email")).hashCode();
+            }
+            if (rows.size() < LOAD_CHUNK) {
+                break;
+            }
+            afterId = ((Number) rows.get(rows.size() - 1).get("id")).longValue();
+        }
+        int[] sorted = Arrays.copyOf(hashes, count);
+        Arrays.sort(sorted);
+        return sorted;
+    }
+
+    // Stored emails are normalized, so the indexed exact match finds nearly all of them. A row it
+    // misses is either a hash collision or a legacy email that could not be normalized because
+    // another user has its normalized form; the few of them are checked ignoring case.
+    private Set<String> findRegistered(Collection<Row> rows) {
+        if (rows.isEmpty()) {
+            return Collections.emptySet();
+        }
+        List<String> emails = rows.stream().map(Row::email).toList();
+        Set<String> registered = new HashSet<>(jdbcTemplate.queryForList(
+                "SELECT email FROM users WHERE email IN (" + placeholders(emails.size()) + ")",
+                String.class, emails.toArray()));
+
+        List<String> missed = emails.stream().filter(email -> !registered.contains(email)).toList();
+        if (!missed.isEmpty()) {
+            for (String email : jdbcTemplate.queryForList(
+                    "SELECT email FROM users WHERE LOWER(TRIM(email)) IN (" + placeholders(missed.size()) + ")",
+                    String.class, missed.toArray())) {
+                registered.add(UserEmailLookupService.normalize(email));
+            }
+        }
+        return registered;
+    }
+
+    private static String placeholders(int count) {
+        return String.join(", ", Collections.nCopies(count, "?"));
+    }
+
+    // Returns the number of profiles inserted
+    private int insert(List<Row> rows) {
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+        GeneratedKeyHolder keys = new GeneratedKeyHolder();
+        jdbcTemplate.batchUpdate(
+                connection -> connection.prepareStatement(INSERT_USER, new String[]{"id"}),
+                new BatchPreparedStatementSetter() {
+                    @Override
+                    public void setValues(PreparedStatement ps, int i) throws SQLException {
+                        Row row = rows.get(i);
+                        ps.setString(1, row.name());
+                        ps.setString(2, row.email());
+                        ps.setString(3, row.role().name());
+                        ps.setTimestamp(4, now);
+                        ps.setTimestamp(5, now);
+                    }
+
+                    @Override
+                    public int getBatchSize() {
+                        return rows.size();
+                    }
+                },
+                keys);
+
+        List<Map<String, Object>> keyList = keys.getKeyList();
+        List<Object[]> profileRows = new ArrayList<>();
+        for (int i = 0; i < rows.size(); i++) {
+            Row row = rows.get(i);
+            if (row.hasProfile()) {
+                Number userId = (Number) keyList.get(i).values().iterator().next();
+                profileRows.add(new Object[]{userId.longValue(), row.field("bio"), row.field("avatarurl"),
+                        row.field("phone"), row.field("address"), row.field("website"),
+                        row.field("linkedinurl"), row.field("githuburl")});
+            }
+        }
+        if (!profileRows.isEmpty()) {
+            jdbcTemplate.batchUpdate(INSERT_PROFILE, profileRows);
+        }
+        return profileRows.size();
+    }
+
+    // The batch bypasses Hibernate, so the constraint is only named in the driver's message
+    private static boolean isEmailConflict(DataIntegrityViolationException e) {
+        for (Throwable cause = e; cause != null; cause = cause.getCause()) {
+            if (cause instanceof SQLException sql) {
+                for (SQLException next = sql; next != null; next = next.getNextException()) {
+                    if (next.getMessage() != null
+                            && next.getMessage().toLowerCase(Locale.ROOT).contains(EMAIL_CONSTRAINT)) {
+                        return true;
+                    }
+                }
+            }
+        }
+        return false;
+    }
+
+    private static String columnKey(String name) {
+        return name.trim().replace("_", "").toLowerCase(Locale.ROOT);
+    }
+
+    private static String csvField(String value) {
+        if (value == null) {
+            return "";
+        }
+        if (value.indexOf(',') < 0 && value.indexOf('"') < 0 && value.indexOf('\n') < 0 && value.indexOf('\r') < 0) {
+            return value;
+        }
+        return "\"" + value.replace("\"", "\"\"") + "\"";
+    }
+
+    // State of one import run
+    private final class Import {
+        private final UserImportResultDTO result = UserImportResultDTO.builder().build();
+        private final Writer report;
+        private final int[] registeredHashes = loadEmailHashes();
+        private final Set<String> seenEmails = new HashSet<>();
+        private final List<Row> chunk = new ArrayList<>(CHUNK_SIZE);
+        private final TransactionTemplate transaction = new TransactionTemplate(transactionManager);
+
+        private Import(Writer report) {
+            this.report = report;
+        }
+
+        void readCsv(BufferedReader input) throws IOException {
+            CsvReader csv = new CsvReader(input);
+            List<String> header;
+            try {
+                header = csv.next();
+            } catch (IllegalArgumentException e) {
+                throw new BusinessLogicException("Malformed CSV header: " + e.getMessage());
+            }
+            if (header == null) {
+                return;
+            }
+            List<String> columns = header.stream().map(UserImportService::columnKey).collect(Collectors.toList());
+            for (String required : REQUIRED_COLUMNS) {
+                if (!columns.contains(required)) {
+                    throw new BusinessLogicException("CSV header must name the columns " + REQUIRED_COLUMNS);
+                }
+            }
+
+            while (true) {
+                List<String> record;
+                try {
+                    record = csv.next();
+                } catch (IllegalArgumentException e) {
+                    // Nothing after an unclosed quote can be split into records
+                    result.setRowsRead(result.getRowsRead() + 1);
+                    reject(csv.getRecordLine(), null, e.getMessage());
+                    return;
+                }
+                if (record == null) {
+                    return;
+                }
+                if (record.size() == 1 && record.get(0).isBlank()) {
+                    continue;
+                }
+                Map<String, String> fields = new HashMap<>();
+                for (int i = 0; i < Math.min(columns.size(), record.size()); i++) {
+                    fields.put(columns.get(i), record.get(i));
+                }
+                accept(csv.getRecordLine(), fields);
+            }
+        }
+
+        void readNdjson(BufferedReader input) throws IOException {
+            long line = 0;
+            String text;
+            while ((text = input.readLine()) != null) {
+                line++;
+                if (text.isBlank()) {
+                    continue;
+                }
+                Map<?, ?> object;
+                try {
+                    object = objectMapper.readValue(text, Map.class);
+                } catch (JsonProcessingException e) {
+                    result.setRowsRead(result.getRowsRead() + 1);
+                    reject(line, null, "Malformed JSON: " + e.getOriginalMessage());
+                    continue;
+                }
+                Map<String, String> fields = new HashMap<>();
+                object.forEach((key, value) -> {
+                    if (value != null) {
+                        fields.put(columnKey(key.toString()), value.toString());
+                    }
+                });
+                accept(line, fields);
+            }
+        }
+
+        private void accept(long line, Map<String, String> fields) throws IOException {
+            result.setRowsRead(result.getRowsRead() + 1);
+            String email = UserEmailLookupService.normalize(fields.get("email"));
+
+            Role role = null;
+            String roleName = fields.get("role");
+            if (roleName != null && !roleName.isBlank()) {
+                try {
+                    role = Role.valueOf(roleName.trim().toUpperCase(Locale.ROOT));
+                } catch (IllegalArgumentException e) {
+                    reject(line, email, "Unknown role '" + roleName + "'");
+                    return;
+                }
+            }
+            UserDTO user = UserDTO.builder()
+                    .name(fields.get("name") != null ? fields.get("name").trim() : null)
+                    .email(email)
+                    .role(role)
+                    .build();
+            Set<ConstraintViolation<UserDTO>> violations = validator.validate(user);
+            if (!violations.isEmpty()) {
+                reject(line, email, violations.stream()
+                        .map(ConstraintViolation::getMessage)
+                        .sorted()
+                        .collect(Collectors.joining("; ")));
+                return;
+            }
+            Row row = new Row(line, user.getName(), email, role, fields);
+            for (String column : PROFILE_COLUMNS) {
+                String value = row.field(column);
+                if (!column.equals("bio") && value != null && value.length() > MAX_PROFILE_FIELD_LENGTH) {
+                    reject(line, email, "Profile field '" + column + "' must be at most "
+                            + MAX_PROFILE_FIELD_LENGTH + " characters");
+                    return;
+                }
+            }
+            if (!seenEmails.add(email)) {
+                reject(line, email, "Email appears earlier in the upload");
+                return;
+            }
+
+            chunk.add(row);
+            if (chunk.size() == CHUNK_SIZE) {
+                flush();
+            }
+        }
+
+        void flush() throws IOException {
+            if (chunk.isEmpty()) {
+                return;
+            }
+            List<Row> suspects = chunk.stream()
+                    .filter(row -> Arrays.binarySearch(registeredHashes, row.email().hashCode()) >= 0)
+                    .collect(Collectors.toList());
+            List<Row> rows = withoutRegistered(chunk, findRegistered(suspects));
+
+            Integer profiles;
+            try {
+                List<Row> attempt = rows;
+                profiles = transaction.execute(status -> insert(attempt));
+            } catch (DataIntegrityViolationException e) {
+                // Rows are validated against the schema, so anything else would fail the retry as well
+                if (!isEmailConflict(e)) {
+                    throw e;
+                }
+                log.debug("User import chunk raced with a registration; retrying");
+                rows = withoutRegistered(rows, findRegistered(rows));
+                List<Row> retry = rows;
+                profiles = transaction.execute(status -> insert(retry));
+            }
+
+            for (Row row : rows) {
+                emailLookupService.register(row.email());
+            }
+            result.setUsersImported(result.getUsersImported() + rows.size());
+            result.setProfilesImported(result.getProfilesImported() + (profiles != null ? profiles : 0));
+            chunk.clear();
+        }
+
+        private List<Row> withoutRegistered(List<Row> rows, Set<String> registered) throws IOException {
+            if (registered.isEmpty()) {
+                return new ArrayList<>(rows);
+            }
+            List<Row> remaining = new ArrayList<>(rows.size());
+            for (Row row : rows) {
+                if (registered.contains(row.email())) {
+                    reject(row.line(), row.email(), "Email is already registered");
+                } else {
+                    remaining.add(row);
+                }
+            }
+            return remaining;
+        }
+
+        private void reject(long line, String email, String message) throws IOException {
+            result.setRowsRejected(result.getRowsRejected() + 1);
+            if (result.getErrors().size() < MAX_LISTED_ERRORS) {
+                result.getErrors().add(new UserImportResultDTO.RowError(line, email, message));
+            }
+            report.write(line + "," + csvField(email) + "," + csvField(message) + "\n");
+        }
+    }
+
+    private record Row(long line, String name, String email, Role role, Map<String, String> fields) {
+
+        String field(String key) {
+            String value = fields.get(key);
+            return value == null || value.isBlank() ? null : value.trim();
+        }
+
+        boolean hasProfile() {
+            for (String key : PROFILE_COLUMNS) {
+                if (field(key) != null) {
+                    return true;
+                }
+            }
+            return false;
+        }
+    }
+}
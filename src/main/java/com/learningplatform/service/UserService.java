@@ -1,20 +1,32 @@
 package com.learningplatform.service;
 
+import com.learningplatform.dto.EmailAvailabilityDTO;
 import com.learningplatform.dto.ProfileDTO;
 import com.learningplatform.dto.UserDTO;
+import com.learningplatform.dto.UserIdentityDTO;
+import com.learningplatform.dto.UserPageDTO;
+import com.learningplatform.dto.UserSummaryDTO;
 import com.learningplatform.entity.Profile;
 import com.learningplatform.entity.Role;
 import com.learningplatform.entity.User;
+import com.learningplatform.exception.BusinessLogicException;
 import com.learningplatform.exception.DuplicateResourceException;
 import com.learningplatform.exception.ResourceNotFoundException;
 import com.learningplatform.repository.ProfileRepository;
 import com.learningplatform.repository.UserRepository;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.hibernate.exception.ConstraintViolationException;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.util.ArrayList;
 import java.util.List;
+import java.util.Locale;
+import java.util.function.Consumer;
 import java.util.stream.Collectors;
 
 @Service
@@ -23,23 +35,26 @@ import java.util.stream.Collectors;
 @Transactional
 public class UserService {
 
+    private static final int MAX_PAGE_SIZE = 500;
+    private static final int EXPORT_CHUNK = 1000;
+
     private final UserRepository userRepository;
     private final ProfileRepository profileRepository;
+    private final NotificationService notificationService;
+    private final UserEmailLookupService emailLookupService;
 
     public UserDTO createUser(UserDTO userDTO) {
-        log.info("Creating user with email: {}", userDTO.getEmail());
-
-        if (userRepository.existsByEmail(userDTO.getEmail())) {
-            throw new DuplicateResourceException("User", "email", userDTO.getEmail());
-        }
+        String email = UserEmailLookupService.normalize(userDTO.getEmail());
+        log.info("Creating user with email: {}", email);
 
         User user = User.builder()
                 .name(userDTO.getName())
-                .email(userDTO.getEmail())
+                .email(email)
                 .role(userDTO.getRole())
                 .build();
 
-        User savedUser = userRepository.save(user);
+        User savedUser = saveAndFlush(user);
+        emailLookupService.putAfterCommit(email, savedUser.getId(), savedUser.getRole());
         log.info("User created with ID: {}", savedUser.getId());
 
         return mapToDTO(savedUser);
@@ -54,11 +69,44 @@ public class UserService {
 
     @Transactional(readOnly = true)
     public UserDTO getUserByEmail(String email) {
-        User user = userRepository.findByEmail(email)
+        String normalized = UserEmailLookupService.normalize(email);
+        User user = userRepository.findByEmail(normalized)
                 .orElseThrow(() -> new ResourceNotFoundException("User", "email", email));
         return mapToDTO(user);
     }
 
+    /**
+     * Id and role of the user with an email, from the lookup cache when possible.
+     */
+    @Transactional(readOnly = true)
+    public UserIdentityDTO resolveUserByEmail(String email) {
+        String normalized = UserEmailLookupService.normalize(email);
+        UserEmailLookupService.Identity cached = emailLookupService.get(normalized);
+        if (cached != null) {
+            return mapIdentityToDTO(normalized, cached.id(), cached.role());
+        }
+
+        UserRepository.Identity identity = userRepository.findIdentityByEmail(normalized)
+                .orElseThrow(() -> new ResourceNotFoundException("User", "email", email));
+        emailLookupService.put(normalized, identity.getId(), identity.getRole());
+        return mapIdentityToDTO(normalized, identity.getId(), identity.getRole());
+    }
+
+    /**
+     * Whether an email is still free. Unused emails are mostly answered by the lookup filter
+     * without a query; a free answer is advisory, since only the insert can claim the email.
+     */
+    @Transactional(readOnly = true)
+    public EmailAvailabilityDTO checkEmailAvailability(String email) {
+        String normalized = UserEmailLookupService.normalize(email);
+        boolean available = !emailLookupService.mightExist(normalized)
+                || (emailLookupService.get(normalized) == null && !userRepository.existsByEmail(normalized));
+        return EmailAvailabilityDTO.builder()
+                .email(normalized)
+                .available(available)
+                .build();
+    }
+
     @Transactional(readOnly = true)
     public List<UserDTO> getAllUsers() {
         return userRepository.findAll().stream()
@@ -87,22 +135,64 @@ public class UserService {
                 .collect(Collectors.toList());
     }
 
+    /**
+     * One keyset page of users, optionally of one role, ordered by id. Reads only the summary
+     * columns, so page cost stays flat however far into the table the cursor is.
+     */
+    @Transactional(readOnly = true)
+    public UserPageDTO getUserPage(Role role, Long afterId, int size) {
+        if (size < 1 || size > MAX_PAGE_SIZE) {
+            throw new BusinessLogicException("Page size must be between 1 and " + MAX_PAGE_SIZE);
+        }
+
+        List<UserRepository.Summary> rows = findSummaries(role, afterId != null ? afterId : 0L, size + 1);
+        boolean hasMore = rows.size() > size;
+        List<UserSummaryDTO> items = new ArrayList<>(Math.min(rows.size(), size));
+        for (UserRepository.Summary row : hasMore ? rows.subList(0, size) : rows) {
+            items.add(mapSummaryToDTO(row));
+        }
+        return UserPageDTO.builder()
+                .items(items)
+                .hasMore(hasMore)
+                .nextAfterId(hasMore ? items.get(items.size() - 1).getId() : null)
+                .build();
+    }
+
+    /**
+     * Hands all users, optionally of one role, to {@code consumer} in id order, one chunk at a time.
+     * Each chunk is read in its own short transaction, so an export of any size holds neither a
+     * connection nor more than one chunk while the client reads.
+     */
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public void exportUsers(Role role, Consumer<List<UserSummaryDTO>> consumer) {
+        long afterId = 0L;
+        while (true) {
+            List<UserRepository.Summary> rows = findSummaries(role, afterId, EXPORT_CHUNK);
+            if (rows.isEmpty()) {
+                return;
+            }
+            consumer.accept(rows.stream().map(this::mapSummaryToDTO).collect(Collectors.toList()));
+            if (rows.size() < EXPORT_CHUNK) {
+                return;
+            }
+            afterId = rows.get(rows.size() - 1).getId();
+        }
+    }
+
     public UserDTO updateUser(Long id, UserDTO userDTO) {
         log.info("Updating user with ID: {}", id);
 
         User user = userRepository.findById(id)
                 .orElseThrow(() -> new ResourceNotFoundException("User", "id", id));
 
-        if (!user.getEmail().equals(userDTO.getEmail()) &&
-                userRepository.existsByEmail(userDTO.getEmail())) {
-            throw new DuplicateResourceException("User", "email", userDTO.getEmail());
-        }
-
+        String email = UserEmailLookupService.normalize(userDTO.getEmail());
+        emailLookupService.evict(user.getEmail());
         user.setName(userDTO.getName());
-        user.setEmail(userDTO.getEmail());
+        user.setEmail(email);
         user.setRole(userDTO.getRole());
 
-        User updatedUser = userRepository.save(user);
+        User updatedUser = saveAndFlush(user);
+        emailLookupService.putAfterCommit(email, updatedUser.getId(), updatedUser.getRole());
         log.info("User updated with ID: {}", updatedUser.getId());
 
         return mapToDTO(updatedUser);
@@ -114,6 +204,8 @@ public class UserService {
         User user = userRepository.findById(id)
                 .orElseThrow(() -> new ResourceNotFoundException("User", "id", id));
 
+        notificationService.removeReadState(id);
+        emailLookupService.evict(user.getEmail());
         userRepository.delete(user);
         log.info("User deleted with ID: {}", id);
     }
@@ -159,6 +251,56 @@ public class UserService {
                 .build();
     }
 
+    /**
+     * Saves and flushes so that a taken email surfaces here, from the unique constraint, instead
+     * of being checked beforehand and raced by a concurrent insert.
+     */
+    private User saveAndFlush(User user) {
+        try {
+            return userRepository.saveAndFlush(user);
+        } catch (DataIntegrityViolationException e) {
+            if (isEmailConflict(e)) {
+                throw new DuplicateResourceException("User", "email", user.getEmail());
+            }
+            throw e;
+        }
+    }
+
+    private static boolean isEmailConflict(DataIntegrityViolationException e) {
+        for (Throwable cause = e; cause != null; cause = cause.getCause()) {
+            if (cause instanceof ConstraintViolationException violation) {
+                String constraint = violation.getConstraintName();
+                return constraint != null && constraint.toLowerCase(Locale.ROOT).contains("email");
+            }
+        }
+        return false;
+    }
+
+    private List<UserRepository.Summary> findSummaries(Role role, long afterId, int limit) {
+        PageRequest page = PageRequest.of(0, limit);
+        return role != null
+                ? userRepository.findSummariesByRoleAfter(role, afterId, page)
+                : userRepository.findSummariesAfter(afterId, page);
+    }
+
+    private UserSummaryDTO mapSummaryToDTO(UserRepository.Summary summary) {
+        return UserSummaryDTO.builder()
+                .id(summary.getId())
+                .name(summary.getName())
+                .email(summary.getEmail())
+                .role(summary.getRole())
+                .createdAt(summary.getCreatedAt())
+                .build();
+    }
+
+    private static UserIdentityDTO mapIdentityToDTO(String email, Long id, Role role) {
+        return UserIdentityDTO.builder()
+                .id(id)
+                .email(email)
+                .role(role)
+                .build();
+    }
+
     private ProfileDTO mapProfileToDTO(Profile profile) {
         return ProfileDTO.builder()
                 .id(profile.getId())
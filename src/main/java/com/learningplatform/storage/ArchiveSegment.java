@@ -0,0 +1,312 @@
+package com.learningplatform.storage;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.zip.DataFormatException;
+import java.util.zip.Deflater;
+import java.util.zip.Inflater;
+
+/**
+ * Compressed, column-oriented file of archived table rows.
+ * <p>
+ * A segment holds one chunk of rows. Its header lists the columns, the row count and the minimum
+ * and maximum of the time column, so a reader picks the segments overlapping a range from their
+ * headers alone. The body is deflated and stores one column after another: a bitmap of non-null
+ * rows, then the non-null values. Longs and timestamps are zigzag varint deltas from the previous
+ * value, ints zigzag varints, booleans one byte, strings and byte arrays length-prefixed. Ids and
+ * times of consecutive rows are close, so they take a byte or two each.
+ * <p>
+ * Layout: magic, version, column count, (name, type)*, row count, min time, max time (epoch
+ * microseconds, UTC), body length, body.
+ */
+public final class ArchiveSegment {
+
+    private static final int MAGIC = 0x41524331;
+    private static final int VERSION = 1;
+
+    public enum ColumnType {
+        LONG, INT, BOOLEAN, TIMESTAMP, STRING, BYTES
+    }
+
+    /**
+     * Values are {@code Long}, {@code Integer}, {@code Boolean}, {@code LocalDateTime}, {@code String}
+     * or {@code byte[]} according to the type, or {@code null}.
+     */
+    public record Column(String name, ColumnType type) {
+    }
+
+    public record Header(List<Column> columns, int rowCount, LocalDateTime minTime, LocalDateTime maxTime) {
+
+        public boolean overlaps(LocalDateTime from, LocalDateTime to) {
+            return !maxTime.isBefore(from) && minTime.isBefore(to);
+        }
+    }
+
+    private ArchiveSegment() {
+    }
+
+    /**
+     * Writes the rows to {@code path} through a temporary file in the same directory.
+     * The time column must not contain nulls.
+     */
+    public static Header write(Path path, List<Column> columns, int timeColumn, List<Object[]> rows) throws IOException {
+        if (rows.isEmpty()) {
+            throw new IllegalArgumentException("An archive segment needs at least one row");
+        }
+        LocalDateTime min = null;
+        LocalDateTime max = null;
+        for (Object[] row : rows) {
+            LocalDateTime time = (LocalDateTime) row[timeColumn];
+            if (min == null || time.isBefore(min)) {
+                min = time;
+            }
+            if (max == null || time.isAfter(max)) {
+                max = time;
+            }
+        }
+
+        ByteArrayOutputStream body = new ByteArrayOutputStream(rows.size() * 32);
+        for (int c = 0; c < columns.size(); c++) {
+            writeColumn(body, columns.get(c).type(), c, rows);
+        }
+        byte[] compressed = deflate(body.toByteArray());
+
+        Files.createDirectories(path.toAbsolutePath().getParent());
+        Path tmp = Files.createTempFile(path.toAbsolutePath().getParent(), "segment", ".tmp");
+        try {
+            try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(tmp)))) {
+                out.writeInt(MAGIC);
+                out.writeInt(VERSION);
+                out.writeInt(columns.size());
+                for (Column column : columns) {
+                    out.writeUTF(column.name());
+                    out.writeByte(column.type().ordinal());
+                }
+                out.writeInt(rows.size());
+                out.writeLong(toMicros(min));
+                out.writeLong(toMicros(max));
+                out.writeInt(compressed.length);
+                out.write(compressed);
+            }
+            Files.move(tmp, path, StandardCopyOption.ATOMIC_MOVE);
+        } finally {
+            Files.deleteIfExists(tmp);
+        }
+        return new Header(List.copyOf(columns), rows.size(), min, max);
+    }
+
+    public static Header readHeader(Path path) throws IOException {
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(Files.newInputStream(path), 4096))) {
+            return readHeader(in, path);
+        }
+    }
+
+    public static List<Object[]> readRows(Path path) throws IOException {
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(Files.newInputStream(path)))) {
+            Header header = readHeader(in, path);
+            byte[] compressed = new byte[in.readInt()];
+            in.readFully(compressed);
+
+            Reader body = new Reader(inflate(compressed));
+            int columnCount = header.columns().size();
+            List<Object[]> rows = new ArrayList<>(header.rowCount());
+            for (int r = 0; r < header.rowCount(); r++) {
+                rows.add(new Object[columnCount]);
+            }
+            for (int c = 0; c < columnCount; c++) {
+                readColumn(body, header.columns().get(c).type(), c, rows);
+            }
+            return rows;
+        }
+    }
+
+    private static Header readHeader(DataInputStream in, Path path) throws IOException {
+        if (in.readInt() != MAGIC || in.readInt() != VERSION) {
+            throw new IOException("Not an archive segment: " + path);
+        }
+        int columnCount = in.readInt();
+        List<Column> columns = new ArrayList<>(columnCount);
+        ColumnType[] types = ColumnType.values();
+        for (int c = 0; c < columnCount; c++) {
+            String name = in.readUTF();
+            int type = in.readUnsignedByte();
+            if (type >= types.length) {
+                throw new IOException("Unknown column type " + type + " in " + path);
+            }
+            columns.add(new Column(name, types[type]));
+        }
+        int rowCount = in.readInt();
+        LocalDateTime min = fromMicros(in.readLong());
+        LocalDateTime max = fromMicros(in.readLong());
+        return new Header(columns, rowCount, min, max);
+    }
+
+    private static void writeColumn(ByteArrayOutputStream out, ColumnType type, int c, List<Object[]> rows) {
+        byte[] present = new byte[(rows.size() + 7) / 8];
+        for (int r = 0; r < rows.size(); r++) {
+            if (rows.get(r)[c] != null) {
+                present[r >>> 3] |= (byte) (1 << (r & 7));
+            }
+        }
+        out.write(present, 0, present.length);
+
+        long previous = 0;
+        for (Object[] row : rows) {
+            Object value = row[c];
+            if (value == null) {
+                continue;
+            }
+            switch (type) {
+                case LONG, TIMESTAMP -> {
+                    long current = type == ColumnType.LONG ? (Long) value : toMicros((LocalDateTime) value);
+                    writeVarLong(out, zigzag(current - previous));
+                    previous = current;
+                }
+                case INT -> writeVarLong(out, zigzag((Integer) value));
+                case BOOLEAN -> out.write((Boolean) value ? 1 : 0);
+                case STRING -> writeBytes(out, ((String) value).getBytes(StandardCharsets.UTF_8));
+                case BYTES -> writeBytes(out, (byte[]) value);
+            }
+        }
+    }
+
+    private static void readColumn(Reader in, ColumnType type, int c, List<Object[]> rows) throws IOException {
+        byte[] present = in.bytes((rows.size() + 7) / 8);
+        long previous = 0;
+        for (int r = 0; r < rows.size(); r++) {
+            if ((present[r >>> 3] & (1 << (r & 7))) == 0) {
+                continue;
+            }
+            Object value = switch (type) {
+                case LONG -> previous += unzigzag(in.varLong());
+                case TIMESTAMP -> fromMicros(previous += unzigzag(in.varLong()));
+                case INT -> (int) unzigzag(in.varLong());
+                case BOOLEAN -> in.bytes(1)[0] != 0;
+                case STRING -> new String(in.bytes(in.length()), StandardCharsets.UTF_8);
+                case BYTES -> in.bytes(in.length());
+            };
+            rows.get(r)[c] = value;
+        }
+    }
+
+    private static long toMicros(LocalDateTime time) {
+        return time.toEpochSecond(ZoneOffset.UTC) * 1_000_000L + time.getNano() / 1_000;
+    }
+
+    private static LocalDateTime fromMicros(long micros) {
+        return LocalDateTime.ofEpochSecond(Math.floorDiv(micros, 1_000_000L),
+                (int) Math.floorMod(micros, 1_000_000L) * 1_000, ZoneOffset.UTC);
+    }
+
+    private static long zigzag(long value) {
+        return (value << 1) ^ (value >> 63);
+    }
+
+    private static long unzigzag(long value) {
+        return (value >>> 1) ^ -(value & 1);
+    }
+
+    private static void writeBytes(ByteArrayOutputStream out, byte[] data) {
+        writeVarLong(out, data.length);
+        out.write(data, 0, data.length);
+    }
+
+    private static void writeVarLong(ByteArrayOutputStream out, long value) {
+        while ((value & ~0x7FL) != 0) {
+            out.write((int) ((value & 0x7F) | 0x80));
+            value >>>= 7;
+        }
+        out.write((int) value);
+    }
+
+    private static byte[] deflate(byte[] data) {
+        Deflater deflater = new Deflater(Deflater.BEST_COMPRESSION);
+        try {
+            deflater.setInput(data);
+            deflater.finish();
+            ByteArrayOutputStream out = new ByteArrayOutputStream(Math.max(64, data.length / 4));
+            byte[] buffer = new byte[8192];
+            while (!deflater.finished()) {
+                out.write(buffer, 0, deflater.deflate(buffer));
+            }
+            return out.toByteArray();
+        } finally {
+            deflater.end();
+        }
+    }
+
+    private static byte[] inflate(byte[] data) throws IOException {
+        Inflater inflater = new Inflater();
+        try {
+            inflater.setInput(data);
+            ByteArrayOutputStream out = new ByteArrayOutputStream(data.length * 4);
+            byte[] buffer = new byte[8192];
+            while (!inflater.finished()) {
+                int n = inflater.inflate(buffer);
+                if (n == 0 && (inflater.needsInput() || inflater.needsDictionary())) {
+                    throw new IOException("Truncated archive segment");
+                }
+                out.write(buffer, 0, n);
+            }
+            return out.toByteArray();
+        } catch (DataFormatException e) {
+            throw new IOException("Corrupt archive segment: " + e.getMessage(), e);
+        } finally {
+            inflater.end();
+        }
+    }
+
+    private static final class Reader {
+        private final byte[] data;
+        private int pos;
+
+        private Reader(byte[] data) {
+            this.data = data;
+        }
+
+        long varLong() throws IOException {
+            long value = 0;
+            for (int shift = 0; shift < 64; shift += 7) {
+                if (pos >= data.length) {
+                    throw new IOException("Truncated archive segment");
+                }
+                byte b = data[pos++];
+                value |= (long) (b & 0x7F) << shift;
+                if ((b & 0x80) == 0) {
+                    return value;
+                }
+            }
+            throw new IOException("Corrupt archive segment: varint too long");
+        }
+
+        int length() throws IOException {
+            long length = varLong();
+            if (length > data.length - pos) {
+                throw new IOException("Truncated archive segment");
+            }
+            return (int) length;
+        }
+
+        byte[] bytes(int count) throws IOException {
+            if (count > data.length - pos) {
+                throw new IOException("Truncated archive segment");
+            }
+            byte[] bytes = new byte[count];
+            System.arraycopy(data, pos, bytes, 0, count);
+            pos += count;
+            return bytes;
+        }
+    }
+}
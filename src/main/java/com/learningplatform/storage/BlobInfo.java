@@ -0,0 +1,11 @@
+package com.learningplatform.storage;
+
+import lombok.Value;
+
+@Value
+public class BlobInfo {
+
+    // Lowercase hex SHA-256 of the content
+    String hash;
+    long size;
+}
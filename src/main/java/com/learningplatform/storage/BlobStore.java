@@ -0,0 +1,72 @@
+package com.learningplatform.storage;
+
+import com.learningplatform.exception.StorageException;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.channels.WritableByteChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.time.Instant;
+import java.util.Optional;
+
+/**
+ * Content-addressed storage for large text and uploaded files.
+ * <p>
+ * Content is identified by its SHA-256, so storing the same bytes twice keeps one copy and a
+ * stored blob never changes. Entities keep only the hash and size. Blobs are not removed when the
+ * rows referencing them go away, except where their owner releases them explicitly through
+ * {@link #deleteIfNotStoredSince}; a write that is rolled back leaves at most an unreferenced blob.
+ */
+public interface BlobStore {
+
+    /**
+     * Streams the content into the store, hashing it on the way, and returns its hash and size.
+     * Storing content that is already there counts as storing it again for
+     * {@link #deleteIfNotStoredSince}.
+     */
+    BlobInfo put(InputStream content);
+
+    /**
+     * Deletes a blob unless it was stored, or stored again, at or after {@code since}, so a writer
+     * that shares the content and has not committed yet keeps it. The caller must have checked
+     * that no committed row references the blob. Returns whether it was deleted.
+     */
+    boolean deleteIfNotStoredSince(String hash, Instant since);
+
+    Optional<BlobInfo> find(String hash);
+
+    InputStream open(String hash);
+
+    /**
+     * Copies {@code count} bytes starting at {@code position} to the target channel.
+     */
+    long transferTo(String hash, long position, long count, WritableByteChannel target) throws IOException;
+
+    /**
+     * A local file holding the blob, for backends that can hand it to the servlet container to send.
+     */
+    default Optional<Path> localPath(String hash) {
+        return Optional.empty();
+    }
+
+    // Null text is stored as no blob
+    default BlobInfo putText(String text) {
+        if (text == null) {
+            return null;
+        }
+        return put(new ByteArrayInputStream(text.getBytes(StandardCharsets.UTF_8)));
+    }
+
+    default String getText(String hash) {
+        if (hash == null) {
+            return null;
+        }
+        try (InputStream in = open(hash)) {
+            return new String(in.readAllBytes(), StandardCharsets.UTF_8);
+        } catch (IOException e) {
+            throw new StorageException("Failed to read blob " + hash, e);
+        }
+    }
+}
@@ -0,0 +1,201 @@
+package com.learningplatform.storage;
+
+import com.learningplatform.exception.ResourceNotFoundException;
+import com.learningplatform.exception.StorageException;
+import jakarta.annotation.PostConstruct;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.channels.FileChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.file.FileAlreadyExistsException;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.nio.file.attribute.FileTime;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Instant;
+import java.util.HexFormat;
+import java.util.Optional;
+import java.util.regex.Pattern;
+
+/**
+ * Default {@link BlobStore} backend on the local filesystem.
+ * <p>
+ * A blob lives at {@code <root>/ab/cd/abcd...} after the first two bytes of its hash, which keeps
+ * directories small. Uploads are written to a staging file under the root while being hashed and
+ * then atomically renamed into place; if the blob already exists the staging file is dropped and
+ * the blob's modification time is refreshed, which is what {@link #deleteIfNotStoredSince} checks.
+ * Both run under a lock striped by hash, so a delete never interleaves with storing the same
+ * content again.
+ */
+@Component
+@ConditionalOnProperty(name = "learning-platform.blob-store.type", havingValue = "local", matchIfMissing = true)
+@Slf4j
+public class LocalBlobStore implements BlobStore {
+
+    private static final Pattern HASH = Pattern.compile("[0-9a-f]{64}");
+    private static final int BUFFER_SIZE = 64 * 1024;
+    private static final int LOCK_STRIPES = 64;
+
+    @Value("${learning-platform.blob-store.local.root:data/blobs}")
+    private String rootPath;
+
+    private Path root;
+    private Path staging;
+
+    private final Object[] locks = new Object[LOCK_STRIPES];
+
+    {
+        for (int i = 0; i < LOCK_STRIPES; i++) {
+            locks[i] = new Object();
+        }
+    }
+
+    @PostConstruct
+    void init() throws IOException {
+        root = Paths.get(rootPath).toAbsolutePath();
+        staging = root.resolve("staging");
+        Files.createDirectories(staging);
+        log.info("Local blob store at {}", root);
+    }
+
+    @Override
+    public BlobInfo put(InputStream content) {
+        Path tmp = null;
+        try {
+            tmp = Files.createTempFile(staging, "blob", ".tmp");
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            long size = 0;
+            byte[] buffer = new byte[BUFFER_SIZE];
+            try (OutputStream out = Files.newOutputStream(tmp)) {
+                int read;
+                while ((read = content.read(buffer)) != -1) {
+                    digest.update(buffer, 0, read);
+                    out.write(buffer, 0, read);
+                    size += read;
+                }
+            }
+
+            String hash = HexFormat.of().formatHex(digest.digest());
+            Path target = pathOf(hash);
+            synchronized (lockOf(hash)) {
+                if (Files.exists(target)) {
+                    Files.delete(tmp);
+                    Files.setLastModifiedTime(target, FileTime.from(Instant.now()));
+                } else {
+                    Files.createDirectories(target.getParent());
+                    try {
+                        Files.move(tmp, target, StandardCopyOption.ATOMIC_MOVE);
+                    } catch (FileAlreadyExistsException e) {
+                        // Same content stored concurrently
+                        Files.delete(tmp);
+                    }
+                }
+            }
+            return new BlobInfo(hash, size);
+        } catch (IOException e) {
+            deleteQuietly(tmp);
+            throw new StorageException("Failed to store blob", e);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not available", e);
+        }
+    }
+
+    @Override
+    public boolean deleteIfNotStoredSince(String hash, Instant since) {
+        Path path = pathOf(hash);
+        synchronized (lockOf(hash)) {
+            try {
+                if (Files.getLastModifiedTime(path).toInstant().isBefore(since)) {
+                    Files.delete(path);
+                    return true;
+                }
+                return false;
+            } catch (NoSuchFileException e) {
+                return false;
+            } catch (IOException e) {
+                throw new StorageException("Failed to delete blob " + hash, e);
+            }
+        }
+    }
+
+    @Override
+    public Optional<BlobInfo> find(String hash) {
+        Path path = pathOf(hash);
+        try {
+            return Optional.of(new BlobInfo(hash, Files.size(path)));
+        } catch (NoSuchFileException e) {
+            return Optional.empty();
+        } catch (IOException e) {
+            throw new StorageException("Failed to read blob " + hash, e);
+        }
+    }
+
+    @Override
+    public InputStream open(String hash) {
+        try {
+            return Files.newInputStream(pathOf(hash));
+        } catch (NoSuchFileException e) {
+            throw new ResourceNotFoundException("Blob", "hash", hash);
+        } catch (IOException e) {
+            throw new StorageException("Failed to read blob " + hash, e);
+        }
+    }
+
+    @Override
+    public long transferTo(String hash, long position, long count, WritableByteChannel target) throws IOException {
+        try (FileChannel channel = FileChannel.open(pathOf(hash), StandardOpenOption.READ)) {
+            long end = Math.min(position + count, channel.size());
+            long sent = 0;
+            // transferTo may send fewer bytes than asked for
+            while (position + sent < end) {
+                long n = channel.transferTo(position + sent, end - position - sent, target);
+                if (n <= 0) {
+                    break;
+                }
+                sent += n;
+            }
+            return sent;
+        } catch (NoSuchFileException e) {
+            throw new ResourceNotFoundException("Blob", "hash", hash);
+        }
+    }
+
+    @Override
+    public Optional<Path> localPath(String hash) {
+        Path path = pathOf(hash);
+        return Files.exists(path) ? Optional.of(path) : Optional.empty();
+    }
+
+    private Object lockOf(String hash) {
+        return locks[Math.floorMod(hash.hashCode(), LOCK_STRIPES)];
+    }
+
+    private Path pathOf(String hash) {
+        if (hash == null || !HASH.matcher(hash).matches()) {
+            throw new IllegalArgumentException("Invalid blob hash: " + hash);
+        }
+        return root.resolve(hash.substring(0, 2)).resolve(hash.substring(2, 4)).resolve(hash);
+    }
+
+    private static void deleteQuietly(Path path) {
+        if (path == null) {
+            return;
+        }
+        try {
+            Files.deleteIfExists(path);
+        } catch (IOException e) {
+            log.warn("Failed to delete staging file {}: {}", path, e.getMessage());
+        }
+    }
+}
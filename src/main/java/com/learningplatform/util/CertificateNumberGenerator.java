@@ -0,0 +1,121 @@
+package com.learningplatform.util;
+
+import java.time.Instant;
+import java.util.Arrays;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.LongSupplier;
+
+/**
+ * Time-ordered, lock-free certificate numbers, unique per node without coordination.
+ * <p>
+ * Each number packs 41 bits of milliseconds since 2024-01-01, a 10-bit node id and a 12-bit
+ * sequence into a 63-bit value. Time and sequence live in one {@link AtomicLong} advanced by
+ * compare-and-set: a new millisecond restarts the sequence, otherwise the state is incremented, so a
+ * full sequence carries into the next millisecond instead of waiting, and a clock that steps back
+ * keeps counting from the last state. Numbers of one node therefore never repeat and always grow.
+ * <p>
+ * The value is written as {@code CERT-} followed by 13 Crockford base32 digits and a Luhn mod 32
+ * check digit, which catches any single mistyped digit and most swapped neighbours, so
+ * {@link #isValid} can reject invalid numbers without a lookup.
+ */
+public final class CertificateNumberGenerator {
+
+    public static final String PREFIX = "CERT-";
+    public static final int LENGTH = PREFIX.length() + 14;
+    public static final int MAX_NODE_ID = (1 << 10) - 1;
+
+    private static final int NODE_BITS = 10;
+    private static final int SEQUENCE_BITS = 12;
+    private static final long SEQUENCE_MASK = (1L << SEQUENCE_BITS) - 1;
+    private static final long EPOCH_MILLIS = Instant.parse("2024-01-01T00:00:00Z").toEpochMilli();
+
+    private static final char[] DIGITS = "0123456789ABCDEFGHJKMNPQRSTVWXYZ".toCharArray();
+    private static final byte[] VALUES = new byte[128];
+
+    static {
+        Arrays.fill(VALUES, (byte) -1);
+        for (int i = 0; i < DIGITS.length; i++) {
+            VALUES[DIGITS[i]] = (byte) i;
+        }
+    }
+
+    private final long nodeId;
+    private final LongSupplier clock;
+
+    // (milliseconds since the epoch << SEQUENCE_BITS) | sequence of the last number
+    private final AtomicLong state = new AtomicLong();
+
+    public CertificateNumberGenerator(int nodeId) {
+        this(nodeId, System::currentTimeMillis);
+    }
+
+    public CertificateNumberGenerator(int nodeId, LongSupplier clock) {
+        if (nodeId < 0 || nodeId > MAX_NODE_ID) {
+            throw new IllegalArgumentException("Node id must be between 0 and " + MAX_NODE_ID);
+        }
+        this.nodeId = nodeId;
+        this.clock = clock;
+    }
+
+    public String next() {
+        long now = clock.getAsLong() - EPOCH_MILLIS;
+        long previous;
+        long next;
+        do {
+            previous = state.get();
+            next = now > (previous >>> SEQUENCE_BITS) ? now << SEQUENCE_BITS : previous + 1;
+        } while (!state.compareAndSet(previous, next));
+
+        long value = ((next >>> SEQUENCE_BITS) << (NODE_BITS + SEQUENCE_BITS))
+                | (nodeId << SEQUENCE_BITS)
+                | (next & SEQUENCE_MASK);
+        return encode(value);
+    }
+
+    /**
+     * Whether the number is well formed and its check digit matches. Lower case is accepted.
+     */
+    public static boolean isValid(String number) {
+        if (number == null || number.length() != LENGTH || !number.regionMatches(true, 0, PREFIX, 0, PREFIX.length())) {
+            return false;
+        }
+        int sum = 0;
+        boolean doubled = true;
+        for (int i = LENGTH - 1; i >= PREFIX.length(); i--) {
+            int digit = valueOf(number.charAt(i));
+            if (digit < 0) {
+                return false;
+            }
+            doubled = !doubled;
+            sum += doubled ? luhnDouble(digit) : digit;
+        }
+        return sum % DIGITS.length == 0;
+    }
+
+    private static String encode(long value) {
+        char[] chars = new char[LENGTH];
+        PREFIX.getChars(0, PREFIX.length(), chars, 0);
+        int sum = 0;
+        boolean doubled = true;
+        // Digits from the right; the check digit at the end is the first undoubled position
+        for (int i = LENGTH - 2; i >= PREFIX.length(); i--) {
+            int digit = (int) (value & 31);
+            value >>>= 5;
+            chars[i] = DIGITS[digit];
+            sum += doubled ? luhnDouble(digit) : digit;
+            doubled = !doubled;
+        }
+        chars[LENGTH - 1] = DIGITS[(DIGITS.length - sum % DIGITS.length) % DIGITS.length];
+        return new String(chars);
+    }
+
+    private static int luhnDouble(int digit) {
+        int doubled = digit * 2;
+        return doubled / DIGITS.length + doubled % DIGITS.length;
+    }
+
+    private static int valueOf(char c) {
+        char upper = Character.toUpperCase(c);
+        return upper < VALUES.length ? VALUES[upper] : -1;
+    }
+}
@@ -0,0 +1,175 @@
+package com.learningplatform.util;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Hierarchical timing wheel (Varghese &amp; Lauck) for large numbers of coarse deadlines.
+ * <p>
+ * Four levels of 64 slots cover {@code 64^4} ticks (about 194 days at one-second ticks).
+ * Scheduling and cancelling are O(1) list operations; {@link #advance(long)} walks the
+ * elapsed ticks and cascades entries from a coarser level down into finer ones when a
+ * finer wheel wraps around. Deadlines beyond the covered range are parked in the
+ * outermost level and re-placed each time they cascade.
+ * <p>
+ * All methods are synchronized; the wheel is meant to be driven by a single ticker thread
+ * while request threads schedule and cancel.
+ */
+public final class HierarchicalTimerWheel<T> {
+
+    private static final int WHEEL_BITS = 6;
+    private static final int WHEEL_SIZE = 1 << WHEEL_BITS;
+    private static final int WHEEL_MASK = WHEEL_SIZE - 1;
+    private static final int LEVELS = 4;
+    private static final long MAX_DELTA = (1L << (WHEEL_BITS * LEVELS)) - 1;
+
+    private final long tickMillis;
+    private final long originMillis;
+    private final Timeout<T>[][] wheels;
+    private long currentTick;
+    private int size;
+
+    @SuppressWarnings("unchecked")
+    public HierarchicalTimerWheel(long tickMillis, long originMillis) {
+        if (tickMillis <= 0) {
+            throw new IllegalArgumentException("Tick must be positive");
+        }
+        this.tickMillis = tickMillis;
+        this.originMillis = originMillis;
+        this.wheels = new Timeout[LEVELS][];
+        for (int level = 0; level < LEVELS; level++) {
+            wheels[level] = new Timeout[WHEEL_SIZE];
+            for (int slot = 0; slot < WHEEL_SIZE; slot++) {
+                wheels[level][slot] = Timeout.sentinel();
+            }
+        }
+    }
+
+    /**
+     * Schedules {@code payload} to expire at {@code deadlineMillis}.
+     * Deadlines in the past expire on the next tick.
+     */
+    public synchronized Timeout<T> schedule(T payload, long deadlineMillis) {
+        long deadlineTick = Math.floorDiv(deadlineMillis - originMillis + tickMillis - 1, tickMillis);
+        Timeout<T> timeout = new Timeout<>(payload, Math.max(deadlineTick, currentTick + 1));
+        place(timeout);
+        size++;
+        return timeout;
+    }
+
+    /**
+     * Removes a pending timeout. Returns {@code false} if it already expired or was cancelled.
+     */
+    public synchronized boolean cancel(Timeout<T> timeout) {
+        if (timeout == null || timeout.prev == null) {
+            return false;
+        }
+        timeout.unlink();
+        size--;
+        return true;
+    }
+
+    /**
+     * Moves the wheel forward to {@code nowMillis} and returns the payloads that expired,
+     * in deadline order.
+     */
+    public synchronized List<T> advance(long nowMillis) {
+        long targetTick = Math.floorDiv(nowMillis - originMillis, tickMillis);
+        List<T> expired = new ArrayList<>();
+
+        while (currentTick < targetTick) {
+            currentTick++;
+            cascade(1);
+            Timeout<T> head = wheels[0][(int) (currentTick & WHEEL_MASK)];
+            for (Timeout<T> t = head.next; t != head; ) {
+                Timeout<T> next = t.next;
+                t.unlink();
+                size--;
+                expired.add(t.payload);
+                t = next;
+            }
+        }
+        return expired;
+    }
+
+    public synchronized int size() {
+        return size;
+    }
+
+    // Called when the finer wheels have wrapped: empties the current slot of `level`
+    // into finer slots, recursing first if this level wrapped as well
+    private void cascade(int level) {
+        if (level >= LEVELS || ((currentTick >> (WHEEL_BITS * (level - 1))) & WHEEL_MASK) != 0) {
+            return;
+        }
+        cascade(level + 1);
+
+        Timeout<T> head = wheels[level][(int) ((currentTick >> (WHEEL_BITS * level)) & WHEEL_MASK)];
+        Timeout<T> t = head.next;
+        head.next = head;
+        head.prev = head;
+        while (t != head) {
+            Timeout<T> next = t.next;
+            t.prev = null;
+            t.next = null;
+            place(t);
+            t = next;
+        }
+    }
+
+    private void place(Timeout<T> timeout) {
+        long delta = timeout.deadlineTick - currentTick;
+        long tick = timeout.deadlineTick;
+        int level = 0;
+
+        if (delta <= 0) {
+            tick = currentTick;
+        } else if (delta > MAX_DELTA) {
+            level = LEVELS - 1;
+            tick = currentTick + MAX_DELTA;
+        } else {
+            while (level < LEVELS - 1 && delta >= 1L << (WHEEL_BITS * (level + 1))) {
+                level++;
+            }
+        }
+
+        Timeout<T> head = wheels[level][(int) ((tick >> (WHEEL_BITS * level)) & WHEEL_MASK)];
+        timeout.prev = head.prev;
+        timeout.next = head;
+        head.prev.next = timeout;
+        head.prev = timeout;
+    }
+
+    /**
+     * Handle returned by {@link #schedule}; an intrusive list node so that cancelling is O(1).
+     */
+    public static final class Timeout<T> {
+        private final T payload;
+        private final long deadlineTick;
+        private Timeout<T> prev;
+        private Timeout<T> next;
+
+        private Timeout(T payload, long deadlineTick) {
+            this.payload = payload;
+            this.deadlineTick = deadlineTick;
+        }
+
+        private static <T> Timeout<T> sentinel() {
+            Timeout<T> head = new Timeout<>(null, Long.MIN_VALUE);
+            head.prev = head;
+            head.next = head;
+            return head;
+        }
+
+        public T getPayload() {
+            return payload;
+        }
+
+        private void unlink() {
+            prev.next = next;
+            next.prev = prev;
+            prev = null;
+            next = null;
+        }
+    }
+}
@@ -0,0 +1,136 @@
+package com.learningplatform.util;
+
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+import java.util.Locale;
+
+/**
+ * MinHash signatures of free text, with banding for locality-sensitive hashing.
+ * <p>
+ * Text is normalized (lower case, runs of anything but letters and digits collapsed to one space)
+ * and split into overlapping word 3-grams. Each of the {@value #HASHES} hash
+ * functions is a 64-bit mix of the shingle hash with its own seed; the signature keeps the minimum
+ * of each, truncated to 32 bits, so it takes {@value #SIGNATURE_BYTES} bytes whatever the text size.
+ * The fraction of equal positions in two signatures estimates the Jaccard similarity of their
+ * shingle sets.
+ * <p>
+ * For LSH the signature is cut into {@value #BANDS} bands of {@value #ROWS} rows. Two texts share
+ * at least one band key with probability {@code 1 - (1 - s^ROWS)^BANDS} for similarity {@code s},
+ * which is about 0.99 at {@code s = 0.6} and 0.05 at {@code s = 0.2}.
+ */
+public final class MinHash {
+
+    public static final int HASHES = 128;
+    public static final int BANDS = 32;
+    public static final int ROWS = HASHES / BANDS;
+    public static final int SIGNATURE_BYTES = HASHES * Integer.BYTES;
+
+    private static final int SHINGLE_WORDS = 3;
+
+    private static final long[] SEEDS = new long[HASHES];
+
+    static {
+        long seed = 0x5DEECE66DL;
+        for (int i = 0; i < HASHES; i++) {
+            seed = mix(seed + 0x9E3779B97F4A7C15L);
+            SEEDS[i] = seed;
+        }
+    }
+
+    private MinHash() {
+    }
+
+    /**
+     * Signature of the text, or {@code null} if it contains no words.
+     */
+    public static int[] signature(String text) {
+        String[] words = normalize(text);
+        if (words.length == 0) {
+            return null;
+        }
+        int[] signature = new int[HASHES];
+        Arrays.fill(signature, -1);
+
+        // Texts shorter than one shingle still get a signature from the words they have
+        int shingles = Math.max(1, words.length - SHINGLE_WORDS + 1);
+        for (int start = 0; start < shingles; start++) {
+            long shingle = hashShingle(words, start, Math.min(words.length, start + SHINGLE_WORDS));
+            for (int i = 0; i < HASHES; i++) {
+                int value = (int) (mix(shingle ^ SEEDS[i]) >>> 32);
+                if (Integer.compareUnsigned(value, signature[i]) < 0) {
+                    signature[i] = value;
+                }
+            }
+        }
+        return signature;
+    }
+
+    public static double estimateSimilarity(int[] a, int[] b) {
+        int equal = 0;
+        for (int i = 0; i < HASHES; i++) {
+            if (a[i] == b[i]) {
+                equal++;
+            }
+        }
+        return (double) equal / HASHES;
+    }
+
+    /**
+     * One key per band; equal keys in the same band mark a candidate pair.
+     * The band number is mixed in so keys of different bands can share one index.
+     */
+    public static long[] bandKeys(int[] signature) {
+        long[] keys = new long[BANDS];
+        for (int band = 0; band < BANDS; band++) {
+            long key = band;
+            for (int row = 0; row < ROWS; row++) {
+                key = mix(key * 31 + (signature[band * ROWS + row] & 0xFFFFFFFFL));
+            }
+            keys[band] = key;
+        }
+        return keys;
+    }
+
+    public static byte[] encode(int[] signature) {
+        ByteBuffer buffer = ByteBuffer.allocate(SIGNATURE_BYTES);
+        buffer.asIntBuffer().put(signature);
+        return buffer.array();
+    }
+
+    public static int[] decode(byte[] bytes) {
+        if (bytes.length != SIGNATURE_BYTES) {
+            throw new IllegalArgumentException("MinHash signature must be " + SIGNATURE_BYTES + " bytes");
+        }
+        int[] signature = new int[HASHES];
+        ByteBuffer.wrap(bytes).asIntBuffer().get(signature);
+        return signature;
+    }
+
+    private static String[] normalize(String text) {
+        if (text == null) {
+            return new String[0];
+        }
+        String normalized = text.toLowerCase(Locale.ROOT).replaceAll("[^\\p{L}\\p{Nd}]+", " ").trim();
+        return normalized.isEmpty() ? new String[0] : normalized.split(" ");
+    }
+
+    // FNV-1a over the words of the shingle, separated so that ("ab", "c") differs from ("a", "bc")
+    private static long hashShingle(String[] words, int from, int to) {
+        long hash = 0xCBF29CE484222325L;
+        for (int w = from; w < to; w++) {
+            String word = words[w];
+            for (int c = 0; c < word.length(); c++) {
+                hash = (hash ^ word.charAt(c)) * 0x100000001B3L;
+            }
+            hash = (hash ^ ' ') * 0x100000001B3L;
+        }
+        return hash;
+    }
+
+    // SplitMix64 finalizer
+    private static long mix(long z) {
+        z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+        z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+        return z ^ (z >>> 31);
+    }
+}
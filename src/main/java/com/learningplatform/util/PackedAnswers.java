@@ -0,0 +1,81 @@
+package com.learningplatform.util;
+
+import java.io.ByteArrayOutputStream;
+import java.util.Arrays;
+
+/**
+ * Compact binary encoding of the options a student selected in a quiz attempt.
+ * <p>
+ * Each answered question is stored as a pair of unsigned varints:
+ * the question index (position of the question in the quiz, ordered by id)
+ * followed by a bitmask of selected option positions (bit {@code j} set means
+ * the {@code j}-th option of the question, ordered by id, was selected).
+ * Unanswered questions are omitted, so a 20-question attempt usually takes 40 bytes.
+ */
+public final class PackedAnswers {
+
+    // Option positions are stored as bits of a long
+    public static final int MAX_OPTIONS = 64;
+
+    private PackedAnswers() {
+    }
+
+    public static byte[] encode(long[] selections) {
+        ByteArrayOutputStream out = new ByteArrayOutputStream(selections.length * 2);
+        for (int i = 0; i < selections.length; i++) {
+            if (selections[i] != 0) {
+                writeVarLong(out, i);
+                writeVarLong(out, selections[i]);
+            }
+        }
+        return out.toByteArray();
+    }
+
+    public static long[] decode(byte[] packed, int questionCount) {
+        long[] selections = new long[questionCount];
+        decodeInto(packed, selections);
+        return selections;
+    }
+
+    /**
+     * Decodes into a caller-owned array so that streaming readers can reuse one buffer per worker.
+     * Entries for question indexes outside the target array are skipped.
+     */
+    public static void decodeInto(byte[] packed, long[] target) {
+        Arrays.fill(target, 0L);
+        if (packed == null) {
+            return;
+        }
+        int pos = 0;
+        while (pos < packed.length) {
+            long index = 0;
+            int shift = 0;
+            byte b;
+            do {
+                b = packed[pos++];
+                index |= (long) (b & 0x7F) << shift;
+                shift += 7;
+            } while (b < 0);
+
+            long mask = 0;
+            shift = 0;
+            do {
+                b = packed[pos++];
+                mask |= (long) (b & 0x7F) << shift;
+                shift += 7;
+            } while (b < 0);
+
+            if (index < target.length) {
+                target[(int) index] = mask;
+            }
+        }
+    }
+
+    private static void writeVarLong(ByteArrayOutputStream out, long value) {
+        while ((value & ~0x7FL) != 0) {
+            out.write((int) ((value & 0x7F) | 0x80));
+            value >>>= 7;
+        }
+        out.write((int) value);
+    }
+}
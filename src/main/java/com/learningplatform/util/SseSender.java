@@ -0,0 +1,152 @@
+package com.learningplatform.util;
+
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.SynchronousQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.BinaryOperator;
+
+/**
+ * Writes Server-Sent Events to many subscribers without letting slow ones hold back the rest.
+ * <p>
+ * Every subscriber has a one-event mailbox: an event offered while an earlier one is still
+ * waiting is merged into it with the caller's coalesce function, so a subscriber never has more
+ * than one event queued however far behind it falls. A mailbox is drained by one sender thread at
+ * a time. Writing to a client that does not read blocks until the container's write timeout, so
+ * the sender pool is elastic rather than fixed: it grows, up to a limit, whenever all its threads
+ * are busy, and a stalled client only ever holds its own thread. If the pool is exhausted the
+ * event stays in the mailbox and is dispatched again shortly after; it is delayed, never dropped.
+ */
+public final class SseSender {
+
+    private static final int CORE_THREADS = 16;
+    private static final int MAX_THREADS = 256;
+    private static final long KEEP_ALIVE_SECONDS = 60L;
+    private static final long RETRY_MILLIS = 200L;
+
+    private final ThreadPoolExecutor senders;
+    private final ScheduledExecutorService retrier;
+    private final Queue<Subscriber<?>> retries = new ConcurrentLinkedQueue<>();
+
+    public SseSender(String name) {
+        AtomicInteger counter = new AtomicInteger();
+        senders = new ThreadPoolExecutor(CORE_THREADS, MAX_THREADS, KEEP_ALIVE_SECONDS, TimeUnit.SECONDS,
+                new SynchronousQueue<>(), runnable -> {
+                    Thread thread = new Thread(runnable, name + "-" + counter.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                });
+        retrier = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, name + "-retry");
+            thread.setDaemon(true);
+            return thread;
+        });
+        retrier.scheduleWithFixedDelay(this::retry, RETRY_MILLIS, RETRY_MILLIS, TimeUnit.MILLISECONDS);
+    }
+
+    public <T> Subscriber<T> subscriber(SseEmitter emitter, BinaryOperator<T> coalesce) {
+        return new Subscriber<>(emitter, coalesce);
+    }
+
+    public void shutdown() {
+        retrier.shutdownNow();
+        senders.shutdownNow();
+    }
+
+    private void retry() {
+        for (int i = retries.size(); i > 0; i--) {
+            Subscriber<?> subscriber = retries.poll();
+            if (subscriber == null) {
+                return;
+            }
+            subscriber.dispatch();
+        }
+    }
+
+    public final class Subscriber<T> {
+        private final SseEmitter emitter;
+        private final BinaryOperator<T> coalesce;
+        private String pendingName;
+        private T pending;
+        private boolean sending;
+        private boolean failed;
+
+        private Subscriber(SseEmitter emitter, BinaryOperator<T> coalesce) {
+            this.emitter = emitter;
+            this.coalesce = coalesce;
+        }
+
+        public SseEmitter getEmitter() {
+            return emitter;
+        }
+
+        /**
+         * Queues an event, merging it into the pending one if there is one; the pending event
+         * keeps its name. Never blocks.
+         */
+        public void offer(String name, T event) {
+            synchronized (this) {
+                if (failed) {
+                    return;
+                }
+                if (pending == null) {
+                    pendingName = name;
+                    pending = event;
+                } else {
+                    pending = coalesce.apply(pending, event);
+                }
+                if (sending) {
+                    return;
+                }
+                sending = true;
+            }
+            dispatch();
+        }
+
+        // Only called by the thread that set sending
+        private void dispatch() {
+            try {
+                senders.execute(this::drain);
+            } catch (RejectedExecutionException e) {
+                if (!senders.isShutdown()) {
+                    retries.add(this);
+                }
+            }
+        }
+
+        private void drain() {
+            while (true) {
+                String name;
+                T event;
+                synchronized (this) {
+                    if (pending == null) {
+                        sending = false;
+                        return;
+                    }
+                    name = pendingName;
+                    event = pending;
+                    pending = null;
+                }
+                try {
+                    emitter.send(SseEmitter.event().name(name).data(event));
+                } catch (IOException | IllegalStateException e) {
+                    emitter.completeWithError(e);
+                    synchronized (this) {
+                        failed = true;
+                        pending = null;
+                        sending = false;
+                    }
+                    return;
+                }
+            }
+        }
+    }
+}
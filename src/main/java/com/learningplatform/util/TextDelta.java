@@ -0,0 +1,198 @@
+package com.learningplatform.util;
+
+import java.io.ByteArrayOutputStream;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.zip.DataFormatException;
+import java.util.zip.Deflater;
+import java.util.zip.Inflater;
+
+/**
+ * Compressed copy/insert delta between two byte sequences.
+ * <p>
+ * {@link #encode} describes a target as a sequence of operations against a base: copy a range of
+ * the base, or insert literal bytes. Matches are found through a hash index of the base's
+ * 16-byte blocks and a rolling hash over the target, then extended byte by byte, so
+ * a target that differs from the base by a few edits encodes to roughly the size of those edits.
+ * <p>
+ * Layout before deflating: target length, then operations, all as unsigned varints;
+ * {@code (length << 1) | 1, offset} copies from the base, {@code length << 1} is followed by
+ * {@code length} literal bytes.
+ */
+public final class TextDelta {
+
+    private static final int BLOCK = 16;
+    private static final long PRIME = 1_000_003L;
+    private static final long PRIME_POW;
+
+    static {
+        long pow = 1;
+        for (int i = 1; i < BLOCK; i++) {
+            pow *= PRIME;
+        }
+        PRIME_POW = pow;
+    }
+
+    private TextDelta() {
+    }
+
+    public static byte[] encode(byte[] base, byte[] target) {
+        Map<Long, Integer> blocks = new HashMap<>();
+        for (int i = 0; i + BLOCK <= base.length; i += BLOCK) {
+            blocks.putIfAbsent(hash(base, i), i);
+        }
+
+        ByteArrayOutputStream ops = new ByteArrayOutputStream(64);
+        writeVarLong(ops, target.length);
+
+        int literalStart = 0;
+        int pos = 0;
+        long rolling = target.length >= BLOCK ? hash(target, 0) : 0;
+        while (pos + BLOCK <= target.length) {
+            Integer offset = blocks.get(rolling);
+            if (offset != null && Arrays.equals(base, offset, offset + BLOCK, target, pos, pos + BLOCK)) {
+                int from = offset;
+                int start = pos;
+                // Grow the match backwards into the pending literal, then forwards
+                while (start > literalStart && from > 0 && base[from - 1] == target[start - 1]) {
+                    from--;
+                    start--;
+                }
+                int end = pos + BLOCK;
+                while (end < target.length && from + (end - start) < base.length
+                        && base[from + (end - start)] == target[end]) {
+                    end++;
+                }
+                writeLiteral(ops, target, literalStart, start);
+                writeVarLong(ops, ((long) (end - start) << 1) | 1);
+                writeVarLong(ops, from);
+
+                pos = end;
+                literalStart = end;
+                if (pos + BLOCK <= target.length) {
+                    rolling = hash(target, pos);
+                }
+                continue;
+            }
+            if (pos + BLOCK < target.length) {
+                rolling = (rolling - (target[pos] & 0xFF) * PRIME_POW) * PRIME + (target[pos + BLOCK] & 0xFF);
+            }
+            pos++;
+        }
+        writeLiteral(ops, target, literalStart, target.length);
+
+        return deflate(ops.toByteArray());
+    }
+
+    public static byte[] apply(byte[] base, byte[] delta) {
+        byte[] ops = inflate(delta);
+        int[] pos = {0};
+        long length = readVarLong(ops, pos);
+        if (length > Integer.MAX_VALUE) {
+            throw new IllegalArgumentException("Corrupt delta: target too large");
+        }
+        byte[] target = new byte[(int) length];
+        int written = 0;
+        while (pos[0] < ops.length) {
+            long op = readVarLong(ops, pos);
+            int count = (int) (op >>> 1);
+            if (count > target.length - written) {
+                throw new IllegalArgumentException("Corrupt delta: operation past end of target");
+            }
+            if ((op & 1) == 1) {
+                int from = (int) readVarLong(ops, pos);
+                if (from < 0 || from + count > base.length) {
+                    throw new IllegalArgumentException("Corrupt delta: copy outside of base");
+                }
+                System.arraycopy(base, from, target, written, count);
+            } else {
+                if (pos[0] + count > ops.length) {
+                    throw new IllegalArgumentException("Corrupt delta: truncated literal");
+                }
+                System.arraycopy(ops, pos[0], target, written, count);
+                pos[0] += count;
+            }
+            written += count;
+        }
+        if (written != target.length) {
+            throw new IllegalArgumentException("Corrupt delta: target incomplete");
+        }
+        return target;
+    }
+
+    private static long hash(byte[] data, int from) {
+        long hash = 0;
+        for (int i = from; i < from + BLOCK; i++) {
+            hash = hash * PRIME + (data[i] & 0xFF);
+        }
+        return hash;
+    }
+
+    private static void writeLiteral(ByteArrayOutputStream out, byte[] data, int from, int to) {
+        if (to > from) {
+            writeVarLong(out, (long) (to - from) << 1);
+            out.write(data, from, to - from);
+        }
+    }
+
+    private static void writeVarLong(ByteArrayOutputStream out, long value) {
+        while ((value & ~0x7FL) != 0) {
+            out.write((int) ((value & 0x7F) | 0x80));
+            value >>>= 7;
+        }
+        out.write((int) value);
+    }
+
+    private static long readVarLong(byte[] data, int[] pos) {
+        long value = 0;
+        for (int shift = 0; shift < 64; shift += 7) {
+            if (pos[0] >= data.length) {
+                throw new IllegalArgumentException("Corrupt delta: truncated varint");
+            }
+            byte b = data[pos[0]++];
+            value |= (long) (b & 0x7F) << shift;
+            if ((b & 0x80) == 0) {
+                return value;
+            }
+        }
+        throw new IllegalArgumentException("Corrupt delta: varint too long");
+    }
+
+    private static byte[] deflate(byte[] data) {
+        Deflater deflater = new Deflater(Deflater.BEST_COMPRESSION);
+        try {
+            deflater.setInput(data);
+            deflater.finish();
+            ByteArrayOutputStream out = new ByteArrayOutputStream(Math.max(64, data.length / 2));
+            byte[] buffer = new byte[4096];
+            while (!deflater.finished()) {
+                out.write(buffer, 0, deflater.deflate(buffer));
+            }
+            return out.toByteArray();
+        } finally {
+            deflater.end();
+        }
+    }
+
+    private static byte[] inflate(byte[] data) {
+        Inflater inflater = new Inflater();
+        try {
+            inflater.setInput(data);
+            ByteArrayOutputStream out = new ByteArrayOutputStream(data.length * 4);
+            byte[] buffer = new byte[4096];
+            while (!inflater.finished()) {
+                int n = inflater.inflate(buffer);
+                if (n == 0 && (inflater.needsInput() || inflater.needsDictionary())) {
+                    throw new IllegalArgumentException("Corrupt delta: truncated stream");
+                }
+                out.write(buffer, 0, n);
+            }
+            return out.toByteArray();
+        } catch (DataFormatException e) {
+            throw new IllegalArgumentException("Corrupt delta: " + e.getMessage(), e);
+        } finally {
+            inflater.end();
+        }
+    }
+}
@@ -0,0 +1,117 @@
+package com.learningplatform.integration;
+
+import com.learningplatform.dto.ArchivedRowsDTO;
+import com.learningplatform.entity.Role;
+import com.learningplatform.entity.User;
+import com.learningplatform.repository.UserRepository;
+import com.learningplatform.service.ArchiveService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.io.IOException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * The archiver commits one transaction per chunk, so this test commits its data and removes it
+ * and the segments it wrote afterwards. Chunks are 4 rows in the test profile.
+ */
+@SpringBootTest
+@ActiveProfiles("test")
+class ArchiveIntegrationTest {
+
+    @Autowired
+    private ArchiveService archiveService;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private User user;
+    private LocalDateTime oldest;
+
+    @BeforeEach
+    void setUp() {
+        user = userRepository.save(User.builder()
+                .name("Archive Student")
+                .email("archive.student@test.com")
+                .role(Role.STUDENT)
+                .build());
+
+        oldest = LocalDateTime.now().minusDays(400).truncatedTo(ChronoUnit.SECONDS);
+        for (int i = 0; i < 10; i++) {
+            insertNotification("Old notice " + i, oldest.plusHours(i));
+        }
+        insertNotification("Recent notice 0", LocalDateTime.now().minusDays(1));
+        insertNotification("Recent notice 1", LocalDateTime.now());
+    }
+
+    @AfterEach
+    void tearDown() throws IOException {
+        jdbcTemplate.update("DELETE FROM notification_read_marks WHERE user_id = ?", user.getId());
+        jdbcTemplate.update("DELETE FROM notifications WHERE user_id = ?", user.getId());
+        jdbcTemplate.update("DELETE FROM users WHERE id = ?", user.getId());
+        try (DirectoryStream<Path> segments = Files.newDirectoryStream(Paths.get("target/archive/notifications"), "*.seg")) {
+            for (Path segment : segments) {
+                Files.delete(segment);
+            }
+        }
+    }
+
+    @Test
+    void shouldMoveExpiredRowsToSegmentsAndReadOnlyOverlappingOnes() {
+        jdbcTemplate.update("INSERT INTO notification_read_marks (user_id, notification_id) "
+                + "SELECT user_id, id FROM notifications WHERE user_id = ? AND title IN (?, ?)",
+                user.getId(), "Old notice 3", "Recent notice 1");
+
+        long archived = archiveService.archive("notifications", LocalDateTime.now().minusDays(180));
+
+        assertThat(archived).isEqualTo(10);
+        assertThat(jdbcTemplate.queryForList(
+                "SELECT title FROM notifications WHERE user_id = ? ORDER BY id", String.class, user.getId()))
+                .containsExactly("Recent notice 0", "Recent notice 1");
+        // The marks of archived notifications go with them
+        assertThat(jdbcTemplate.queryForList("SELECT n.title FROM notification_read_marks m "
+                + "LEFT JOIN notifications n ON n.id = m.notification_id WHERE m.user_id = ?", String.class, user.getId()))
+                .containsExactly("Recent notice 1");
+
+        // Segments hold hours 0-3, 4-7 and 8-9; hours 2-5 touch the first two only
+        ArchivedRowsDTO range = archiveService.read("notifications",
+                oldest.plusHours(2), oldest.plusHours(5).plusMinutes(30), user.getId(), 100);
+
+        assertThat(range.getSegmentsTotal()).isEqualTo(3);
+        assertThat(range.getSegmentsScanned()).isEqualTo(2);
+        assertThat(range.isTruncated()).isFalse();
+        assertThat(range.getRows()).extracting(row -> row.get("title"))
+                .containsExactly("Old notice 2", "Old notice 3", "Old notice 4", "Old notice 5");
+        assertThat(range.getRows().get(0).get("created_at")).isEqualTo(oldest.plusHours(2));
+        assertThat(range.getRows().get(0).get("user_id")).isEqualTo(user.getId());
+
+        ArchivedRowsDTO limited = archiveService.read("notifications",
+                oldest, oldest.plusDays(1), user.getId(), 3);
+        assertThat(limited.getRows()).hasSize(3);
+        assertThat(limited.isTruncated()).isTrue();
+
+        assertThat(archiveService.archive("notifications", LocalDateTime.now().minusDays(180))).isZero();
+        assertThat(archiveService.archive("quiz-submissions", LocalDateTime.now().minusDays(730))).isZero();
+    }
+
+    private void insertNotification(String title, LocalDateTime createdAt) {
+        jdbcTemplate.update("INSERT INTO notifications (title, created_at, user_id) VALUES (?, ?, ?)",
+                title, Timestamp.valueOf(createdAt), user.getId());
+    }
+}
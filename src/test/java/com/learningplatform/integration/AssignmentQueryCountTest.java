@@ -0,0 +1,141 @@
+package com.learningplatform.integration;
+
+import com.learningplatform.dto.AssignmentDTO;
+import com.learningplatform.entity.*;
+import com.learningplatform.entity.Module;
+import com.learningplatform.repository.*;
+import com.learningplatform.service.AssignmentService;
+import jakarta.persistence.EntityManager;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDate;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Pins the number of SQL statements issued by assignment listings,
+ * so per-row statistics queries or lazy loads do not creep back in.
+ */
+@SpringBootTest
+@ActiveProfiles("test")
+@Transactional
+class AssignmentQueryCountTest {
+
+    private static final int ASSIGNMENTS = 6;
+
+    @Autowired
+    private AssignmentService assignmentService;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private CourseRepository courseRepository;
+
+    @Autowired
+    private ModuleRepository moduleRepository;
+
+    @Autowired
+    private LessonRepository lessonRepository;
+
+    @Autowired
+    private AssignmentRepository assignmentRepository;
+
+    @Autowired
+    private SubmissionRepository submissionRepository;
+
+    @Autowired
+    private EnrollmentRepository enrollmentRepository;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    private Course course;
+    private User student;
+
+    @BeforeEach
+    void setUp() {
+        User teacher = userRepository.save(User.builder()
+                .name("Count Teacher")
+                .email("count.teacher" + System.nanoTime() + "@test.com")
+                .role(Role.TEACHER)
+                .build());
+        student = userRepository.save(User.builder()
+                .name("Count Student")
+                .email("count.student" + System.nanoTime() + "@test.com")
+                .role(Role.STUDENT)
+                .build());
+
+        course = courseRepository.save(Course.builder()
+                .title("Query Count Course")
+                .teacher(teacher)
+                .startDate(LocalDate.now())
+                .build());
+        Module module = moduleRepository.save(Module.builder()
+                .title("Query Count Module")
+                .course(course)
+                .build());
+        enrollmentRepository.save(Enrollment.builder()
+                .student(student)
+                .course(course)
+                .build());
+
+        for (int i = 0; i < ASSIGNMENTS; i++) {
+            Lesson lesson = lessonRepository.save(Lesson.builder()
+                    .title("Lesson " + i)
+                    .orderIndex(i)
+                    .module(module)
+                    .build());
+            Assignment assignment = assignmentRepository.save(Assignment.builder()
+                    .title("Assignment " + i)
+                    .lesson(lesson)
+                    .build());
+            submissionRepository.save(Submission.builder()
+                    .assignment(assignment)
+                    .student(student)
+                    .score(50 + i)
+                    .build());
+        }
+
+        entityManager.flush();
+        entityManager.clear();
+    }
+
+    @Test
+    void shouldListCourseAssignmentsWithTwoStatements() {
+        Statistics statistics = statistics();
+
+        List<AssignmentDTO> assignments = assignmentService.getAssignmentsByCourse(course.getId());
+
+        assertThat(assignments).hasSize(ASSIGNMENTS);
+        assertThat(assignments).allSatisfy(a -> assertThat(a.getSubmissionCount()).isEqualTo(1));
+        assertThat(assignments.get(0).getAverageScore()).isNotNull();
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(2);
+    }
+
+    @Test
+    void shouldListStudentAssignmentsWithTwoStatements() {
+        Statistics statistics = statistics();
+
+        List<AssignmentDTO> assignments = assignmentService.getAssignmentsForStudent(student.getId());
+
+        assertThat(assignments).hasSize(ASSIGNMENTS);
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(2);
+    }
+
+    private Statistics statistics() {
+        Statistics statistics = entityManager.getEntityManagerFactory()
+                .unwrap(SessionFactory.class)
+                .getStatistics();
+        statistics.clear();
+        return statistics;
+    }
+}
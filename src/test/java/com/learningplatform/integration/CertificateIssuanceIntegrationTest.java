@@ -0,0 +1,176 @@
+package com.learningplatform.integration;
+
+import com.learningplatform.entity.*;
+import com.learningplatform.entity.Module;
+import com.learningplatform.repository.*;
+import com.learningplatform.service.CertificateService;
+import com.learningplatform.service.EnrollmentService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Certificates are issued by a background worker, so this test commits its data and removes it afterwards.
+ */
+@SpringBootTest
+@ActiveProfiles("test")
+class CertificateIssuanceIntegrationTest {
+
+    @Autowired
+    private EnrollmentService enrollmentService;
+
+    @Autowired
+    private CertificateService certificateService;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private CourseRepository courseRepository;
+
+    @Autowired
+    private ModuleRepository moduleRepository;
+
+    @Autowired
+    private LessonRepository lessonRepository;
+
+    @Autowired
+    private AssignmentRepository assignmentRepository;
+
+    @Autowired
+    private QuizRepository quizRepository;
+
+    @Autowired
+    private SubmissionRepository submissionRepository;
+
+    @Autowired
+    private QuizSubmissionRepository quizSubmissionRepository;
+
+    @Autowired
+    private EnrollmentRepository enrollmentRepository;
+
+    @Autowired
+    private CertificateRepository certificateRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private User teacher;
+    private User graded;
+    private User ungraded;
+    private Course course;
+    private Enrollment gradedEnrollment;
+    private Enrollment ungradedEnrollment;
+
+    @BeforeEach
+    void setUp() {
+        teacher = userRepository.save(User.builder()
+                .name("Certificate Teacher")
+                .email("certificate.teacher@test.com")
+                .role(Role.TEACHER)
+                .build());
+        graded = userRepository.save(User.builder()
+                .name("Graded Student")
+                .email("certificate.graded@test.com")
+                .role(Role.STUDENT)
+                .build());
+        ungraded = userRepository.save(User.builder()
+                .name("Ungraded Student")
+                .email("certificate.ungraded@test.com")
+                .role(Role.STUDENT)
+                .build());
+        course = courseRepository.save(Course.builder()
+                .title("Databases")
+                .teacher(teacher)
+                .startDate(LocalDate.now())
+                .build());
+        Module module = moduleRepository.save(Module.builder()
+                .title("Indexes")
+                .course(course)
+                .build());
+        Lesson lesson = lessonRepository.save(Lesson.builder()
+                .title("B-trees")
+                .module(module)
+                .build());
+        Assignment assignment = assignmentRepository.save(Assignment.builder()
+                .title("Design an index")
+                .maxScore(50)
+                .lesson(lesson)
+                .build());
+        Quiz quiz = quizRepository.save(Quiz.builder()
+                .title("Index quiz")
+                .module(module)
+                .build());
+
+        // 40/50 on the assignment and a best quiz attempt of 90: final score 85
+        submissionRepository.save(Submission.builder()
+                .assignment(assignment)
+                .student(graded)
+                .score(40)
+                .status(SubmissionStatus.REVIEWED)
+                .submittedAt(LocalDateTime.now())
+                .build());
+        quizSubmissionRepository.saveAll(List.of(
+                QuizSubmission.builder().quiz(quiz).student(graded).score(60).build(),
+                QuizSubmission.builder().quiz(quiz).student(graded).score(90).passed(true).build()));
+
+        gradedEnrollment = enrollmentRepository.save(Enrollment.builder().student(graded).course(course).build());
+        ungradedEnrollment = enrollmentRepository.save(Enrollment.builder().student(ungraded).course(course).build());
+    }
+
+    @AfterEach
+    void tearDown() {
+        jdbcTemplate.update("DELETE FROM certificates WHERE course_id = ?", course.getId());
+        jdbcTemplate.update("DELETE FROM enrollments WHERE course_id = ?", course.getId());
+        jdbcTemplate.update("DELETE FROM quiz_submissions WHERE student_id = ?", graded.getId());
+        jdbcTemplate.update("DELETE FROM submissions WHERE student_id = ?", graded.getId());
+        jdbcTemplate.update("DELETE FROM quizzes WHERE module_id IN (SELECT id FROM modules WHERE course_id = ?)", course.getId());
+        jdbcTemplate.update("DELETE FROM assignments WHERE lesson_id IN (SELECT l.id FROM lessons l " +
+                "JOIN modules m ON m.id = l.module_id WHERE m.course_id = ?)", course.getId());
+        jdbcTemplate.update("DELETE FROM lessons WHERE module_id IN (SELECT id FROM modules WHERE course_id = ?)", course.getId());
+        jdbcTemplate.update("DELETE FROM modules WHERE course_id = ?", course.getId());
+        jdbcTemplate.update("DELETE FROM courses WHERE id = ?", course.getId());
+        jdbcTemplate.update("DELETE FROM users WHERE id IN (?, ?, ?)", teacher.getId(), graded.getId(), ungraded.getId());
+    }
+
+    @Test
+    void shouldIssueCertificatesOnceInTheBackground() throws InterruptedException {
+        enrollmentService.completeEnrollment(gradedEnrollment.getId());
+        enrollmentService.completeEnrollment(ungradedEnrollment.getId());
+        // Completing again must not issue a second certificate
+        enrollmentService.completeEnrollment(gradedEnrollment.getId());
+
+        awaitCertificates(2);
+        Thread.sleep(200);
+
+        List<Certificate> certificates = certificateRepository.findByCourseId(course.getId());
+        assertThat(certificates).hasSize(2);
+        assertThat(certificateRepository.findByStudentIdAndCourseId(graded.getId(), course.getId()))
+                .get().extracting(Certificate::getFinalScore).isEqualTo(85);
+        assertThat(certificateRepository.findByStudentIdAndCourseId(ungraded.getId(), course.getId()))
+                .get().extracting(Certificate::getFinalScore).isNull();
+        assertThat(certificateService.getCertificatesByStudent(graded.getId()))
+                .extracting("courseTitle").containsExactly("Databases");
+    }
+
+    private void awaitCertificates(int expected) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + 10_000;
+        while (System.currentTimeMillis() < deadline) {
+            if (certificateRepository.findByCourseId(course.getId()).size() >= expected
+                    && certificateService.getQueuedCount() == 0) {
+                return;
+            }
+            Thread.sleep(50);
+        }
+    }
+}
@@ -0,0 +1,132 @@
+package com.learningplatform.integration;
+
+import com.learningplatform.dto.CertificateVerificationDTO;
+import com.learningplatform.entity.*;
+import com.learningplatform.exception.ResourceNotFoundException;
+import com.learningplatform.repository.CertificateRepository;
+import com.learningplatform.repository.CourseRepository;
+import com.learningplatform.repository.UserRepository;
+import com.learningplatform.service.CertificateVerificationService;
+import com.learningplatform.util.CertificateNumberGenerator;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.time.LocalDate;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Pins that rejected and cached verifications issue no SQL. The filter is filled by a background
+ * thread, so this test commits its data and removes it afterwards.
+ */
+@SpringBootTest
+@ActiveProfiles("test")
+class CertificateVerificationIntegrationTest {
+
+    @Autowired
+    private CertificateVerificationService verificationService;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private CourseRepository courseRepository;
+
+    @Autowired
+    private CertificateRepository certificateRepository;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private User teacher;
+    private User student;
+    private Course course;
+    private String number;
+
+    @BeforeEach
+    void setUp() throws InterruptedException {
+        teacher = userRepository.save(User.builder()
+                .name("Verification Teacher")
+                .email("verification.teacher@test.com")
+                .role(Role.TEACHER)
+                .build());
+        student = userRepository.save(User.builder()
+                .name("Verified Student")
+                .email("verification.student@test.com")
+                .role(Role.STUDENT)
+                .build());
+        course = courseRepository.save(Course.builder()
+                .title("Cryptography")
+                .teacher(teacher)
+                .startDate(LocalDate.now())
+                .build());
+        number = new CertificateNumberGenerator(7).next();
+        certificateRepository.save(Certificate.builder()
+                .certificateNumber(number)
+                .student(student)
+                .course(course)
+                .build());
+        verificationService.register(List.of(number));
+
+        long deadline = System.currentTimeMillis() + 10_000;
+        while (!verificationService.isFilterReady() && System.currentTimeMillis() < deadline) {
+            Thread.sleep(50);
+        }
+    }
+
+    @AfterEach
+    void tearDown() {
+        jdbcTemplate.update("DELETE FROM certificates WHERE course_id = ?", course.getId());
+        jdbcTemplate.update("DELETE FROM courses WHERE id = ?", course.getId());
+        jdbcTemplate.update("DELETE FROM users WHERE id IN (?, ?)", teacher.getId(), student.getId());
+    }
+
+    @Test
+    void shouldVerifyWithOneQueryThenFromCache() {
+        Statistics statistics = statistics();
+
+        CertificateVerificationDTO verification = verificationService.verify(number.toLowerCase());
+
+        assertThat(verification.getCertificateNumber()).isEqualTo(number);
+        assertThat(verification.getStudentName()).isEqualTo("Verified Student");
+        assertThat(verification.getCourseTitle()).isEqualTo("Cryptography");
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(1);
+
+        statistics.clear();
+        assertThat(verificationService.verify(number).getStudentName()).isEqualTo("Verified Student");
+        assertThat(statistics.getPrepareStatementCount()).isZero();
+    }
+
+    @Test
+    void shouldRejectMalformedAndUnknownNumbersWithoutQueries() {
+        char last = number.charAt(number.length() - 1);
+        String mistyped = number.substring(0, number.length() - 1) + (last == '0' ? '1' : '0');
+        String unknown = new CertificateNumberGenerator(8).next();
+        Statistics statistics = statistics();
+
+        for (String candidate : List.of("not-a-certificate", "CERT-", mistyped, unknown)) {
+            assertThatThrownBy(() -> verificationService.verify(candidate))
+                    .isInstanceOf(ResourceNotFoundException.class);
+        }
+        assertThat(statistics.getPrepareStatementCount()).isZero();
+    }
+
+    private Statistics statistics() {
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+        return statistics;
+    }
+}
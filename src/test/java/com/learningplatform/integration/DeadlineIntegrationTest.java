@@ -0,0 +1,138 @@
+package com.learningplatform.integration;
+
+import com.learningplatform.entity.*;
+import com.learningplatform.entity.Module;
+import com.learningplatform.event.AssignmentChangedEvent;
+import com.learningplatform.event.AssignmentDeadlineEvent;
+import com.learningplatform.repository.*;
+import com.learningplatform.service.DeadlineService;
+import com.learningplatform.service.NotificationService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest
+@ActiveProfiles("test")
+@Transactional
+class DeadlineIntegrationTest {
+
+    @Autowired
+    private DeadlineService deadlineService;
+
+    @Autowired
+    private NotificationService notificationService;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private CourseRepository courseRepository;
+
+    @Autowired
+    private ModuleRepository moduleRepository;
+
+    @Autowired
+    private LessonRepository lessonRepository;
+
+    @Autowired
+    private AssignmentRepository assignmentRepository;
+
+    @Autowired
+    private EnrollmentRepository enrollmentRepository;
+
+    @Autowired
+    private SubmissionRepository submissionRepository;
+
+    @Autowired
+    private NotificationRepository notificationRepository;
+
+    private Assignment assignment;
+    private final List<User> students = new ArrayList<>();
+
+    @BeforeEach
+    void setUp() {
+        User teacher = userRepository.save(User.builder()
+                .name("Deadline Teacher")
+                .email("deadline.teacher@test.com")
+                .role(Role.TEACHER)
+                .build());
+        Course course = courseRepository.save(Course.builder()
+                .title("Deadline Course")
+                .teacher(teacher)
+                .startDate(LocalDate.now())
+                .build());
+        Module module = moduleRepository.save(Module.builder()
+                .title("Deadline Module")
+                .course(course)
+                .build());
+        Lesson lesson = lessonRepository.save(Lesson.builder()
+                .title("Deadline Lesson")
+                .module(module)
+                .build());
+        assignment = assignmentRepository.save(Assignment.builder()
+                .title("Deadline Essay")
+                .lesson(lesson)
+                .dueDate(LocalDateTime.now().plusHours(2))
+                .build());
+
+        EnrollmentStatus[] statuses = {EnrollmentStatus.ACTIVE, EnrollmentStatus.ACTIVE, EnrollmentStatus.DROPPED};
+        for (int i = 0; i < statuses.length; i++) {
+            User student = userRepository.save(User.builder()
+                    .name("Deadline Student " + i)
+                    .email("deadline.student" + i + "@test.com")
+                    .role(Role.STUDENT)
+                    .build());
+            enrollmentRepository.save(Enrollment.builder()
+                    .student(student)
+                    .course(course)
+                    .status(statuses[i])
+                    .build());
+            students.add(student);
+        }
+        submissionRepository.save(Submission.builder()
+                .assignment(assignment)
+                .student(students.get(1))
+                .build());
+    }
+
+    @Test
+    void shouldNotifyOnlyActiveStudentsWithoutSubmission() {
+        notificationService.onAssignmentDeadline(new AssignmentDeadlineEvent(
+                assignment.getId(), assignment.getTitle(), assignment.getDueDate(),
+                AssignmentDeadlineEvent.Kind.REMINDER));
+
+        assertThat(notificationRepository.findByUserIdOrderByCreatedAtDesc(students.get(0).getId()))
+                .singleElement()
+                .satisfies(n -> assertThat(n.getMessage()).contains("Deadline Essay"));
+        assertThat(notificationRepository.findByUserIdOrderByCreatedAtDesc(students.get(1).getId())).isEmpty();
+        assertThat(notificationRepository.findByUserIdOrderByCreatedAtDesc(students.get(2).getId())).isEmpty();
+    }
+
+    @Test
+    void shouldIndexReminderAndOverdueMoments() {
+        int before = deadlineService.getScheduledCount();
+
+        // Far enough out that the timer does not fire the reminder during the test
+        deadlineService.onAssignmentChanged(
+                new AssignmentChangedEvent(assignment.getId(), LocalDateTime.now().plusDays(2)));
+        assertThat(deadlineService.getScheduledCount()).isEqualTo(before + 2);
+
+        // Re-indexing replaces the previous moments instead of adding to them
+        deadlineService.onAssignmentChanged(
+                new AssignmentChangedEvent(assignment.getId(), LocalDateTime.now().plusDays(3)));
+        assertThat(deadlineService.getScheduledCount()).isEqualTo(before + 2);
+
+        deadlineService.onAssignmentChanged(new AssignmentChangedEvent(assignment.getId(), null));
+        assertThat(deadlineService.getScheduledCount()).isEqualTo(before);
+    }
+}
@@ -0,0 +1,220 @@
+package com.learningplatform.integration;
+
+import com.learningplatform.dto.BulkGradeItemDTO;
+import com.learningplatform.dto.BulkGradeResultDTO;
+import com.learningplatform.dto.GradingQueueCountsDTO;
+import com.learningplatform.dto.GradingQueuePageDTO;
+import com.learningplatform.dto.SubmissionDTO;
+import com.learningplatform.entity.*;
+import com.learningplatform.entity.Module;
+import com.learningplatform.event.SubmissionStatusChangedEvent;
+import com.learningplatform.repository.*;
+import com.learningplatform.service.GradingQueueService;
+import com.learningplatform.service.SubmissionService;
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest
+@ActiveProfiles("test")
+@Transactional
+class GradingQueueIntegrationTest {
+
+    @Autowired
+    private GradingQueueService gradingQueueService;
+
+    @Autowired
+    private SubmissionService submissionService;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private CourseRepository courseRepository;
+
+    @Autowired
+    private ModuleRepository moduleRepository;
+
+    @Autowired
+    private LessonRepository lessonRepository;
+
+    @Autowired
+    private AssignmentRepository assignmentRepository;
+
+    @Autowired
+    private SubmissionRepository submissionRepository;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    private User teacher;
+    private Course course;
+    private final List<Assignment> assignments = new ArrayList<>();
+    private final List<Submission> submissions = new ArrayList<>();
+
+    @BeforeEach
+    void setUp() {
+        teacher = userRepository.save(User.builder()
+                .name("Queue Teacher")
+                .email("queue.teacher@test.com")
+                .role(Role.TEACHER)
+                .build());
+        User otherTeacher = userRepository.save(User.builder()
+                .name("Other Teacher")
+                .email("queue.other@test.com")
+                .role(Role.TEACHER)
+                .build());
+
+        course = createCourse(teacher, "Queue Course");
+        Course otherCourse = createCourse(otherTeacher, "Other Course");
+        assignments.add(createAssignment(course, "Essay"));
+        assignments.add(createAssignment(course, "Project"));
+        Assignment otherAssignment = createAssignment(otherCourse, "Elsewhere");
+
+        LocalDateTime base = LocalDateTime.now().minusDays(1);
+        for (int i = 0; i < 3; i++) {
+            User student = userRepository.save(User.builder()
+                    .name("Queue Student " + i)
+                    .email("queue.student" + i + "@test.com")
+                    .role(Role.STUDENT)
+                    .build());
+            for (int a = 0; a < assignments.size(); a++) {
+                submissions.add(submissionRepository.save(Submission.builder()
+                        .assignment(assignments.get(a))
+                        .student(student)
+                        // Two submissions share each timestamp, so the id breaks ties
+                        .submittedAt(base.plusMinutes(i))
+                        .build()));
+            }
+            submissionRepository.save(Submission.builder()
+                    .assignment(otherAssignment)
+                    .student(student)
+                    .submittedAt(base)
+                    .build());
+        }
+    }
+
+    @Test
+    void shouldPageThroughTeacherQueueInSubmissionOrder() {
+        submissionService.gradeSubmission(submissions.get(0).getId(), 80, "Good");
+
+        List<Long> seen = new ArrayList<>();
+        GradingQueuePageDTO page = gradingQueueService.getQueue(teacher.getId(), null, null, 2);
+        seen.addAll(page.getItems().stream().map(SubmissionDTO::getId).toList());
+        while (page.isHasMore()) {
+            page = gradingQueueService.getQueue(teacher.getId(), page.getNextSubmittedAt(), page.getNextId(), 2);
+            seen.addAll(page.getItems().stream().map(SubmissionDTO::getId).toList());
+        }
+
+        List<Long> expected = submissions.stream().skip(1).map(Submission::getId).toList();
+        assertThat(seen).containsExactlyElementsOf(expected);
+    }
+
+    @Test
+    void shouldAdjustCountsFromStatusChanges() {
+        long before = gradingQueueService.getCounts(teacher.getId()).getPending();
+        Long essayId = assignments.get(0).getId();
+
+        commit(
+                new SubmissionStatusChangedEvent(1L, essayId, null, SubmissionStatus.SUBMITTED));
+        commit(
+                new SubmissionStatusChangedEvent(2L, essayId, null, SubmissionStatus.SUBMITTED));
+        commit(
+                new SubmissionStatusChangedEvent(1L, essayId, SubmissionStatus.SUBMITTED, SubmissionStatus.REVIEWED));
+        commit(
+                new SubmissionStatusChangedEvent(3L, essayId, SubmissionStatus.REVIEWED, SubmissionStatus.ACCEPTED));
+
+        GradingQueueCountsDTO counts = gradingQueueService.getCounts(teacher.getId());
+        assertThat(counts.getPending()).isEqualTo(before + 1);
+        GradingQueueCountsDTO.CourseCount courseCount = counts.getCourses().stream()
+                .filter(c -> c.getCourseId().equals(course.getId()))
+                .findFirst()
+                .orElseThrow();
+        assertThat(courseCount.getAssignments()).containsEntry(essayId, 1L);
+
+        commit(
+                new SubmissionStatusChangedEvent(2L, essayId, SubmissionStatus.SUBMITTED, null));
+        assertThat(gradingQueueService.getCounts(teacher.getId()).getPending()).isEqualTo(before);
+    }
+
+    @Test
+    void shouldBulkGradeAndReportInvalidItems() {
+        List<BulkGradeItemDTO> items = List.of(
+                new BulkGradeItemDTO(submissions.get(0).getId(), 90, "Great", null),
+                new BulkGradeItemDTO(submissions.get(1).getId(), null, "Redo", SubmissionStatus.REJECTED),
+                new BulkGradeItemDTO(submissions.get(2).getId(), 101, null, null),
+                new BulkGradeItemDTO(submissions.get(0).getId(), 50, null, null),
+                new BulkGradeItemDTO(-1L, 10, null, null));
+
+        BulkGradeResultDTO result = submissionService.gradeSubmissions(items);
+
+        assertThat(result.getUpdated()).isEqualTo(2);
+        assertThat(result.getFailed()).isEqualTo(3);
+        assertThat(result.getItems()).extracting(BulkGradeResultDTO.ItemResult::isSuccess)
+                .containsExactly(true, true, false, false, false);
+        assertThat(result.getItems().get(2).getMessage()).contains("between 0 and 100");
+
+        List<Long> queued = gradingQueueService.getQueue(teacher.getId(), null, null, 100).getItems().stream()
+                .map(SubmissionDTO::getId)
+                .toList();
+        assertThat(queued).hasSize(submissions.size() - 2)
+                .doesNotContain(submissions.get(0).getId(), submissions.get(1).getId());
+
+        // The batch bypasses the persistence context
+        entityManager.clear();
+        SubmissionDTO graded = submissionService.getSubmissionsByAssignment(assignments.get(0).getId()).stream()
+                .filter(s -> s.getId().equals(submissions.get(0).getId()))
+                .findFirst()
+                .orElseThrow();
+        assertThat(graded.getStatus()).isEqualTo(SubmissionStatus.REVIEWED);
+        assertThat(graded.getScore()).isEqualTo(90);
+    }
+
+    private Course createCourse(User owner, String title) {
+        return courseRepository.save(Course.builder()
+                .title(title)
+                .teacher(owner)
+                .startDate(LocalDate.now())
+                .build());
+    }
+
+    private Assignment createAssignment(Course owner, String title) {
+        Module module = moduleRepository.save(Module.builder()
+                .title(title + " Module")
+                .course(owner)
+                .build());
+        Lesson lesson = lessonRepository.save(Lesson.builder()
+                .title(title + " Lesson")
+                .orderIndex(0)
+                .module(module)
+                .build());
+        return assignmentRepository.save(Assignment.builder()
+                .title(title)
+                .lesson(lesson)
+                .build());
+    }
+
+    // Status changes are applied once their transaction commits; this test rolls back, so it runs that step itself
+    private void commit(SubmissionStatusChangedEvent event) {
+        List<TransactionSynchronization> registered = TransactionSynchronizationManager.getSynchronizations();
+        gradingQueueService.onSubmissionStatusChanged(event);
+        for (TransactionSynchronization synchronization : TransactionSynchronizationManager.getSynchronizations()) {
+            if (!registered.contains(synchronization)) {
+                synchronization.afterCommit();
+            }
+        }
+    }
+}
@@ -1,8 +1,12 @@
 package com.learningplatform.integration;
 
 import com.learningplatform.entity.*;
+import com.learningplatform.entity.Module;
 import com.learningplatform.repository.*;
+import jakarta.persistence.EntityManager;
 import org.hibernate.LazyInitializationException;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -11,7 +15,9 @@ import org.springframework.test.context.ActiveProfiles;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDate;
+import java.util.ArrayList;
 import java.util.HashSet;
+import java.util.List;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.Assertions.assertThatThrownBy;
@@ -36,6 +42,15 @@ class LazyLoadingTest {
     @Autowired
     private LessonRepository lessonRepository;
 
+    @Autowired
+    private ProfileRepository profileRepository;
+
+    @Autowired
+    private QuizRepository quizRepository;
+
+    @Autowired
+    private EntityManager entityManager;
+
     private Long courseId;
     private Long moduleId;
 
@@ -62,24 +77,24 @@ class LazyLoadingTest {
 
         Module module = Module.builder()
                 .title("Lazy Module")
-                .course(course)
                 .orderIndex(0)
                 .build();
+        course.addModule(module);
         module = moduleRepository.save(module);
         moduleId = module.getId();
 
         Lesson lesson1 = Lesson.builder()
                 .title("Lesson 1")
-                .module(module)
                 .orderIndex(0)
                 .build();
+        module.addLesson(lesson1);
         lessonRepository.save(lesson1);
 
         Lesson lesson2 = Lesson.builder()
                 .title("Lesson 2")
-                .module(module)
                 .orderIndex(1)
                 .build();
+        module.addLesson(lesson2);
         lessonRepository.save(lesson2);
     }
 
@@ -171,4 +186,76 @@ class LazyLoadingTest {
         // the data would be available
         assertThat(course.getModules()).isNotEmpty();
     }
+
+    /**
+     * The inverse side of User.profile is only lazy with bytecode enhancement; without it every
+     * loaded user costs one more SELECT for its profile.
+     */
+    @Test
+    @Transactional
+    void shouldLoadUsersWithoutSelectingTheirProfiles() {
+        List<User> users = new ArrayList<>();
+        for (int i = 0; i < 1000; i++) {
+            users.add(User.builder()
+                    .name("Bulk User " + i)
+                    .email("lazy.bulk" + i + "@test.com")
+                    .role(Role.STUDENT)
+                    .build());
+        }
+        users = userRepository.saveAll(users);
+        for (int i = 0; i < users.size(); i += 2) {
+            profileRepository.save(Profile.builder().user(users.get(i)).bio("Bio " + i).build());
+        }
+        List<Long> ids = users.stream().map(User::getId).toList();
+        entityManager.flush();
+        entityManager.clear();
+        Statistics statistics = statistics();
+
+        List<User> loaded = userRepository.findAllById(ids);
+
+        assertThat(loaded).hasSize(1000);
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(1);
+
+        User withProfile = loaded.stream().filter(user -> user.getId().equals(ids.get(0))).findFirst().orElseThrow();
+        assertThat(withProfile.getProfile().getBio()).isEqualTo("Bio 0");
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(2);
+    }
+
+    /**
+     * Same for the inverse side of Module.quiz.
+     */
+    @Test
+    @Transactional
+    void shouldLoadModulesWithoutSelectingTheirQuizzes() {
+        Course course = courseRepository.findById(courseId).orElseThrow();
+        List<Module> modules = new ArrayList<>();
+        for (int i = 0; i < 1000; i++) {
+            modules.add(Module.builder().title("Bulk Module " + i).orderIndex(i + 1).course(course).build());
+        }
+        modules = moduleRepository.saveAll(modules);
+        for (int i = 0; i < modules.size(); i += 2) {
+            quizRepository.save(Quiz.builder().title("Quiz " + i).module(modules.get(i)).build());
+        }
+        List<Long> ids = modules.stream().map(Module::getId).toList();
+        entityManager.flush();
+        entityManager.clear();
+        Statistics statistics = statistics();
+
+        List<Module> loaded = moduleRepository.findAllById(ids);
+
+        assertThat(loaded).hasSize(1000);
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(1);
+
+        Module withQuiz = loaded.stream().filter(module -> module.getId().equals(ids.get(0))).findFirst().orElseThrow();
+        assertThat(withQuiz.getQuiz().getTitle()).isEqualTo("Quiz 0");
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(2);
+    }
+
+    private Statistics statistics() {
+        Statistics statistics = entityManager.getEntityManagerFactory()
+                .unwrap(SessionFactory.class)
+                .getStatistics();
+        statistics.clear();
+        return statistics;
+    }
 }
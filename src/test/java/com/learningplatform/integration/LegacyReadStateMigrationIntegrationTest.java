@@ -0,0 +1,110 @@
+package com.learningplatform.integration;
+
+import com.learningplatform.entity.Role;
+import com.learningplatform.entity.User;
+import com.learningplatform.repository.NotificationReadMarkRepository;
+import com.learningplatform.repository.NotificationRepository;
+import com.learningplatform.repository.NotificationWatermarkRepository;
+import com.learningplatform.repository.UserRepository;
+import com.learningplatform.service.LegacyReadStateMigrationService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Recreates the is_read column of the schema before read watermarks, which DDL statements commit,
+ * so this test commits its data and drops the column again afterwards.
+ */
+@SpringBootTest
+@ActiveProfiles("test")
+class LegacyReadStateMigrationIntegrationTest {
+
+    @Autowired
+    private LegacyReadStateMigrationService migrationService;
+
+    @Autowired
+    private NotificationRepository notificationRepository;
+
+    @Autowired
+    private NotificationWatermarkRepository watermarkRepository;
+
+    @Autowired
+    private NotificationReadMarkRepository readMarkRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private User reader;
+    private User catchingUp;
+
+    @BeforeEach
+    void setUp() {
+        reader = userRepository.save(User.builder()
+                .name("Legacy Reader")
+                .email("legacy.reader@test.com")
+                .role(Role.STUDENT)
+                .build());
+        catchingUp = userRepository.save(User.builder()
+                .name("Legacy Catching Up")
+                .email("legacy.catching.up@test.com")
+                .role(Role.STUDENT)
+                .build());
+        jdbcTemplate.execute("ALTER TABLE notifications ADD COLUMN is_read BOOLEAN");
+    }
+
+    @AfterEach
+    void tearDown() {
+        jdbcTemplate.execute("ALTER TABLE notifications DROP COLUMN IF EXISTS is_read");
+        for (Long userId : List.of(reader.getId(), catchingUp.getId())) {
+            jdbcTemplate.update("DELETE FROM notification_read_marks WHERE user_id = ?", userId);
+            jdbcTemplate.update("DELETE FROM notification_watermarks WHERE user_id = ?", userId);
+            jdbcTemplate.update("DELETE FROM notifications WHERE user_id = ?", userId);
+            jdbcTemplate.update("DELETE FROM users WHERE id = ?", userId);
+        }
+    }
+
+    @Test
+    void shouldKeepLegacyReadsAsWatermarksAndMarks() {
+        // Read, read, unread, read, and one written after the upgrade without a flag
+        List<Long> ids = new ArrayList<>();
+        for (Boolean read : new Boolean[]{true, true, false, true, null}) {
+            ids.add(insertNotification(reader.getId(), read));
+        }
+        // Everything read, and the first one read again through a watermark since the upgrade
+        Long first = insertNotification(catchingUp.getId(), true);
+        Long second = insertNotification(catchingUp.getId(), true);
+        jdbcTemplate.update("INSERT INTO notification_watermarks (user_id, last_read_id, updated_at) VALUES (?, ?, ?)",
+                catchingUp.getId(), first, Timestamp.valueOf(LocalDateTime.now()));
+
+        assertThat(migrationService.migrate()).isEqualTo(2);
+
+        assertThat(watermarkRepository.findLastReadId(reader.getId())).contains(ids.get(2) - 1);
+        assertThat(readMarkRepository.findMarkedIds(reader.getId(), ids)).containsExactly(ids.get(3));
+        assertThat(notificationRepository.countUnreadByUserId(reader.getId())).isEqualTo(2);
+
+        assertThat(watermarkRepository.findLastReadId(catchingUp.getId())).contains(second);
+        assertThat(notificationRepository.countUnreadByUserId(catchingUp.getId())).isZero();
+
+        assertThat(migrationService.migrate()).isZero();
+    }
+
+    private Long insertNotification(Long userId, Boolean read) {
+        jdbcTemplate.update("INSERT INTO notifications (title, created_at, user_id, is_read) VALUES (?, ?, ?, ?)",
+                "Before watermarks", Timestamp.valueOf(LocalDateTime.now()), userId, read);
+        return jdbcTemplate.queryForObject("SELECT MAX(id) FROM notifications WHERE user_id = ?", Long.class, userId);
+    }
+}
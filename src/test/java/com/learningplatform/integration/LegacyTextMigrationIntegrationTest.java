@@ -0,0 +1,126 @@
+package com.learningplatform.integration;
+
+import com.learningplatform.entity.*;
+import com.learningplatform.entity.Module;
+import com.learningplatform.repository.*;
+import com.learningplatform.service.LegacyTextMigrationService;
+import com.learningplatform.storage.BlobStore;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.time.LocalDate;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Recreates the TEXT columns of the schema before the blob store, which DDL statements commit, so
+ * this test commits its data and drops the columns again afterwards.
+ */
+@SpringBootTest
+@ActiveProfiles("test")
+class LegacyTextMigrationIntegrationTest {
+
+    @Autowired
+    private LegacyTextMigrationService migrationService;
+
+    @Autowired
+    private BlobStore blobStore;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private CourseRepository courseRepository;
+
+    @Autowired
+    private ModuleRepository moduleRepository;
+
+    @Autowired
+    private LessonRepository lessonRepository;
+
+    @Autowired
+    private AssignmentRepository assignmentRepository;
+
+    @Autowired
+    private SubmissionRepository submissionRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private User teacher;
+    private User student;
+    private Course course;
+    private Lesson lesson;
+    private Submission submission;
+
+    @BeforeEach
+    void setUp() {
+        teacher = userRepository.save(User.builder()
+                .name("Legacy Teacher")
+                .email("legacy.teacher@test.com")
+                .role(Role.TEACHER)
+                .build());
+        student = userRepository.save(User.builder()
+                .name("Legacy Student")
+                .email("legacy.student@test.com")
+                .role(Role.STUDENT)
+                .build());
+        course = courseRepository.save(Course.builder()
+                .title("Legacy Course")
+                .teacher(teacher)
+                .startDate(LocalDate.now())
+                .build());
+        Module module = moduleRepository.save(Module.builder().title("Legacy Module").course(course).build());
+        lesson = lessonRepository.save(Lesson.builder().title("Legacy Lesson").module(module).build());
+        Assignment assignment = assignmentRepository.save(
+                Assignment.builder().title("Legacy Essay").maxScore(10).lesson(lesson).build());
+        submission = submissionRepository.save(Submission.builder().assignment(assignment).student(student).build());
+
+        jdbcTemplate.execute("ALTER TABLE lessons ADD COLUMN content VARCHAR(10000)");
+        jdbcTemplate.execute("ALTER TABLE submissions ADD COLUMN content VARCHAR(10000)");
+        jdbcTemplate.execute("ALTER TABLE submissions ADD COLUMN feedback VARCHAR(10000)");
+        jdbcTemplate.update("UPDATE lessons SET content = ? WHERE id = ?", "Lesson text from before", lesson.getId());
+        jdbcTemplate.update("UPDATE submissions SET content = ?, feedback = ? WHERE id = ?",
+                "Answer from before", "Feedback from before", submission.getId());
+    }
+
+    @AfterEach
+    void tearDown() {
+        jdbcTemplate.execute("ALTER TABLE lessons DROP COLUMN IF EXISTS content");
+        jdbcTemplate.execute("ALTER TABLE submissions DROP COLUMN IF EXISTS content");
+        jdbcTemplate.execute("ALTER TABLE submissions DROP COLUMN IF EXISTS feedback");
+        jdbcTemplate.update("DELETE FROM submissions WHERE id = ?", submission.getId());
+        jdbcTemplate.update("DELETE FROM assignments WHERE lesson_id = ?", lesson.getId());
+        jdbcTemplate.update("DELETE FROM lessons WHERE id = ?", lesson.getId());
+        jdbcTemplate.update("DELETE FROM modules WHERE course_id = ?", course.getId());
+        jdbcTemplate.update("DELETE FROM courses WHERE id = ?", course.getId());
+        jdbcTemplate.update("DELETE FROM users WHERE id IN (?, ?)", teacher.getId(), student.getId());
+    }
+
+    @Test
+    void shouldMoveLegacyTextsIntoBlobStoreOnce() {
+        assertThat(migrationService.migrate()).isEqualTo(3);
+
+        Map<String, Object> lessonRow = jdbcTemplate.queryForMap(
+                "SELECT content, content_hash, content_size FROM lessons WHERE id = ?", lesson.getId());
+        assertThat(lessonRow.get("content")).isNull();
+        assertThat(blobStore.getText((String) lessonRow.get("content_hash"))).isEqualTo("Lesson text from before");
+        assertThat(((Number) lessonRow.get("content_size")).longValue()).isEqualTo(23L);
+
+        Map<String, Object> submissionRow = jdbcTemplate.queryForMap(
+                "SELECT content, feedback, content_hash, feedback_hash FROM submissions WHERE id = ?",
+                submission.getId());
+        assertThat(submissionRow.get("content")).isNull();
+        assertThat(submissionRow.get("feedback")).isNull();
+        assertThat(blobStore.getText((String) submissionRow.get("content_hash"))).isEqualTo("Answer from before");
+        assertThat(blobStore.getText((String) submissionRow.get("feedback_hash"))).isEqualTo("Feedback from before");
+
+        assertThat(migrationService.migrate()).isZero();
+    }
+}
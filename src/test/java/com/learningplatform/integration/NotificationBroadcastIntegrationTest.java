@@ -0,0 +1,187 @@
+package com.learningplatform.integration;
+
+import com.learningplatform.dto.NotificationBroadcastDTO;
+import com.learningplatform.dto.NotificationPageDTO;
+import com.learningplatform.entity.*;
+import com.learningplatform.repository.*;
+import com.learningplatform.service.NotificationService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Broadcasts run on a background thread, so this test commits its data and removes it afterwards.
+ */
+@SpringBootTest
+@ActiveProfiles("test")
+class NotificationBroadcastIntegrationTest {
+
+    private static final int STUDENTS = 2_150;
+
+    @Autowired
+    private NotificationService notificationService;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private CourseRepository courseRepository;
+
+    @Autowired
+    private EnrollmentRepository enrollmentRepository;
+
+    @Autowired
+    private NotificationRepository notificationRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private User teacher;
+    private Course course;
+    private final List<User> students = new ArrayList<>();
+
+    @BeforeEach
+    void setUp() {
+        teacher = userRepository.save(User.builder()
+                .name("Broadcast Teacher")
+                .email("broadcast.teacher@test.com")
+                .role(Role.TEACHER)
+                .build());
+        course = courseRepository.save(Course.builder()
+                .title("Broadcast Course")
+                .teacher(teacher)
+                .startDate(LocalDate.now())
+                .build());
+
+        List<User> batch = new ArrayList<>();
+        for (int i = 0; i < STUDENTS; i++) {
+            batch.add(User.builder()
+                    .name("Broadcast Student " + i)
+                    .email("broadcast.student" + i + "@test.com")
+                    .role(Role.STUDENT)
+                    .build());
+        }
+        students.addAll(userRepository.saveAll(batch));
+
+        List<Enrollment> enrollments = new ArrayList<>();
+        for (int i = 0; i < STUDENTS; i++) {
+            enrollments.add(Enrollment.builder()
+                    .student(students.get(i))
+                    .course(course)
+                    // Dropped students are not part of the audience
+                    .status(i % 50 == 0 ? EnrollmentStatus.DROPPED : EnrollmentStatus.ACTIVE)
+                    .build());
+        }
+        enrollmentRepository.saveAll(enrollments);
+    }
+
+    @AfterEach
+    void tearDown() {
+        String userIds = students.stream().map(u -> u.getId().toString()).collect(Collectors.joining(","));
+        jdbcTemplate.update("DELETE FROM notification_read_marks WHERE user_id IN (" + userIds + ")");
+        jdbcTemplate.update("DELETE FROM notification_watermarks WHERE user_id IN (" + userIds + ")");
+        jdbcTemplate.update("DELETE FROM notifications WHERE user_id IN (" + userIds + ")");
+        jdbcTemplate.update("DELETE FROM enrollments WHERE course_id = ?", course.getId());
+        jdbcTemplate.update("DELETE FROM courses WHERE id = ?", course.getId());
+        jdbcTemplate.update("DELETE FROM users WHERE id IN (" + userIds + ", " + teacher.getId() + ")");
+    }
+
+    @Test
+    void shouldBroadcastToActiveStudentsOfCourseInChunks() throws InterruptedException {
+        // Seeds the in-memory counter, which the broadcast then updates without another COUNT
+        assertThat(notificationService.getUnreadCount(students.get(1).getId())).isZero();
+
+        NotificationBroadcastDTO queued = notificationService.broadcast(NotificationBroadcastDTO.builder()
+                .title("Exam moved")
+                .message("The final exam is now on Friday.")
+                .courseId(course.getId())
+                .build());
+
+        NotificationBroadcastDTO broadcast = awaitFinished(queued);
+
+        long active = STUDENTS - STUDENTS / 50;
+        assertThat(broadcast.getStatus()).isEqualTo(NotificationBroadcastDTO.Status.COMPLETED);
+        assertThat(broadcast.getRecipients()).isEqualTo(active);
+        assertThat(broadcast.getDelivered()).isEqualTo(active);
+        assertThat(notificationService.getUnreadCount(students.get(1).getId())).isEqualTo(1);
+        assertThat(notificationService.getUnreadCount(students.get(0).getId())).isZero();
+
+        notificationService.markAllAsRead(students.get(1).getId());
+        assertThat(notificationService.getUnreadCount(students.get(1).getId())).isZero();
+    }
+
+    @Test
+    void shouldPageNotificationsNewestFirst() {
+        Long studentId = students.get(1).getId();
+        for (int i = 0; i < 5; i++) {
+            notificationService.notifyUsers(List.of(studentId), "Notice " + i, null);
+        }
+
+        NotificationPageDTO first = notificationService.getNotifications(studentId, null, 3);
+        NotificationPageDTO second = notificationService.getNotifications(studentId, first.getNextBeforeId(), 3);
+
+        assertThat(first.getItems()).extracting("title").containsExactly("Notice 4", "Notice 3", "Notice 2");
+        assertThat(first.isHasMore()).isTrue();
+        assertThat(second.getItems()).extracting("title").containsExactly("Notice 1", "Notice 0");
+        assertThat(second.isHasMore()).isFalse();
+    }
+
+    @Test
+    void shouldTrackReadsWithWatermarkAndOutOfOrderMarks() {
+        Long studentId = students.get(1).getId();
+        for (int i = 0; i < 4; i++) {
+            notificationService.notifyUsers(List.of(studentId), "Notice " + i, null);
+        }
+        List<Long> ids = jdbcTemplate.queryForList(
+                "SELECT id FROM notifications WHERE user_id = ? ORDER BY id", Long.class, studentId);
+
+        notificationService.markAsRead(ids.get(2));
+        assertThat(notificationRepository.countUnreadByUserId(studentId)).isEqualTo(3);
+        assertThat(notificationService.getNotifications(studentId, null, 10).getItems())
+                .extracting("isRead").containsExactly(false, true, false, false);
+
+        notificationService.markAsRead(ids.get(0));
+        assertThat(lastReadId(studentId)).isEqualTo(ids.get(0));
+
+        // Reading the gap carries the watermark past the mark above it
+        notificationService.markAsRead(ids.get(1));
+        assertThat(lastReadId(studentId)).isEqualTo(ids.get(2));
+        assertThat(jdbcTemplate.queryForObject(
+                "SELECT COUNT(*) FROM notification_read_marks WHERE user_id = ?", Long.class, studentId)).isZero();
+        assertThat(notificationRepository.countUnreadByUserId(studentId)).isEqualTo(1);
+
+        notificationService.markAllAsRead(studentId);
+        assertThat(lastReadId(studentId)).isEqualTo(ids.get(3));
+        assertThat(notificationRepository.countUnreadByUserId(studentId)).isZero();
+        assertThat(notificationService.getUnreadCount(studentId)).isZero();
+    }
+
+    private Long lastReadId(Long userId) {
+        return jdbcTemplate.queryForObject(
+                "SELECT last_read_id FROM notification_watermarks WHERE user_id = ?", Long.class, userId);
+    }
+
+    private NotificationBroadcastDTO awaitFinished(NotificationBroadcastDTO queued) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + 30_000;
+        NotificationBroadcastDTO current = queued;
+        while (System.currentTimeMillis() < deadline) {
+            current = notificationService.getBroadcast(queued.getId());
+            if (current.getFinishedAt() != null) {
+                return current;
+            }
+            Thread.sleep(50);
+        }
+        return current;
+    }
+}
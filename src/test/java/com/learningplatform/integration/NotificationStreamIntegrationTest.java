@@ -0,0 +1,130 @@
+package com.learningplatform.integration;
+
+import com.learningplatform.entity.Role;
+import com.learningplatform.entity.User;
+import com.learningplatform.repository.UserRepository;
+import com.learningplatform.service.ArchiveService;
+import com.learningplatform.service.NotificationService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+
+import java.io.IOException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
+
+/**
+ * Counter updates are pushed after notifications commit, so this test commits its data and
+ * removes it and any archive segments afterwards.
+ */
+@SpringBootTest
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+class NotificationStreamIntegrationTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private NotificationService notificationService;
+
+    @Autowired
+    private ArchiveService archiveService;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private User student;
+
+    @BeforeEach
+    void setUp() {
+        student = userRepository.save(User.builder()
+                .name("Stream Student")
+                .email("stream.student@test.com")
+                .role(Role.STUDENT)
+                .build());
+    }
+
+    @AfterEach
+    void tearDown() throws IOException {
+        jdbcTemplate.update("DELETE FROM notification_read_marks WHERE user_id = ?", student.getId());
+        jdbcTemplate.update("DELETE FROM notification_watermarks WHERE user_id = ?", student.getId());
+        jdbcTemplate.update("DELETE FROM notifications WHERE user_id = ?", student.getId());
+        jdbcTemplate.update("DELETE FROM users WHERE id = ?", student.getId());
+        Path archive = Paths.get("target/archive/notifications");
+        if (Files.isDirectory(archive)) {
+            try (DirectoryStream<Path> segments = Files.newDirectoryStream(archive, "*.seg")) {
+                for (Path segment : segments) {
+                    Files.delete(segment);
+                }
+            }
+        }
+    }
+
+    @Test
+    void shouldPushSnapshotThenEachCreationReadAndArchiveOnce() throws Exception {
+        notificationService.notifyUsers(List.of(student.getId()), "First", "One");
+        notificationService.notifyUsers(List.of(student.getId()), "Second", "Two");
+
+        MvcResult result = mockMvc.perform(get("/api/notifications/user/{id}/stream", student.getId()))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+        MockHttpServletResponse response = result.getResponse();
+        assertThat(awaitEvent(response, "event:snapshot")).contains("\"unreadCount\":2");
+
+        notificationService.notifyUsers(List.of(student.getId()), "Third", "Three");
+        assertThat(awaitEvent(response, "\"unreadCount\":3")).contains("event:update", "Third");
+
+        Long newest = jdbcTemplate.queryForObject(
+                "SELECT MAX(id) FROM notifications WHERE user_id = ?", Long.class, student.getId());
+        notificationService.markAsRead(newest);
+        awaitEvent(response, "\"unreadCount\":2");
+
+        // The oldest one, still unread, passes the retention and is archived
+        jdbcTemplate.update("UPDATE notifications SET created_at = ? WHERE id = (SELECT MIN(id) FROM notifications WHERE user_id = ?)",
+                Timestamp.valueOf(LocalDateTime.now().minusDays(400)), student.getId());
+        assertThat(archiveService.archive("notifications", LocalDateTime.now().minusDays(180))).isEqualTo(1);
+        awaitEvent(response, "\"unreadCount\":1");
+
+        assertThat(notificationService.getUnreadCount(student.getId())).isEqualTo(1);
+        assertThat(response.getContentAsString()).doesNotContain("\"unreadCount\":4", "\"unreadCount\":0");
+    }
+
+    // The last complete event whose text contains the marker, waiting for it for up to five seconds
+    private static String awaitEvent(MockHttpServletResponse response, String marker) throws Exception {
+        long deadline = System.currentTimeMillis() + 5000;
+        while (System.currentTimeMillis() < deadline) {
+            // An event is written in parts; only those followed by the blank line are complete
+            String content = response.getContentAsString();
+            int end = content.lastIndexOf("\n\n");
+            String[] events = end < 0 ? new String[0] : content.substring(0, end).split("\n\n");
+            for (int i = events.length - 1; i >= 0; i--) {
+                if (events[i].contains(marker)) {
+                    return events[i];
+                }
+            }
+            Thread.sleep(50);
+        }
+        throw new AssertionError("No event containing " + marker + " in " + response.getContentAsString());
+    }
+}
@@ -3,6 +3,9 @@ package com.learningplatform.integration;
 import com.learningplatform.dto.*;
 import com.learningplatform.entity.QuestionType;
 import com.learningplatform.entity.Role;
+import com.learningplatform.exception.ConflictException;
+import com.learningplatform.exception.BusinessLogicException;
+import com.learningplatform.exception.ResourceNotFoundException;
 import com.learningplatform.service.*;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
@@ -11,11 +14,15 @@ import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.test.context.ActiveProfiles;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.assertj.core.api.Assertions.offset;
 
 @SpringBootTest
 @ActiveProfiles("test")
@@ -37,6 +44,18 @@ class QuizIntegrationTest {
     @Autowired
     private EnrollmentService enrollmentService;
 
+    @Autowired
+    private ItemAnalysisService itemAnalysisService;
+
+    @Autowired
+    private QuizAttemptService quizAttemptService;
+
+    @Autowired
+    private QuizImportService quizImportService;
+
+    @Autowired
+    private LeaderboardService leaderboardService;
+
     private UserDTO teacher;
     private UserDTO student;
     private CourseDTO course;
@@ -87,7 +106,6 @@ class QuizIntegrationTest {
         QuizDTO quizDTO = QuizDTO.builder()
                 .title("Test Quiz")
                 .description("A test quiz")
-                .timeLimit(10)
                 .passingScore(60)
                 .moduleId(module.getId())
                 .build();
@@ -188,4 +206,218 @@ class QuizIntegrationTest {
         assertThat(submission.getScore()).isEqualTo(0);
         assertThat(submission.getPassed()).isFalse();
     }
+
+    @Test
+    void shouldComputeItemAnalysisFromPackedAnswers() {
+        QuizDTO quiz = quizService.createQuiz(QuizDTO.builder()
+                .title("Item Analysis Quiz")
+                .passingScore(50)
+                .moduleId(module.getId())
+                .build());
+
+        QuestionDTO question = quizService.addQuestion(QuestionDTO.builder()
+                .text("Which keyword declares a constant in Java?")
+                .type(QuestionType.SINGLE_CHOICE)
+                .quizId(quiz.getId())
+                .build());
+        AnswerOptionDTO correct = quizService.addAnswerOption(AnswerOptionDTO.builder()
+                .text("final")
+                .isCorrect(true)
+                .questionId(question.getId())
+                .build());
+        AnswerOptionDTO distractor = quizService.addAnswerOption(AnswerOptionDTO.builder()
+                .text("const")
+                .isCorrect(false)
+                .questionId(question.getId())
+                .build());
+
+        quizService.takeQuiz(quiz.getId(), student.getId(), Map.of(question.getId(), correct.getId()));
+        quizService.takeQuiz(quiz.getId(), student.getId(), Map.of(question.getId(), distractor.getId()));
+        quizService.takeQuiz(quiz.getId(), student.getId(), Map.of(question.getId(), distractor.getId()));
+
+        ItemAnalysisDTO analysis = itemAnalysisService.analyzeQuiz(quiz.getId());
+
+        assertThat(analysis.getAnalyzedAttempts()).isEqualTo(3);
+        ItemAnalysisDTO.QuestionStats stats = analysis.getQuestions().get(0);
+        assertThat(stats.getAnswered()).isEqualTo(3);
+        assertThat(stats.getDifficulty()).isCloseTo(1.0 / 3, offset(1e-9));
+        assertThat(stats.getDiscrimination()).isEqualTo(1.0);
+        assertThat(stats.getOptions()).extracting(ItemAnalysisDTO.OptionStats::getSelectedCount)
+                .containsExactly(1L, 2L);
+    }
+
+    @Test
+    void shouldTrackTimedAttemptAndRecordTimeSpent() {
+        QuizDTO quiz = quizService.createQuiz(QuizDTO.builder()
+                .title("Timed Quiz")
+                .timeLimit(15)
+                .moduleId(module.getId())
+                .build());
+        QuestionDTO question = quizService.addQuestion(QuestionDTO.builder()
+                .text("Is the JVM garbage collected?")
+                .quizId(quiz.getId())
+                .build());
+        AnswerOptionDTO yes = quizService.addAnswerOption(AnswerOptionDTO.builder()
+                .text("Yes")
+                .isCorrect(true)
+                .questionId(question.getId())
+                .build());
+
+        // The untimed submission path would bypass the clock
+        assertThatThrownBy(() -> quizService.takeQuiz(quiz.getId(), student.getId(), Map.of(question.getId(), yes.getId())))
+                .isInstanceOf(BusinessLogicException.class)
+                .hasMessageContaining("/attempts");
+
+        QuizAttemptDTO attempt = quizAttemptService.startAttempt(quiz.getId(), student.getId());
+        assertThat(attempt.getDeadline()).isEqualTo(attempt.getStartedAt().plusMinutes(15));
+
+        // Starting again resumes the open attempt
+        assertThat(quizAttemptService.startAttempt(quiz.getId(), student.getId()).getAttemptId())
+                .isEqualTo(attempt.getAttemptId());
+
+        quizAttemptService.saveAnswers(attempt.getAttemptId(), Map.of(question.getId(), yes.getId()));
+        QuizSubmissionDTO submission = quizAttemptService.submitAttempt(attempt.getAttemptId(), null);
+
+        assertThat(submission.getScore()).isEqualTo(100);
+        assertThat(submission.getTimeSpent()).isNotNull().isGreaterThanOrEqualTo(0);
+        assertThatThrownBy(() -> quizAttemptService.getAttempt(attempt.getAttemptId()))
+                .isInstanceOf(ResourceNotFoundException.class);
+    }
+
+    @Test
+    void shouldRecordExpiredAttemptsWithoutAnswersAsZeroScore() {
+        QuizDTO quiz = quizService.createQuiz(QuizDTO.builder()
+                .title("Expiring Quiz")
+                .timeLimit(1)
+                .moduleId(module.getId())
+                .build());
+        QuestionDTO question = quizService.addQuestion(QuestionDTO.builder()
+                .text("Is the JVM garbage collected?")
+                .quizId(quiz.getId())
+                .build());
+        AnswerOptionDTO yes = quizService.addAnswerOption(AnswerOptionDTO.builder()
+                .text("Yes")
+                .isCorrect(true)
+                .questionId(question.getId())
+                .build());
+
+        int recorded = quizService.recordExpiredAttempts(quiz.getId(), List.of(
+                new QuizService.ExpiredAttempt(student.getId(), Map.of(), 60),
+                new QuizService.ExpiredAttempt(student.getId(), Map.of(question.getId(), yes.getId()), 60),
+                new QuizService.ExpiredAttempt(teacher.getId(), Map.of(), 60)));
+
+        assertThat(recorded).isEqualTo(2);
+        List<QuizSubmissionDTO> submissions = quizService.getQuizSubmissionsByQuiz(quiz.getId());
+        assertThat(submissions).extracting(QuizSubmissionDTO::getScore).containsExactlyInAnyOrder(0, 100);
+        assertThat(submissions).extracting(QuizSubmissionDTO::getTimeSpent).containsOnly(60);
+    }
+
+    @Test
+    void shouldBulkImportQuestionsAndReportItemErrors() {
+        QuizDTO quiz = quizService.createQuiz(QuizDTO.builder()
+                .title("Imported Quiz")
+                .moduleId(module.getId())
+                .build());
+
+        String invalid = """
+                {"text": "Valid question", "options": [{"text": "a", "isCorrect": true}, {"text": "b"}]}
+                {"text": "No correct option", "options": [{"text": "a"}, {"text": "b"}]}
+                """;
+        QuizImportResultDTO rejected = quizImportService.importQuiz(quiz.getId(), QuizImportService.Mode.MERGE,
+                new ByteArrayInputStream(invalid.getBytes(StandardCharsets.UTF_8)), true);
+
+        assertThat(rejected.isImported()).isFalse();
+        assertThat(rejected.getErrors()).extracting(QuizImportResultDTO.ItemError::getIndex).containsExactly(1);
+        assertThat(quizService.getQuizById(quiz.getId()).getQuestionCount()).isZero();
+
+        String document = """
+                {"title": "Imported Quiz v2", "passingScore": 80, "questions": [
+                  {"text": "Q1", "options": [{"text": "a", "isCorrect": true}, {"text": "b"}]},
+                  {"text": "Q2", "type": "MULTIPLE_CHOICE",
+                   "options": [{"text": "a", "isCorrect": true}, {"text": "b", "isCorrect": true}, {"text": "c"}]}
+                ]}
+                """;
+        QuizImportResultDTO result = quizImportService.importQuiz(quiz.getId(), QuizImportService.Mode.MERGE,
+                new ByteArrayInputStream(document.getBytes(StandardCharsets.UTF_8)), false);
+
+        assertThat(result.isImported()).isTrue();
+        assertThat(result.getQuestionsImported()).isEqualTo(2);
+        assertThat(result.getOptionsImported()).isEqualTo(5);
+
+        QuizDTO imported = quizService.getQuizById(quiz.getId());
+        assertThat(imported.getTitle()).isEqualTo("Imported Quiz v2");
+        assertThat(imported.getPassingScore()).isEqualTo(80);
+        assertThat(imported.getQuestionCount()).isEqualTo(2);
+
+        // Merging the same document again skips the existing questions
+        QuizImportResultDTO merged = quizImportService.importQuiz(quiz.getId(), QuizImportService.Mode.MERGE,
+                new ByteArrayInputStream(document.getBytes(StandardCharsets.UTF_8)), false);
+        assertThat(merged.getQuestionsSkipped()).isEqualTo(2);
+        assertThat(quizService.getQuizById(quiz.getId()).getQuestionCount()).isEqualTo(2);
+    }
+
+    @Test
+    void shouldRefuseToReplaceQuestionsOfAnAttemptedQuiz() {
+        QuizDTO quiz = quizService.createQuiz(QuizDTO.builder()
+                .title("Attempted Quiz")
+                .moduleId(module.getId())
+                .build());
+        String document = """
+                [{"text": "Q1", "options": [{"text": "a", "isCorrect": true}, {"text": "b"}]}]
+                """;
+        quizImportService.importQuiz(quiz.getId(), QuizImportService.Mode.REPLACE,
+                new ByteArrayInputStream(document.getBytes(StandardCharsets.UTF_8)), false);
+
+        QuizAttemptDTO attempt = quizAttemptService.startAttempt(quiz.getId(), student.getId());
+        assertThatThrownBy(() -> quizImportService.importQuiz(quiz.getId(), QuizImportService.Mode.REPLACE,
+                new ByteArrayInputStream(document.getBytes(StandardCharsets.UTF_8)), false))
+                .isInstanceOf(ConflictException.class);
+
+        quizAttemptService.submitAttempt(attempt.getAttemptId(), null);
+        assertThatThrownBy(() -> quizImportService.importQuiz(quiz.getId(), QuizImportService.Mode.REPLACE,
+                new ByteArrayInputStream(document.getBytes(StandardCharsets.UTF_8)), false))
+                .isInstanceOf(ConflictException.class);
+        assertThat(quizService.getQuizById(quiz.getId()).getQuestionCount()).isEqualTo(1);
+    }
+
+    @Test
+    void shouldRankStudentsByBestScorePerQuiz() {
+        UserDTO rival = userService.createUser(UserDTO.builder()
+                .name("Quiz Rival")
+                .email("quiz.rival" + System.currentTimeMillis() + "@test.com")
+                .role(Role.STUDENT)
+                .build());
+
+        QuizDTO quiz = quizService.createQuiz(QuizDTO.builder()
+                .title("Leaderboard Quiz")
+                .moduleId(module.getId())
+                .build());
+        QuestionDTO question = quizService.addQuestion(QuestionDTO.builder()
+                .text("2 * 3 = ?")
+                .quizId(quiz.getId())
+                .build());
+        AnswerOptionDTO right = quizService.addAnswerOption(AnswerOptionDTO.builder()
+                .text("6")
+                .isCorrect(true)
+                .questionId(question.getId())
+                .build());
+        AnswerOptionDTO wrong = quizService.addAnswerOption(AnswerOptionDTO.builder()
+                .text("5")
+                .isCorrect(false)
+                .questionId(question.getId())
+                .build());
+
+        // Only the best attempt per quiz counts
+        quizService.takeQuiz(quiz.getId(), student.getId(), Map.of(question.getId(), wrong.getId()));
+        quizService.takeQuiz(quiz.getId(), student.getId(), Map.of(question.getId(), right.getId()));
+        quizService.takeQuiz(quiz.getId(), rival.getId(), Map.of(question.getId(), wrong.getId()));
+
+        LeaderboardDTO leaderboard = leaderboardService.getTopStudents(course.getId(), 10);
+
+        assertThat(leaderboard.getParticipants()).isEqualTo(2);
+        assertThat(leaderboard.getEntries()).extracting(LeaderboardDTO.Entry::getStudentId)
+                .containsExactly(student.getId(), rival.getId());
+        assertThat(leaderboard.getEntries().get(0).getTotalScore()).isEqualTo(100);
+        assertThat(leaderboardService.getStudentRank(course.getId(), rival.getId()).getRank()).isEqualTo(2);
+    }
 }
@@ -0,0 +1,146 @@
+package com.learningplatform.integration;
+
+import com.learningplatform.entity.*;
+import com.learningplatform.entity.Module;
+import com.learningplatform.repository.*;
+import com.learningplatform.service.QuizLiveService;
+import com.learningplatform.service.QuizService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+
+import java.time.LocalDate;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
+
+/**
+ * Live results are pushed after submissions commit, so this test commits its data and removes it
+ * afterwards.
+ */
+@SpringBootTest
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+class QuizLiveIntegrationTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private QuizLiveService quizLiveService;
+
+    @Autowired
+    private QuizService quizService;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private CourseRepository courseRepository;
+
+    @Autowired
+    private ModuleRepository moduleRepository;
+
+    @Autowired
+    private QuizRepository quizRepository;
+
+    @Autowired
+    private QuestionRepository questionRepository;
+
+    @Autowired
+    private AnswerOptionRepository answerOptionRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private User teacher;
+    private User student;
+    private Course course;
+    private Quiz quiz;
+    private Question question;
+    private AnswerOption right;
+    private AnswerOption wrong;
+
+    @BeforeEach
+    void setUp() {
+        teacher = userRepository.save(User.builder()
+                .name("Live Teacher")
+                .email("live.teacher@test.com")
+                .role(Role.TEACHER)
+                .build());
+        student = userRepository.save(User.builder()
+                .name("Live Student")
+                .email("live.student@test.com")
+                .role(Role.STUDENT)
+                .build());
+        course = courseRepository.save(Course.builder()
+                .title("Live Course")
+                .teacher(teacher)
+                .startDate(LocalDate.now())
+                .build());
+        Module module = moduleRepository.save(Module.builder().title("Live Module").course(course).build());
+        quiz = quizRepository.save(Quiz.builder().title("Live Quiz").passingScore(50).module(module).build());
+        question = questionRepository.save(Question.builder().text("2 + 2?").quiz(quiz).build());
+        right = answerOptionRepository.save(AnswerOption.builder().text("4").isCorrect(true).question(question).build());
+        wrong = answerOptionRepository.save(AnswerOption.builder().text("5").question(question).build());
+    }
+
+    @AfterEach
+    void tearDown() {
+        jdbcTemplate.update("DELETE FROM quiz_submissions WHERE quiz_id = ?", quiz.getId());
+        jdbcTemplate.update("DELETE FROM answer_options WHERE question_id = ?", question.getId());
+        jdbcTemplate.update("DELETE FROM questions WHERE quiz_id = ?", quiz.getId());
+        jdbcTemplate.update("DELETE FROM quizzes WHERE id = ?", quiz.getId());
+        jdbcTemplate.update("DELETE FROM modules WHERE course_id = ?", course.getId());
+        jdbcTemplate.update("DELETE FROM courses WHERE id = ?", course.getId());
+        jdbcTemplate.update("DELETE FROM users WHERE id IN (?, ?)", teacher.getId(), student.getId());
+    }
+
+    @Test
+    void shouldPushSnapshotThenCountEachLaterSubmissionOnce() throws Exception {
+        quizService.takeQuiz(quiz.getId(), student.getId(), Map.of(question.getId(), right.getId()));
+
+        MvcResult result = mockMvc.perform(get("/api/quizzes/{id}/live", quiz.getId()))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+        MockHttpServletResponse response = result.getResponse();
+        String snapshot = awaitEvent(response, "event:snapshot");
+        assertThat(snapshot).contains("\"attempts\":1", "\"passed\":1");
+        assertThat(quizLiveService.getSubscriberCount(quiz.getId())).isEqualTo(1);
+
+        quizService.takeQuiz(quiz.getId(), student.getId(), Map.of(question.getId(), right.getId()));
+        quizService.takeQuiz(quiz.getId(), student.getId(), Map.of(question.getId(), wrong.getId()));
+
+        String update = awaitEvent(response, "\"attempts\":3");
+        assertThat(update).contains("event:update", "\"passed\":2");
+        assertThat(response.getContentAsString()).doesNotContain("\"attempts\":4");
+    }
+
+    // The last complete event whose text contains the marker, waiting for it for up to five seconds
+    private static String awaitEvent(MockHttpServletResponse response, String marker) throws Exception {
+        long deadline = System.currentTimeMillis() + 5000;
+        while (System.currentTimeMillis() < deadline) {
+            // An event is written in parts; only those followed by the blank line are complete
+            String content = response.getContentAsString();
+            int end = content.lastIndexOf("\n\n");
+            String[] events = end < 0 ? new String[0] : content.substring(0, end).split("\n\n");
+            for (int i = events.length - 1; i >= 0; i--) {
+                if (events[i].contains(marker)) {
+                    return events[i];
+                }
+            }
+            Thread.sleep(50);
+        }
+        throw new AssertionError("No event containing " + marker + " in " + response.getContentAsString());
+    }
+}
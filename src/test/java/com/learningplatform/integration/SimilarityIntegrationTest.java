@@ -0,0 +1,166 @@
+package com.learningplatform.integration;
+
+import com.learningplatform.dto.SimilarityReportDTO;
+import com.learningplatform.dto.SubmissionDTO;
+import com.learningplatform.entity.*;
+import com.learningplatform.entity.Module;
+import com.learningplatform.repository.*;
+import com.learningplatform.service.SimilarityService;
+import com.learningplatform.service.SubmissionService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Submissions are indexed after they commit, so this test commits its data and removes it
+ * afterwards.
+ */
+@SpringBootTest
+@ActiveProfiles("test")
+class SimilarityIntegrationTest {
+
+    private static final String ESSAY = "Binary search repeatedly halves the search interval of a sorted array. " +
+            "It compares the target with the middle element and discards the half that cannot contain it, " +
+            "so it needs a logarithmic number of comparisons in the worst case.";
+
+    @Autowired
+    private SimilarityService similarityService;
+
+    @Autowired
+    private SubmissionService submissionService;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private CourseRepository courseRepository;
+
+    @Autowired
+    private ModuleRepository moduleRepository;
+
+    @Autowired
+    private LessonRepository lessonRepository;
+
+    @Autowired
+    private AssignmentRepository assignmentRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private final List<Long> userIds = new ArrayList<>();
+    private Course course;
+    private Lesson lesson;
+    private Assignment assignment;
+
+    @BeforeEach
+    void setUp() {
+        User teacher = saveUser(User.builder()
+                .name("Similarity Teacher")
+                .email("similarity.teacher@test.com")
+                .role(Role.TEACHER)
+                .build());
+        course = courseRepository.save(Course.builder()
+                .title("Algorithms")
+                .teacher(teacher)
+                .startDate(LocalDate.now())
+                .build());
+        Module module = moduleRepository.save(Module.builder()
+                .title("Searching")
+                .course(course)
+                .build());
+        lesson = lessonRepository.save(Lesson.builder()
+                .title("Binary search")
+                .orderIndex(0)
+                .module(module)
+                .build());
+        assignment = assignmentRepository.save(Assignment.builder()
+                .title("Explain binary search")
+                .lesson(lesson)
+                .build());
+    }
+
+    @AfterEach
+    void tearDown() {
+        similarityService.removeAssignment(assignment.getId());
+        jdbcTemplate.update("DELETE FROM submissions WHERE assignment_id = ?", assignment.getId());
+        jdbcTemplate.update("DELETE FROM assignments WHERE id = ?", assignment.getId());
+        jdbcTemplate.update("DELETE FROM lessons WHERE id = ?", lesson.getId());
+        jdbcTemplate.update("DELETE FROM modules WHERE course_id = ?", course.getId());
+        jdbcTemplate.update("DELETE FROM courses WHERE id = ?", course.getId());
+        for (Long userId : userIds) {
+            jdbcTemplate.update("DELETE FROM users WHERE id = ?", userId);
+        }
+    }
+
+    @Test
+    void shouldReportNearDuplicateSubmissions() throws InterruptedException {
+        SubmissionDTO original = submit("Original Author", ESSAY);
+        SubmissionDTO copy = submit("Copying Student", ESSAY.replace("repeatedly", "again and again"));
+        submit("Honest Student", "Linear search checks every element in turn until it finds the target, " +
+                "which takes time proportional to the length of the list.");
+
+        awaitIndexed(3);
+        SimilarityReportDTO report = similarityService.getReport(assignment.getId(), null, 10);
+
+        assertThat(report.getPairs()).hasSize(1);
+        SimilarityReportDTO.Pair pair = report.getPairs().get(0);
+        assertThat(pair.getSubmissionId()).isEqualTo(original.getId());
+        assertThat(pair.getStudentName()).isEqualTo("Original Author");
+        assertThat(pair.getOtherSubmissionId()).isEqualTo(copy.getId());
+        assertThat(pair.getOtherStudentName()).isEqualTo("Copying Student");
+        assertThat(pair.getSimilarity()).isGreaterThan(0.6);
+    }
+
+    @Test
+    void shouldForgetDeletedSubmissions() throws InterruptedException {
+        submit("First Student", ESSAY);
+        SubmissionDTO copy = submit("Second Student", ESSAY);
+        awaitIndexed(2);
+        assertThat(similarityService.getReport(assignment.getId(), 0.9, 10).getPairs()).hasSize(1);
+
+        submissionService.deleteSubmission(copy.getId());
+
+        assertThat(similarityService.getReport(assignment.getId(), 0.0, 10).getPairs()).isEmpty();
+    }
+
+    private SubmissionDTO submit(String studentName, String content) {
+        User student = saveUser(User.builder()
+                .name(studentName)
+                .email(studentName.toLowerCase().replace(' ', '.') + "@test.com")
+                .role(Role.STUDENT)
+                .build());
+        return submissionService.submitAssignment(SubmissionDTO.builder()
+                .assignmentId(assignment.getId())
+                .studentId(student.getId())
+                .content(content)
+                .build());
+    }
+
+    private User saveUser(User user) {
+        User saved = userRepository.save(user);
+        userIds.add(saved.getId());
+        return saved;
+    }
+
+    private void awaitIndexed(int submissions) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + 10_000;
+        while (System.currentTimeMillis() < deadline) {
+            Long indexed = jdbcTemplate.queryForObject(
+                    "SELECT COUNT(*) FROM submission_signatures WHERE assignment_id = ?", Long.class, assignment.getId());
+            if (indexed != null && indexed >= submissions) {
+                return;
+            }
+            Thread.sleep(50);
+        }
+    }
+}
@@ -0,0 +1,129 @@
+package com.learningplatform.integration;
+
+import com.learningplatform.dto.StudentDashboardDTO;
+import com.learningplatform.entity.*;
+import com.learningplatform.entity.Module;
+import com.learningplatform.repository.*;
+import com.learningplatform.service.NotificationService;
+import com.learningplatform.service.StudentDashboardService;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Dashboard parts are read on their own threads and transactions, so this test commits its data
+ * and removes it afterwards.
+ */
+@SpringBootTest
+@ActiveProfiles("test")
+class StudentDashboardIntegrationTest {
+
+    @Autowired
+    private StudentDashboardService dashboardService;
+
+    @Autowired
+    private NotificationService notificationService;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private CourseRepository courseRepository;
+
+    @Autowired
+    private ModuleRepository moduleRepository;
+
+    @Autowired
+    private LessonRepository lessonRepository;
+
+    @Autowired
+    private AssignmentRepository assignmentRepository;
+
+    @Autowired
+    private EnrollmentRepository enrollmentRepository;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private User teacher;
+    private User student;
+    private final List<Long> courseIds = new ArrayList<>();
+
+    @BeforeEach
+    void setUp() {
+        teacher = userRepository.save(User.builder()
+                .name("Dashboard Teacher")
+                .email("dashboard.teacher@test.com")
+                .role(Role.TEACHER)
+                .build());
+        student = userRepository.save(User.builder()
+                .name("Dashboard Student")
+                .email("dashboard.student@test.com")
+                .role(Role.STUDENT)
+                .build());
+
+        for (int i = 0; i < 5; i++) {
+            Course course = courseRepository.save(Course.builder()
+                    .title("Dashboard Course " + i)
+                    .teacher(teacher)
+                    .startDate(LocalDate.now())
+                    .build());
+            courseIds.add(course.getId());
+            Module module = moduleRepository.save(Module.builder().title("Module").course(course).build());
+            Lesson lesson = lessonRepository.save(Lesson.builder().title("Lesson").module(module).build());
+            assignmentRepository.save(Assignment.builder().title("Assignment " + i).maxScore(10).lesson(lesson).build());
+            enrollmentRepository.save(Enrollment.builder().student(student).course(course).build());
+        }
+        notificationService.notifyUsers(List.of(student.getId()), "Welcome", "Your courses are ready");
+    }
+
+    @AfterEach
+    void tearDown() {
+        jdbcTemplate.update("DELETE FROM notification_read_marks WHERE user_id = ?", student.getId());
+        jdbcTemplate.update("DELETE FROM notification_watermarks WHERE user_id = ?", student.getId());
+        jdbcTemplate.update("DELETE FROM notifications WHERE user_id = ?", student.getId());
+        for (Long courseId : courseIds) {
+            jdbcTemplate.update("DELETE FROM enrollments WHERE course_id = ?", courseId);
+            jdbcTemplate.update("DELETE FROM assignments WHERE lesson_id IN (SELECT l.id FROM lessons l " +
+                    "JOIN modules m ON m.id = l.module_id WHERE m.course_id = ?)", courseId);
+            jdbcTemplate.update("DELETE FROM lessons WHERE module_id IN (SELECT id FROM modules WHERE course_id = ?)", courseId);
+            jdbcTemplate.update("DELETE FROM modules WHERE course_id = ?", courseId);
+            jdbcTemplate.update("DELETE FROM courses WHERE id = ?", courseId);
+        }
+        jdbcTemplate.update("DELETE FROM users WHERE id IN (?, ?)", teacher.getId(), student.getId());
+    }
+
+    @Test
+    void shouldComposeDashboardWithAFixedNumberOfQueries() {
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+
+        StudentDashboardDTO dashboard = dashboardService.getDashboard(student.getId());
+
+        assertThat(dashboard.getFailedParts()).isEmpty();
+        assertThat(dashboard.getName()).isEqualTo("Dashboard Student");
+        assertThat(dashboard.getProfile()).isNull();
+        assertThat(dashboard.getEnrollments()).hasSize(5);
+        assertThat(dashboard.getAssignments()).hasSize(5);
+        assertThat(dashboard.getQuizSubmissions()).isEmpty();
+        assertThat(dashboard.getRecentNotifications()).extracting("title").containsExactly("Welcome");
+        assertThat(dashboard.getUnreadNotifications()).isEqualTo(1L);
+        assertThat(statistics.getPrepareStatementCount()).isLessThanOrEqualTo(12);
+    }
+}
@@ -0,0 +1,179 @@
+package com.learningplatform.integration;
+
+import com.learningplatform.dto.SubmissionDTO;
+import com.learningplatform.dto.SubmissionVersionDTO;
+import com.learningplatform.entity.*;
+import com.learningplatform.entity.Module;
+import com.learningplatform.exception.BusinessLogicException;
+import com.learningplatform.repository.*;
+import com.learningplatform.service.SubmissionService;
+import com.learningplatform.service.SubmissionVersionService;
+import com.learningplatform.storage.BlobStore;
+import jakarta.persistence.EntityManager;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+@SpringBootTest
+@ActiveProfiles("test")
+@Transactional
+class SubmissionVersionIntegrationTest {
+
+    private static final String DRAFT = "A stack is a last-in, first-out collection. Push adds an element " +
+            "on top and pop removes the most recently added element. Both run in constant time.";
+
+    @Autowired
+    private SubmissionService submissionService;
+
+    @Autowired
+    private SubmissionVersionService submissionVersionService;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private CourseRepository courseRepository;
+
+    @Autowired
+    private ModuleRepository moduleRepository;
+
+    @Autowired
+    private LessonRepository lessonRepository;
+
+    @Autowired
+    private AssignmentRepository assignmentRepository;
+
+    @Autowired
+    private BlobStore blobStore;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    private Assignment assignment;
+    private User student;
+
+    @BeforeEach
+    void setUp() {
+        User teacher = userRepository.save(User.builder()
+                .name("Version Teacher")
+                .email("version.teacher@test.com")
+                .role(Role.TEACHER)
+                .build());
+        student = userRepository.save(User.builder()
+                .name("Version Student")
+                .email("version.student@test.com")
+                .role(Role.STUDENT)
+                .build());
+        Course course = courseRepository.save(Course.builder()
+                .title("Data Structures")
+                .teacher(teacher)
+                .startDate(LocalDate.now())
+                .build());
+        Module module = moduleRepository.save(Module.builder()
+                .title("Linear structures")
+                .course(course)
+                .build());
+        Lesson lesson = lessonRepository.save(Lesson.builder()
+                .title("Stacks")
+                .orderIndex(0)
+                .module(module)
+                .build());
+        assignment = assignmentRepository.save(Assignment.builder()
+                .title("Describe a stack")
+                .lesson(lesson)
+                .build());
+    }
+
+    @Test
+    void shouldKeepEarlierVersionsAsDeltas() {
+        SubmissionDTO first = submit(DRAFT);
+        submissionService.rejectSubmission(first.getId(), "Mention an application");
+
+        String second = DRAFT + " Stacks are used to evaluate expressions.";
+        submit(second);
+        String third = second.replace("constant time", "O(1) time");
+        SubmissionDTO latest = submit(third);
+
+        assertThat(latest.getId()).isEqualTo(first.getId());
+        assertThat(latest.getVersionNumber()).isEqualTo(3);
+        assertThat(latest.getStatus()).isEqualTo(SubmissionStatus.SUBMITTED);
+        assertThat(latest.getFeedback()).isNull();
+        assertThat(latest.getContent()).isEqualTo(third);
+
+        entityManager.flush();
+        entityManager.clear();
+
+        List<SubmissionVersionDTO> versions = submissionVersionService.getVersions(first.getId());
+        assertThat(versions).extracting(SubmissionVersionDTO::getVersionNumber).containsExactly(3, 2, 1);
+        assertThat(versions.get(2).getStatus()).isEqualTo(SubmissionStatus.REJECTED);
+        assertThat(versions.get(1).getStoredSize()).isLessThan(versions.get(1).getContentSize());
+
+        assertThat(submissionVersionService.getVersion(first.getId(), 1).getContent()).isEqualTo(DRAFT);
+        assertThat(submissionVersionService.getVersion(first.getId(), 2).getContent()).isEqualTo(second);
+        assertThat(submissionVersionService.getVersion(first.getId(), 3).getContent()).isEqualTo(third);
+    }
+
+    @Test
+    void shouldReleaseSupersededTextOnceUnreferenced() {
+        SubmissionDTO first = submit(DRAFT + " Released.");
+        SubmissionDTO second = submit(DRAFT + " Released, then edited.");
+        entityManager.flush();
+        // Past any filesystem timestamp granularity
+        Instant supersededAt = Instant.now().plusSeconds(1);
+
+        assertThat(submissionVersionService.releaseSupersededText(second.getContentHash(), supersededAt)).isFalse();
+        assertThat(submissionVersionService.releaseSupersededText(first.getContentHash(), supersededAt)).isTrue();
+        assertThat(blobStore.find(first.getContentHash())).isEmpty();
+
+        // Earlier versions are rebuilt from the latest text and their deltas alone
+        assertThat(submissionVersionService.getVersion(first.getId(), 1).getContent()).isEqualTo(DRAFT + " Released.");
+    }
+
+    @Test
+    void shouldListLatestVersionsWithoutReadingHistory() {
+        submit(DRAFT);
+        submit(DRAFT + " Edited.");
+        entityManager.flush();
+        entityManager.clear();
+
+        Statistics statistics = entityManager.getEntityManagerFactory()
+                .unwrap(SessionFactory.class)
+                .getStatistics();
+        statistics.clear();
+
+        List<SubmissionDTO> submissions = submissionService.getSubmissionsByAssignment(assignment.getId());
+
+        assertThat(submissions).singleElement().satisfies(s -> assertThat(s.getVersionNumber()).isEqualTo(2));
+        assertThat(statistics.getEntityStatistics(SubmissionVersion.class.getName()).getLoadCount()).isZero();
+        assertThat(statistics.getCollectionFetchCount()).isZero();
+    }
+
+    @Test
+    void shouldNotResubmitAcceptedSubmission() {
+        SubmissionDTO first = submit(DRAFT);
+        submissionService.acceptSubmission(first.getId());
+
+        assertThatThrownBy(() -> submit(DRAFT + " Again."))
+                .isInstanceOf(BusinessLogicException.class);
+    }
+
+    private SubmissionDTO submit(String content) {
+        return submissionService.submitAssignment(SubmissionDTO.builder()
+                .assignmentId(assignment.getId())
+                .studentId(student.getId())
+                .content(content)
+                .build());
+    }
+}
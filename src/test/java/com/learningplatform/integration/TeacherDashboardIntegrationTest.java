@@ -0,0 +1,205 @@
+package com.learningplatform.integration;
+
+import com.learningplatform.dto.TeacherDashboardDTO;
+import com.learningplatform.entity.*;
+import com.learningplatform.entity.Module;
+import com.learningplatform.exception.BusinessLogicException;
+import com.learningplatform.repository.*;
+import com.learningplatform.service.TeacherDashboardService;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+@SpringBootTest
+@ActiveProfiles("test")
+@Transactional
+class TeacherDashboardIntegrationTest {
+
+    @Autowired
+    private TeacherDashboardService teacherDashboardService;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private CourseRepository courseRepository;
+
+    @Autowired
+    private ModuleRepository moduleRepository;
+
+    @Autowired
+    private LessonRepository lessonRepository;
+
+    @Autowired
+    private AssignmentRepository assignmentRepository;
+
+    @Autowired
+    private SubmissionRepository submissionRepository;
+
+    @Autowired
+    private EnrollmentRepository enrollmentRepository;
+
+    @Autowired
+    private CourseReviewRepository courseReviewRepository;
+
+    @Autowired
+    private QuizRepository quizRepository;
+
+    @Autowired
+    private QuizSubmissionRepository quizSubmissionRepository;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private User teacher;
+    private Course busy;
+    private Course empty;
+
+    @BeforeEach
+    void setUp() {
+        teacher = userRepository.save(User.builder()
+                .name("Dashboard Teacher")
+                .email("teacher.dashboard@test.com")
+                .role(Role.TEACHER)
+                .build());
+        User otherTeacher = userRepository.save(User.builder()
+                .name("Other Teacher")
+                .email("teacher.dashboard.other@test.com")
+                .role(Role.TEACHER)
+                .build());
+
+        busy = createCourse(teacher, "Busy Course");
+        empty = createCourse(teacher, "Empty Course");
+        Course other = createCourse(otherTeacher, "Other Course");
+
+        Module module = moduleRepository.save(Module.builder().title("Module").course(busy).build());
+        Lesson lesson = lessonRepository.save(Lesson.builder().title("Lesson").module(module).build());
+        Assignment assignment = assignmentRepository.save(
+                Assignment.builder().title("Essay").maxScore(10).lesson(lesson).build());
+        Quiz quiz = quizRepository.save(Quiz.builder().title("Quiz").module(module).build());
+
+        List<User> students = new ArrayList<>();
+        for (int i = 0; i < 4; i++) {
+            students.add(userRepository.save(User.builder()
+                    .name("Dashboard Student " + i)
+                    .email("teacher.dashboard.student" + i + "@test.com")
+                    .role(Role.STUDENT)
+                    .build()));
+        }
+
+        // 4 enrollments, 1 completed and 1 dropped
+        for (int i = 0; i < students.size(); i++) {
+            EnrollmentStatus status = i == 0 ? EnrollmentStatus.COMPLETED
+                    : i == 1 ? EnrollmentStatus.DROPPED : EnrollmentStatus.ACTIVE;
+            enrollmentRepository.save(Enrollment.builder().student(students.get(i)).course(busy).status(status).build());
+        }
+        enrollmentRepository.save(Enrollment.builder().student(students.get(0)).course(other).build());
+
+        courseReviewRepository.save(CourseReview.builder().course(busy).student(students.get(0)).rating(5).build());
+        courseReviewRepository.save(CourseReview.builder().course(busy).student(students.get(1)).rating(4).build());
+
+        // 2 of 3 submissions still pending
+        for (int i = 0; i < 3; i++) {
+            submissionRepository.save(Submission.builder()
+                    .assignment(assignment)
+                    .student(students.get(i))
+                    .submittedAt(LocalDateTime.now())
+                    .status(i == 0 ? SubmissionStatus.REVIEWED : SubmissionStatus.SUBMITTED)
+                    .build());
+        }
+
+        // 3 of 4 attempts passed
+        for (int i = 0; i < 4; i++) {
+            quizSubmissionRepository.save(QuizSubmission.builder()
+                    .quiz(quiz)
+                    .student(students.get(i))
+                    .score(i == 3 ? 40 : 80)
+                    .passed(i != 3)
+                    .build());
+        }
+        entityManager.flush();
+    }
+
+    @Test
+    void shouldComputeAllCourseFiguresInOneQuery() {
+        entityManager.clear();
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+
+        TeacherDashboardDTO dashboard = teacherDashboardService.getDashboard(teacher.getId());
+
+        assertThat(dashboard.getEnrollments()).isEqualTo(4);
+        assertThat(dashboard.getPendingSubmissions()).isEqualTo(2);
+        assertThat(dashboard.getCourses()).extracting(TeacherDashboardDTO.CourseStats::getCourseId)
+                .containsExactly(busy.getId(), empty.getId());
+
+        TeacherDashboardDTO.CourseStats stats = dashboard.getCourses().get(0);
+        assertThat(stats.getEnrollments()).isEqualTo(4);
+        assertThat(stats.getCompletedEnrollments()).isEqualTo(1);
+        assertThat(stats.getCompletionRate()).isEqualTo(0.25);
+        assertThat(stats.getAverageRating()).isEqualTo(4.5);
+        assertThat(stats.getReviews()).isEqualTo(2);
+        assertThat(stats.getPendingSubmissions()).isEqualTo(2);
+        assertThat(stats.getQuizAttempts()).isEqualTo(4);
+        assertThat(stats.getQuizPassRate()).isEqualTo(0.75);
+
+        TeacherDashboardDTO.CourseStats none = dashboard.getCourses().get(1);
+        assertThat(none.getEnrollments()).isZero();
+        assertThat(none.getCompletionRate()).isNull();
+        assertThat(none.getAverageRating()).isNull();
+        assertThat(none.getQuizPassRate()).isNull();
+
+        // Only the teacher lookup goes through Hibernate; the figures come from one JDBC statement
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(1);
+    }
+
+    @Test
+    void shouldServeRepeatedRequestsFromCache() {
+        TeacherDashboardDTO first = teacherDashboardService.getDashboard(teacher.getId());
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+
+        TeacherDashboardDTO second = teacherDashboardService.getDashboard(teacher.getId());
+
+        assertThat(second).isSameAs(first);
+        assertThat(statistics.getPrepareStatementCount()).isZero();
+    }
+
+    @Test
+    void shouldRejectNonTeacher() {
+        User student = userRepository.save(User.builder()
+                .name("Not A Teacher")
+                .email("teacher.dashboard.notateacher@test.com")
+                .role(Role.STUDENT)
+                .build());
+
+        assertThatThrownBy(() -> teacherDashboardService.getDashboard(student.getId()))
+                .isInstanceOf(BusinessLogicException.class);
+    }
+
+    private Course createCourse(User owner, String title) {
+        return courseRepository.save(Course.builder()
+                .title(title)
+                .teacher(owner)
+                .startDate(LocalDate.now())
+                .build());
+    }
+}
@@ -0,0 +1,100 @@
+package com.learningplatform.integration;
+
+import com.learningplatform.dto.UserDTO;
+import com.learningplatform.entity.Role;
+import com.learningplatform.exception.DuplicateResourceException;
+import com.learningplatform.service.LegacyEmailMigrationService;
+import com.learningplatform.service.UserService;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * The lookup cache is written after commit, so this test commits its users and removes them afterwards.
+ */
+@SpringBootTest
+@ActiveProfiles("test")
+class UserEmailLookupIntegrationTest {
+
+    @Autowired
+    private UserService userService;
+
+    @Autowired
+    private LegacyEmailMigrationService migrationService;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @AfterEach
+    void tearDown() {
+        jdbcTemplate.update("DELETE FROM users WHERE LOWER(TRIM(email)) LIKE 'lookup.%'");
+    }
+
+    @Test
+    void shouldRejectDuplicateEmailFromTheConstraintIgnoringCase() {
+        userService.createUser(user("lookup.first@test.com", Role.STUDENT));
+
+        assertThatThrownBy(() -> userService.createUser(user(" Lookup.First@Test.com", Role.TEACHER)))
+                .isInstanceOf(DuplicateResourceException.class);
+        assertThat(userService.checkEmailAvailability("LOOKUP.FIRST@test.com").isAvailable()).isFalse();
+        assertThat(userService.checkEmailAvailability("lookup.unused@test.com").isAvailable()).isTrue();
+    }
+
+    @Test
+    void shouldResolveFromCacheAndFollowUpdates() {
+        UserDTO created = userService.createUser(user("lookup.cached@test.com", Role.STUDENT));
+        Statistics statistics = statistics();
+
+        assertThat(userService.resolveUserByEmail("Lookup.Cached@test.com").getId()).isEqualTo(created.getId());
+        assertThat(statistics.getPrepareStatementCount()).isZero();
+
+        userService.updateUser(created.getId(), user("lookup.renamed@test.com", Role.TEACHER));
+
+        assertThat(userService.resolveUserByEmail("lookup.renamed@test.com").getRole()).isEqualTo(Role.TEACHER);
+        assertThat(userService.checkEmailAvailability("lookup.cached@test.com").isAvailable()).isTrue();
+    }
+
+    @Test
+    void shouldNormalizeLegacyEmailsUnlessTakenByAnotherUser() {
+        insertLegacyUser(" Lookup.Legacy@Test.com");
+        insertLegacyUser("lookup.taken@test.com");
+        insertLegacyUser("Lookup.Taken@test.com");
+
+        assertThat(migrationService.migrate()).isEqualTo(1);
+
+        assertThat(userService.getUserByEmail("lookup.legacy@test.com").getEmail()).isEqualTo("lookup.legacy@test.com");
+        assertThat(jdbcTemplate.queryForList("SELECT email FROM users WHERE email LIKE ? ORDER BY email",
+                String.class, "%ookup.%aken@test.com")).containsExactly("Lookup.Taken@test.com", "lookup.taken@test.com");
+        assertThat(migrationService.migrate()).isZero();
+    }
+
+    private void insertLegacyUser(String email) {
+        jdbcTemplate.update("INSERT INTO users (name, email, role) VALUES (?, ?, ?)", "Legacy User", email, "STUDENT");
+    }
+
+    private static UserDTO user(String email, Role role) {
+        return UserDTO.builder()
+                .name("Lookup User")
+                .email(email)
+                .role(role)
+                .build();
+    }
+
+    private Statistics statistics() {
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+        return statistics;
+    }
+}
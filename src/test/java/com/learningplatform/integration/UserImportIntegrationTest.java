@@ -0,0 +1,140 @@
+package com.learningplatform.integration;
+
+import com.learningplatform.dto.UserDTO;
+import com.learningplatform.dto.UserImportResultDTO;
+import com.learningplatform.entity.Role;
+import com.learningplatform.service.UserImportService;
+import com.learningplatform.service.UserService;
+import com.learningplatform.storage.BlobStore;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * The import commits chunk by chunk, so this test removes its users afterwards.
+ */
+@SpringBootTest
+@ActiveProfiles("test")
+class UserImportIntegrationTest {
+
+    @Autowired
+    private UserImportService userImportService;
+
+    @Autowired
+    private UserService userService;
+
+    @Autowired
+    private BlobStore blobStore;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @AfterEach
+    void tearDown() {
+        jdbcTemplate.update("DELETE FROM profiles WHERE user_id IN (SELECT id FROM users WHERE LOWER(email) LIKE 'import.%')");
+        jdbcTemplate.update("DELETE FROM users WHERE LOWER(email) LIKE 'import.%'");
+    }
+
+    @Test
+    void shouldImportCsvInChunksAndReportRejectedRows() {
+        userService.createUser(UserDTO.builder()
+                .name("Existing User")
+                .email("import.existing@test.com")
+                .role(Role.TEACHER)
+                .build());
+
+        StringBuilder csv = new StringBuilder("Name,Email,Role,Bio,linkedin_url\n");
+        for (int i = 0; i < 2500; i++) {
+            csv.append("Student ").append(i).append(",import.student").append(i).append("@test.com,student,,\n");
+        }
+        csv.append("\"Doe, Jane\",Import.Profile@Test.com,TEACHER,\"Teaches \"\"SQL\"\"\",https://linkedin.com/in/jane\n");
+        csv.append("Copy,import.student7@test.com,STUDENT,,\n");
+        csv.append("Existing,IMPORT.EXISTING@test.com,STUDENT,,\n");
+        csv.append("No Email,,STUDENT,,\n");
+        csv.append("Bad Role,import.badrole@test.com,JANITOR,,\n");
+
+        UserImportResultDTO result = userImportService.importUsers(utf8(csv.toString()), UserImportService.Format.CSV);
+
+        assertThat(result.getRowsRead()).isEqualTo(2505);
+        assertThat(result.getUsersImported()).isEqualTo(2501);
+        assertThat(result.getProfilesImported()).isEqualTo(1);
+        assertThat(result.getRowsRejected()).isEqualTo(4);
+        assertThat(result.getErrors()).extracting(UserImportResultDTO.RowError::getLine)
+                .containsExactlyInAnyOrder(2503L, 2504L, 2505L, 2506L);
+
+        assertThat(jdbcTemplate.queryForObject("SELECT COUNT(*) FROM users WHERE email LIKE 'import.%'", Long.class))
+                .isEqualTo(2502L);
+        assertThat(jdbcTemplate.queryForObject("SELECT p.bio FROM profiles p JOIN users u ON u.id = p.user_id " +
+                "WHERE u.email = 'import.profile@test.com'", String.class)).isEqualTo("Teaches \"SQL\"");
+        assertThat(userService.getUserByEmail("import.profile@test.com").getName()).isEqualTo("Doe, Jane");
+        assertThat(userService.checkEmailAvailability("import.student2000@test.com").isAvailable()).isFalse();
+
+        String report = blobStore.getText(result.getErrorReportUrl().substring(result.getErrorReportUrl().lastIndexOf('/') + 1));
+        assertThat(report).startsWith("line,email,error\n")
+                .contains("2503,import.student7@test.com,Email appears earlier in the upload")
+                .contains("2504,import.existing@test.com,Email is already registered")
+                .contains("2506,import.badrole@test.com,Unknown role 'JANITOR'");
+    }
+
+    @Test
+    void shouldImportNdjsonAndSkipMalformedLines() {
+        String ndjson = "{\"name\":\"Json User\",\"email\":\"import.json@test.com\",\"role\":\"ADMIN\",\"phone\":\"555\"}\n"
+                + "{not json}\n"
+                + "\n"
+                + "{\"name\":\"\",\"email\":\"import.noname@test.com\",\"role\":\"STUDENT\"}\n";
+
+        UserImportResultDTO result = userImportService.importUsers(utf8(ndjson), UserImportService.Format.NDJSON);
+
+        assertThat(result.getUsersImported()).isEqualTo(1);
+        assertThat(result.getProfilesImported()).isEqualTo(1);
+        assertThat(result.getErrors()).extracting(UserImportResultDTO.RowError::getLine).containsExactly(2L, 4L);
+        assertThat(result.getErrors().get(1).getMessage()).isEqualTo("Name is required");
+        assertThat(userService.getUserByEmail("import.json@test.com").getRole()).isEqualTo(Role.ADMIN);
+    }
+
+    @Test
+    void shouldRecognizeEmailsStoredBeforeNormalization() {
+        jdbcTemplate.update("INSERT INTO users (name, email, role) VALUES (?, ?, ?)",
+                "Legacy User", "Import.Legacy@Test.com", "STUDENT");
+
+        UserImportResultDTO result = userImportService.importUsers(
+                utf8("Name,Email,Role\nLegacy Again,import.legacy@test.com,STUDENT\n"), UserImportService.Format.CSV);
+
+        assertThat(result.getUsersImported()).isZero();
+        assertThat(result.getErrors()).extracting(UserImportResultDTO.RowError::getMessage)
+                .containsExactly("Email is already registered");
+        assertThat(jdbcTemplate.queryForObject("SELECT COUNT(*) FROM users WHERE LOWER(email) = 'import.legacy@test.com'",
+                Long.class)).isEqualTo(1L);
+    }
+
+    @Test
+    void shouldRejectFieldsTooLongForTheirColumns() {
+        String longText = "x".repeat(300);
+        String ndjson = "{\"name\":\"" + longText + "\",\"email\":\"import.longname@test.com\",\"role\":\"STUDENT\"}\n"
+                + "{\"name\":\"Long Site\",\"email\":\"import.longsite@test.com\",\"role\":\"STUDENT\","
+                + "\"website\":\"https://" + longText + "\"}\n"
+                + "{\"name\":\"Long Bio\",\"email\":\"import.longbio@test.com\",\"role\":\"STUDENT\","
+                + "\"bio\":\"" + longText + "\"}\n";
+
+        UserImportResultDTO result = userImportService.importUsers(utf8(ndjson), UserImportService.Format.NDJSON);
+
+        assertThat(result.getUsersImported()).isEqualTo(1);
+        assertThat(result.getProfilesImported()).isEqualTo(1);
+        assertThat(result.getErrors()).extracting(UserImportResultDTO.RowError::getMessage).containsExactly(
+                "Name must be at most 255 characters",
+                "Profile field 'website' must be at most 255 characters");
+        assertThat(userService.getUserByEmail("import.longbio@test.com").getName()).isEqualTo("Long Bio");
+    }
+
+    private static ByteArrayInputStream utf8(String text) {
+        return new ByteArrayInputStream(text.getBytes(StandardCharsets.UTF_8));
+    }
+}
@@ -1,6 +1,7 @@
 package com.learningplatform.repository;
 
 import com.learningplatform.entity.*;
+import com.learningplatform.entity.Module;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -122,9 +123,9 @@ class CourseRepositoryTest {
     void shouldFindCourseWithModules() {
         Module module = Module.builder()
                 .title("Module 1")
-                .course(course)
                 .orderIndex(0)
                 .build();
+        course.addModule(module);
         moduleRepository.save(module);
 
         Optional<Course> found = courseRepository.findByIdWithModules(course.getId());
@@ -7,6 +7,7 @@ import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.test.context.ActiveProfiles;
 
 import java.util.List;
@@ -129,4 +130,24 @@ class UserRepositoryTest {
 
         assertThat(found).isPresent();
     }
+
+    @Test
+    void shouldPageSummariesByKeyset() {
+        User second = userRepository.save(User.builder()
+                .name("Second Student")
+                .email("second@test.com")
+                .role(Role.STUDENT)
+                .build());
+
+        List<UserRepository.Summary> first = userRepository.findSummariesAfter(0L, PageRequest.of(0, 2));
+        List<UserRepository.Summary> rest = userRepository.findSummariesAfter(first.get(1).getId(), PageRequest.of(0, 2));
+        List<UserRepository.Summary> students = userRepository.findSummariesByRoleAfter(Role.STUDENT, 0L, PageRequest.of(0, 10));
+
+        assertThat(first).extracting(UserRepository.Summary::getId).containsExactly(teacher.getId(), student.getId());
+        assertThat(first.get(0).getEmail()).isEqualTo("john@test.com");
+        assertThat(first.get(0).getRole()).isEqualTo(Role.TEACHER);
+        assertThat(first.get(0).getCreatedAt()).isNotNull();
+        assertThat(rest).extracting(UserRepository.Summary::getId).containsExactly(second.getId());
+        assertThat(students).extracting(UserRepository.Summary::getName).containsExactly("Jane Student", "Second Student");
+    }
 }
@@ -0,0 +1,119 @@
+package com.learningplatform.service;
+
+import com.learningplatform.dto.EnrollmentDTO;
+import com.learningplatform.dto.NotificationPageDTO;
+import com.learningplatform.dto.StudentDashboardDTO;
+import com.learningplatform.dto.UserDTO;
+import com.learningplatform.entity.Role;
+import com.learningplatform.exception.ResourceNotFoundException;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.Duration;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class StudentDashboardServiceTest {
+
+    @Mock
+    private UserService userService;
+
+    @Mock
+    private EnrollmentService enrollmentService;
+
+    @Mock
+    private AssignmentService assignmentService;
+
+    @Mock
+    private QuizService quizService;
+
+    @Mock
+    private NotificationService notificationService;
+
+    @InjectMocks
+    private StudentDashboardService dashboardService;
+
+    @BeforeEach
+    void setUp() {
+        ReflectionTestUtils.setField(dashboardService, "threads", 4);
+        ReflectionTestUtils.setField(dashboardService, "partTimeout", Duration.ofMillis(300));
+        dashboardService.start();
+    }
+
+    @AfterEach
+    void tearDown() {
+        dashboardService.stop();
+    }
+
+    @Test
+    void shouldComposeAllParts() {
+        stubStudent();
+        when(userService.getProfileByUserId(1L)).thenThrow(new ResourceNotFoundException("Profile", "userId", 1L));
+        when(enrollmentService.getEnrollmentsByStudent(1L)).thenReturn(List.of(EnrollmentDTO.builder().id(5L).build()));
+        when(assignmentService.getAssignmentsForStudent(1L)).thenReturn(List.of());
+        when(quizService.getQuizSubmissionsByStudent(1L)).thenReturn(List.of());
+        when(notificationService.getNotifications(eq(1L), any(), anyInt()))
+                .thenReturn(NotificationPageDTO.builder().items(List.of()).build());
+        when(notificationService.getUnreadCount(1L)).thenReturn(3L);
+
+        StudentDashboardDTO dashboard = dashboardService.getDashboard(1L);
+
+        assertThat(dashboard.getName()).isEqualTo("Dana Student");
+        assertThat(dashboard.getProfile()).isNull();
+        assertThat(dashboard.getEnrollments()).extracting(EnrollmentDTO::getId).containsExactly(5L);
+        assertThat(dashboard.getUnreadNotifications()).isEqualTo(3L);
+        assertThat(dashboard.getFailedParts()).isEmpty();
+    }
+
+    @Test
+    void shouldReturnOtherPartsWhenOneFailsOrTimesOut() {
+        stubStudent();
+        when(enrollmentService.getEnrollmentsByStudent(1L)).thenThrow(new IllegalStateException("database down"));
+        when(quizService.getQuizSubmissionsByStudent(1L)).thenAnswer(invocation -> {
+            Thread.sleep(2000);
+            return List.of();
+        });
+        when(assignmentService.getAssignmentsForStudent(1L)).thenReturn(List.of());
+        when(notificationService.getNotifications(eq(1L), any(), anyInt()))
+                .thenReturn(NotificationPageDTO.builder().items(List.of()).build());
+        when(notificationService.getUnreadCount(1L)).thenReturn(0L);
+
+        long start = System.nanoTime();
+        StudentDashboardDTO dashboard = dashboardService.getDashboard(1L);
+
+        assertThat(Duration.ofNanos(System.nanoTime() - start)).isLessThan(Duration.ofMillis(1500));
+        assertThat(dashboard.getFailedParts()).containsExactly("enrollments", "quizSubmissions");
+        assertThat(dashboard.getEnrollments()).isNull();
+        assertThat(dashboard.getQuizSubmissions()).isNull();
+        assertThat(dashboard.getAssignments()).isEmpty();
+    }
+
+    @Test
+    void shouldFailWholeDashboardForUnknownStudent() {
+        when(userService.getUserById(9L)).thenThrow(new ResourceNotFoundException("User", "id", 9L));
+
+        assertThatThrownBy(() -> dashboardService.getDashboard(9L)).isInstanceOf(ResourceNotFoundException.class);
+        verifyNoInteractions(enrollmentService, assignmentService, quizService, notificationService);
+    }
+
+    private void stubStudent() {
+        when(userService.getUserById(1L)).thenReturn(UserDTO.builder()
+                .id(1L)
+                .name("Dana Student")
+                .email("dana@test.com")
+                .role(Role.STUDENT)
+                .build());
+    }
+}
@@ -1,18 +1,21 @@
 package com.learningplatform.service;
 
 import com.learningplatform.dto.UserDTO;
+import com.learningplatform.dto.UserIdentityDTO;
 import com.learningplatform.entity.Role;
 import com.learningplatform.entity.User;
 import com.learningplatform.exception.DuplicateResourceException;
 import com.learningplatform.exception.ResourceNotFoundException;
 import com.learningplatform.repository.ProfileRepository;
 import com.learningplatform.repository.UserRepository;
+import org.hibernate.exception.ConstraintViolationException;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.DataIntegrityViolationException;
 
 import java.time.LocalDateTime;
 import java.util.Arrays;
@@ -33,6 +36,12 @@ class UserServiceTest {
     @Mock
     private ProfileRepository profileRepository;
 
+    @Mock
+    private NotificationService notificationService;
+
+    @Mock
+    private UserEmailLookupService emailLookupService;
+
     @InjectMocks
     private UserService userService;
 
@@ -59,22 +68,36 @@ class UserServiceTest {
 
     @Test
     void shouldCreateUser() {
-        when(userRepository.existsByEmail(userDTO.getEmail())).thenReturn(false);
-        when(userRepository.save(any(User.class))).thenReturn(user);
+        when(userRepository.saveAndFlush(any(User.class))).thenReturn(user);
 
         UserDTO result = userService.createUser(userDTO);
 
         assertThat(result).isNotNull();
         assertThat(result.getName()).isEqualTo("Test User");
-        verify(userRepository).save(any(User.class));
+        verify(userRepository).saveAndFlush(any(User.class));
+        verify(emailLookupService).putAfterCommit("test@test.com", 1L, Role.STUDENT);
+        verify(userRepository, never()).existsByEmail(any());
     }
 
     @Test
     void shouldThrowExceptionWhenEmailExists() {
-        when(userRepository.existsByEmail(userDTO.getEmail())).thenReturn(true);
+        when(userRepository.saveAndFlush(any(User.class))).thenThrow(new DataIntegrityViolationException("duplicate",
+                new ConstraintViolationException("duplicate", null, "PUBLIC.UK_USERS_EMAIL")));
 
         assertThatThrownBy(() -> userService.createUser(userDTO))
                 .isInstanceOf(DuplicateResourceException.class);
+        verify(emailLookupService, never()).putAfterCommit(any(), any(), any());
+    }
+
+    @Test
+    void shouldResolveCachedEmailWithoutQuery() {
+        when(emailLookupService.get("test@test.com")).thenReturn(new UserEmailLookupService.Identity(1L, Role.STUDENT));
+
+        UserIdentityDTO result = userService.resolveUserByEmail(" Test@Test.com ");
+
+        assertThat(result.getId()).isEqualTo(1L);
+        assertThat(result.getRole()).isEqualTo(Role.STUDENT);
+        verifyNoInteractions(userRepository);
     }
 
     @Test
@@ -130,12 +153,13 @@ class UserServiceTest {
                 .build();
 
         when(userRepository.findById(1L)).thenReturn(Optional.of(user));
-        when(userRepository.save(any(User.class))).thenReturn(user);
+        when(userRepository.saveAndFlush(any(User.class))).thenReturn(user);
 
         UserDTO result = userService.updateUser(1L, updateDTO);
 
         assertThat(result).isNotNull();
-        verify(userRepository).save(any(User.class));
+        verify(userRepository).saveAndFlush(any(User.class));
+        verify(emailLookupService).evict("test@test.com");
     }
 
     @Test
@@ -145,6 +169,8 @@ class UserServiceTest {
 
         userService.deleteUser(1L);
 
+        verify(notificationService).removeReadState(1L);
+        verify(emailLookupService).evict("test@test.com");
         verify(userRepository).delete(user);
     }
 }
@@ -0,0 +1,133 @@
+package com.learningplatform.storage;
+
+import com.learningplatform.exception.ResourceNotFoundException;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.http.HttpHeaders;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.nio.channels.Channels;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class LocalBlobStoreTest {
+
+    // SHA-256 of "hello world"
+    private static final String HELLO_HASH = "b94d27b9934d3e08a52e52d7da7dabfac484efe37a5380ee9088f7ace2efcde9";
+
+    @TempDir
+    Path root;
+
+    private LocalBlobStore store;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        store = new LocalBlobStore();
+        ReflectionTestUtils.setField(store, "rootPath", root.toString());
+        store.init();
+    }
+
+    @Test
+    void shouldStoreByHashInShardedDirectoriesAndDeduplicate() throws Exception {
+        BlobInfo first = store.putText("hello world");
+        BlobInfo second = store.put(new ByteArrayInputStream("hello world".getBytes(StandardCharsets.UTF_8)));
+
+        assertThat(first.getHash()).isEqualTo(HELLO_HASH);
+        assertThat(first.getSize()).isEqualTo(11);
+        assertThat(second).isEqualTo(first);
+        assertThat(root.resolve("b9").resolve("4d").resolve(HELLO_HASH)).exists();
+        try (var files = Files.walk(root)) {
+            assertThat(files.filter(Files::isRegularFile).count()).isEqualTo(1);
+        }
+        assertThat(store.getText(HELLO_HASH)).isEqualTo("hello world");
+    }
+
+    @Test
+    void shouldOnlyDeleteBlobsNotStoredAgainSince() throws Exception {
+        Path blob = root.resolve("b9").resolve("4d").resolve(HELLO_HASH);
+        Instant cutoff = Instant.now().minus(1, ChronoUnit.HOURS);
+        store.putText("hello world");
+        Files.setLastModifiedTime(blob, FileTime.from(cutoff.minus(1, ChronoUnit.HOURS)));
+
+        // Storing the same content again refreshes it
+        store.putText("hello world");
+        assertThat(store.deleteIfNotStoredSince(HELLO_HASH, cutoff)).isFalse();
+        assertThat(blob).exists();
+
+        Files.setLastModifiedTime(blob, FileTime.from(cutoff.minus(1, ChronoUnit.HOURS)));
+        assertThat(store.deleteIfNotStoredSince(HELLO_HASH, cutoff)).isTrue();
+        assertThat(blob).doesNotExist();
+        assertThat(store.deleteIfNotStoredSince(HELLO_HASH, cutoff)).isFalse();
+    }
+
+    @Test
+    void shouldTransferRange() throws Exception {
+        store.putText("hello world");
+
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        long sent = store.transferTo(HELLO_HASH, 6, 100, Channels.newChannel(out));
+
+        assertThat(sent).isEqualTo(5);
+        assertThat(out.toString(StandardCharsets.UTF_8)).isEqualTo("world");
+    }
+
+    @Test
+    void shouldRejectUnknownAndMalformedHashes() {
+        assertThat(store.find("0".repeat(64))).isEmpty();
+        assertThatThrownBy(() -> store.open("0".repeat(64))).isInstanceOf(ResourceNotFoundException.class);
+        assertThatThrownBy(() -> store.find("../etc/passwd")).isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    void shouldServeRangeRequests() throws Exception {
+        store.putText("hello world");
+        BlobDownloadHandler handler = new BlobDownloadHandler(store);
+
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/blobs/" + HELLO_HASH);
+        request.addHeader(HttpHeaders.RANGE, "bytes=-5");
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        handler.write(HELLO_HASH, "hello.txt", "text/plain", request, response);
+
+        assertThat(response.getStatus()).isEqualTo(206);
+        assertThat(response.getHeader(HttpHeaders.CONTENT_RANGE)).isEqualTo("bytes 6-10/11");
+        assertThat(response.getContentAsString()).isEqualTo("world");
+
+        MockHttpServletRequest beyond = new MockHttpServletRequest("GET", "/api/blobs/" + HELLO_HASH);
+        beyond.addHeader(HttpHeaders.RANGE, "bytes=20-");
+        MockHttpServletResponse unsatisfiable = new MockHttpServletResponse();
+        handler.write(HELLO_HASH, null, null, beyond, unsatisfiable);
+
+        assertThat(unsatisfiable.getStatus()).isEqualTo(416);
+        assertThat(unsatisfiable.getHeader(HttpHeaders.CONTENT_RANGE)).isEqualTo("bytes */11");
+
+        // Positions too large for a long
+        MockHttpServletRequest overflow = new MockHttpServletRequest("GET", "/api/blobs/" + HELLO_HASH);
+        overflow.addHeader(HttpHeaders.RANGE, "bytes=99999999999999999999-");
+        MockHttpServletResponse overflowed = new MockHttpServletResponse();
+        handler.write(HELLO_HASH, null, null, overflow, overflowed);
+
+        assertThat(overflowed.getStatus()).isEqualTo(416);
+        assertThat(overflowed.getHeader(HttpHeaders.CONTENT_RANGE)).isEqualTo("bytes */11");
+
+        MockHttpServletRequest wholeBlob = new MockHttpServletRequest("GET", "/api/blobs/" + HELLO_HASH);
+        wholeBlob.addHeader(HttpHeaders.RANGE, "bytes=0-99999999999999999999");
+        MockHttpServletResponse whole = new MockHttpServletResponse();
+        handler.write(HELLO_HASH, null, null, wholeBlob, whole);
+
+        assertThat(whole.getStatus()).isEqualTo(206);
+        assertThat(whole.getHeader(HttpHeaders.CONTENT_RANGE)).isEqualTo("bytes 0-10/11");
+        assertThat(whole.getContentAsString()).isEqualTo("hello world");
+    }
+}
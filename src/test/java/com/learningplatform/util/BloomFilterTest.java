@@ -0,0 +1,61 @@
+package com.learningplatform.util;
+
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class BloomFilterTest {
+
+    @Test
+    void shouldContainEveryAddedValue() {
+        BloomFilter filter = new BloomFilter(10_000, 0.001);
+        CertificateNumberGenerator generator = new CertificateNumberGenerator(1);
+        String[] numbers = new String[10_000];
+        for (int i = 0; i < numbers.length; i++) {
+            numbers[i] = generator.next();
+            filter.add(numbers[i]);
+        }
+
+        for (String number : numbers) {
+            assertThat(filter.mightContain(number)).isTrue();
+        }
+        assertThat(filter.getAddedCount()).isEqualTo(10_000);
+        assertThat(filter.isSaturated()).isFalse();
+    }
+
+    @Test
+    void shouldKeepFalsePositivesNearTheTargetRate() {
+        BloomFilter filter = new BloomFilter(10_000, 0.001);
+        CertificateNumberGenerator issued = new CertificateNumberGenerator(1);
+        for (int i = 0; i < 10_000; i++) {
+            filter.add(issued.next());
+        }
+
+        // Same clock and sequences, other node: numbers that differ from issued ones in a few digits only
+        CertificateNumberGenerator unknown = new CertificateNumberGenerator(2);
+        int falsePositives = 0;
+        for (int i = 0; i < 100_000; i++) {
+            if (filter.mightContain(unknown.next())) {
+                falsePositives++;
+            }
+        }
+        assertThat(falsePositives).isLessThan(300);
+    }
+
+    @Test
+    void shouldReportSaturationPastItsCapacity() {
+        BloomFilter filter = new BloomFilter(2, 0.01);
+        filter.add("a");
+        filter.add("b");
+        assertThat(filter.isSaturated()).isFalse();
+        filter.add("c");
+        assertThat(filter.isSaturated()).isTrue();
+    }
+
+    @Test
+    void shouldRejectInvalidSizing() {
+        assertThatThrownBy(() -> new BloomFilter(0, 0.01)).isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> new BloomFilter(100, 1.0)).isInstanceOf(IllegalArgumentException.class);
+    }
+}
@@ -0,0 +1,84 @@
+package com.learningplatform.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class CertificateNumberGeneratorTest {
+
+    private static final long NOW = 1_760_000_000_000L;
+
+    @Test
+    void shouldIssueValidIncreasingNumbersWithinOneMillisecond() {
+        CertificateNumberGenerator generator = new CertificateNumberGenerator(7, () -> NOW);
+
+        // More than one millisecond's sequence: the overflow borrows the next millisecond
+        List<String> numbers = new ArrayList<>();
+        for (int i = 0; i < 10_000; i++) {
+            numbers.add(generator.next());
+        }
+
+        assertThat(numbers).allMatch(CertificateNumberGenerator::isValid);
+        assertThat(numbers).allMatch(n -> n.length() == CertificateNumberGenerator.LENGTH && n.startsWith("CERT-"));
+        assertThat(numbers).isSortedAccordingTo(String::compareTo);
+        assertThat(new HashSet<>(numbers)).hasSize(numbers.size());
+    }
+
+    @Test
+    void shouldNeverRepeatWhenTheClockStepsBack() {
+        AtomicLong clock = new AtomicLong(NOW);
+        CertificateNumberGenerator generator = new CertificateNumberGenerator(1, clock::get);
+
+        String before = generator.next();
+        clock.addAndGet(-5_000);
+        String after = generator.next();
+
+        assertThat(after).isGreaterThan(before);
+    }
+
+    @Test
+    void shouldStayUniqueAcrossThreadsAndNodes() throws InterruptedException {
+        CertificateNumberGenerator first = new CertificateNumberGenerator(1);
+        CertificateNumberGenerator second = new CertificateNumberGenerator(2);
+        Set<String> numbers = ConcurrentHashMap.newKeySet();
+
+        List<Thread> threads = new ArrayList<>();
+        for (int t = 0; t < 8; t++) {
+            CertificateNumberGenerator generator = t % 2 == 0 ? first : second;
+            Thread thread = new Thread(() -> {
+                for (int i = 0; i < 20_000; i++) {
+                    numbers.add(generator.next());
+                }
+            });
+            threads.add(thread);
+            thread.start();
+        }
+        for (Thread thread : threads) {
+            thread.join();
+        }
+
+        assertThat(numbers).hasSize(8 * 20_000);
+    }
+
+    @Test
+    void shouldRejectMistypedNumbers() {
+        String number = new CertificateNumberGenerator(3, () -> NOW).next();
+        char[] chars = number.toCharArray();
+        int last = chars.length - 3;
+        chars[last] = chars[last] == 'A' ? 'B' : 'A';
+
+        assertThat(CertificateNumberGenerator.isValid(number.toLowerCase())).isTrue();
+        assertThat(CertificateNumberGenerator.isValid(new String(chars))).isFalse();
+        assertThat(CertificateNumberGenerator.isValid("CERT-1234ABCD")).isFalse();
+        assertThat(CertificateNumberGenerator.isValid(number.replace('0', 'I'))).isFalse();
+        assertThatThrownBy(() -> new CertificateNumberGenerator(1024)).isInstanceOf(IllegalArgumentException.class);
+    }
+}
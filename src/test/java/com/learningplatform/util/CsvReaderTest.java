@@ -0,0 +1,42 @@
+package com.learningplatform.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class CsvReaderTest {
+
+    @Test
+    void shouldReadPlainAndQuotedFields() throws IOException {
+        CsvReader reader = new CsvReader(new StringReader(
+                "name,email,bio\r\nAda,ada@test.com,\"Likes \"\"engines\"\", and\nmath\"\nBob,,\n"));
+
+        assertThat(reader.next()).containsExactly("name", "email", "bio");
+        assertThat(reader.getRecordLine()).isEqualTo(1);
+        assertThat(reader.next()).containsExactly("Ada", "ada@test.com", "Likes \"engines\", and\nmath");
+        assertThat(reader.getRecordLine()).isEqualTo(2);
+        assertThat(reader.next()).containsExactly("Bob", "", "");
+        assertThat(reader.getRecordLine()).isEqualTo(4);
+        assertThat(reader.next()).isNull();
+    }
+
+    @Test
+    void shouldReadLastRecordWithoutLineBreak() throws IOException {
+        CsvReader reader = new CsvReader(new StringReader("a,b"));
+
+        assertThat(reader.next()).isEqualTo(List.of("a", "b"));
+        assertThat(reader.next()).isNull();
+    }
+
+    @Test
+    void shouldRejectUnclosedQuote() {
+        CsvReader reader = new CsvReader(new StringReader("a,\"open\n"));
+
+        assertThatThrownBy(reader::next).isInstanceOf(IllegalArgumentException.class);
+    }
+}
@@ -0,0 +1,64 @@
+package com.learningplatform.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class HierarchicalTimerWheelTest {
+
+    private static final long TICK = 1000L;
+
+    @Test
+    void shouldExpireTimeoutsAtTheirDeadline() {
+        HierarchicalTimerWheel<String> wheel = new HierarchicalTimerWheel<>(TICK, 0L);
+        wheel.schedule("soon", 3 * TICK);
+        wheel.schedule("later", 70 * TICK);
+
+        assertThat(wheel.advance(2 * TICK)).isEmpty();
+        assertThat(wheel.advance(3 * TICK)).containsExactly("soon");
+        assertThat(wheel.advance(69 * TICK)).isEmpty();
+        assertThat(wheel.advance(70 * TICK)).containsExactly("later");
+        assertThat(wheel.size()).isZero();
+    }
+
+    @Test
+    void shouldCascadeDeadlinesFromOuterLevels() {
+        HierarchicalTimerWheel<Long> wheel = new HierarchicalTimerWheel<>(TICK, 0L);
+        long[] deadlines = {1, 63, 64, 65, 4095, 4096, 4158, 262_143, 262_144, 300_000};
+        for (long deadline : deadlines) {
+            wheel.schedule(deadline, deadline * TICK);
+        }
+
+        List<Long> fired = new ArrayList<>();
+        for (long now = 1; now <= 300_000; now++) {
+            for (Long deadline : wheel.advance(now * TICK)) {
+                assertThat(deadline).isEqualTo(now);
+                fired.add(deadline);
+            }
+        }
+        assertThat(fired).hasSize(deadlines.length);
+    }
+
+    @Test
+    void shouldNotFireCancelledTimeouts() {
+        HierarchicalTimerWheel<String> wheel = new HierarchicalTimerWheel<>(TICK, 0L);
+        HierarchicalTimerWheel.Timeout<String> timeout = wheel.schedule("cancelled", 5 * TICK);
+        wheel.schedule("kept", 5 * TICK);
+
+        assertThat(wheel.cancel(timeout)).isTrue();
+        assertThat(wheel.cancel(timeout)).isFalse();
+        assertThat(wheel.advance(10 * TICK)).containsExactly("kept");
+    }
+
+    @Test
+    void shouldFirePastDeadlinesOnNextTick() {
+        HierarchicalTimerWheel<String> wheel = new HierarchicalTimerWheel<>(TICK, 0L);
+        wheel.advance(100 * TICK);
+        wheel.schedule("overdue", 10 * TICK);
+
+        assertThat(wheel.advance(101 * TICK)).containsExactly("overdue");
+    }
+}
@@ -0,0 +1,69 @@
+package com.learningplatform.util;
+
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.within;
+
+class MinHashTest {
+
+    private static final String ESSAY = "The mitochondria is the powerhouse of the cell. It produces energy " +
+            "in the form of ATP through cellular respiration, which takes place in the inner membrane. " +
+            "Cells with high energy demands, such as muscle cells, contain many mitochondria.";
+
+    @Test
+    void shouldIgnoreCaseAndPunctuation() {
+        int[] original = MinHash.signature(ESSAY);
+        int[] reformatted = MinHash.signature(ESSAY.toUpperCase().replace(".", " !  "));
+
+        assertThat(MinHash.estimateSimilarity(original, reformatted)).isEqualTo(1.0);
+        assertThat(MinHash.bandKeys(original)).containsExactly(MinHash.bandKeys(reformatted));
+    }
+
+    @Test
+    void shouldEstimateHighSimilarityForLightEdits() {
+        String edited = ESSAY.replace("powerhouse", "power plant").replace("many", "lots of");
+
+        double similarity = MinHash.estimateSimilarity(MinHash.signature(ESSAY), MinHash.signature(edited));
+
+        // 31 of 43 distinct shingles are shared: Jaccard 0.72
+        assertThat(similarity).isCloseTo(0.72, within(0.15));
+        assertThat(sharesBand(ESSAY, edited)).isTrue();
+    }
+
+    @Test
+    void shouldEstimateLowSimilarityForUnrelatedTexts() {
+        String other = "Photosynthesis converts light energy into chemical energy stored in glucose. " +
+                "It happens in the chloroplasts of plant cells and releases oxygen as a by-product.";
+
+        assertThat(MinHash.estimateSimilarity(MinHash.signature(ESSAY), MinHash.signature(other))).isLessThan(0.1);
+        assertThat(sharesBand(ESSAY, other)).isFalse();
+    }
+
+    @Test
+    void shouldRoundTripEncodedSignature() {
+        int[] signature = MinHash.signature(ESSAY);
+        byte[] encoded = MinHash.encode(signature);
+
+        assertThat(encoded).hasSize(MinHash.SIGNATURE_BYTES);
+        assertThat(MinHash.decode(encoded)).containsExactly(signature);
+    }
+
+    @Test
+    void shouldReturnNullForTextWithoutWords() {
+        assertThat(MinHash.signature(null)).isNull();
+        assertThat(MinHash.signature(" ... !? ")).isNull();
+        assertThat(MinHash.signature("short")).hasSize(MinHash.HASHES);
+    }
+
+    private static boolean sharesBand(String a, String b) {
+        long[] keysA = MinHash.bandKeys(MinHash.signature(a));
+        long[] keysB = MinHash.bandKeys(MinHash.signature(b));
+        for (int band = 0; band < MinHash.BANDS; band++) {
+            if (keysA[band] == keysB[band]) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
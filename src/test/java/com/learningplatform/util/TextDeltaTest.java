@@ -0,0 +1,67 @@
+package com.learningplatform.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Random;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class TextDeltaTest {
+
+    @Test
+    void shouldRebuildTargetFromBase() {
+        byte[] base = utf8("The quick brown fox jumps over the lazy dog. Pack my box with five dozen liquor jugs.");
+        byte[] target = utf8("The quick red fox jumps over the lazy cat. Pack my box with five dozen liquor jugs!");
+
+        assertThat(TextDelta.apply(base, TextDelta.encode(base, target))).isEqualTo(target);
+    }
+
+    @Test
+    void shouldEncodeSmallEditOfLargeTextCompactly() {
+        byte[] base = randomText(200_000, 42);
+        String text = new String(base, StandardCharsets.US_ASCII);
+        byte[] target = utf8(text.substring(0, 50_000) + "an inserted sentence, with ümlauts. "
+                + text.substring(50_100, 150_000) + text.substring(150_500));
+
+        byte[] delta = TextDelta.encode(base, target);
+
+        assertThat(delta.length).isLessThan(200);
+        assertThat(TextDelta.apply(base, delta)).isEqualTo(target);
+    }
+
+    @Test
+    void shouldHandleEmptyAndUnrelatedInputs() {
+        byte[] text = randomText(5_000, 7);
+
+        assertThat(TextDelta.apply(new byte[0], TextDelta.encode(new byte[0], text))).isEqualTo(text);
+        assertThat(TextDelta.apply(text, TextDelta.encode(text, new byte[0]))).isEmpty();
+        assertThat(TextDelta.apply(text, TextDelta.encode(text, randomText(3_000, 8)))).isEqualTo(randomText(3_000, 8));
+    }
+
+    @Test
+    void shouldRejectCorruptDelta() {
+        byte[] base = randomText(1_000, 1);
+        byte[] delta = TextDelta.encode(base, randomText(1_000, 2));
+
+        assertThatThrownBy(() -> TextDelta.apply(base, new byte[]{1, 2, 3}))
+                .isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> TextDelta.apply(new byte[0], TextDelta.encode(base, base)))
+                .isInstanceOf(IllegalArgumentException.class);
+        assertThat(TextDelta.apply(base, delta)).isEqualTo(randomText(1_000, 2));
+    }
+
+    private static byte[] utf8(String text) {
+        return text.getBytes(StandardCharsets.UTF_8);
+    }
+
+    private static byte[] randomText(int length, long seed) {
+        Random random = new Random(seed);
+        byte[] text = new byte[length];
+        for (int i = 0; i < length; i++) {
+            text[i] = (byte) (random.nextInt(5) == 0 ? ' ' : 'a' + random.nextInt(26));
+        }
+        return text;
+    }
+}